@@ -0,0 +1,69 @@
+// Test de charge k6 : catalogue (lecture) et réservations (écriture) sous 1k à 10k clients simultanés.
+//
+// Usage :
+//   k6 run -e BASE_URL=http://localhost:8080 -e TOKEN=<jwt> -e SPECTACLE_ID=1 bench/load-test.js
+//
+// Lancer le même scénario une fois avec VIRTUAL_THREADS=false puis avec VIRTUAL_THREADS=true
+// (même machine, même base, même jeu de données) et comparer les résumés k6.
+//
+// Pour comparer le catalogue réactif (profil "reactive") au catalogue servlet :
+//   k6 run -e CATALOG_PREFIX=/api/reactive/spectacles ... bench/load-test.js
+
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const TOKEN = __ENV.TOKEN;
+const SPECTACLE_ID = __ENV.SPECTACLE_ID || '1';
+const CATALOG_PREFIX = __ENV.CATALOG_PREFIX || '/api/spectacles';
+
+const stages = [
+    { duration: '1m', target: 1000 },
+    { duration: '2m', target: 1000 },
+    { duration: '1m', target: 5000 },
+    { duration: '2m', target: 5000 },
+    { duration: '1m', target: 10000 },
+    { duration: '2m', target: 10000 },
+    { duration: '30s', target: 0 },
+];
+
+export const options = {
+    scenarios: {
+        catalog: {
+            executor: 'ramping-vus',
+            exec: 'catalog',
+            stages: stages,
+        },
+        reservations: {
+            executor: 'ramping-vus',
+            exec: 'reservations',
+            stages: stages.map(s => ({ duration: s.duration, target: Math.ceil(s.target / 10) })),
+        },
+    },
+    thresholds: {
+        'http_req_duration{scenario:catalog}': ['p(99)<1000'],
+        'http_req_duration{scenario:reservations}': ['p(99)<2000'],
+    },
+};
+
+export function catalog() {
+    const list = http.get(`${BASE_URL}${CATALOG_PREFIX}?page=0&size=20`, { tags: { endpoint: 'list' } });
+    check(list, { 'liste 200': r => r.status === 200 });
+
+    const detail = http.get(`${BASE_URL}${CATALOG_PREFIX}/${SPECTACLE_ID}`, { tags: { endpoint: 'detail' } });
+    check(detail, { 'détail 200': r => r.status === 200 });
+}
+
+export function reservations() {
+    const params = {
+        headers: {
+            'Content-Type': 'application/json',
+            'Authorization': `Bearer ${TOKEN}`,
+        },
+        tags: { endpoint: 'reserve' },
+    };
+    const body = JSON.stringify({ spectacleId: Number(SPECTACLE_ID), quantity: 1 });
+    const res = http.post(`${BASE_URL}/api/reservations`, body, params);
+    // 409 attendu une fois le spectacle complet : la charge sur le verrou pessimiste reste identique
+    check(res, { 'réservation 201/409': r => r.status === 201 || r.status === 409 });
+}
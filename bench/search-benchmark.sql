@@ -0,0 +1,50 @@
+-- Comparaison de latence : recherche LIKE actuelle vs tsvector/GIN (app.search.mode=database) sur 1M lignes.
+--
+-- Usage (base de test dédiée, script db/manual/spectacle_search_vector.sql appliqué pour créer
+-- la colonne search_vector, l'index GIN et la configuration fr_unaccent) :
+--   psql -d archiapp_bench -f bench/search-benchmark.sql
+--
+-- Relever le temps d'exécution ("Execution Time") de chaque EXPLAIN ANALYZE, après un premier passage
+-- pour chauffer le cache de PostgreSQL.
+
+INSERT INTO spectacles (title, description, date, price, available_tickets, version, created_at, updated_at,
+                        created_by, updated_by)
+SELECT (ARRAY['Roméo et Juliette', 'Le Malade imaginaire', 'Hamlet', 'Phèdre', 'Cyrano de Bergerac',
+              'Les Fourberies de Scapin', 'Tartuffe', 'Le Cid'])[1 + i % 8] || ' ' || i,
+       'Représentation numéro ' || i || ' - mise en scène ' || md5(i::text),
+       now() + (i % 365) * interval '1 day',
+       10 + (i % 90),
+       i % 500,
+       0, now(), now(), 'bench', 'bench'
+FROM generate_series(1, 1000000) AS i;
+
+ANALYZE spectacles;
+
+-- Recherche actuelle (SpectacleRepository.searchSpectacles)
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT id FROM spectacles
+WHERE LOWER(title) LIKE '%romeo%' OR LOWER(description) LIKE '%romeo%'
+ORDER BY id LIMIT 20;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT id FROM spectacles
+WHERE LOWER(title) LIKE '%roméo%' OR LOWER(description) LIKE '%roméo%'
+ORDER BY id LIMIT 20;
+
+-- Recherche en base (DatabaseSpectacleSearch), première page
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT id, rank FROM (
+    SELECT s.id, ts_rank(s.search_vector, q) AS rank
+    FROM spectacles s, to_tsquery('fr_unaccent', 'romeo') q
+    WHERE s.search_vector @@ q) ranked
+WHERE rank < 3.4028235e38 OR (rank = 3.4028235e38 AND id > 0)
+ORDER BY rank DESC, id ASC LIMIT 21;
+
+-- Recherche en base, saisie partielle (préfixe)
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT id, rank FROM (
+    SELECT s.id, ts_rank(s.search_vector, q) AS rank
+    FROM spectacles s, to_tsquery('fr_unaccent', 'cyrano & berg:*') q
+    WHERE s.search_vector @@ q) ranked
+WHERE rank < 3.4028235e38 OR (rank = 3.4028235e38 AND id > 0)
+ORDER BY rank DESC, id ASC LIMIT 21;
@@ -0,0 +1,50 @@
+-- Comparaison de latence : trois requêtes séquentielles (SUM, COUNT, GROUP BY) vs une seule requête
+-- groupée (SalesStatisticsService.getLiveStatistics) sur 10M réservations.
+--
+-- Usage (base de test dédiée, application démarrée une fois pour créer le schéma et l'index
+-- idx_reservation_spectacle) :
+--   psql -d archiapp_bench -f bench/stats-benchmark.sql
+--
+-- Relever le temps d'exécution ("Execution Time") de chaque EXPLAIN ANALYZE, après un premier passage
+-- pour chauffer le cache de PostgreSQL.
+
+INSERT INTO spectacles (title, description, date, price, available_tickets, version, created_at, updated_at,
+                        created_by, updated_by)
+SELECT 'Spectacle ' || i, 'Représentation numéro ' || i, now() + (i % 365) * interval '1 day',
+       10 + (i % 90), 100000, 0, now(), now(), 'bench', 'bench'
+FROM generate_series(1, 1000) AS i;
+
+INSERT INTO reservations (reservation_date, quantity, total_price, keycloak_user_id, spectacle_id)
+SELECT now() - (i % 10000) * interval '1 minute',
+       1 + i % 4,
+       (1 + i % 4) * (10 + (i % 90)),
+       'user-' || (i % 50000),
+       (SELECT min(id) FROM spectacles) + i % 1000
+FROM generate_series(1, 10000000) AS i;
+
+ANALYZE spectacles;
+ANALYZE reservations;
+
+-- Statistiques actuelles : trois allers-retours successifs
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT SUM(total_price) FROM reservations;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT COUNT(*) FROM reservations;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT r.spectacle_id, s.title, SUM(r.quantity), SUM(r.total_price)
+FROM reservations r JOIN spectacles s ON s.id = r.spectacle_id
+GROUP BY r.spectacle_id, s.title;
+
+-- Une seule requête groupée, totaux calculés côté application
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT r.spectacle_id, s.title, SUM(r.quantity), SUM(r.total_price), COUNT(*)
+FROM reservations r JOIN spectacles s ON s.id = r.spectacle_id
+GROUP BY r.spectacle_id, s.title;
+
+-- Variante ROLLUP (PostgreSQL uniquement) : la ligne de total a spectacle_id NULL
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT r.spectacle_id, SUM(r.quantity), SUM(r.total_price), COUNT(*)
+FROM reservations r
+GROUP BY ROLLUP (r.spectacle_id);
@@ -28,7 +28,7 @@ public class CacheConfig {
      */
     @Bean
     public CacheManager cacheManager() {
-        CaffeineCacheManager cacheManager = new CaffeineCacheManager("spectacles", "reservations", "statistics");
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager("spectacles", "reservations", "facets");
         cacheManager.setCaffeine(caffeineCacheBuilder());
         return cacheManager;
     }
@@ -0,0 +1,79 @@
+package epsi.archiapp.backend.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import epsi.archiapp.backend.util.MoneyUtils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Module Jackson du format binaire compact : les montants sont écrits en centimes (entier) et les dates
+ * en secondes epoch (entier), au lieu des chaînes BigDecimal et ISO 8601 du format JSON.
+ * La lecture accepte les deux représentations.
+ */
+public class CompactWireModule extends SimpleModule {
+
+    public CompactWireModule(ZoneId zone) {
+        super("CompactWireModule");
+        addSerializer(BigDecimal.class, new CentsSerializer());
+        addDeserializer(BigDecimal.class, new CentsDeserializer());
+        addSerializer(LocalDateTime.class, new EpochSecondsSerializer(zone));
+        addDeserializer(LocalDateTime.class, new EpochSecondsDeserializer(zone));
+    }
+
+    static class CentsSerializer extends JsonSerializer<BigDecimal> {
+        @Override
+        public void serialize(BigDecimal value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+            gen.writeNumber(MoneyUtils.toCents(value));
+        }
+    }
+
+    static class CentsDeserializer extends JsonDeserializer<BigDecimal> {
+        @Override
+        public BigDecimal deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            if (p.currentToken() == JsonToken.VALUE_NUMBER_INT) {
+                return MoneyUtils.fromCents(p.getLongValue());
+            }
+            return new BigDecimal(p.getValueAsString().trim());
+        }
+    }
+
+    static class EpochSecondsSerializer extends JsonSerializer<LocalDateTime> {
+        private final ZoneId zone;
+
+        EpochSecondsSerializer(ZoneId zone) {
+            this.zone = zone;
+        }
+
+        @Override
+        public void serialize(LocalDateTime value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+            gen.writeNumber(value.atZone(zone).toEpochSecond());
+        }
+    }
+
+    static class EpochSecondsDeserializer extends JsonDeserializer<LocalDateTime> {
+        private final ZoneId zone;
+
+        EpochSecondsDeserializer(ZoneId zone) {
+            this.zone = zone;
+        }
+
+        @Override
+        public LocalDateTime deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            if (p.currentToken() == JsonToken.VALUE_NUMBER_INT) {
+                return LocalDateTime.ofInstant(Instant.ofEpochSecond(p.getLongValue()), zone);
+            }
+            return LocalDateTime.parse(p.getValueAsString().trim());
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package epsi.archiapp.backend.config;
+
+import epsi.archiapp.backend.util.DatabaseUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Crée sur PostgreSQL les index partiels que JPA ne sait pas déclarer (@Index ne prend pas de clause WHERE).
+ *
+ * idx_spectacle_available_date_price ne contient que les spectacles ayant encore des billets : le filtre
+ * "disponible" du catalogue parcourt un index plus petit que idx_spectacle_date_price, qui reste utilisé
+ * sans ce filtre. Sur une autre base (H2 en test), rien n'est créé.
+ *
+ * Les index sont créés par CREATE INDEX CONCURRENTLY : la construction ne bloque pas les écritures sur la
+ * table. Une construction interrompue laisse un index invalide, supprimé puis recréé au démarrage suivant.
+ * Un échec est journalisé sans empêcher le démarrage : la requête reste servie par l'index complet.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PartialIndexInitializer implements ApplicationRunner {
+
+    /**
+     * Index partiel : nom et définition (table, colonnes et clause WHERE).
+     */
+    record PartialIndex(String name, String definition) {
+    }
+
+    private static final List<PartialIndex> INDEXES = List.of(
+            new PartialIndex("idx_spectacle_available_date_price",
+                    "ON spectacles (date, price) WHERE available_tickets > 0")
+    );
+
+    private static final String VALIDITY_SQL =
+            "SELECT i.indisvalid FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid WHERE c.relname = ?";
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!DatabaseUtils.isPostgres(dataSource)) {
+            log.debug("Index partiels ignorés : la base n'est pas PostgreSQL");
+            return;
+        }
+        int ready = 0;
+        for (PartialIndex index : INDEXES) {
+            if (create(index)) {
+                ready++;
+            }
+        }
+        log.info("Index partiels prêts ({}/{})", ready, INDEXES.size());
+    }
+
+    /**
+     * Crée l'index s'il n'existe pas ou s'il est invalide. CREATE INDEX CONCURRENTLY ne peut pas s'exécuter
+     * dans une transaction : les instructions passent en auto-commit, hors de tout @Transactional.
+     */
+    private boolean create(PartialIndex index) {
+        List<Boolean> validity = jdbcTemplate.queryForList(VALIDITY_SQL, Boolean.class, index.name());
+        if (!validity.isEmpty() && Boolean.TRUE.equals(validity.get(0))) {
+            return true;
+        }
+        try {
+            if (!validity.isEmpty()) {
+                log.warn("Index {} invalide (construction interrompue) : reconstruction", index.name());
+                jdbcTemplate.execute("DROP INDEX CONCURRENTLY IF EXISTS " + index.name());
+            }
+            long start = System.nanoTime();
+            jdbcTemplate.execute("CREATE INDEX CONCURRENTLY IF NOT EXISTS " + index.name() + " " + index.definition());
+            log.info("Index {} créé ({} ms)", index.name(), (System.nanoTime() - start) / 1_000_000);
+            return true;
+        } catch (DataAccessException e) {
+            log.warn("Création de l'index {} impossible, nouvelle tentative au prochain démarrage", index.name(), e);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package epsi.archiapp.backend.config;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import java.time.Duration;
+
+/**
+ * Configuration du catalogue réactif (R2DBC), active uniquement avec le profil "reactive".
+ *
+ * Le pool R2DBC n'est volontairement pas exposé comme bean ConnectionFactory : l'auto-configuration
+ * Spring Boot créerait sinon un second gestionnaire de transactions et initialiserait les scripts SQL
+ * via R2DBC, au détriment de la pile JPA qui reste la référence pour les écritures.
+ */
+@Configuration
+@Profile("reactive")
+@Slf4j
+public class ReactiveCatalogConfig {
+
+    private ConnectionPool connectionPool;
+
+    @Bean
+    public DatabaseClient reactiveDatabaseClient(
+            @Value("${app.reactive.r2dbc.url}") String url,
+            @Value("${app.reactive.r2dbc.username}") String username,
+            @Value("${app.reactive.r2dbc.password}") String password,
+            @Value("${app.reactive.r2dbc.pool-initial-size:2}") int initialSize,
+            @Value("${app.reactive.r2dbc.pool-max-size:20}") int maxSize) {
+        ConnectionFactory connectionFactory = ConnectionFactories.get(ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build());
+        connectionPool = new ConnectionPool(ConnectionPoolConfiguration.builder(connectionFactory)
+                .initialSize(initialSize)
+                .maxSize(maxSize)
+                .maxIdleTime(Duration.ofMinutes(10))
+                .build());
+        log.info("Catalogue réactif activé - pool R2DBC de {} connexions maximum", maxSize);
+        return DatabaseClient.create(connectionPool);
+    }
+
+    @PreDestroy
+    public void closePool() {
+        if (connectionPool != null) {
+            connectionPool.dispose();
+        }
+    }
+}
@@ -43,12 +43,16 @@ public class SecurityConfig {
                         // Routes publiques
                         .requestMatchers("/api/info", "/api/health").permitAll()
                         .requestMatchers("/auth/**").permitAll()
+                        // Sonde de santé publique ; métriques et collecte Prometheus réservées aux administrateurs
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         // Swagger et documentation API (OpenAPI 3)
                         .requestMatchers("/swagger-ui/**", "/swagger-ui.html").permitAll()
                         .requestMatchers("/v3/api-docs/**", "/api-docs/**").permitAll()
                         .requestMatchers("/swagger-resources/**", "/webjars/**").permitAll()
                         // Routes publiques pour les spectacles (lecture seule)
                         .requestMatchers(org.springframework.http.HttpMethod.GET, "/api/spectacles/**").permitAll()
+                        .requestMatchers(org.springframework.http.HttpMethod.GET, "/api/reactive/spectacles/**").permitAll()
                         // Routes admin pour les spectacles
                         .requestMatchers(org.springframework.http.HttpMethod.POST, "/api/spectacles/**").hasRole("ADMIN")
                         .requestMatchers(org.springframework.http.HttpMethod.PUT, "/api/spectacles/**").hasRole("ADMIN")
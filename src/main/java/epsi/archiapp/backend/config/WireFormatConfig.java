@@ -0,0 +1,48 @@
+package epsi.archiapp.backend.config;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Négociation de contenu du format binaire compact (CBOR, Accept: application/cbor).
+ *
+ * Le convertisseur CBOR est ajouté après le convertisseur JSON : JSON reste le format par défaut
+ * lorsque le client n'exprime pas de préférence.
+ */
+@Configuration
+public class WireFormatConfig implements WebMvcConfigurer {
+
+    @Value("${app.wire.zone:Europe/Paris}")
+    private String zone;
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.removeIf(MappingJackson2CborHttpMessageConverter.class::isInstance);
+        converters.add(new MappingJackson2CborHttpMessageConverter(compactCborMapper(ZoneId.of(zone))));
+    }
+
+    /**
+     * Construit le mapper CBOR compact (montants en centimes, dates en secondes epoch).
+     * Le module JavaTimeModule prend en charge les autres types java.time (Instant, LocalDate...),
+     * écrits en ISO 8601 comme en JSON ; CompactWireModule, enregistré après, garde la main sur LocalDateTime.
+     */
+    public static ObjectMapper compactCborMapper(ZoneId zone) {
+        return CBORMapper.builder()
+                .addModule(new JavaTimeModule())
+                .addModule(new CompactWireModule(zone))
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .build();
+    }
+}
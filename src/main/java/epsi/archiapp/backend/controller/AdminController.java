@@ -1,15 +1,43 @@
 package epsi.archiapp.backend.controller;
 
 import epsi.archiapp.backend.config.swagger.CommonApiResponses.*;
+import epsi.archiapp.backend.dto.DistinctBuyersResponse;
+import epsi.archiapp.backend.dto.FlightRecordingResponse;
+import epsi.archiapp.backend.dto.LatencyReportResponse;
+import epsi.archiapp.backend.dto.LockContentionResponse;
+import epsi.archiapp.backend.dto.SalesTimeSeriesResponse;
+import epsi.archiapp.backend.dto.SalesViewStatusResponse;
+import epsi.archiapp.backend.dto.StatsReconciliationResponse;
 import epsi.archiapp.backend.dto.StatsResponse;
+import epsi.archiapp.backend.dto.TopSellersResponse;
+import epsi.archiapp.backend.monitoring.LockContentionTracker;
+import epsi.archiapp.backend.monitoring.ReservationLatencyTracker;
+import epsi.archiapp.backend.monitoring.jfr.FlightRecordingService;
+import epsi.archiapp.backend.service.BuyerSketchService;
 import epsi.archiapp.backend.service.CacheManagementService;
-import epsi.archiapp.backend.service.ReservationService;
+import epsi.archiapp.backend.service.ExportService;
+import epsi.archiapp.backend.service.SalesStatisticsService;
+import epsi.archiapp.backend.service.SalesTimeSeriesService;
+import epsi.archiapp.backend.service.SalesViewService;
+import epsi.archiapp.backend.service.TopSellersService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
 
 @RestController
 @RequestMapping("/api/admin")
@@ -19,19 +47,178 @@ import org.springframework.web.bind.annotation.*;
 @SecurityRequirement(name = "bearerAuth")
 public class AdminController {
 
-    private final ReservationService reservationService;
+    private final SalesStatisticsService salesStatisticsService;
+    private final SalesTimeSeriesService salesTimeSeriesService;
+    private final BuyerSketchService buyerSketchService;
+    private final TopSellersService topSellersService;
+    private final SalesViewService salesViewService;
+    private final ReservationLatencyTracker latencyTracker;
+    private final LockContentionTracker lockContentionTracker;
     private final CacheManagementService cacheManagementService;
+    private final ExportService exportService;
+    private final FlightRecordingService flightRecordingService;
 
     @Operation(
         summary = "Récupère les statistiques de vente",
-        description = "Récupère les statistiques globales et par spectacle. Nécessite le rôle ADMIN."
+        description = "Récupère les statistiques globales et par spectacle, tenues à jour à chaque réservation " +
+                     "ou annulation (aucune agrégation sur les réservations). Avec live=true, les statistiques " +
+                     "exactes sont relues depuis la table des réservations en une lecture groupée. " +
+                     "Nécessite le rôle ADMIN."
     )
     @GetApiResponses
     @AdminApiResponses
     @GetMapping("/stats")
     @PreAuthorize("hasRole('ADMIN')")
-    public StatsResponse getStatistics() {
-        return reservationService.getStatistics();
+    public StatsResponse getStatistics(
+            @Parameter(description = "Relire les ventes depuis la base plutôt que depuis les compteurs")
+            @RequestParam(defaultValue = "false") boolean live) {
+        return live ? salesStatisticsService.getLiveStatistics() : salesStatisticsService.getStatistics();
+    }
+
+    @Operation(
+        summary = "Récupère les statistiques de vente depuis la vue matérialisée",
+        description = "Statistiques servies par la vue matérialisée des ventes sur PostgreSQL, à jour à son " +
+                     "dernier rafraîchissement près (voir /stats/view pour son âge) ; lecture directe sur les " +
+                     "réservations sur une autre base. Nécessite le rôle ADMIN."
+    )
+    @GetApiResponses
+    @AdminApiResponses
+    @GetMapping("/stats/view/sales")
+    @PreAuthorize("hasRole('ADMIN')")
+    public StatsResponse getViewStatistics() {
+        return salesStatisticsService.getViewStatistics();
+    }
+
+    @Operation(
+        summary = "État de la vue matérialisée des ventes",
+        description = "Indique si les ventes par spectacle sont servies par la vue matérialisée (PostgreSQL), " +
+                     "la date et l'âge de son dernier rafraîchissement et le nombre d'écritures en attente. " +
+                     "Nécessite le rôle ADMIN."
+    )
+    @GetApiResponses
+    @AdminApiResponses
+    @GetMapping("/stats/view")
+    @PreAuthorize("hasRole('ADMIN')")
+    public SalesViewStatusResponse getSalesViewStatus() {
+        return salesViewService.getStatus();
+    }
+
+    @Operation(
+        summary = "Rafraîchit la vue matérialisée des ventes",
+        description = "Force un REFRESH MATERIALIZED VIEW CONCURRENTLY sans attendre le planificateur " +
+                     "(sans effet hors PostgreSQL ou si un rafraîchissement est en cours). Nécessite le rôle ADMIN."
+    )
+    @UpdateApiResponses
+    @AdminApiResponses
+    @PostMapping("/stats/view/refresh")
+    @PreAuthorize("hasRole('ADMIN')")
+    public SalesViewStatusResponse refreshSalesView() {
+        salesViewService.refresh();
+        return salesViewService.getStatus();
+    }
+
+    @Operation(
+        summary = "Réconcilie les statistiques de vente",
+        description = "Recalcule les agrégats depuis la table des réservations, corrige les écarts et renvoie les " +
+                     "spectacles corrigés. Requête coûteuse. Nécessite le rôle ADMIN."
+    )
+    @UpdateApiResponses
+    @AdminApiResponses
+    @PostMapping("/stats/reconcile")
+    @PreAuthorize("hasRole('ADMIN')")
+    public StatsReconciliationResponse reconcileStatistics() {
+        return salesStatisticsService.reconcile();
+    }
+
+    @Operation(
+        summary = "Série temporelle des ventes",
+        description = "Ventes nettes (réservations moins annulations) par minute, heure, jour ou mois sur [from, to[, " +
+                     "tous spectacles confondus ou pour un spectacle. La série par minute couvre la fenêtre en mémoire " +
+                     "(24 h par défaut) ; les autres granularités viennent des tranches consolidées, sans lecture " +
+                     "de la table des réservations. Nécessite le rôle ADMIN."
+    )
+    @GetApiResponses
+    @AdminApiResponses
+    @GetMapping("/stats/timeseries")
+    @PreAuthorize("hasRole('ADMIN')")
+    public SalesTimeSeriesResponse getSalesTimeSeries(
+            @Parameter(description = "Granularité (minute, hour, day ou month)")
+            @RequestParam(defaultValue = "hour") String granularity,
+            @Parameter(description = "Début de la période, inclus (ISO 8601)", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Fin de la période, exclue (ISO 8601)", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @Parameter(description = "ID du spectacle (optionnel)")
+            @RequestParam(required = false) Long spectacleId) {
+        return salesTimeSeriesService.query(SalesTimeSeriesService.Granularity.from(granularity), from, to, spectacleId);
+    }
+
+    @Operation(
+        summary = "Nombre estimé d'acheteurs distincts",
+        description = "Estimation HyperLogLog du nombre d'utilisateurs ayant réservé au moins une fois, au total et " +
+                     "par spectacle. Erreur relative type d'environ 0,8 % au total et 1,6 % par spectacle " +
+                     "(valeurs renvoyées dans la réponse). Nécessite le rôle ADMIN."
+    )
+    @GetApiResponses
+    @AdminApiResponses
+    @GetMapping("/stats/buyers")
+    @PreAuthorize("hasRole('ADMIN')")
+    public DistinctBuyersResponse getDistinctBuyers() {
+        return buyerSketchService.getDistinctBuyers();
+    }
+
+    @Operation(
+        summary = "Meilleures ventes",
+        description = "Classement des spectacles par billets vendus ou chiffre d'affaires (en centimes), depuis " +
+                     "toujours ou sur les dernières windowMinutes minutes (24 h maximum). Calculé en temps constant " +
+                     "par un résumé Space-Saving : chaque valeur surestime la valeur réelle d'au plus maxError. " +
+                     "Nécessite le rôle ADMIN."
+    )
+    @GetApiResponses
+    @AdminApiResponses
+    @GetMapping("/stats/top")
+    @PreAuthorize("hasRole('ADMIN')")
+    public TopSellersResponse getTopSellers(
+            @Parameter(description = "Critère de classement (tickets ou revenue)")
+            @RequestParam(defaultValue = "tickets") String by,
+            @Parameter(description = "Fenêtre récente en minutes (absente pour le classement depuis toujours)")
+            @RequestParam(required = false) Integer windowMinutes,
+            @Parameter(description = "Nombre de spectacles (50 maximum)")
+            @RequestParam(defaultValue = "10") int limit) {
+        return topSellersService.getTopSellers(TopSellersService.Metric.from(by), windowMinutes, limit);
+    }
+
+    @Operation(
+        summary = "Latences des réservations par étape",
+        description = "Percentiles p50, p90, p99 et p99,9 (en microsecondes) de chaque étape de la création et de " +
+                     "l'annulation de réservation : attente du verrou, contrôles, écritures, commit, invalidation " +
+                     "des caches et total. scope=interval pour le dernier intervalle clos, total depuis le " +
+                     "démarrage. Nécessite le rôle ADMIN."
+    )
+    @GetApiResponses
+    @AdminApiResponses
+    @GetMapping("/stats/latency")
+    @PreAuthorize("hasRole('ADMIN')")
+    public LatencyReportResponse getReservationLatency(
+            @Parameter(description = "Portée (interval ou total)")
+            @RequestParam(defaultValue = "interval") String scope) {
+        return latencyTracker.report(ReservationLatencyTracker.Scope.from(scope));
+    }
+
+    @Operation(
+        summary = "Contention des verrous par spectacle",
+        description = "Classement des spectacles par temps cumulé d'attente du verrou de ligne pris à la " +
+                     "réservation (en microsecondes), avec le nombre d'acquisitions, les attentes en cours et " +
+                     "l'attente la plus longue. Nécessite le rôle ADMIN."
+    )
+    @GetApiResponses
+    @AdminApiResponses
+    @GetMapping("/stats/locks")
+    @PreAuthorize("hasRole('ADMIN')")
+    public LockContentionResponse getLockContention(
+            @Parameter(description = "Nombre de spectacles (50 maximum)")
+            @RequestParam(defaultValue = "10") int limit) {
+        return lockContentionTracker.top(limit);
     }
 
     @Operation(
@@ -48,7 +235,7 @@ public class AdminController {
 
     @Operation(
         summary = "Vide un cache spécifique",
-        description = "Supprime toutes les entrées d'un cache donné (spectacles, reservations, statistics). Nécessite le rôle ADMIN."
+        description = "Supprime toutes les entrées d'un cache donné (spectacles, reservations, facets). Nécessite le rôle ADMIN."
     )
     @DeleteApiResponses
     @AdminApiResponses
@@ -81,5 +268,115 @@ public class AdminController {
     public java.util.Map<String, epsi.archiapp.backend.service.CacheManagementService.CacheStatisticsInfo> getCacheStatistics() {
         return cacheManagementService.getCacheStatistics();
     }
-}
 
+    @Operation(
+        summary = "Exporte les réservations en flux",
+        description = "Exporte toutes les réservations au format NDJSON ou CSV, éventuellement filtrées par spectacle " +
+                     "et par période de réservation. Les lignes sont lues par curseur et écrites au fil de l'eau. " +
+                     "Nécessite le rôle ADMIN."
+    )
+    @GetApiResponses
+    @AdminApiResponses
+    @GetMapping("/export/reservations")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportReservations(
+            @Parameter(description = "Format d'export (ndjson ou csv)")
+            @RequestParam(defaultValue = "ndjson") String format,
+            @Parameter(description = "ID du spectacle (optionnel)")
+            @RequestParam(required = false) Long spectacleId,
+            @Parameter(description = "Date de réservation minimale, incluse (ISO 8601)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Date de réservation maximale, exclue (ISO 8601)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        ExportService.Format exportFormat = ExportService.Format.from(format);
+        StreamingResponseBody body = output ->
+                exportService.exportReservations(exportFormat, spectacleId, from, to, output);
+        return exportResponse("reservations", exportFormat, body);
+    }
+
+    @Operation(
+        summary = "Exporte les ventes par spectacle en flux",
+        description = "Exporte le nombre de billets vendus et le chiffre d'affaires par spectacle au format NDJSON ou CSV. " +
+                     "Nécessite le rôle ADMIN."
+    )
+    @GetApiResponses
+    @AdminApiResponses
+    @GetMapping("/export/sales")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportSales(
+            @Parameter(description = "Format d'export (ndjson ou csv)")
+            @RequestParam(defaultValue = "ndjson") String format) {
+        ExportService.Format exportFormat = ExportService.Format.from(format);
+        StreamingResponseBody body = output -> exportService.exportSalesBySpectacle(exportFormat, output);
+        return exportResponse("ventes", exportFormat, body);
+    }
+
+    @Operation(
+        summary = "Démarre un enregistrement JFR",
+        description = "Démarre un enregistrement Java Flight Recorder avec la configuration JDK choisie (default ou " +
+                     "profile) et les événements métier (tentatives, verrous, refus, validations, annulations de " +
+                     "réservation, défauts du cache spectacles). Seules les maxAgeMinutes dernières minutes sont " +
+                     "conservées. Nécessite le rôle ADMIN."
+    )
+    @CreateApiResponses
+    @AdminApiResponses
+    @PostMapping("/jfr/start")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<FlightRecordingResponse> startFlightRecording(
+            @Parameter(description = "Configuration JDK (default ou profile)")
+            @RequestParam(defaultValue = "default") String settings,
+            @Parameter(description = "Fenêtre conservée en minutes (1440 maximum)")
+            @RequestParam(defaultValue = "60") long maxAgeMinutes) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(flightRecordingService.start(settings, maxAgeMinutes));
+    }
+
+    @Operation(
+        summary = "Arrête l'enregistrement JFR",
+        description = "Arrête l'enregistrement en cours ; ses données restent téléchargeables. Nécessite le rôle ADMIN."
+    )
+    @UpdateApiResponses
+    @AdminApiResponses
+    @PostMapping("/jfr/stop")
+    @PreAuthorize("hasRole('ADMIN')")
+    public FlightRecordingResponse stopFlightRecording() {
+        return flightRecordingService.stop();
+    }
+
+    @Operation(
+        summary = "Télécharge l'enregistrement JFR",
+        description = "Renvoie le fichier .jfr de l'enregistrement (en cours ou arrêté), à ouvrir avec JDK Mission " +
+                     "Control ou la commande jfr. Nécessite le rôle ADMIN."
+    )
+    @GetApiResponses
+    @AdminApiResponses
+    @GetMapping("/jfr/dump")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> dumpFlightRecording() {
+        Path file = flightRecordingService.dump();
+        StreamingResponseBody body = output -> {
+            try {
+                Files.copy(file, output);
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        };
+        ContentDisposition disposition = ContentDisposition.attachment()
+                .filename("archiapp.jfr")
+                .build();
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION, disposition.toString())
+                .body(body);
+    }
+
+    private ResponseEntity<StreamingResponseBody> exportResponse(String name, ExportService.Format format,
+                                                                 StreamingResponseBody body) {
+        ContentDisposition disposition = ContentDisposition.attachment()
+                .filename(name + "." + format.getExtension())
+                .build();
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, disposition.toString())
+                .body(body);
+    }
+}
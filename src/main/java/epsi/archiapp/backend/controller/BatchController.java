@@ -0,0 +1,47 @@
+package epsi.archiapp.backend.controller;
+
+import epsi.archiapp.backend.dto.BatchRequest;
+import epsi.archiapp.backend.dto.BatchResponse;
+import epsi.archiapp.backend.service.BatchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/batch")
+@RequiredArgsConstructor
+@CrossOrigin
+@Slf4j
+@Tag(name = "Utilitaires", description = "Endpoints utilitaires et d'information")
+@SecurityRequirement(name = "bearerAuth")
+public class BatchController {
+
+    private final BatchService batchService;
+
+    @Operation(
+        summary = "Exécute un lot de requêtes GET",
+        description = "Exécute plusieurs requêtes GET de l'API en un seul appel. Chaque sous-requête passe par la chaîne " +
+                     "de sécurité et les contrôleurs habituels avec le jeton de l'appelant, dans le processus (sans nouvel " +
+                     "appel HTTP). Les sous-requêtes s'exécutent en parallèle (concurrence bornée) et la durée de chacune " +
+                     "est retournée. Les endpoints en flux (SSE, long-polling, exports) ne peuvent pas être groupés."
+    )
+    @ApiResponse(responseCode = "200", description = "Lot exécuté (voir le statut de chaque sous-requête)")
+    @ApiResponse(responseCode = "400", description = "Lot invalide")
+    @ApiResponse(responseCode = "401", description = "Non authentifié")
+    @PostMapping
+    public ResponseEntity<BatchResponse> execute(
+            HttpServletRequest httpRequest,
+            @Parameter(description = "Sous-requêtes à exécuter", required = true)
+            @Valid @RequestBody BatchRequest request) {
+        log.info("Exécution d'un lot de {} requêtes", request.getRequests().size());
+        return ResponseEntity.ok(batchService.execute(request, httpRequest));
+    }
+}
@@ -0,0 +1,86 @@
+package epsi.archiapp.backend.controller;
+
+import epsi.archiapp.backend.config.swagger.CommonApiResponses.*;
+import epsi.archiapp.backend.dto.SpectacleResponse;
+import epsi.archiapp.backend.service.ReactiveSpectacleService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Catalogue en lecture seule servi via R2DBC (profil "reactive").
+ * En application/x-ndjson, les spectacles sont écrits au fil de l'eau avec contre-pression ;
+ * en application/json, ils sont regroupés dans un tableau.
+ */
+@RestController
+@RequestMapping("/api/reactive/spectacles")
+@Profile("reactive")
+@RequiredArgsConstructor
+@CrossOrigin
+@Slf4j
+@Tag(name = "Catalogue réactif", description = "Lecture non bloquante du catalogue (profil reactive)")
+public class ReactiveSpectacleController {
+
+    private static final String NDJSON = "application/x-ndjson";
+
+    private final ReactiveSpectacleService reactiveSpectacleService;
+
+    @Operation(
+        summary = "Liste les spectacles (réactif)",
+        description = "Liste paginée des spectacles triés par date. Accessible sans authentification."
+    )
+    @ListApiResponses
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, NDJSON})
+    public Flux<SpectacleResponse> list(
+            @Parameter(description = "Numéro de page (à partir de 0)") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Taille de page (100 maximum)") @RequestParam(defaultValue = "20") int size) {
+        log.debug("Liste réactive des spectacles - page: {}, taille: {}", page, size);
+        return reactiveSpectacleService.listAll(page, size);
+    }
+
+    @Operation(
+        summary = "Liste les spectacles à venir (réactif)",
+        description = "Liste paginée des spectacles dont la date n'est pas passée. Accessible sans authentification."
+    )
+    @ListApiResponses
+    @GetMapping(value = "/upcoming", produces = {MediaType.APPLICATION_JSON_VALUE, NDJSON})
+    public Flux<SpectacleResponse> upcoming(
+            @Parameter(description = "Numéro de page (à partir de 0)") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Taille de page (100 maximum)") @RequestParam(defaultValue = "20") int size) {
+        log.debug("Liste réactive des spectacles à venir - page: {}, taille: {}", page, size);
+        return reactiveSpectacleService.findUpcoming(page, size);
+    }
+
+    @Operation(
+        summary = "Recherche des spectacles (réactif)",
+        description = "Recherche par mot-clé dans le titre et la description. Accessible sans authentification."
+    )
+    @ListApiResponses
+    @GetMapping(value = "/search", produces = {MediaType.APPLICATION_JSON_VALUE, NDJSON})
+    public Flux<SpectacleResponse> search(
+            @Parameter(description = "Mot-clé recherché", required = true) @RequestParam String q,
+            @Parameter(description = "Numéro de page (à partir de 0)") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Taille de page (100 maximum)") @RequestParam(defaultValue = "20") int size) {
+        log.debug("Recherche réactive des spectacles - mot-clé: {}", q);
+        return reactiveSpectacleService.search(q, page, size);
+    }
+
+    @Operation(
+        summary = "Récupère un spectacle par son ID (réactif)",
+        description = "Récupère les détails d'un spectacle via le cache partagé. Accessible sans authentification."
+    )
+    @GetApiResponses
+    @GetMapping("/{id}")
+    public Mono<SpectacleResponse> get(
+            @Parameter(description = "ID du spectacle", required = true) @PathVariable Long id) {
+        log.debug("Récupération réactive du spectacle avec ID: {}", id);
+        return reactiveSpectacleService.get(id);
+    }
+}
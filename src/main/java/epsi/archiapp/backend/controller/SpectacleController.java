@@ -1,8 +1,17 @@
 package epsi.archiapp.backend.controller;
 
 import epsi.archiapp.backend.config.swagger.CommonApiResponses.*;
+import epsi.archiapp.backend.dto.AvailabilityUpdate;
+import epsi.archiapp.backend.dto.ImportResultResponse;
+import epsi.archiapp.backend.dto.SpectacleChangesResponse;
+import epsi.archiapp.backend.dto.SpectacleFilterResponse;
 import epsi.archiapp.backend.dto.SpectacleRequest;
 import epsi.archiapp.backend.dto.SpectacleResponse;
+import epsi.archiapp.backend.dto.SpectacleSearchResponse;
+import epsi.archiapp.backend.dto.SpectacleSuggestion;
+import epsi.archiapp.backend.service.AvailabilityHub;
+import epsi.archiapp.backend.service.SpectacleFilterService;
+import epsi.archiapp.backend.service.SpectacleImportService;
 import epsi.archiapp.backend.service.SpectacleService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -15,10 +24,20 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/spectacles")
@@ -29,6 +48,9 @@ import org.springframework.web.bind.annotation.*;
 public class SpectacleController {
 
     private final SpectacleService spectacleService;
+    private final SpectacleImportService spectacleImportService;
+    private final AvailabilityHub availabilityHub;
+    private final SpectacleFilterService spectacleFilterService;
 
     @Operation(
         summary = "Liste tous les spectacles",
@@ -45,6 +67,102 @@ public class SpectacleController {
         return ResponseEntity.ok(spectacles);
     }
 
+    @Operation(
+        summary = "Récupère plusieurs spectacles par leurs IDs",
+        description = "Récupère en un seul appel les spectacles correspondant à la liste d'IDs (100 maximum), " +
+                     "dans l'ordre de la requête. Les IDs inconnus sont ignorés. Accessible sans authentification."
+    )
+    @ListApiResponses
+    @GetMapping(params = "ids")
+    public ResponseEntity<List<SpectacleResponse>> getByIds(
+            @Parameter(description = "Liste d'IDs séparés par des virgules", required = true)
+            @RequestParam List<Long> ids) {
+        log.info("Récupération groupée de {} spectacles", ids.size());
+        return ResponseEntity.ok(spectacleService.getByIds(ids));
+    }
+
+    @Operation(
+        summary = "Filtre les spectacles à venir par période, prix et disponibilité",
+        description = "Combine les filtres de date, de prix et de disponibilité, triés par date. Renvoie aussi le " +
+                     "nombre de résultats par tranche de prix (0-20, 20-50, 50-100, 100+) et de date " +
+                     "(week, month, later). Accessible sans authentification."
+    )
+    @ListApiResponses
+    @GetMapping("/filter")
+    public ResponseEntity<SpectacleFilterResponse> filter(
+            @Parameter(description = "Date minimale incluse (ISO 8601), maintenant par défaut")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Date maximale exclue (ISO 8601)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @Parameter(description = "Prix minimal inclus")
+            @RequestParam(required = false) BigDecimal minPrice,
+            @Parameter(description = "Prix maximal inclus")
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @Parameter(description = "Uniquement les spectacles ayant encore des billets")
+            @RequestParam(defaultValue = "false") boolean available,
+            @Parameter(description = "Numéro de page (à partir de 0)")
+            @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Taille de page (100 maximum)")
+            @RequestParam(defaultValue = "20") int size) {
+        log.info("Filtrage des spectacles - du {} au {}, prix {}-{}, disponibles: {}", from, to, minPrice, maxPrice, available);
+        return ResponseEntity.ok(spectacleFilterService.filter(from, to, minPrice, maxPrice, available, page, size));
+    }
+
+    @Operation(
+        summary = "Recherche plein texte des spectacles",
+        description = "Recherche dans le titre et la description, sans tenir compte des accents ni de la casse " +
+                     "(\"romeo\" trouve \"Roméo\"). Le dernier mot est complété comme un préfixe. " +
+                     "Résultats classés par pertinence ; passer nextCursor pour obtenir la page suivante. " +
+                     "Accessible sans authentification."
+    )
+    @ListApiResponses
+    @GetMapping("/search")
+    public ResponseEntity<SpectacleSearchResponse> search(
+            @Parameter(description = "Texte recherché", required = true)
+            @RequestParam String q,
+            @Parameter(description = "Curseur renvoyé par la page précédente")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Nombre maximal de résultats (100 maximum)")
+            @RequestParam(defaultValue = "20") int limit) {
+        log.info("Recherche de spectacles - requête: {}", q);
+        return ResponseEntity.ok(spectacleService.search(q, cursor, limit));
+    }
+
+    @Operation(
+        summary = "Autocomplétion sur les titres des spectacles",
+        description = "Renvoie les spectacles à venir dont un mot du titre commence par le préfixe saisi " +
+                     "(accents et casse indifférents), du plus proche au plus lointain. " +
+                     "Accessible sans authentification."
+    )
+    @ListApiResponses
+    @GetMapping("/suggest")
+    public ResponseEntity<List<SpectacleSuggestion>> suggest(
+            @Parameter(description = "Début de saisie", required = true)
+            @RequestParam String prefix,
+            @Parameter(description = "Nombre maximal de suggestions (20 maximum)")
+            @RequestParam(defaultValue = "8") int limit) {
+        return ResponseEntity.ok(spectacleService.suggest(prefix, limit));
+    }
+
+    @Operation(
+        summary = "Récupère les spectacles modifiés depuis un instant",
+        description = "Synchronisation incrémentale : renvoie les spectacles créés ou modifiés et les IDs supprimés " +
+                     "depuis 'since'. Tant que hasMore vaut true, rappeler avec nextSince et nextAfterId. " +
+                     "Accessible sans authentification."
+    )
+    @GetApiResponses
+    @GetMapping("/changes")
+    public ResponseEntity<SpectacleChangesResponse> getChanges(
+            @Parameter(description = "Instant de la dernière synchronisation (ISO 8601)", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+            @Parameter(description = "ID du dernier spectacle reçu pour cet instant")
+            @RequestParam(defaultValue = "0") Long afterId,
+            @Parameter(description = "Nombre maximal de spectacles modifiés (1000 maximum)")
+            @RequestParam(defaultValue = "500") int limit) {
+        log.info("Synchronisation des spectacles depuis {} (après ID {})", since, afterId);
+        return ResponseEntity.ok(spectacleService.getChangesSince(since, afterId, limit));
+    }
+
     @Operation(
         summary = "Récupère un spectacle par son ID",
         description = "Récupère les détails d'un spectacle spécifique. Accessible sans authentification."
@@ -59,6 +177,38 @@ public class SpectacleController {
         return ResponseEntity.ok(spectacle);
     }
 
+    @Operation(
+        summary = "Flux temps réel de la disponibilité d'un spectacle",
+        description = "Ouvre un flux Server-Sent Events (événement 'availability') qui pousse le nombre de billets " +
+                     "disponibles et la version du spectacle à chaque réservation ou annulation, " +
+                     "au plus une fois par intervalle de diffusion. Accessible sans authentification."
+    )
+    @GetApiResponses
+    @GetMapping(value = "/{id}/availability/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAvailability(
+            @Parameter(description = "ID du spectacle", required = true)
+            @PathVariable Long id) {
+        log.debug("Abonnement au flux de disponibilité du spectacle {}", id);
+        return availabilityHub.subscribe(spectacleService.get(id));
+    }
+
+    @Operation(
+        summary = "Attend un changement de disponibilité d'un spectacle (long-polling)",
+        description = "Répond immédiatement si la version du spectacle est plus récente que afterVersion, sinon " +
+                     "attend le prochain changement. Renvoie 304 Not Modified à l'expiration du délai d'attente. " +
+                     "Sans afterVersion, renvoie l'état courant. Accessible sans authentification."
+    )
+    @GetApiResponses
+    @GetMapping("/{id}/availability")
+    public DeferredResult<ResponseEntity<AvailabilityUpdate>> pollAvailability(
+            @Parameter(description = "ID du spectacle", required = true)
+            @PathVariable Long id,
+            @Parameter(description = "Dernière version connue par le client")
+            @RequestParam(required = false) Long afterVersion) {
+        log.debug("Attente de disponibilité du spectacle {} après la version {}", id, afterVersion);
+        return availabilityHub.poll(id, afterVersion, () -> spectacleService.get(id));
+    }
+
     @Operation(
         summary = "Crée un nouveau spectacle",
         description = "Crée un nouveau spectacle. Nécessite le rôle ADMIN.",
@@ -76,6 +226,39 @@ public class SpectacleController {
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
 
+    @Operation(
+        summary = "Importe des spectacles en masse (JSON)",
+        description = "Importe un tableau JSON de spectacles. Le corps est lu en flux et inséré par lots JDBC. " +
+                     "Les éléments invalides (ou qui ne sont pas des objets) sont rejetés et listés dans le bilan. " +
+                     "L'import est atomique : un corps illisible n'insère aucun spectacle. Nécessite le rôle ADMIN.",
+        security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @CreateApiResponses
+    @AdminApiResponses
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ImportResultResponse> importJson(InputStream body) throws IOException {
+        log.info("Import en masse de spectacles (JSON)");
+        ImportResultResponse result = spectacleImportService.importJson(body);
+        return ResponseEntity.status(HttpStatus.CREATED).body(result);
+    }
+
+    @Operation(
+        summary = "Importe des spectacles en masse (CSV)",
+        description = "Importe un fichier CSV (en-têtes : title, description, date, price, availableTickets, imageUrl). " +
+                     "Le fichier est lu en flux et inséré par lots JDBC, dans une seule transaction. Nécessite le rôle ADMIN.",
+        security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @CreateApiResponses
+    @AdminApiResponses
+    @PostMapping(value = "/import", consumes = "text/csv")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ImportResultResponse> importCsv(InputStream body) throws IOException {
+        log.info("Import en masse de spectacles (CSV)");
+        ImportResultResponse result = spectacleImportService.importCsv(body);
+        return ResponseEntity.status(HttpStatus.CREATED).body(result);
+    }
+
     @Operation(
         summary = "Met à jour un spectacle existant",
         description = "Met à jour les informations d'un spectacle. Nécessite le rôle ADMIN.",
@@ -0,0 +1,19 @@
+package epsi.archiapp.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AvailabilityUpdate {
+    private Long spectacleId;
+    private Integer availableTickets;
+    private Long version;
+    private LocalDateTime timestamp;
+}
@@ -0,0 +1,38 @@
+package epsi.archiapp.backend.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchRequest {
+
+    @NotEmpty(message = "Le lot doit contenir au moins une requête")
+    @Valid
+    private List<SubRequest> requests;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class SubRequest {
+
+        @NotBlank(message = "L'identifiant de la sous-requête est requis")
+        private String id;
+
+        @Builder.Default
+        private String method = "GET";
+
+        @NotBlank(message = "Le chemin de la sous-requête est requis")
+        private String path;
+    }
+}
@@ -0,0 +1,30 @@
+package epsi.archiapp.backend.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchResponse {
+    private List<SubResponse> responses;
+    private Long totalDurationMs;
+    private Integer concurrency;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class SubResponse {
+        private String id;
+        private Integer status;
+        private JsonNode body;
+        private Long durationMs;
+    }
+}
@@ -0,0 +1,33 @@
+package epsi.archiapp.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Nombre estimé d'acheteurs distincts (HyperLogLog), global et par spectacle.
+ * Les erreurs relatives type sont données pour un écart-type ; environ 99 % des estimations
+ * restent à moins de trois fois cette erreur de la valeur exacte.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DistinctBuyersResponse {
+    private long totalBuyers;
+    private double totalRelativeError;
+    private double spectacleRelativeError;
+    private List<SpectacleBuyers> spectacles;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class SpectacleBuyers {
+        private Long spectacleId;
+        private long buyers;
+    }
+}
@@ -0,0 +1,18 @@
+package epsi.archiapp.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Tranche de facette (prix ou date) et nombre de spectacles qu'elle contient.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FacetBucket {
+    private String key;
+    private long count;
+}
@@ -0,0 +1,26 @@
+package epsi.archiapp.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * État de l'enregistrement Java Flight Recorder piloté par l'API d'administration.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FlightRecordingResponse {
+    private long id;
+    private String name;
+    /** NEW, DELAYED, RUNNING, STOPPED ou CLOSED. */
+    private String state;
+    private String settings;
+    private Instant startTime;
+    private long maxAgeMinutes;
+    private long sizeBytes;
+}
@@ -0,0 +1,20 @@
+package epsi.archiapp.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImportResultResponse {
+    private Long imported;
+    private Long rejected;
+    private List<String> errors;
+    private Long durationMs;
+    private Long rowsPerSecond;
+}
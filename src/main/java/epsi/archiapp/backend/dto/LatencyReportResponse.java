@@ -0,0 +1,40 @@
+package epsi.archiapp.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Percentiles de latence par étape des réservations et annulations, en microsecondes.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LatencyReportResponse {
+    /** interval : dernier intervalle clos ; total : depuis le démarrage. */
+    private String scope;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private List<PhaseLatency> phases;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class PhaseLatency {
+        private String flow;
+        private String phase;
+        private long count;
+        private long p50;
+        private long p90;
+        private long p99;
+        private long p999;
+        private long max;
+        private double mean;
+    }
+}
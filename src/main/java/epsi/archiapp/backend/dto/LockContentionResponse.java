@@ -0,0 +1,36 @@
+package epsi.archiapp.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Classement des spectacles par temps d'attente du verrou de ligne (durées en microsecondes).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LockContentionResponse {
+    private int trackedSpectacles;
+    private int currentWaiters;
+    /** Acquisitions non attribuées à un spectacle, la table de suivi étant pleine. */
+    private long untrackedAcquisitions;
+    private List<SpectacleContention> items;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class SpectacleContention {
+        private Long spectacleId;
+        private long acquisitions;
+        private int currentWaiters;
+        private long totalWaitMicros;
+        private long meanWaitMicros;
+        private long maxWaitMicros;
+    }
+}
@@ -0,0 +1,34 @@
+package epsi.archiapp.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SalesTimeSeriesResponse {
+    private String granularity;
+    private Long spectacleId;
+    private List<SalesPoint> points;
+
+    /**
+     * Ventes nettes d'une tranche (les annulations sont déduites dans la tranche où elles ont lieu).
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class SalesPoint {
+        private LocalDateTime bucketStart;
+        private long ticketsSold;
+        private BigDecimal revenue;
+        private long reservations;
+    }
+}
@@ -0,0 +1,24 @@
+package epsi.archiapp.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * État de la vue matérialisée des ventes par spectacle.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SalesViewStatusResponse {
+    /** false si la base n'est pas PostgreSQL : les ventes sont alors lues par la requête directe. */
+    private boolean materialized;
+    private LocalDateTime lastRefreshedAt;
+    private Long ageSeconds;
+    private long pendingWrites;
+    private Long lastRefreshMs;
+}
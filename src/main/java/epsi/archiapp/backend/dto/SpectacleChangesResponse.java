@@ -0,0 +1,22 @@
+package epsi.archiapp.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SpectacleChangesResponse {
+    private List<SpectacleResponse> changed;
+    private List<Long> deletedIds;
+    private LocalDateTime nextSince;
+    private Long nextAfterId;
+    private Boolean hasMore;
+    private Boolean fullResyncRequired;
+}
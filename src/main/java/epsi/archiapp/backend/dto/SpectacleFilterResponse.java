@@ -0,0 +1,25 @@
+package epsi.archiapp.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Résultat d'un filtrage du catalogue : page de spectacles et comptes par tranche.
+ *
+ * Les facettes de prix tiennent compte des filtres de date et de disponibilité (mais pas du filtre de prix),
+ * celles de date des filtres de prix et de disponibilité : chaque tranche indique combien de résultats
+ * on obtiendrait en la sélectionnant.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SpectacleFilterResponse {
+    private PageResponse<SpectacleResponse> results;
+    private List<FacetBucket> priceFacets;
+    private List<FacetBucket> dateFacets;
+}
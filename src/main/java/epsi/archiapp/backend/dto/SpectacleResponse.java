@@ -20,6 +20,7 @@ public class SpectacleResponse {
     private BigDecimal price;
     private Integer availableTickets;
     private String imageUrl;
+    private Long version;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private String createdBy;
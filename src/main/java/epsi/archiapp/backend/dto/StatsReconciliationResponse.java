@@ -0,0 +1,21 @@
+package epsi.archiapp.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Bilan d'une réconciliation des statistiques avec la table des réservations.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StatsReconciliationResponse {
+    private int spectaclesChecked;
+    private List<Long> correctedSpectacleIds;
+    private long durationMs;
+}
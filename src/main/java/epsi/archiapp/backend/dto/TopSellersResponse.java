@@ -0,0 +1,32 @@
+package epsi.archiapp.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Meilleures ventes estimées (résumé Space-Saving). Chaque valeur surestime la valeur réelle
+ * d'au plus maxError (billets, ou centimes pour le chiffre d'affaires).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TopSellersResponse {
+    private String by;
+    private Integer windowMinutes;
+    private List<TopSeller> items;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class TopSeller {
+        private Long spectacleId;
+        private long value;
+        private long maxError;
+    }
+}
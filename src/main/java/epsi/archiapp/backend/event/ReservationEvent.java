@@ -0,0 +1,34 @@
+package epsi.archiapp.backend.event;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Événement publié par ReservationService à chaque réservation ou annulation.
+ *
+ * @param type             Nature du changement
+ * @param reservationId    ID de la réservation concernée
+ * @param spectacleId      ID du spectacle
+ * @param keycloakUserId   Utilisateur à l'origine de la réservation
+ * @param quantity         Nombre de billets réservés ou annulés
+ * @param totalPrice       Montant de la réservation
+ * @param availableTickets Billets disponibles après le changement
+ * @param version          Version du spectacle après le changement (@Version)
+ * @param occurredAt       Instant du changement
+ */
+public record ReservationEvent(
+        Type type,
+        Long reservationId,
+        Long spectacleId,
+        String keycloakUserId,
+        int quantity,
+        BigDecimal totalPrice,
+        int availableTickets,
+        long version,
+        LocalDateTime occurredAt
+) {
+    public enum Type {
+        BOOKED,
+        CANCELLED
+    }
+}
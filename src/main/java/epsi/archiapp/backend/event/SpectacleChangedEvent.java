@@ -0,0 +1,42 @@
+package epsi.archiapp.backend.event;
+
+import epsi.archiapp.backend.model.Spectacle;
+
+import java.time.LocalDateTime;
+
+/**
+ * Événement publié par SpectacleService et SpectacleImportService à chaque modification du catalogue.
+ *
+ * @param type        Nature du changement
+ * @param spectacleId ID du spectacle (null pour un import en masse)
+ * @param title       Titre après le changement (null pour une suppression ou un import)
+ * @param description Description après le changement
+ * @param date        Date du spectacle après le changement
+ */
+public record SpectacleChangedEvent(
+        Type type,
+        Long spectacleId,
+        String title,
+        String description,
+        LocalDateTime date
+) {
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED,
+        BULK_IMPORTED
+    }
+
+    public static SpectacleChangedEvent of(Type type, Spectacle spectacle) {
+        return new SpectacleChangedEvent(type, spectacle.getId(), spectacle.getTitle(),
+                spectacle.getDescription(), spectacle.getDate());
+    }
+
+    public static SpectacleChangedEvent deleted(Long spectacleId) {
+        return new SpectacleChangedEvent(Type.DELETED, spectacleId, null, null, null);
+    }
+
+    public static SpectacleChangedEvent bulkImported() {
+        return new SpectacleChangedEvent(Type.BULK_IMPORTED, null, null, null, null);
+    }
+}
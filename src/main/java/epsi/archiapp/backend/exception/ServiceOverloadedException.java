@@ -0,0 +1,7 @@
+package epsi.archiapp.backend.exception;
+
+public class ServiceOverloadedException extends RuntimeException {
+    public ServiceOverloadedException(String message) {
+        super(message);
+    }
+}
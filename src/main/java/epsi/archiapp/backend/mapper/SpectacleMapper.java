@@ -21,6 +21,7 @@ public class SpectacleMapper {
                 .price(spectacle.getPrice())
                 .availableTickets(spectacle.getAvailableTickets())
                 .imageUrl(spectacle.getImageUrl())
+                .version(spectacle.getVersion())
                 .createdAt(spectacle.getCreatedAt())
                 .updatedAt(spectacle.getUpdatedAt())
                 .createdBy(spectacle.getCreatedBy())
@@ -0,0 +1,31 @@
+package epsi.archiapp.backend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Sketch HyperLogLog sérialisé des acheteurs distincts d'un spectacle
+ * (spectacleId = 0 pour le sketch global, tous spectacles confondus).
+ */
+@Entity
+@Table(name = "buyer_sketches")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BuyerSketch {
+    public static final long GLOBAL_ID = 0L;
+
+    @Id
+    @Column(name = "spectacle_id")
+    private Long spectacleId;
+
+    @Column(nullable = false, length = 65537)
+    private byte[] registers;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
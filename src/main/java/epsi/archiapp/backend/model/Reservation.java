@@ -12,7 +12,8 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "reservations", indexes = {
     @Index(name = "idx_reservation_user", columnList = "keycloak_user_id"),
-    @Index(name = "idx_reservation_date", columnList = "reservation_date")
+    @Index(name = "idx_reservation_date", columnList = "reservation_date"),
+    @Index(name = "idx_reservation_spectacle", columnList = "spectacle_id, quantity, total_price")
 })
 @EntityListeners(AuditingEntityListener.class)
 @Getter
@@ -0,0 +1,51 @@
+package epsi.archiapp.backend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Ventes nettes (réservations moins annulations) d'un spectacle sur une heure ou une journée,
+ * alimentées par le job de consolidation de SalesTimeSeriesService.
+ */
+@Entity
+@Table(name = "sales_rollups",
+    uniqueConstraints = @UniqueConstraint(name = "uk_rollup_bucket",
+        columnNames = {"granularity", "bucket_start", "spectacle_id"}),
+    indexes = @Index(name = "idx_rollup_granularity_start", columnList = "granularity, bucket_start"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SalesRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 8)
+    private Granularity granularity;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(name = "spectacle_id", nullable = false)
+    private Long spectacleId;
+
+    @Column(name = "tickets_sold", nullable = false)
+    private long ticketsSold;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal revenue;
+
+    @Column(nullable = false)
+    private long reservations;
+
+    public enum Granularity {
+        HOUR,
+        DAY
+    }
+}
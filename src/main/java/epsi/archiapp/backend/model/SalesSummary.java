@@ -0,0 +1,32 @@
+package epsi.archiapp.backend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+
+/**
+ * Agrégats de ventes d'un spectacle, maintenus au fil des réservations et annulations
+ * (dans la même transaction) pour éviter de parcourir la table des réservations.
+ */
+@Entity
+@Table(name = "sales_summary")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SalesSummary {
+    @Id
+    @Column(name = "spectacle_id")
+    private Long spectacleId;
+
+    @Column(name = "tickets_sold", nullable = false)
+    private long ticketsSold;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal revenue;
+
+    @Column(name = "reservation_count", nullable = false)
+    private long reservationCount;
+}
@@ -16,7 +16,9 @@ import jakarta.validation.constraints.*;
 @Entity
 @Table(name = "spectacles", indexes = {
     @Index(name = "idx_spectacle_date", columnList = "date"),
-    @Index(name = "idx_spectacle_title", columnList = "title")
+    @Index(name = "idx_spectacle_date_price", columnList = "date, price"),
+    @Index(name = "idx_spectacle_title", columnList = "title"),
+    @Index(name = "idx_spectacle_updated_at", columnList = "updated_at, id")
 })
 @EntityListeners(AuditingEntityListener.class)
 @Getter
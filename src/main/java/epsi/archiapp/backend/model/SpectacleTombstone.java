@@ -0,0 +1,27 @@
+package epsi.archiapp.backend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Trace de suppression d'un spectacle, conservée pour la synchronisation incrémentale des clients.
+ */
+@Entity
+@Table(name = "spectacle_tombstones", indexes = {
+    @Index(name = "idx_tombstone_deleted_at", columnList = "deleted_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SpectacleTombstone {
+    @Id
+    @Column(name = "spectacle_id")
+    private Long spectacleId;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+}
@@ -0,0 +1,194 @@
+package epsi.archiapp.backend.monitoring;
+
+import epsi.archiapp.backend.dto.LockContentionResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contention du verrou de ligne (SpectacleRepository.findByIdWithLock) par spectacle.
+ *
+ * Table de taille fixe (app.lock-contention.slots, puissance de 2) : chaque spectacle occupe une case
+ * trouvée par hachage et sondage linéaire borné. Les compteurs d'une case sont indépendants de ceux des
+ * autres : les threads qui attendent des spectacles différents ne se disputent pas les mêmes compteurs.
+ * Quand toutes les cases sondées sont prises, la case la moins chargée sans attente en cours est
+ * réattribuée (ses compteurs repartent de zéro) ; à défaut, l'acquisition est comptée comme non attribuée.
+ * Une réattribution concurrente d'une attente peut rarement imputer cette attente au nouveau spectacle :
+ * les chiffres sont des indicateurs de diagnostic, pas une comptabilité exacte.
+ */
+@Component
+public class LockContentionTracker {
+
+    private static final int MAX_PROBES = 8;
+    private static final int MAX_LIMIT = 50;
+    private static final long FREE = Long.MIN_VALUE;
+
+    private final Slot[] slots;
+    private final int mask;
+    private final AtomicInteger currentWaiters = new AtomicInteger();
+    private final LongAdder untracked = new LongAdder();
+
+    /**
+     * Compteurs d'un spectacle. L'attribution de la case est protégée par le moniteur de la case ;
+     * les compteurs sont mis à jour sans verrou.
+     */
+    public static final class Slot {
+        private volatile long spectacleId = FREE;
+        private final AtomicInteger waiters = new AtomicInteger();
+        private final LongAdder acquisitions = new LongAdder();
+        private final LongAdder totalWaitNanos = new LongAdder();
+        private final AtomicLong maxWaitNanos = new AtomicLong();
+
+        private void reset(long id) {
+            acquisitions.reset();
+            totalWaitNanos.reset();
+            maxWaitNanos.set(0);
+            spectacleId = id;
+        }
+    }
+
+    public LockContentionTracker(@Value("${app.lock-contention.slots:1024}") int capacity) {
+        int size = Integer.highestOneBit(Math.max(capacity, MAX_PROBES) - 1) << 1;
+        slots = new Slot[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = new Slot();
+        }
+        mask = size - 1;
+    }
+
+    /**
+     * Signale qu'un thread commence à attendre le verrou d'un spectacle.
+     *
+     * @return La case du spectacle, à rendre à {@link #release}, ou null si la table est pleine
+     */
+    public Slot await(long spectacleId) {
+        currentWaiters.incrementAndGet();
+        for (int attempt = 0; attempt < 2; attempt++) {
+            Slot slot = claim(spectacleId);
+            if (slot == null) {
+                return null;
+            }
+            slot.waiters.incrementAndGet();
+            if (slot.spectacleId == spectacleId) {
+                return slot;
+            }
+            // Case réattribuée entre-temps
+            slot.waiters.decrementAndGet();
+        }
+        return null;
+    }
+
+    /**
+     * Signale la fin de l'attente (verrou obtenu, spectacle introuvable ou erreur).
+     *
+     * @param slot      La case rendue par {@link #await}
+     * @param waitNanos Durée d'attente mesurée avec System.nanoTime()
+     */
+    public void release(Slot slot, long waitNanos) {
+        currentWaiters.decrementAndGet();
+        if (slot == null) {
+            untracked.increment();
+            return;
+        }
+        slot.acquisitions.increment();
+        slot.totalWaitNanos.add(waitNanos);
+        slot.maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+        slot.waiters.decrementAndGet();
+    }
+
+    private Slot claim(long spectacleId) {
+        int start = Long.hashCode(spectacleId * 0x9E3779B97F4A7C15L) & mask;
+        for (int i = 0; i < MAX_PROBES; i++) {
+            Slot slot = slots[(start + i) & mask];
+            long owner = slot.spectacleId;
+            if (owner == spectacleId) {
+                return slot;
+            }
+            if (owner == FREE) {
+                synchronized (slot) {
+                    if (slot.spectacleId == FREE) {
+                        slot.reset(spectacleId);
+                        return slot;
+                    }
+                    if (slot.spectacleId == spectacleId) {
+                        return slot;
+                    }
+                }
+            }
+        }
+        return replaceLeastContended(start, spectacleId);
+    }
+
+    /**
+     * Réattribue la case sondée au plus faible temps d'attente cumulé, si personne n'y attend.
+     */
+    private Slot replaceLeastContended(int start, long spectacleId) {
+        Slot victim = null;
+        long lowest = Long.MAX_VALUE;
+        for (int i = 0; i < MAX_PROBES; i++) {
+            Slot slot = slots[(start + i) & mask];
+            long wait = slot.totalWaitNanos.sum();
+            if (slot.waiters.get() == 0 && wait < lowest) {
+                victim = slot;
+                lowest = wait;
+            }
+        }
+        if (victim == null) {
+            return null;
+        }
+        synchronized (victim) {
+            if (victim.spectacleId == spectacleId) {
+                return victim;
+            }
+            if (victim.waiters.get() != 0) {
+                return null;
+            }
+            victim.reset(spectacleId);
+            return victim;
+        }
+    }
+
+    /**
+     * Spectacles au plus fort temps d'attente cumulé.
+     *
+     * @param limit Nombre de spectacles à renvoyer (entre 1 et 50)
+     * @throws IllegalArgumentException si la limite est hors bornes
+     */
+    public LockContentionResponse top(int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("La limite doit être comprise entre 1 et " + MAX_LIMIT);
+        }
+        List<LockContentionResponse.SpectacleContention> items = new ArrayList<>();
+        for (Slot slot : slots) {
+            long id = slot.spectacleId;
+            if (id == FREE) {
+                continue;
+            }
+            long acquisitions = slot.acquisitions.sum();
+            long totalNanos = slot.totalWaitNanos.sum();
+            items.add(LockContentionResponse.SpectacleContention.builder()
+                    .spectacleId(id)
+                    .acquisitions(acquisitions)
+                    .currentWaiters(slot.waiters.get())
+                    .totalWaitMicros(totalNanos / 1_000)
+                    .meanWaitMicros(acquisitions == 0 ? 0 : totalNanos / acquisitions / 1_000)
+                    .maxWaitMicros(slot.maxWaitNanos.get() / 1_000)
+                    .build());
+        }
+        int tracked = items.size();
+        items.sort(Comparator.comparingLong(LockContentionResponse.SpectacleContention::getTotalWaitMicros)
+                .reversed());
+        return LockContentionResponse.builder()
+                .trackedSpectacles(tracked)
+                .currentWaiters(currentWaiters.get())
+                .untrackedAcquisitions(untracked.sum())
+                .items(new ArrayList<>(items.subList(0, Math.min(Math.max(limit, 0), tracked))))
+                .build();
+    }
+}
@@ -0,0 +1,158 @@
+package epsi.archiapp.backend.monitoring;
+
+import epsi.archiapp.backend.dto.LatencyReportResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Histogrammes de latence (HdrHistogram) de chaque étape des réservations et des annulations.
+ *
+ * Chaque couple (flux, étape) a son Recorder : l'enregistrement est sans verrou et sans allocation
+ * (tableau de compteurs de taille fixe, valeurs en microsecondes plafonnées à une minute).
+ * Un job planifié clôt l'intervalle courant toutes les app.latency.interval-ms : l'histogramme
+ * de l'intervalle est conservé pour la lecture et cumulé dans l'histogramme depuis le démarrage.
+ */
+@Component
+@Slf4j
+public class ReservationLatencyTracker {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = 60_000_000L;
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    /**
+     * Flux instrumentés.
+     */
+    public enum Flow {
+        CREATE,
+        CANCEL
+    }
+
+    /**
+     * Étapes d'un flux.
+     * LOCK_WAIT : lecture du spectacle verrouillé (création) ; LOAD : lecture sans verrou de la réservation
+     * (annulation, le verrou de ligne du spectacle étant pris au flush et compté dans COMMIT) ;
+     * CHECK : contrôles métier ; INSERT : écritures avant commit (création) ;
+     * DELETE : remise en stock et suppression avant commit (annulation) ;
+     * COMMIT : flush et commit ; CACHE_EVICTION : invalidation des caches après commit ; TOTAL : de bout en bout.
+     */
+    public enum Phase {
+        LOCK_WAIT,
+        LOAD,
+        CHECK,
+        INSERT,
+        DELETE,
+        COMMIT,
+        CACHE_EVICTION,
+        TOTAL
+    }
+
+    /**
+     * Portée d'un rapport.
+     */
+    public enum Scope {
+        INTERVAL,
+        TOTAL;
+
+        /**
+         * Convertit le paramètre de requête en portée (insensible à la casse).
+         *
+         * @throws IllegalArgumentException si la portée n'est pas supportée
+         */
+        public static Scope from(String value) {
+            try {
+                return Scope.valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException | NullPointerException e) {
+                throw new IllegalArgumentException("Portée non supportée : " + value + " (interval ou total)");
+            }
+        }
+    }
+
+    private static final Flow[] FLOWS = Flow.values();
+    private static final Phase[] PHASES = Phase.values();
+
+    private final Recorder[] recorders = new Recorder[FLOWS.length * PHASES.length];
+    private final Histogram[] intervals = new Histogram[recorders.length];
+    private final Histogram[] totals = new Histogram[recorders.length];
+    private final LocalDateTime startedAt = LocalDateTime.now();
+    private LocalDateTime intervalStart = startedAt;
+    private LocalDateTime intervalEnd = startedAt;
+
+    public ReservationLatencyTracker() {
+        for (int i = 0; i < recorders.length; i++) {
+            recorders[i] = new Recorder(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+            // Histogramme vide issu du Recorder : seul un histogramme qu'il a produit peut lui être recyclé
+            intervals[i] = recorders[i].getIntervalHistogram();
+            totals[i] = new Histogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+        }
+    }
+
+    /**
+     * Enregistre la durée d'une étape.
+     *
+     * @param nanos Durée mesurée avec System.nanoTime()
+     */
+    public void record(Flow flow, Phase phase, long nanos) {
+        long micros = Math.min(Math.max(nanos / 1_000, 0), HIGHEST_TRACKABLE_MICROS);
+        recorders[index(flow, phase)].recordValue(micros);
+    }
+
+    /**
+     * Clôt l'intervalle courant : les histogrammes d'intervalle sont recyclés (aucune allocation).
+     */
+    @Scheduled(fixedDelayString = "${app.latency.interval-ms:60000}")
+    public synchronized void rollInterval() {
+        for (int i = 0; i < recorders.length; i++) {
+            intervals[i] = recorders[i].getIntervalHistogram(intervals[i]);
+            totals[i].add(intervals[i]);
+        }
+        intervalStart = intervalEnd;
+        intervalEnd = LocalDateTime.now();
+    }
+
+    /**
+     * Percentiles p50, p90, p99 et p99,9 de chaque étape ayant des mesures.
+     *
+     * @param scope INTERVAL pour le dernier intervalle clos, TOTAL depuis le démarrage
+     */
+    public synchronized LatencyReportResponse report(Scope scope) {
+        Histogram[] source = scope == Scope.INTERVAL ? intervals : totals;
+        List<LatencyReportResponse.PhaseLatency> phases = new ArrayList<>();
+        for (Flow flow : FLOWS) {
+            for (Phase phase : PHASES) {
+                Histogram histogram = source[index(flow, phase)];
+                if (histogram.getTotalCount() == 0) {
+                    continue;
+                }
+                phases.add(LatencyReportResponse.PhaseLatency.builder()
+                        .flow(flow.name())
+                        .phase(phase.name())
+                        .count(histogram.getTotalCount())
+                        .p50(histogram.getValueAtPercentile(50))
+                        .p90(histogram.getValueAtPercentile(90))
+                        .p99(histogram.getValueAtPercentile(99))
+                        .p999(histogram.getValueAtPercentile(99.9))
+                        .max(histogram.getMaxValue())
+                        .mean(histogram.getMean())
+                        .build());
+            }
+        }
+        return LatencyReportResponse.builder()
+                .scope(scope.name().toLowerCase(Locale.ROOT))
+                .from(scope == Scope.INTERVAL ? intervalStart : startedAt)
+                .to(intervalEnd)
+                .phases(phases)
+                .build();
+    }
+
+    private static int index(Flow flow, Phase phase) {
+        return flow.ordinal() * PHASES.length + phase.ordinal();
+    }
+}
@@ -0,0 +1,42 @@
+package epsi.archiapp.backend.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Compteur archiapp.reservations des tentatives de réservation, étiqueté par issue.
+ * Les compteurs sont enregistrés une fois pour toutes : l'incrément ne fait aucune recherche dans le registre.
+ */
+@Component
+public class ReservationMetrics {
+
+    /**
+     * Issue d'une tentative de réservation.
+     */
+    public enum Outcome {
+        SUCCESS,
+        INSUFFICIENT,
+        NOT_FOUND,
+        PAST_SHOW
+    }
+
+    private final Map<Outcome, Counter> counters = new EnumMap<>(Outcome.class);
+
+    public ReservationMetrics(MeterRegistry meterRegistry) {
+        for (Outcome outcome : Outcome.values()) {
+            counters.put(outcome, Counter.builder("archiapp.reservations")
+                    .description("Tentatives de réservation par issue")
+                    .tag("outcome", outcome.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry));
+        }
+    }
+
+    public void increment(Outcome outcome) {
+        counters.get(outcome).increment();
+    }
+}
@@ -0,0 +1,65 @@
+package epsi.archiapp.backend.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.reactivestreams.Publisher;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Chronomètre chaque méthode publique des services (@Service) : timer archiapp.service, étiqueté par
+ * classe, méthode et exception (nom simple, "none" en cas de succès). Les étiquettes restent en
+ * nombre borné : aucune valeur d'argument n'y figure. Les timers sont mis en cache par classe, méthode
+ * et exception pour ne pas reconstruire un identifiant de métrique à chaque appel.
+ *
+ * Les contrôleurs sont déjà chronométrés par Spring MVC (http.server.requests, étiqueté par modèle d'URI).
+ * Les méthodes réactives (Flux, Mono) ne sont pas chronométrées : leur appel ne fait qu'assembler le flux.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class ServiceMetricsAspect {
+
+    static final String METRIC = "archiapp.service";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+
+    private record TimerKey(Class<?> type, String method, String exception) {
+    }
+
+    @Around("within(@org.springframework.stereotype.Service *) && execution(public * *(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        if (Publisher.class.isAssignableFrom(signature.getReturnType())) {
+            return joinPoint.proceed();
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = "none";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(timers.computeIfAbsent(
+                    new TimerKey(signature.getDeclaringType(), signature.getName(), exception), this::timer));
+        }
+    }
+
+    private Timer timer(TimerKey key) {
+        return Timer.builder(METRIC)
+                .description("Durée des méthodes de service")
+                .tag("class", key.type().getSimpleName())
+                .tag("method", key.method())
+                .tag("exception", key.exception())
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,148 @@
+package epsi.archiapp.backend.monitoring.jfr;
+
+import epsi.archiapp.backend.dto.FlightRecordingResponse;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Event;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Pilote un enregistrement Java Flight Recorder depuis l'API d'administration : démarrage avec une
+ * configuration JDK (default ou profile) et les événements métier, lecture à chaud, arrêt.
+ *
+ * Un seul enregistrement géré à la fois ; ceux lancés par ailleurs (jcmd, -XX:StartFlightRecording)
+ * ne sont pas touchés et reçoivent aussi les événements métier, activés par défaut.
+ */
+@Component
+@Slf4j
+public class FlightRecordingService {
+
+    static final List<Class<? extends Event>> EVENTS = List.of(
+            ReservationAttemptEvent.class,
+            LockAcquiredEvent.class,
+            ReservationRejectedEvent.class,
+            ReservationCommittedEvent.class,
+            ReservationCancelledEvent.class,
+            SpectacleCacheMissEvent.class);
+
+    private static final long MAX_AGE_LIMIT_MINUTES = 24 * 60;
+
+    private Recording recording;
+    private String settings;
+
+    /**
+     * Démarre un enregistrement. Les données plus anciennes que maxAgeMinutes sont écartées,
+     * ce qui borne l'espace disque utilisé.
+     *
+     * @param settingsName  Configuration JDK : default (surcoût ~1 %) ou profile (plus détaillée)
+     * @param maxAgeMinutes Fenêtre conservée (24 h maximum)
+     * @throws IllegalArgumentException si la configuration ou la durée est invalide
+     * @throws IllegalStateException    si un enregistrement est déjà en cours
+     */
+    public synchronized FlightRecordingResponse start(String settingsName, long maxAgeMinutes) {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            throw new IllegalStateException("Un enregistrement JFR est déjà en cours (id " + recording.getId() + ")");
+        }
+        if (maxAgeMinutes < 1 || maxAgeMinutes > MAX_AGE_LIMIT_MINUTES) {
+            throw new IllegalArgumentException("maxAgeMinutes doit être compris entre 1 et " + MAX_AGE_LIMIT_MINUTES);
+        }
+        String name = settingsName == null ? "" : settingsName.trim().toLowerCase(Locale.ROOT);
+        if (!name.equals("default") && !name.equals("profile")) {
+            throw new IllegalArgumentException("Configuration JFR non supportée : " + settingsName + " (default ou profile)");
+        }
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(name);
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("Configuration JFR illisible : " + name, e);
+        }
+
+        close();
+        Recording started = new Recording(configuration);
+        started.setName("archiapp-" + name);
+        started.setToDisk(true);
+        started.setMaxAge(Duration.ofMinutes(maxAgeMinutes));
+        for (Class<? extends Event> event : EVENTS) {
+            started.enable(event).withoutThreshold();
+        }
+        started.start();
+        recording = started;
+        settings = name;
+        log.info("Enregistrement JFR démarré - id: {}, configuration: {}, fenêtre: {} min",
+                started.getId(), name, maxAgeMinutes);
+        return status();
+    }
+
+    /**
+     * Arrête l'enregistrement en cours ; ses données restent lisibles par {@link #dump}.
+     *
+     * @throws IllegalStateException si aucun enregistrement n'est en cours
+     */
+    public synchronized FlightRecordingResponse stop() {
+        if (recording == null || recording.getState() != RecordingState.RUNNING) {
+            throw new IllegalStateException("Aucun enregistrement JFR en cours");
+        }
+        recording.stop();
+        log.info("Enregistrement JFR arrêté - id: {}", recording.getId());
+        return status();
+    }
+
+    /**
+     * État de l'enregistrement géré, ou null s'il n'y en a jamais eu.
+     */
+    public synchronized FlightRecordingResponse status() {
+        if (recording == null) {
+            return null;
+        }
+        Duration maxAge = recording.getMaxAge();
+        return FlightRecordingResponse.builder()
+                .id(recording.getId())
+                .name(recording.getName())
+                .state(recording.getState().name())
+                .settings(settings)
+                .startTime(recording.getStartTime())
+                .maxAgeMinutes(maxAge == null ? 0 : maxAge.toMinutes())
+                .sizeBytes(recording.getSize())
+                .build();
+    }
+
+    /**
+     * Copie les données de l'enregistrement (en cours ou arrêté) dans un fichier temporaire .jfr, lisible
+     * par JDK Mission Control ou la commande jfr. L'enregistrement continue s'il était en cours.
+     * L'appelant supprime le fichier une fois lu.
+     *
+     * @throws IllegalStateException si aucun enregistrement n'a été démarré
+     */
+    public synchronized Path dump() {
+        if (recording == null) {
+            throw new IllegalStateException("Aucun enregistrement JFR à exporter");
+        }
+        try {
+            Path file = Files.createTempFile("archiapp-", ".jfr");
+            recording.dump(file);
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+}
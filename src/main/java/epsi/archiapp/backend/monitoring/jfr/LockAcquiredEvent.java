@@ -0,0 +1,20 @@
+package epsi.archiapp.backend.monitoring.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Événement JFR couvrant l'attente du verrou de ligne du spectacle (durée de l'événement).
+ */
+@Name("epsi.archiapp.LockAcquired")
+@Label("Verrou du spectacle obtenu")
+@Category({"ArchiApp", "Réservations"})
+@StackTrace(false)
+public class LockAcquiredEvent extends Event {
+
+    @Label("ID du spectacle")
+    public long spectacleId;
+}
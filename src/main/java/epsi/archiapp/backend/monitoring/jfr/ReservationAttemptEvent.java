@@ -0,0 +1,36 @@
+package epsi.archiapp.backend.monitoring.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Événement JFR émis à l'entrée de la création d'une réservation.
+ */
+@Name("epsi.archiapp.ReservationAttempt")
+@Label("Tentative de réservation")
+@Category({"ArchiApp", "Réservations"})
+@StackTrace(false)
+public class ReservationAttemptEvent extends Event {
+
+    @Label("ID du spectacle")
+    public long spectacleId;
+
+    @Label("Quantité")
+    public int quantity;
+
+    /**
+     * Émet l'événement si JFR l'enregistre ; sinon rien n'est renseigné ni écrit, et le JIT élimine
+     * l'allocation : le coût est quasi nul tant qu'aucun enregistrement n'est actif.
+     */
+    public static void emit(long spectacleId, int quantity) {
+        ReservationAttemptEvent event = new ReservationAttemptEvent();
+        if (event.shouldCommit()) {
+            event.spectacleId = spectacleId;
+            event.quantity = quantity;
+            event.commit();
+        }
+    }
+}
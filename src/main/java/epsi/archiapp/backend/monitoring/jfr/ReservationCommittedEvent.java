@@ -0,0 +1,50 @@
+package epsi.archiapp.backend.monitoring.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Événement JFR émis après le commit d'une réservation.
+ */
+@Name("epsi.archiapp.ReservationCommitted")
+@Label("Réservation validée")
+@Category({"ArchiApp", "Réservations"})
+@StackTrace(false)
+public class ReservationCommittedEvent extends Event {
+
+    @Label("ID de la réservation")
+    public long reservationId;
+
+    @Label("ID du spectacle")
+    public long spectacleId;
+
+    @Label("Quantité")
+    public int quantity;
+
+    @Label("Durée du commit")
+    @Timespan(Timespan.NANOSECONDS)
+    public long commitTime;
+
+    @Label("Durée totale")
+    @Timespan(Timespan.NANOSECONDS)
+    public long totalTime;
+
+    /**
+     * Émet l'événement si JFR l'enregistre. Durées en nanosecondes.
+     */
+    public static void emit(long reservationId, long spectacleId, int quantity, long commitTime, long totalTime) {
+        ReservationCommittedEvent event = new ReservationCommittedEvent();
+        if (event.shouldCommit()) {
+            event.reservationId = reservationId;
+            event.spectacleId = spectacleId;
+            event.quantity = quantity;
+            event.commitTime = commitTime;
+            event.totalTime = totalTime;
+            event.commit();
+        }
+    }
+}
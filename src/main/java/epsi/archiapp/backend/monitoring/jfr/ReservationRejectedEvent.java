@@ -0,0 +1,43 @@
+package epsi.archiapp.backend.monitoring.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Événement JFR émis quand une réservation est refusée (spectacle introuvable ou passé, billets insuffisants).
+ */
+@Name("epsi.archiapp.ReservationRejected")
+@Label("Réservation refusée")
+@Category({"ArchiApp", "Réservations"})
+@StackTrace(false)
+public class ReservationRejectedEvent extends Event {
+
+    @Label("ID du spectacle")
+    public long spectacleId;
+
+    @Label("Quantité")
+    public int quantity;
+
+    @Label("Motif")
+    public String reason;
+
+    @Label("Billets disponibles")
+    public int availableTickets;
+
+    /**
+     * Émet l'événement si JFR l'enregistre.
+     */
+    public static void emit(long spectacleId, int quantity, String reason, int availableTickets) {
+        ReservationRejectedEvent event = new ReservationRejectedEvent();
+        if (event.shouldCommit()) {
+            event.spectacleId = spectacleId;
+            event.quantity = quantity;
+            event.reason = reason;
+            event.availableTickets = availableTickets;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package epsi.archiapp.backend.monitoring.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Événement JFR couvrant le chargement en base après un défaut du cache "spectacles" (durée de l'événement).
+ */
+@Name("epsi.archiapp.SpectacleCacheMiss")
+@Label("Défaut de cache spectacles")
+@Category({"ArchiApp", "Catalogue"})
+@StackTrace(false)
+public class SpectacleCacheMissEvent extends Event {
+
+    @Label("Clé")
+    public String key;
+
+    @Label("ID du spectacle")
+    @Description("0 pour une page de la liste")
+    public long spectacleId;
+
+    @Label("Spectacles chargés")
+    public int loaded;
+}
@@ -0,0 +1,22 @@
+package epsi.archiapp.backend.repository;
+
+import epsi.archiapp.backend.model.BuyerSketch;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface BuyerSketchRepository extends JpaRepository<BuyerSketch, Long> {
+
+    /**
+     * Récupère des sketches avec un verrouillage pessimiste en écriture : deux instances qui sauvegardent
+     * le même sketch se sérialisent, la seconde fusionne donc avec la version écrite par la première.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM BuyerSketch b WHERE b.spectacleId IN :ids")
+    List<BuyerSketch> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+}
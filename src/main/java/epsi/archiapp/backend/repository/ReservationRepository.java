@@ -1,13 +1,18 @@
 package epsi.archiapp.backend.repository;
 
 import epsi.archiapp.backend.model.Reservation;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface ReservationRepository extends JpaRepository<Reservation, Long> {
 
@@ -17,22 +22,48 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
     @Query("SELECT r FROM Reservation r JOIN FETCH r.spectacle WHERE r.keycloakUserId = :keycloakUserId")
     Page<Reservation> findByKeycloakUserId(@Param("keycloakUserId") String keycloakUserId, Pageable pageable);
 
-    @Query("SELECT SUM(r.totalPrice) FROM Reservation r")
-    java.math.BigDecimal getTotalSales();
-
-    interface SalesBySpectacle {
+    interface SalesSummaryRow {
         Long getSpectacleId();
         String getTitle();
         Long getTicketsSold();
         java.math.BigDecimal getRevenue();
+        Long getReservationCount();
     }
 
-    @Query("SELECT r.spectacle.id as spectacleId, r.spectacle.title as title, " +
-           "SUM(r.quantity) as ticketsSold, SUM(r.totalPrice) as revenue " +
-           "FROM Reservation r " +
-           "GROUP BY r.spectacle.id, r.spectacle.title " +
-           "ORDER BY revenue DESC")
-    List<SalesBySpectacle> getSalesBySpectacle();
+    /**
+     * Agrégats complets par spectacle en une seule requête groupée : les totaux (chiffre d'affaires,
+     * nombre de réservations) se déduisent des lignes, sans SUM ni COUNT supplémentaires sur la table.
+     * Parcours complet des réservations (couvert par idx_reservation_spectacle) : réservé aux statistiques
+     * exactes à la demande et à la réconciliation (SalesStatisticsService).
+     */
+    @Query("SELECT r.spectacle.id as spectacleId, r.spectacle.title as title, SUM(r.quantity) as ticketsSold, " +
+           "SUM(r.totalPrice) as revenue, COUNT(r) as reservationCount " +
+           "FROM Reservation r GROUP BY r.spectacle.id, r.spectacle.title")
+    List<SalesSummaryRow> getSalesSummaryBySpectacle();
 
     void deleteBySpectacleId(Long spectacleId);
+
+    @Query("SELECT DISTINCT r.spectacle.id FROM Reservation r")
+    List<Long> findSpectacleIdsWithReservations();
+
+    interface BuyerRow {
+        Long getSpectacleId();
+        String getKeycloakUserId();
+    }
+
+    /**
+     * Couples (spectacle, acheteur) distincts, lus en flux par lots de 1000 lignes : reconstruction des sketches
+     * d'acheteurs absents au démarrage (BuyerSketchService). Le flux doit être consommé dans une transaction.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT DISTINCT r.spectacle.id AS spectacleId, r.keycloakUserId AS keycloakUserId FROM Reservation r")
+    Stream<BuyerRow> streamDistinctBuyers();
+
+    /**
+     * Comme streamDistinctBuyers, limité à quelques spectacles.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT DISTINCT r.spectacle.id AS spectacleId, r.keycloakUserId AS keycloakUserId FROM Reservation r " +
+           "WHERE r.spectacle.id IN :spectacleIds")
+    Stream<BuyerRow> streamDistinctBuyers(@Param("spectacleIds") Collection<Long> spectacleIds);
 }
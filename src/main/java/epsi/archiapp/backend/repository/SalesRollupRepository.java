@@ -0,0 +1,50 @@
+package epsi.archiapp.backend.repository;
+
+import epsi.archiapp.backend.model.SalesRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface SalesRollupRepository extends JpaRepository<SalesRollup, Long> {
+
+    /**
+     * Ajoute des ventes à une tranche existante (UPDATE relatif, sûr entre plusieurs instances).
+     *
+     * @return Le nombre de lignes modifiées (0 si la tranche n'existe pas encore)
+     */
+    @Modifying
+    @Query("UPDATE SalesRollup r SET r.ticketsSold = r.ticketsSold + :tickets, r.revenue = r.revenue + :revenue, " +
+           "r.reservations = r.reservations + :reservations " +
+           "WHERE r.granularity = :granularity AND r.bucketStart = :bucketStart AND r.spectacleId = :spectacleId")
+    int addTo(@Param("granularity") SalesRollup.Granularity granularity,
+              @Param("bucketStart") LocalDateTime bucketStart, @Param("spectacleId") Long spectacleId,
+              @Param("tickets") long tickets, @Param("revenue") BigDecimal revenue,
+              @Param("reservations") long reservations);
+
+    interface SalesPointRow {
+        LocalDateTime getBucketStart();
+        Long getTicketsSold();
+        BigDecimal getRevenue();
+        Long getReservations();
+    }
+
+    @Query("SELECT r.bucketStart as bucketStart, SUM(r.ticketsSold) as ticketsSold, SUM(r.revenue) as revenue, " +
+           "SUM(r.reservations) as reservations FROM SalesRollup r " +
+           "WHERE r.granularity = :granularity AND r.bucketStart >= :from AND r.bucketStart < :to " +
+           "GROUP BY r.bucketStart ORDER BY r.bucketStart")
+    List<SalesPointRow> findTotals(@Param("granularity") SalesRollup.Granularity granularity,
+                                   @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("SELECT r.bucketStart as bucketStart, r.ticketsSold as ticketsSold, r.revenue as revenue, " +
+           "r.reservations as reservations FROM SalesRollup r " +
+           "WHERE r.granularity = :granularity AND r.spectacleId = :spectacleId " +
+           "AND r.bucketStart >= :from AND r.bucketStart < :to ORDER BY r.bucketStart")
+    List<SalesPointRow> findBySpectacle(@Param("granularity") SalesRollup.Granularity granularity,
+                                        @Param("spectacleId") Long spectacleId,
+                                        @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+}
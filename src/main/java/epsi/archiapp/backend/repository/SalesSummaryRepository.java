@@ -0,0 +1,60 @@
+package epsi.archiapp.backend.repository;
+
+import epsi.archiapp.backend.model.SalesSummary;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public interface SalesSummaryRepository extends JpaRepository<SalesSummary, Long> {
+
+    /**
+     * Applique un delta sur les agrégats d'un spectacle par un UPDATE relatif (x = x + delta), en créant la
+     * ligne si elle n'existe pas (INSERT ... ON CONFLICT DO UPDATE, MERGE sur H2) : les transactions concurrentes
+     * ne s'écrasent pas et deux premières écritures simultanées ne se heurtent pas à une clé dupliquée.
+     *
+     * @return Le nombre de lignes insérées ou modifiées
+     */
+    @Modifying
+    @Query("INSERT INTO SalesSummary (spectacleId, ticketsSold, revenue, reservationCount) " +
+           "VALUES (:spectacleId, :tickets, :revenue, :reservations) " +
+           "ON CONFLICT (spectacleId) DO UPDATE SET ticketsSold = ticketsSold + excluded.ticketsSold, " +
+           "revenue = revenue + excluded.revenue, reservationCount = reservationCount + excluded.reservationCount")
+    int applyDelta(@Param("spectacleId") Long spectacleId, @Param("tickets") long tickets,
+                   @Param("revenue") BigDecimal revenue, @Param("reservations") long reservations);
+
+    interface SalesDeltaRow {
+        Long getSpectacleId();
+        Long getTicketsSold();
+        BigDecimal getRevenue();
+        Long getReservationCount();
+    }
+
+    /**
+     * Écarts entre les réservations et sales_summary, par spectacle (réservations moins agrégats), limités aux
+     * spectacles qui divergent. Les deux tables sont lues par une seule requête, donc sur le même instantané :
+     * une réservation et son delta, écrits dans la même transaction, y sont tous deux ou aucun des deux.
+     */
+    @Query(value = "SELECT d.spectacle_id AS spectacleId, SUM(d.tickets) AS ticketsSold, " +
+                   "SUM(d.revenue) AS revenue, SUM(d.reservations) AS reservationCount FROM (" +
+                   "SELECT r.spectacle_id, r.quantity AS tickets, r.total_price AS revenue, 1 AS reservations " +
+                   "FROM reservations r UNION ALL " +
+                   "SELECT s.spectacle_id, -s.tickets_sold, -s.revenue, -s.reservation_count FROM sales_summary s) d " +
+                   "GROUP BY d.spectacle_id " +
+                   "HAVING SUM(d.tickets) <> 0 OR SUM(d.revenue) <> 0 OR SUM(d.reservations) <> 0",
+           nativeQuery = true)
+    List<SalesDeltaRow> findDeltas();
+
+    /**
+     * Récupère toutes les lignes avec un verrouillage pessimiste en écriture (SELECT ... FOR UPDATE) :
+     * les réservations concurrentes attendent la fin de la réconciliation pour appliquer leur delta.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM SalesSummary s")
+    List<SalesSummary> findAllForUpdate();
+}
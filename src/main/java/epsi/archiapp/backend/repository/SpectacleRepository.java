@@ -9,6 +9,7 @@ import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -33,6 +34,14 @@ public interface SpectacleRepository extends JpaRepository<Spectacle, Long> {
 
     Spectacle findByTitle(String title);
 
+    interface SpectacleTitle {
+        Long getId();
+        String getTitle();
+    }
+
+    @Query("SELECT s.id as id, s.title as title FROM Spectacle s")
+    List<SpectacleTitle> findAllTitles();
+
     @Query("SELECT s FROM Spectacle s WHERE s.date >= :now ORDER BY s.date ASC")
     Page<Spectacle> findUpcomingSpectacles(@Param("now") LocalDateTime now, Pageable pageable);
 
@@ -41,5 +50,35 @@ public interface SpectacleRepository extends JpaRepository<Spectacle, Long> {
 
     @Query("SELECT s FROM Spectacle s WHERE LOWER(s.title) LIKE LOWER(CONCAT('%', :keyword, '%')) OR LOWER(s.description) LIKE LOWER(CONCAT('%', :keyword, '%'))")
     Page<Spectacle> searchSpectacles(@Param("keyword") String keyword, Pageable pageable);
-}
 
+    /**
+     * Récupère les spectacles modifiés après le curseur (updatedAt, id), triés sur ce même couple.
+     * La pagination par clé s'appuie sur l'index idx_spectacle_updated_at.
+     */
+    @Query("SELECT s FROM Spectacle s WHERE s.updatedAt > :since OR (s.updatedAt = :since AND s.id > :afterId) " +
+           "ORDER BY s.updatedAt ASC, s.id ASC")
+    List<Spectacle> findChangedSince(@Param("since") LocalDateTime since, @Param("afterId") Long afterId,
+                                     Pageable pageable);
+
+    /**
+     * Récupère une page de spectacles correspondant aux filtres de date et de prix, triés par date.
+     * Aucune requête de comptage n'est émise : le total provient des facettes (SpectacleFilterService).
+     * S'appuie sur l'index idx_spectacle_date_price.
+     */
+    @Query("SELECT s FROM Spectacle s WHERE s.date >= :from AND s.date < :to " +
+           "AND s.price >= :minPrice AND s.price <= :maxPrice ORDER BY s.date ASC, s.id ASC")
+    List<Spectacle> findFiltered(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                                 @Param("minPrice") BigDecimal minPrice, @Param("maxPrice") BigDecimal maxPrice,
+                                 Pageable pageable);
+
+    /**
+     * Variante de {@link #findFiltered} limitée aux spectacles ayant encore des billets. Le prédicat
+     * littéral "availableTickets > 0" permet à PostgreSQL d'utiliser l'index partiel
+     * idx_spectacle_available_date_price (voir PartialIndexInitializer).
+     */
+    @Query("SELECT s FROM Spectacle s WHERE s.availableTickets > 0 AND s.date >= :from AND s.date < :to " +
+           "AND s.price >= :minPrice AND s.price <= :maxPrice ORDER BY s.date ASC, s.id ASC")
+    List<Spectacle> findFilteredAvailable(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                                          @Param("minPrice") BigDecimal minPrice,
+                                          @Param("maxPrice") BigDecimal maxPrice, Pageable pageable);
+}
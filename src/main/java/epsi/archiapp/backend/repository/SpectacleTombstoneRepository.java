@@ -0,0 +1,25 @@
+package epsi.archiapp.backend.repository;
+
+import epsi.archiapp.backend.model.SpectacleTombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface SpectacleTombstoneRepository extends JpaRepository<SpectacleTombstone, Long> {
+
+    @Query("SELECT t FROM SpectacleTombstone t WHERE t.deletedAt > :since ORDER BY t.deletedAt ASC")
+    List<SpectacleTombstone> findDeletedSince(@Param("since") LocalDateTime since);
+
+    @Query("SELECT t FROM SpectacleTombstone t WHERE t.deletedAt > :since AND t.deletedAt <= :until " +
+           "ORDER BY t.deletedAt ASC")
+    List<SpectacleTombstone> findDeletedBetween(@Param("since") LocalDateTime since,
+                                                @Param("until") LocalDateTime until);
+
+    @Modifying
+    @Query("DELETE FROM SpectacleTombstone t WHERE t.deletedAt < :before")
+    int deleteOlderThan(@Param("before") LocalDateTime before);
+}
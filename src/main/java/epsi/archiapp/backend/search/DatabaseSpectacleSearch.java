@@ -0,0 +1,107 @@
+package epsi.archiapp.backend.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Recherche plein texte en base (app.search.mode=database), pour les catalogues trop volumineux
+ * pour l'index en mémoire.
+ *
+ * Sur PostgreSQL, la requête utilise la colonne search_vector (index GIN) avec la configuration
+ * fr_unaccent, classe par ts_rank et pagine par clé sur (rang, id) : le curseur vaut "rang:id".
+ * Sur les autres bases, ou tant que le script db/manual/spectacle_search_vector.sql n'est pas appliqué,
+ * elle se replie sur LIKE, paginé par id (curseur "0:id") : chaque terme normalisé doit apparaître dans
+ * le titre ou la description, eux-mêmes passés en minuscules et sans accents, comme les termes de la requête.
+ */
+@Component
+@ConditionalOnProperty(name = "app.search.mode", havingValue = "database")
+@RequiredArgsConstructor
+@Slf4j
+public class DatabaseSpectacleSearch implements SpectacleSearchEngine {
+
+    private static final String FULL_TEXT_SQL =
+            "SELECT id, rank FROM (" +
+            "SELECT s.id, ts_rank(s.search_vector, q) AS rank " +
+            "FROM spectacles s, to_tsquery('fr_unaccent', ?) q " +
+            "WHERE s.search_vector @@ q) ranked " +
+            "WHERE rank < ? OR (rank = ? AND id > ?) " +
+            "ORDER BY rank DESC, id ASC LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PostgresSearchSchemaInitializer schemaInitializer;
+
+    @Override
+    public SearchPage search(String query, String cursor, int limit) {
+        List<String> tokens = TextNormalizer.tokenize(query);
+        if (tokens.isEmpty()) {
+            return new SearchPage(List.of(), null);
+        }
+        float afterRank = Float.MAX_VALUE;
+        long afterId = 0L;
+        if (cursor != null && !cursor.isBlank()) {
+            int separator = cursor.indexOf(':');
+            try {
+                afterRank = Float.parseFloat(cursor.substring(0, separator));
+                afterId = Long.parseLong(cursor.substring(separator + 1));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Curseur de recherche invalide : " + cursor);
+            }
+        }
+
+        List<Long> ids = new ArrayList<>(limit + 1);
+        List<Float> ranks = new ArrayList<>(limit + 1);
+        if (schemaInitializer.isFullTextAvailable()) {
+            jdbcTemplate.query(FULL_TEXT_SQL, rs -> {
+                ids.add(rs.getLong(1));
+                ranks.add(rs.getFloat(2));
+            }, toTsQuery(tokens), afterRank, afterRank, afterId, limit + 1);
+        } else {
+            List<Object> args = new ArrayList<>(tokens.size() * 2 + 2);
+            for (String token : tokens) {
+                args.add("%" + token + "%");
+                args.add("%" + token + "%");
+            }
+            args.add(afterId);
+            args.add(limit + 1);
+            jdbcTemplate.query(likeSql(tokens.size()), rs -> {
+                ids.add(rs.getLong(1));
+                ranks.add(0f);
+            }, args.toArray());
+        }
+
+        boolean hasMore = ids.size() > limit;
+        if (hasMore) {
+            ids.remove(limit);
+        }
+        String nextCursor = hasMore ? ranks.get(limit - 1) + ":" + ids.get(limit - 1) : null;
+        log.debug("Recherche en base '{}' - {} résultats, suite: {}", query, ids.size(), hasMore);
+        return new SearchPage(ids, nextCursor);
+    }
+
+    /**
+     * Construit la requête tsquery : tous les termes sont requis, le dernier est un préfixe.
+     * Les termes issus de TextNormalizer ne contiennent que des lettres et des chiffres.
+     */
+    static String toTsQuery(List<String> tokens) {
+        return String.join(" & ", tokens) + ":*";
+    }
+
+    /**
+     * Construit la requête LIKE : une condition par terme, sur les colonnes repliées comme TextNormalizer.fold.
+     * Les termes ne contenant que des lettres et des chiffres, ils n'ont pas de joker LIKE (% ou _) à échapper.
+     */
+    static String likeSql(int tokenCount) {
+        String condition = "(" + TextNormalizer.foldSql("title") + " LIKE ? OR "
+                + TextNormalizer.foldSql("description") + " LIKE ?)";
+        return "SELECT id FROM spectacles WHERE " +
+                String.join(" AND ", Collections.nCopies(tokenCount, condition)) +
+                " AND id > ? ORDER BY id ASC LIMIT ?";
+    }
+}
@@ -0,0 +1,62 @@
+package epsi.archiapp.backend.search;
+
+import epsi.archiapp.backend.util.DatabaseUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Vérifie au démarrage le schéma de la recherche en base (app.search.mode=database) sur PostgreSQL :
+ * configuration fr_unaccent, colonne tsvector générée search_vector et son index GIN.
+ *
+ * Ce schéma est créé par le script db/manual/spectacle_search_vector.sql, appliqué à la main hors
+ * démarrage : l'ajout de la colonne générée réécrit toute la table sous verrou exclusif. Tant qu'il
+ * manque, ou sur une autre base (H2 en test), la recherche se replie sur LIKE.
+ */
+@Component
+@ConditionalOnProperty(name = "app.search.mode", havingValue = "database")
+@RequiredArgsConstructor
+@Slf4j
+public class PostgresSearchSchemaInitializer implements ApplicationRunner {
+
+    static final String MIGRATION = "db/manual/spectacle_search_vector.sql";
+
+    private static final String SCHEMA_CHECK_SQL =
+            "SELECT EXISTS (SELECT 1 FROM pg_ts_config WHERE cfgname = 'fr_unaccent') " +
+            "AND EXISTS (SELECT 1 FROM information_schema.columns " +
+            "WHERE table_name = 'spectacles' AND column_name = 'search_vector') " +
+            "AND EXISTS (SELECT 1 FROM pg_indexes WHERE indexname = 'idx_spectacle_search_vector')";
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile boolean fullTextAvailable;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!DatabaseUtils.isPostgres(dataSource)) {
+            log.warn("Recherche en base : la base n'est pas PostgreSQL, repli sur la recherche LIKE");
+            return;
+        }
+        if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(SCHEMA_CHECK_SQL, Boolean.class))) {
+            log.warn("Recherche en base : schéma absent, appliquer le script {} - repli sur la recherche LIKE",
+                    MIGRATION);
+            return;
+        }
+        fullTextAvailable = true;
+        log.info("Recherche en base : colonne search_vector et index GIN prêts");
+    }
+
+    /**
+     * Indique si la colonne tsvector et son index sont disponibles.
+     */
+    public boolean isFullTextAvailable() {
+        return fullTextAvailable;
+    }
+}
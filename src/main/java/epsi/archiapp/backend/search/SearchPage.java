@@ -0,0 +1,12 @@
+package epsi.archiapp.backend.search;
+
+import java.util.List;
+
+/**
+ * Page de résultats d'une recherche : IDs classés par pertinence et curseur de la page suivante.
+ *
+ * @param ids        IDs des spectacles trouvés, du plus pertinent au moins pertinent
+ * @param nextCursor Curseur opaque à renvoyer pour la page suivante (null s'il n'y en a pas)
+ */
+public record SearchPage(List<Long> ids, String nextCursor) {
+}
@@ -0,0 +1,15 @@
+package epsi.archiapp.backend.search;
+
+/**
+ * Moteur de recherche plein texte des spectacles, choisi par app.search.mode :
+ * "memory" (index inversé en mémoire, par défaut) ou "database" (tsvector PostgreSQL).
+ */
+public interface SpectacleSearchEngine {
+
+    /**
+     * @param query  Texte recherché (accents et casse indifférents)
+     * @param cursor Curseur renvoyé par la page précédente (null pour la première page)
+     * @param limit  Nombre maximal de résultats
+     */
+    SearchPage search(String query, String cursor, int limit);
+}
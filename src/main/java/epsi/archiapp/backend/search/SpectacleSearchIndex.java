@@ -0,0 +1,293 @@
+package epsi.archiapp.backend.search;
+
+import epsi.archiapp.backend.event.SpectacleChangedEvent;
+import epsi.archiapp.backend.model.Spectacle;
+import epsi.archiapp.backend.repository.SpectacleRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Index inversé en mémoire des spectacles (titre et description).
+ *
+ * Chaque terme normalisé pointe vers les spectacles qui le contiennent, avec un poids plus fort pour
+ * le titre que pour la description. Une requête exige la présence de tous ses termes ; le dernier
+ * est aussi recherché comme préfixe pour la saisie en cours. Le score combine les poids et la rareté
+ * du terme (idf), les ex aequo étant départagés par la date du spectacle.
+ *
+ * L'index est construit au démarrage puis tenu à jour par les SpectacleChangedEvent validés. Les lectures
+ * se font sous verrou partagé et ne touchent jamais la base. Les modifications reçues pendant une
+ * reconstruction sont mémorisées puis rejouées sur le nouvel index au moment de l'échange, pour ne pas
+ * être perdues si la lecture de la base les a précédées.
+ */
+@Component
+@ConditionalOnProperty(name = "app.search.mode", havingValue = "memory", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class SpectacleSearchIndex implements SpectacleSearchEngine {
+
+    private static final float TITLE_WEIGHT = 3f;
+    private static final float DESCRIPTION_WEIGHT = 1f;
+    private static final float PREFIX_FACTOR = 0.5f;
+
+    private final SpectacleRepository spectacleRepository;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private TreeMap<String, Map<Long, Float>> postings = new TreeMap<>();
+    private Map<Long, Document> documents = new HashMap<>();
+
+    /**
+     * Modifications reçues pendant une reconstruction (null hors reconstruction), protégées par le verrou d'écriture.
+     */
+    private List<Change> pending;
+
+    /**
+     * Termes indexés d'un spectacle (pour pouvoir le retirer) et date utilisée pour départager les scores.
+     */
+    private record Document(Set<String> terms, LocalDateTime date) {
+    }
+
+    /**
+     * Modification incrémentale à rejouer après une reconstruction.
+     */
+    private record Change(Long id, boolean deleted, String title, String description, LocalDateTime date) {
+    }
+
+    /**
+     * Reconstruit entièrement l'index depuis la base (démarrage et import en masse).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            pending = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        TreeMap<String, Map<Long, Float>> newPostings = new TreeMap<>();
+        Map<Long, Document> newDocuments = new HashMap<>();
+        try {
+            for (Spectacle spectacle : spectacleRepository.findAll()) {
+                add(newPostings, newDocuments, spectacle.getId(), spectacle.getTitle(), spectacle.getDescription(),
+                        spectacle.getDate());
+            }
+        } catch (RuntimeException e) {
+            swap(null, null);
+            throw e;
+        }
+
+        int replayed = swap(newPostings, newDocuments);
+        log.info("Index de recherche construit - {} spectacles, {} termes, {} modifications rejouées en {} ms",
+                newDocuments.size(), newPostings.size(), replayed, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Installe le nouvel index (sauf s'il est null) en y rejouant les modifications reçues pendant sa
+     * construction, puis arrête de les mémoriser.
+     *
+     * @return Le nombre de modifications rejouées
+     */
+    private int swap(TreeMap<String, Map<Long, Float>> newPostings, Map<Long, Document> newDocuments) {
+        lock.writeLock().lock();
+        try {
+            int replayed = 0;
+            if (newPostings != null) {
+                postings = newPostings;
+                documents = newDocuments;
+                replayed = pending.size();
+                pending.forEach(this::apply);
+            }
+            pending = null;
+            return replayed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Applique une modification validée du catalogue. Les imports en masse, publiés hors transaction,
+     * sont traités immédiatement (fallbackExecution).
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onSpectacleChanged(SpectacleChangedEvent event) {
+        switch (event.type()) {
+            case CREATED, UPDATED -> index(event.spectacleId(), event.title(), event.description(), event.date());
+            case DELETED -> remove(event.spectacleId());
+            case BULK_IMPORTED -> rebuild();
+        }
+    }
+
+    /**
+     * Ajoute ou remplace un spectacle dans l'index.
+     */
+    public void index(Long id, String title, String description, LocalDateTime date) {
+        record(new Change(id, false, title, description, date));
+    }
+
+    /**
+     * Retire un spectacle de l'index.
+     */
+    public void remove(Long id) {
+        record(new Change(id, true, null, null, null));
+    }
+
+    /**
+     * Applique la modification à l'index courant et la mémorise si une reconstruction est en cours.
+     */
+    private void record(Change change) {
+        lock.writeLock().lock();
+        try {
+            apply(change);
+            if (pending != null) {
+                pending.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void apply(Change change) {
+        removeDocument(change.id());
+        if (!change.deleted()) {
+            add(postings, documents, change.id(), change.title(), change.description(), change.date());
+        }
+    }
+
+    /**
+     * Recherche paginée : le curseur est la position du premier résultat de la page.
+     */
+    @Override
+    public SearchPage search(String query, String cursor, int limit) {
+        int offset = 0;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                offset = Integer.parseInt(cursor);
+            } catch (NumberFormatException e) {
+                offset = -1;
+            }
+            if (offset < 0) {
+                throw new IllegalArgumentException("Curseur de recherche invalide : " + cursor);
+            }
+        }
+        List<Long> ids = search(query, offset + limit + 1);
+        if (offset >= ids.size()) {
+            return new SearchPage(List.of(), null);
+        }
+        boolean hasMore = ids.size() > offset + limit;
+        List<Long> page = ids.subList(offset, Math.min(ids.size(), offset + limit));
+        return new SearchPage(List.copyOf(page), hasMore ? String.valueOf(offset + limit) : null);
+    }
+
+    /**
+     * Recherche les spectacles correspondant à la requête, du plus pertinent au moins pertinent.
+     *
+     * @param query Texte saisi (accents et casse indifférents)
+     * @param limit Nombre maximal de résultats
+     * @return Les IDs des spectacles trouvés
+     */
+    public List<Long> search(String query, int limit) {
+        List<String> tokens = TextNormalizer.tokenize(query);
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            int documentCount = documents.size();
+            Map<Long, Float> scores = null;
+            for (int i = 0; i < tokens.size() && (scores == null || !scores.isEmpty()); i++) {
+                String token = tokens.get(i);
+                Map<Long, Float> tokenScores = new HashMap<>();
+                collect(tokenScores, postings.get(token), 1f, documentCount);
+                if (i == tokens.size() - 1) {
+                    for (Map<Long, Float> prefixed : postings.subMap(token, false, token + Character.MAX_VALUE, false).values()) {
+                        collect(tokenScores, prefixed, PREFIX_FACTOR, documentCount);
+                    }
+                }
+                if (scores == null) {
+                    scores = tokenScores;
+                } else {
+                    scores.keySet().retainAll(tokenScores.keySet());
+                    scores.replaceAll((id, score) -> score + tokenScores.get(id));
+                }
+            }
+
+            Map<Long, Float> finalScores = scores;
+            Map<Long, Document> docs = documents;
+            return finalScores.keySet().stream()
+                    .sorted(Comparator.<Long, Float>comparing(finalScores::get).reversed()
+                            .thenComparing(id -> docs.get(id).date(), Comparator.nullsLast(Comparator.naturalOrder()))
+                            .thenComparing(Comparator.naturalOrder()))
+                    .limit(limit)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ajoute au score de chaque spectacle la meilleure contribution du terme (poids x idf x facteur).
+     */
+    private void collect(Map<Long, Float> tokenScores, Map<Long, Float> posting, float factor, int documentCount) {
+        if (posting == null || posting.isEmpty()) {
+            return;
+        }
+        float idf = (float) Math.log(1 + (double) documentCount / posting.size());
+        posting.forEach((id, weight) -> tokenScores.merge(id, weight * idf * factor, Math::max));
+    }
+
+    private static void add(TreeMap<String, Map<Long, Float>> postings, Map<Long, Document> documents,
+                            Long id, String title, String description, LocalDateTime date) {
+        Map<String, Float> weights = new HashMap<>();
+        for (String term : TextNormalizer.tokenize(title)) {
+            weights.merge(term, TITLE_WEIGHT, Float::sum);
+        }
+        for (String term : TextNormalizer.tokenize(description)) {
+            weights.merge(term, DESCRIPTION_WEIGHT, Float::sum);
+        }
+        weights.forEach((term, weight) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(id, weight));
+        documents.put(id, new Document(Set.copyOf(weights.keySet()), date));
+    }
+
+    private void removeDocument(Long id) {
+        Document document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+        for (String term : document.terms()) {
+            Map<Long, Float> posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(id);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+}
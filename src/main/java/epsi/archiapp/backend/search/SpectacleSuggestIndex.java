@@ -0,0 +1,199 @@
+package epsi.archiapp.backend.search;
+
+import epsi.archiapp.backend.dto.SpectacleSuggestion;
+import epsi.archiapp.backend.event.SpectacleChangedEvent;
+import epsi.archiapp.backend.model.Spectacle;
+import epsi.archiapp.backend.repository.SpectacleRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Index d'autocomplétion sur les titres des spectacles.
+ *
+ * Pour chaque titre, chaque fin de titre commençant à un mot est stockée sous forme normalisée
+ * ("romeo juliette", "juliette" pour "Roméo et Juliette") dans un ensemble trié (ConcurrentSkipListSet) :
+ * un préfixe saisi correspond à une plage contiguë, quel que soit le mot du titre par lequel commence la
+ * saisie. La plage est parcourue dans l'ordre des clés et le parcours s'arrête aux K premiers spectacles
+ * à venir, présentés du plus proche au plus lointain.
+ *
+ * Une écriture ne touche que les clés du spectacle concerné (O(k log N) pour k mots du titre) ; les
+ * lectures sont sans verrou et ne touchent ni la base ni le cache. Les spectacles passés sont retirés
+ * chaque heure pour ne pas allonger les plages parcourues.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SpectacleSuggestIndex {
+
+    private static final Comparator<Key> KEY_ORDER = Comparator.comparing(Key::key).thenComparingLong(Key::id);
+
+    private final SpectacleRepository spectacleRepository;
+
+    private volatile Entries entries = new Entries(new ConcurrentSkipListSet<>(KEY_ORDER), new ConcurrentHashMap<>());
+
+    /**
+     * Contenu de l'index : clés triées (clé, ID) et titre/date par spectacle. Remplacé en bloc par rebuild.
+     */
+    private record Entries(NavigableSet<Key> keys, Map<Long, SpectacleSuggestion> suggestions) {
+    }
+
+    private record Key(String key, long id) {
+    }
+
+    /**
+     * Reconstruit entièrement l'index depuis la base (démarrage et import en masse).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        Entries rebuilt = new Entries(new ConcurrentSkipListSet<>(KEY_ORDER), new ConcurrentHashMap<>());
+        for (Spectacle spectacle : spectacleRepository.findAll()) {
+            rebuilt.suggestions().put(spectacle.getId(), new SpectacleSuggestion(spectacle.getId(),
+                    spectacle.getTitle(), spectacle.getDate()));
+            addKeys(rebuilt.keys(), spectacle.getId(), spectacle.getTitle());
+        }
+        entries = rebuilt;
+        log.info("Index d'autocomplétion construit - {} spectacles, {} clés",
+                rebuilt.suggestions().size(), rebuilt.keys().size());
+    }
+
+    /**
+     * Applique une modification validée du catalogue.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onSpectacleChanged(SpectacleChangedEvent event) {
+        switch (event.type()) {
+            case CREATED, UPDATED -> replace(event.spectacleId(),
+                    new SpectacleSuggestion(event.spectacleId(), event.title(), event.date()));
+            case DELETED -> replace(event.spectacleId(), null);
+            case BULK_IMPORTED -> rebuild();
+        }
+    }
+
+    /**
+     * Retire les spectacles passés, qui ne sont plus jamais suggérés.
+     */
+    @Scheduled(fixedDelayString = "${app.suggest.purge-interval-ms:3600000}")
+    public synchronized void purgePast() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> past = entries.suggestions().values().stream()
+                .filter(suggestion -> suggestion.getDate() == null || suggestion.getDate().isBefore(now))
+                .map(SpectacleSuggestion::getId)
+                .toList();
+        past.forEach(id -> replace(id, null));
+        if (!past.isEmpty()) {
+            log.debug("Index d'autocomplétion : {} spectacles passés retirés", past.size());
+        }
+    }
+
+    /**
+     * Suggère des spectacles à venir dont un mot du titre commence par le préfixe saisi.
+     *
+     * @param prefix Début de saisie (accents et casse indifférents)
+     * @param limit  Nombre maximal de suggestions
+     * @return Les K premières correspondances (dans l'ordre des clés), de la date la plus proche à la plus lointaine
+     */
+    public List<SpectacleSuggestion> suggest(String prefix, int limit) {
+        String folded = normalizePrefix(prefix);
+        if (folded.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        Entries current = entries;
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, SpectacleSuggestion> found = new LinkedHashMap<>();
+        for (Key key : current.keys().tailSet(new Key(folded, Long.MIN_VALUE), true)) {
+            if (!key.key().startsWith(folded)) {
+                break;
+            }
+            SpectacleSuggestion suggestion = current.suggestions().get(key.id());
+            if (suggestion == null || suggestion.getDate() == null || suggestion.getDate().isBefore(now)) {
+                continue;
+            }
+            found.putIfAbsent(key.id(), suggestion);
+            if (found.size() >= limit) {
+                break;
+            }
+        }
+
+        List<SpectacleSuggestion> result = new ArrayList<>(found.values());
+        result.sort(Comparator.comparing(SpectacleSuggestion::getDate));
+        return result;
+    }
+
+    /**
+     * Nombre de spectacles indexés.
+     */
+    public int size() {
+        return entries.suggestions().size();
+    }
+
+    /**
+     * Remplace (ou retire si suggestion est null) les clés d'un spectacle.
+     */
+    private synchronized void replace(Long id, SpectacleSuggestion suggestion) {
+        Entries current = entries;
+        SpectacleSuggestion previous = suggestion == null
+                ? current.suggestions().remove(id)
+                : current.suggestions().put(id, suggestion);
+        if (previous != null) {
+            for (String key : keys(previous.getTitle())) {
+                current.keys().remove(new Key(key, id));
+            }
+        }
+        if (suggestion != null) {
+            addKeys(current.keys(), id, suggestion.getTitle());
+        }
+    }
+
+    /**
+     * Normalise la saisie comme les titres, mais conserve le dernier mot même s'il s'agit d'un mot vide :
+     * "le" est peut-être le début de "Lear".
+     */
+    static String normalizePrefix(String prefix) {
+        List<String> words = new ArrayList<>(TextNormalizer.tokenize(prefix));
+        String folded = TextNormalizer.fold(prefix);
+        int end = folded.length();
+        int start = end;
+        while (start > 0 && Character.isLetterOrDigit(folded.charAt(start - 1))) {
+            start--;
+        }
+        if (start < end) {
+            String last = folded.substring(start, end);
+            if (words.isEmpty() || !words.get(words.size() - 1).equals(last)) {
+                words.add(last);
+            }
+        }
+        return String.join(" ", words);
+    }
+
+    private static void addKeys(Set<Key> keys, Long id, String title) {
+        for (String key : keys(title)) {
+            keys.add(new Key(key, id));
+        }
+    }
+
+    private static List<String> keys(String title) {
+        List<String> words = TextNormalizer.tokenize(title);
+        List<String> keys = new ArrayList<>(words.size());
+        for (int i = 0; i < words.size(); i++) {
+            keys.add(String.join(" ", words.subList(i, words.size())));
+        }
+        return keys;
+    }
+}
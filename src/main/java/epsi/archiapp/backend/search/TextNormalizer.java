@@ -0,0 +1,80 @@
+package epsi.archiapp.backend.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Normalisation du texte pour la recherche : suppression des accents (décomposition NFD),
+ * minuscules, découpage en mots et retrait des mots vides français.
+ * "Roméo & Juliette" et "romeo juliette" produisent ainsi les mêmes termes.
+ */
+public final class TextNormalizer {
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "au", "aux", "d", "de", "des", "du", "en", "et", "l", "la", "le", "les", "ou", "un", "une"
+    );
+
+    private static final String ACCENTED = "àâäáãåçéèêëíìîïñóòôöõúùûüýÿ";
+    private static final String UNACCENTED = "aaaaaaceeeeiiiinooooouuuuyy";
+
+    private TextNormalizer() {
+    }
+
+    /**
+     * Supprime les accents et passe en minuscules ("Théâtre" -> "theatre", "Œdipe" -> "oedipe").
+     */
+    public static String fold(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder folded = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            switch (c) {
+                case 'œ', 'Œ' -> folded.append("oe");
+                case 'æ', 'Æ' -> folded.append("ae");
+                case 'ß' -> folded.append("ss");
+                default -> folded.append(c);
+            }
+        }
+        return folded.toString().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Expression SQL repliant une colonne comme fold (minuscules, accents français, œ et æ), pour les
+     * recherches LIKE en base avec des termes issus de tokenize.
+     */
+    public static String foldSql(String column) {
+        return "REPLACE(REPLACE(TRANSLATE(LOWER(" + column + "), '" + ACCENTED + "', '" + UNACCENTED + "'), " +
+                "'œ', 'oe'), 'æ', 'ae')";
+    }
+
+    /**
+     * Découpe un texte en termes normalisés (lettres et chiffres), sans les mots vides.
+     */
+    public static List<String> tokenize(String text) {
+        String folded = fold(text);
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean wordChar = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                String token = folded.substring(start, i);
+                if (!STOP_WORDS.contains(token)) {
+                    tokens.add(token);
+                }
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,409 @@
+package epsi.archiapp.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import epsi.archiapp.backend.dto.AvailabilityUpdate;
+import epsi.archiapp.backend.dto.SpectacleResponse;
+import epsi.archiapp.backend.event.ReservationEvent;
+import epsi.archiapp.backend.exception.ServiceOverloadedException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Diffusion en temps réel de la disponibilité des billets (Server-Sent Events).
+ *
+ * Les réservations et annulations validées (après commit) alimentent une table de mises à jour en attente,
+ * coalescée par spectacle : seule la dernière version est conservée. Un job planifié vide cette table à
+ * intervalle fixe et diffuse chaque mise à jour à tous les abonnés du spectacle, au plus une fois par
+ * intervalle. Le message JSON est sérialisé une seule fois par spectacle et les écritures se font sur des
+ * threads virtuels : un client lent ne bloque pas les autres et aucun abonné ne déclenche de requête SQL.
+ *
+ * Chaque abonné dispose d'une file bornée à un message : une mise à jour qui arrive pendant un envoi
+ * remplace celle qui attendait, et au plus une tâche d'envoi par abonné est en cours. Un client lent
+ * reçoit donc directement la dernière version au lieu d'accumuler des envois en retard.
+ *
+ * Les clients en long-polling sont parqués dans un DeferredResult (aucun thread de servlet occupé) et
+ * réveillés par le même job de diffusion dès qu'une version plus récente que la leur est disponible.
+ */
+@Service
+@Slf4j
+public class AvailabilityHub {
+
+    private static final String EVENT_NAME = "availability";
+
+    private final ObjectMapper objectMapper;
+    private final ExecutorService sendExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final Map<Long, AvailabilityUpdate> pending = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final Map<Long, Set<Waiter>> waiters = new ConcurrentHashMap<>();
+    private final Map<Long, AvailabilityUpdate> latest = new ConcurrentHashMap<>();
+    private final AtomicInteger waiterCount = new AtomicInteger();
+
+    @Value("${app.availability.max-subscribers:20000}")
+    private int maxSubscribers;
+
+    @Value("${app.availability.stream-timeout:30m}")
+    private Duration streamTimeout;
+
+    @Value("${app.availability.max-pollers:20000}")
+    private int maxPollers;
+
+    @Value("${app.availability.poll-timeout:30s}")
+    private Duration pollTimeout;
+
+    /**
+     * Requête de long-polling en attente d'une version plus récente que afterVersion.
+     */
+    private record Waiter(long afterVersion, DeferredResult<ResponseEntity<AvailabilityUpdate>> result) {
+    }
+
+    /**
+     * Message SSE prêt à être envoyé.
+     */
+    private record Frame(long version, String payload) {
+    }
+
+    public AvailabilityHub(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Abonne un client au flux de disponibilité d'un spectacle.
+     *
+     * L'état courant est envoyé avant l'inscription à la diffusion : aucune mise à jour ne peut le précéder.
+     * Une version plus récente reçue entre-temps est ensuite transmise par la file de l'abonné.
+     *
+     * @param spectacle L'état courant du spectacle (issu du cache)
+     * @return L'émetteur SSE associé à la connexion
+     * @throws ServiceOverloadedException si le nombre maximal d'abonnés est atteint
+     */
+    public SseEmitter subscribe(SpectacleResponse spectacle) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new ServiceOverloadedException("Nombre maximal d'abonnés au flux de disponibilité atteint");
+        }
+
+        Long spectacleId = spectacle.getId();
+        SseEmitter emitter = newEmitter(streamTimeout.toMillis());
+        AvailabilityUpdate current = AvailabilityUpdate.builder()
+                .spectacleId(spectacleId)
+                .availableTickets(spectacle.getAvailableTickets())
+                .version(spectacle.getVersion())
+                .timestamp(LocalDateTime.now())
+                .build();
+        Subscriber subscriber = new Subscriber(spectacleId, emitter);
+        try {
+            subscriber.sendNow(current.getVersion() != null ? current.getVersion() : Long.MIN_VALUE, toJson(current));
+        } catch (IOException | IllegalStateException e) {
+            subscriberCount.decrementAndGet();
+            emitter.completeWithError(e);
+            return emitter;
+        }
+
+        subscribers.compute(spectacleId, (id, set) -> {
+            Set<Subscriber> registered = set != null ? set : ConcurrentHashMap.newKeySet();
+            registered.add(subscriber);
+            return registered;
+        });
+        emitter.onCompletion(() -> unsubscribe(spectacleId, subscriber));
+        emitter.onTimeout(() -> unsubscribe(spectacleId, subscriber));
+        emitter.onError(e -> unsubscribe(spectacleId, subscriber));
+
+        AvailabilityUpdate known = latest.get(spectacleId);
+        if (known != null) {
+            subscriber.offer(new Frame(known.getVersion(), toJson(known)));
+        }
+        log.debug("Nouvel abonné au flux de disponibilité du spectacle {} - {} abonnés au total",
+                spectacleId, subscriberCount.get());
+        return emitter;
+    }
+
+    /**
+     * Attend une version de la disponibilité plus récente que afterVersion (long-polling).
+     *
+     * Le client est enregistré comme en attente avant la lecture de l'état courant : un changement validé
+     * entre les deux ne peut donc pas être manqué. Si l'état courant est déjà plus récent, le client est
+     * retiré des requêtes en attente et la réponse est immédiate ; sinon la requête est parquée jusqu'au
+     * prochain changement ou jusqu'au délai d'attente (304 Not Modified).
+     *
+     * @param spectacleId  ID du spectacle
+     * @param afterVersion Dernière version connue du client (null pour obtenir l'état courant)
+     * @param currentState Lecture de l'état courant (issue du cache des spectacles)
+     * @throws ServiceOverloadedException si le nombre maximal de requêtes en attente est atteint
+     */
+    public DeferredResult<ResponseEntity<AvailabilityUpdate>> poll(Long spectacleId, Long afterVersion,
+                                                                   Supplier<SpectacleResponse> currentState) {
+        DeferredResult<ResponseEntity<AvailabilityUpdate>> result = new DeferredResult<>(
+                pollTimeout.toMillis(), () -> ResponseEntity.status(HttpStatus.NOT_MODIFIED).build());
+        if (afterVersion == null) {
+            result.setResult(ResponseEntity.ok(currentUpdate(spectacleId, currentState)));
+            return result;
+        }
+
+        if (waiterCount.incrementAndGet() > maxPollers) {
+            waiterCount.decrementAndGet();
+            throw new ServiceOverloadedException("Nombre maximal de requêtes de disponibilité en attente atteint");
+        }
+        Waiter waiter = new Waiter(afterVersion, result);
+        waiters.compute(spectacleId, (id, set) -> {
+            Set<Waiter> waiting = set != null ? set : ConcurrentHashMap.newKeySet();
+            waiting.add(waiter);
+            return waiting;
+        });
+        result.onCompletion(() -> removeWaiter(spectacleId, waiter));
+
+        AvailabilityUpdate current;
+        try {
+            current = currentUpdate(spectacleId, currentState);
+        } catch (RuntimeException e) {
+            removeWaiter(spectacleId, waiter);
+            throw e;
+        }
+        if (current.getVersion() != null && current.getVersion() > afterVersion) {
+            // Réponse immédiate : le callback de complétion ne sera pas appelé hors traitement asynchrone
+            removeWaiter(spectacleId, waiter);
+            result.setResult(ResponseEntity.ok(current));
+        }
+        return result;
+    }
+
+    /**
+     * Enregistre le changement de disponibilité une fois la transaction validée.
+     * Les changements successifs d'un même spectacle se remplacent jusqu'au prochain envoi.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onReservationEvent(ReservationEvent event) {
+        AvailabilityUpdate update = AvailabilityUpdate.builder()
+                .spectacleId(event.spectacleId())
+                .availableTickets(event.availableTickets())
+                .version(event.version())
+                .timestamp(event.occurredAt())
+                .build();
+        pending.merge(event.spectacleId(), update, AvailabilityHub::newest);
+        latest.merge(event.spectacleId(), update, AvailabilityHub::newest);
+    }
+
+    /**
+     * Diffuse les mises à jour en attente à leurs abonnés et réveille les requêtes de long-polling.
+     */
+    @Scheduled(fixedDelayString = "${app.availability.flush-interval-ms:500}")
+    public void flush() {
+        for (Long spectacleId : pending.keySet()) {
+            AvailabilityUpdate update = pending.remove(spectacleId);
+            if (update == null) {
+                continue;
+            }
+            Set<Waiter> waiting = waiters.get(spectacleId);
+            if (waiting != null) {
+                ResponseEntity<AvailabilityUpdate> response = ResponseEntity.ok(update);
+                for (Waiter waiter : waiting) {
+                    if (update.getVersion() > waiter.afterVersion()) {
+                        waiter.result().setResult(response);
+                    }
+                }
+            }
+            Set<Subscriber> registered = subscribers.get(spectacleId);
+            if (registered == null || registered.isEmpty()) {
+                continue;
+            }
+            Frame frame = new Frame(update.getVersion(), toJson(update));
+            for (Subscriber subscriber : registered) {
+                subscriber.offer(frame);
+            }
+        }
+    }
+
+    /**
+     * Envoie un commentaire SSE à chaque abonné pour maintenir les connexions ouvertes à travers
+     * les proxys et détecter les clients déconnectés.
+     */
+    @Scheduled(fixedDelayString = "${app.availability.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        subscribers.values().forEach(registered -> registered.forEach(Subscriber::ping));
+    }
+
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    public int getWaiterCount() {
+        return waiterCount.get();
+    }
+
+    /**
+     * Mise à jour en attente de diffusion pour un spectacle (null si aucune).
+     */
+    AvailabilityUpdate pendingUpdate(Long spectacleId) {
+        return pending.get(spectacleId);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.values().forEach(registered -> registered.forEach(subscriber -> subscriber.emitter.complete()));
+        waiters.values().forEach(waiting -> waiting.forEach(
+                waiter -> waiter.result().setResult(ResponseEntity.status(HttpStatus.NOT_MODIFIED).build())));
+        sendExecutor.shutdownNow();
+    }
+
+    /**
+     * Crée l'émetteur SSE d'une connexion (surchargé dans les tests).
+     */
+    SseEmitter newEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    private void unsubscribe(Long spectacleId, Subscriber subscriber) {
+        boolean[] removed = {false};
+        subscribers.computeIfPresent(spectacleId, (id, registered) -> {
+            removed[0] = registered.remove(subscriber);
+            return registered.isEmpty() ? null : registered;
+        });
+        if (removed[0]) {
+            subscriberCount.decrementAndGet();
+        }
+    }
+
+    private void removeWaiter(Long spectacleId, Waiter waiter) {
+        boolean[] removed = {false};
+        waiters.computeIfPresent(spectacleId, (id, waiting) -> {
+            removed[0] = waiting.remove(waiter);
+            return waiting.isEmpty() ? null : waiting;
+        });
+        if (removed[0]) {
+            waiterCount.decrementAndGet();
+        }
+    }
+
+    /**
+     * État courant : le plus récent entre la dernière mise à jour reçue et la lecture du cache.
+     */
+    private AvailabilityUpdate currentUpdate(Long spectacleId, Supplier<SpectacleResponse> currentState) {
+        SpectacleResponse spectacle = currentState.get();
+        AvailabilityUpdate fromCache = AvailabilityUpdate.builder()
+                .spectacleId(spectacleId)
+                .availableTickets(spectacle.getAvailableTickets())
+                .version(spectacle.getVersion())
+                .timestamp(LocalDateTime.now())
+                .build();
+        AvailabilityUpdate known = latest.get(spectacleId);
+        if (known == null || fromCache.getVersion() == null) {
+            return known != null ? known : fromCache;
+        }
+        return newest(known, fromCache);
+    }
+
+    private static AvailabilityUpdate newest(AvailabilityUpdate previous, AvailabilityUpdate next) {
+        return next.getVersion() >= previous.getVersion() ? next : previous;
+    }
+
+    private String toJson(AvailabilityUpdate update) {
+        try {
+            return objectMapper.writeValueAsString(update);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Sérialisation de la disponibilité impossible", e);
+        }
+    }
+
+    /**
+     * Abonné SSE et sa file bornée : le prochain message (remplacé par toute version plus récente) et
+     * un éventuel battement de cœur. Un seul envoi à la fois, sur un thread virtuel.
+     */
+    private final class Subscriber {
+
+        private final Long spectacleId;
+        private final SseEmitter emitter;
+        private final AtomicReference<Frame> next = new AtomicReference<>();
+        private final AtomicBoolean ping = new AtomicBoolean();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile long sentVersion = Long.MIN_VALUE;
+
+        private Subscriber(Long spectacleId, SseEmitter emitter) {
+            this.spectacleId = spectacleId;
+            this.emitter = emitter;
+        }
+
+        /**
+         * Envoi direct, réservé à l'état initial avant l'inscription à la diffusion.
+         */
+        private void sendNow(long version, String payload) throws IOException {
+            emitter.send(SseEmitter.event()
+                    .name(EVENT_NAME)
+                    .id(String.valueOf(version))
+                    .data(payload, MediaType.APPLICATION_JSON));
+            sentVersion = version;
+        }
+
+        private void offer(Frame frame) {
+            if (frame.version() <= sentVersion) {
+                return;
+            }
+            next.accumulateAndGet(frame, (queued, offered) ->
+                    queued == null || offered.version() >= queued.version() ? offered : queued);
+            schedule();
+        }
+
+        private void ping() {
+            ping.set(true);
+            schedule();
+        }
+
+        private void schedule() {
+            if (draining.compareAndSet(false, true)) {
+                sendExecutor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            do {
+                try {
+                    Frame frame = next.getAndSet(null);
+                    if (frame != null && frame.version() > sentVersion) {
+                        sendNow(frame.version(), frame.payload());
+                    }
+                    if (ping.getAndSet(false)) {
+                        emitter.send(SseEmitter.event().comment("ping"));
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    // draining reste vrai : plus aucun envoi n'est planifié pour cet abonné
+                    drop(e);
+                    return;
+                }
+                draining.set(false);
+            } while ((next.get() != null || ping.get()) && draining.compareAndSet(false, true));
+        }
+
+        private void drop(Exception cause) {
+            log.debug("Abonné déconnecté du flux du spectacle {}: {}", spectacleId, cause.getMessage());
+            unsubscribe(spectacleId, this);
+            try {
+                emitter.completeWithError(cause);
+            } catch (IllegalStateException ignored) {
+                // L'émetteur est déjà terminé
+            }
+        }
+    }
+}
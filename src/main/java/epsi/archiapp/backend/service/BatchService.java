@@ -0,0 +1,1138 @@
+package epsi.archiapp.backend.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.TextNode;
+import epsi.archiapp.backend.dto.BatchRequest;
+import epsi.archiapp.backend.dto.BatchResponse;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.Filter;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.RequestDispatcher;
+import jakarta.servlet.Servlet;
+import jakarta.servlet.ServletConnection;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletMapping;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import jakarta.servlet.http.HttpUpgradeHandler;
+import jakarta.servlet.http.MappingMatch;
+import jakarta.servlet.http.Part;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ReactiveAdapterRegistry;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.util.LinkedCaseInsensitiveMap;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.util.StringUtils;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerExecutionChain;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.util.ServletRequestPathUtils;
+import org.springframework.web.util.UriUtils;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Service d'exécution des requêtes groupées.
+ *
+ * Chaque sous-requête est exécutée dans le processus : une requête GET en mémoire, construite à partir de la
+ * requête du lot (en-tête Authorization compris), traverse la chaîne de filtres Spring Security puis le
+ * DispatcherServlet, et sa réponse est capturée en mémoire. Aucune connexion n'est ouverte : pas de thread
+ * Tomcat supplémentaire, et le fonctionnement ne dépend ni de TLS, ni du port, ni du context path.
+ * Les sous-requêtes s'exécutent sur des threads virtuels, avec une concurrence bornée par lot.
+ *
+ * La requête du lot est copiée une fois, sur le thread qui l'a reçue : les sous-requêtes ne la référencent pas,
+ * si bien qu'une sous-requête encore en cours après le délai du lot (et abandonnée) ne peut pas toucher une
+ * requête que Tomcat a déjà recyclée. Les endpoints asynchrones (flux SSE, long-polling, exports, types
+ * réactifs) sont détectés avant l'exécution et refusés en 400.
+ */
+@Service
+@Slf4j
+public class BatchService {
+
+    private final ObjectMapper objectMapper;
+    private final Filter securityFilterChain;
+    private final Servlet dispatcherServlet;
+    private final RequestMappingHandlerMapping handlerMapping;
+
+    @Value("${app.batch.max-requests:20}")
+    private int maxRequests;
+
+    @Value("${app.batch.max-concurrency:4}")
+    private int maxConcurrency;
+
+    @Value("${app.batch.timeout:10s}")
+    private Duration timeout;
+
+    public BatchService(ObjectMapper objectMapper,
+                        @Qualifier("springSecurityFilterChain") Filter securityFilterChain,
+                        @Qualifier("dispatcherServlet") Servlet dispatcherServlet,
+                        @Qualifier("requestMappingHandlerMapping") RequestMappingHandlerMapping handlerMapping) {
+        this.objectMapper = objectMapper;
+        this.securityFilterChain = securityFilterChain;
+        this.dispatcherServlet = dispatcherServlet;
+        this.handlerMapping = handlerMapping;
+    }
+
+    /**
+     * Exécute les sous-requêtes d'un lot et agrège leurs résultats dans l'ordre du lot.
+     *
+     * @param request Le lot de sous-requêtes
+     * @param origin  La requête HTTP du lot (en-têtes, context path, adresse du client)
+     * @return Les réponses et le détail des durées
+     */
+    public BatchResponse execute(BatchRequest request, HttpServletRequest origin) {
+        List<BatchRequest.SubRequest> subRequests = request.getRequests();
+        if (subRequests.size() > maxRequests) {
+            throw new IllegalArgumentException("Un lot ne peut pas contenir plus de " + maxRequests + " requêtes");
+        }
+
+        long start = System.nanoTime();
+        long deadline = start + timeout.toNanos();
+        Semaphore permits = new Semaphore(maxConcurrency);
+        List<Future<BatchResponse.SubResponse>> futures = new ArrayList<>(subRequests.size());
+        List<BatchResponse.SubResponse> responses = new ArrayList<>(subRequests.size());
+        // La requête du lot n'est lue que sur ce thread : les sous-requêtes n'en gardent qu'une copie
+        Origin snapshot = Origin.of(origin);
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            for (int i = 0; i < subRequests.size(); i++) {
+                BatchRequest.SubRequest subRequest = subRequests.get(i);
+                BatchResponse.SubResponse rejected = validate(subRequest);
+                SubRequest prepared = null;
+                if (rejected == null) {
+                    String requestId = snapshot.requestId() + "-" + i;
+                    try {
+                        prepared = SubRequest.of(snapshot, requestId, subRequest.getPath(), MediaType.APPLICATION_JSON_VALUE);
+                        if (isAsyncTarget(SubRequest.of(snapshot, requestId, subRequest.getPath(), MediaType.ALL_VALUE))) {
+                            rejected = error(subRequest, HttpStatus.BAD_REQUEST,
+                                    "Endpoint asynchrone (flux, long-polling, export) : il ne peut pas être groupé",
+                                    System.nanoTime());
+                        }
+                    } catch (IllegalArgumentException e) {
+                        rejected = error(subRequest, HttpStatus.BAD_REQUEST, "Chemin invalide : " + subRequest.getPath(),
+                                System.nanoTime());
+                    }
+                }
+                if (rejected != null) {
+                    futures.add(CompletableFuture.completedFuture(rejected));
+                    continue;
+                }
+                SubRequest dispatched = prepared;
+                futures.add(executor.submit(() -> {
+                    permits.acquire();
+                    try {
+                        return dispatch(subRequest, dispatched);
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                responses.add(resultOf(futures.get(i), subRequests.get(i), deadline));
+            }
+        } finally {
+            // Les sous-requêtes hors délai sont interrompues ; elles n'écrivent que dans leur propre réponse capturée
+            executor.shutdownNow();
+        }
+        long totalMs = (System.nanoTime() - start) / 1_000_000;
+        log.debug("Lot de {} requêtes exécuté en {} ms", subRequests.size(), totalMs);
+
+        return BatchResponse.builder()
+                .responses(responses)
+                .totalDurationMs(totalMs)
+                .concurrency(Math.min(maxConcurrency, subRequests.size()))
+                .build();
+    }
+
+    /**
+     * Refuse les sous-requêtes qui ne sont pas des GET sur l'API.
+     *
+     * @return La réponse d'erreur, ou null si la sous-requête peut être exécutée
+     */
+    private BatchResponse.SubResponse validate(BatchRequest.SubRequest subRequest) {
+        long start = System.nanoTime();
+        String path = subRequest.getPath();
+        if (!"GET".equalsIgnoreCase(subRequest.getMethod())) {
+            return error(subRequest, HttpStatus.METHOD_NOT_ALLOWED, "Seules les requêtes GET peuvent être groupées", start);
+        }
+        int queryStart = path.indexOf('?');
+        if (!isAllowedPath(queryStart >= 0 ? path.substring(0, queryStart) : path)) {
+            return error(subRequest, HttpStatus.BAD_REQUEST, "Chemin non autorisé : " + path, start);
+        }
+        return null;
+    }
+
+    /**
+     * Indique si la sous-requête vise un contrôleur asynchrone, qui ne peut pas répondre dans une requête
+     * groupée. La résolution se fait sur une requête de sonde acceptant tous les types (un endpoint SSE n'est
+     * pas sélectionné pour Accept: application/json). En cas d'échec de la résolution, la sous-requête est
+     * exécutée et le DispatcherServlet renvoie l'erreur habituelle (404, 405...).
+     */
+    private boolean isAsyncTarget(SubRequest probe) {
+        try {
+            ServletRequestPathUtils.parseAndCache(probe);
+            HandlerExecutionChain chain = handlerMapping.getHandler(probe);
+            return chain != null && chain.getHandler() instanceof HandlerMethod handlerMethod
+                    && isAsyncReturnType(handlerMethod.getReturnType());
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    static boolean isAsyncReturnType(MethodParameter returnType) {
+        Class<?> type = returnType.getParameterType();
+        if (HttpEntity.class.isAssignableFrom(type)) {
+            type = ResolvableType.forMethodParameter(returnType).getGeneric(0).resolve(Object.class);
+        }
+        return ResponseBodyEmitter.class.isAssignableFrom(type)
+                || StreamingResponseBody.class.isAssignableFrom(type)
+                || DeferredResult.class.isAssignableFrom(type)
+                || Callable.class.isAssignableFrom(type)
+                || WebAsyncTask.class.isAssignableFrom(type)
+                || CompletionStage.class.isAssignableFrom(type)
+                || ReactiveAdapterRegistry.getSharedInstance().getAdapter(type) != null;
+    }
+
+    /**
+     * Exécute la sous-requête à travers la chaîne de sécurité et le DispatcherServlet.
+     */
+    private BatchResponse.SubResponse dispatch(BatchRequest.SubRequest subRequest, SubRequest request) {
+        long start = System.nanoTime();
+        CapturedResponse response = new CapturedResponse();
+        try {
+            securityFilterChain.doFilter(request, response, dispatcherServlet::service);
+        } catch (IOException | ServletException | RuntimeException e) {
+            log.warn("Échec de la sous-requête {} ({}): {}", subRequest.getId(), subRequest.getPath(), e.getMessage());
+            return error(subRequest, HttpStatus.INTERNAL_SERVER_ERROR, "Erreur interne", start);
+        }
+        return BatchResponse.SubResponse.builder()
+                .id(subRequest.getId())
+                .status(response.getStatus())
+                .body(parseBody(response))
+                .durationMs((System.nanoTime() - start) / 1_000_000)
+                .build();
+    }
+
+    /**
+     * Vérifie le chemin une fois décodé et normalisé : un segment encodé (%2e%2e, %2f) ne doit pas permettre
+     * de sortir de /api/ ni d'atteindre /api/batch.
+     */
+    static boolean isAllowedPath(String rawPath) {
+        String decoded;
+        try {
+            decoded = UriUtils.decode(rawPath, StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        if (decoded.contains("%") || decoded.contains("\\") || decoded.contains(";") || decoded.contains("//")) {
+            return false;
+        }
+        String normalized = StringUtils.cleanPath(decoded);
+        return normalized.equals(decoded)
+                && !decoded.contains("/./") && !decoded.endsWith("/.")
+                && normalized.startsWith("/api/")
+                && !normalized.equals("/api/batch") && !normalized.startsWith("/api/batch/");
+    }
+
+    private JsonNode parseBody(CapturedResponse response) {
+        byte[] body = response.getBody();
+        if (body.length == 0) {
+            return null;
+        }
+        String contentType = response.getContentType();
+        if (contentType != null && contentType.contains("json")) {
+            try {
+                return objectMapper.readTree(body);
+            } catch (IOException e) {
+                log.debug("Corps JSON illisible pour une sous-requête : {}", e.getMessage());
+            }
+        }
+        return TextNode.valueOf(new String(body, response.charset()));
+    }
+
+    private BatchResponse.SubResponse resultOf(Future<BatchResponse.SubResponse> future,
+                                               BatchRequest.SubRequest subRequest, long deadline) {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            return error(subRequest, HttpStatus.GATEWAY_TIMEOUT, "Délai dépassé", System.nanoTime());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return error(subRequest, HttpStatus.SERVICE_UNAVAILABLE, "Requête interrompue", System.nanoTime());
+        } catch (ExecutionException e) {
+            log.error("Échec de la sous-requête {}", subRequest.getId(), e.getCause());
+            return error(subRequest, HttpStatus.INTERNAL_SERVER_ERROR, "Erreur interne", System.nanoTime());
+        }
+    }
+
+    private BatchResponse.SubResponse error(BatchRequest.SubRequest subRequest, HttpStatus status,
+                                            String message, long start) {
+        return BatchResponse.SubResponse.builder()
+                .id(subRequest.getId())
+                .status(status.value())
+                .body(TextNode.valueOf(message))
+                .durationMs((System.nanoTime() - start) / 1_000_000)
+                .build();
+    }
+
+    /**
+     * Copie de la requête du lot, faite une fois sur le thread du lot : les sous-requêtes ne gardent aucune
+     * référence à la requête Tomcat, qui peut être recyclée dès la réponse du lot envoyée.
+     */
+    record Origin(String requestId, String contextPath, String scheme, String serverName, int serverPort,
+                  String protocol, boolean secure, String remoteAddr, String remoteHost, int remotePort,
+                  String localName, String localAddr, int localPort, List<Locale> locales,
+                  Map<String, List<String>> headers, Cookie[] cookies, String servletName,
+                  ServletContext servletContext, String connectionId, String protocolConnectionId) {
+
+        static Origin of(HttpServletRequest request) {
+            Map<String, List<String>> headers = new LinkedCaseInsensitiveMap<>();
+            for (Enumeration<String> names = request.getHeaderNames(); names.hasMoreElements(); ) {
+                String name = names.nextElement();
+                headers.put(name, List.copyOf(Collections.list(request.getHeaders(name))));
+            }
+            headers.remove(HttpHeaders.CONTENT_TYPE);
+            headers.remove(HttpHeaders.CONTENT_LENGTH);
+            headers.remove(HttpHeaders.TRANSFER_ENCODING);
+
+            Cookie[] cookies = request.getCookies();
+            if (cookies != null) {
+                cookies = Arrays.stream(cookies).map(cookie -> (Cookie) cookie.clone()).toArray(Cookie[]::new);
+            }
+            HttpServletMapping mapping = request.getHttpServletMapping();
+            String servletName = mapping != null && StringUtils.hasText(mapping.getServletName())
+                    ? mapping.getServletName() : "dispatcherServlet";
+            ServletConnection connection = request.getServletConnection();
+            return new Origin(request.getRequestId(), request.getContextPath(), request.getScheme(),
+                    request.getServerName(), request.getServerPort(), request.getProtocol(), request.isSecure(),
+                    request.getRemoteAddr(), request.getRemoteHost(), request.getRemotePort(),
+                    request.getLocalName(), request.getLocalAddr(), request.getLocalPort(),
+                    List.copyOf(Collections.list(request.getLocales())), Collections.unmodifiableMap(headers),
+                    cookies, servletName, request.getServletContext(),
+                    connection != null ? connection.getConnectionId() : "",
+                    connection != null ? connection.getProtocolConnectionId() : "");
+        }
+    }
+
+    /**
+     * Sous-requête GET en mémoire, construite uniquement à partir de la copie de la requête du lot.
+     * Elle n'a ni corps, ni session (API sans état), ni traitement asynchrone ; ses attributs lui sont propres.
+     */
+    static final class SubRequest implements HttpServletRequest {
+
+        private final Origin origin;
+        private final String requestId;
+        private final String path;
+        private final String query;
+        private final Map<String, List<String>> headers = new LinkedCaseInsensitiveMap<>();
+        private final Map<String, String[]> parameters = new LinkedHashMap<>();
+        private final Map<String, Object> attributes = new ConcurrentHashMap<>();
+        private String characterEncoding;
+
+        static SubRequest of(Origin origin, String requestId, String pathAndQuery, String accept) {
+            int queryStart = pathAndQuery.indexOf('?');
+            return queryStart >= 0
+                    ? new SubRequest(origin, requestId, pathAndQuery.substring(0, queryStart),
+                            pathAndQuery.substring(queryStart + 1), accept)
+                    : new SubRequest(origin, requestId, pathAndQuery, null, accept);
+        }
+
+        private SubRequest(Origin origin, String requestId, String path, String query, String accept) {
+            this.origin = origin;
+            this.requestId = requestId;
+            this.path = path;
+            this.query = query;
+            headers.putAll(origin.headers());
+            headers.put(HttpHeaders.ACCEPT, List.of(accept));
+            parseQuery(query).forEach((name, values) -> parameters.put(name, values.toArray(String[]::new)));
+        }
+
+        private static MultiValueMap<String, String> parseQuery(String query) {
+            MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+            if (!StringUtils.hasLength(query)) {
+                return params;
+            }
+            for (String pair : query.split("&")) {
+                if (pair.isEmpty()) {
+                    continue;
+                }
+                int eq = pair.indexOf('=');
+                String name = eq >= 0 ? pair.substring(0, eq) : pair;
+                String value = eq >= 0 ? pair.substring(eq + 1) : "";
+                params.add(decodeQueryPart(name), decodeQueryPart(value));
+            }
+            return params;
+        }
+
+        private static String decodeQueryPart(String part) {
+            return UriUtils.decode(part.replace('+', ' '), StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public String getMethod() {
+            return "GET";
+        }
+
+        @Override
+        public DispatcherType getDispatcherType() {
+            return DispatcherType.REQUEST;
+        }
+
+        @Override
+        public String getRequestURI() {
+            return origin.contextPath() + path;
+        }
+
+        @Override
+        public StringBuffer getRequestURL() {
+            String scheme = origin.scheme();
+            int port = origin.serverPort();
+            StringBuffer url = new StringBuffer(scheme).append("://").append(origin.serverName());
+            if (!(("http".equals(scheme) && port == 80) || ("https".equals(scheme) && port == 443))) {
+                url.append(':').append(port);
+            }
+            return url.append(getRequestURI());
+        }
+
+        @Override
+        public String getContextPath() {
+            return origin.contextPath();
+        }
+
+        @Override
+        public String getServletPath() {
+            return UriUtils.decode(path, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public String getPathInfo() {
+            return null;
+        }
+
+        @Override
+        public String getPathTranslated() {
+            return null;
+        }
+
+        @Override
+        public HttpServletMapping getHttpServletMapping() {
+            // Le DispatcherServlet est le servlet par défaut : le chemin entier est le servlet path
+            return new HttpServletMapping() {
+                @Override
+                public String getMatchValue() {
+                    return "";
+                }
+
+                @Override
+                public String getPattern() {
+                    return "/";
+                }
+
+                @Override
+                public String getServletName() {
+                    return origin.servletName();
+                }
+
+                @Override
+                public MappingMatch getMappingMatch() {
+                    return MappingMatch.DEFAULT;
+                }
+            };
+        }
+
+        @Override
+        public String getQueryString() {
+            return query;
+        }
+
+        @Override
+        public String getParameter(String name) {
+            String[] values = parameters.get(name);
+            return values != null && values.length > 0 ? values[0] : null;
+        }
+
+        @Override
+        public Map<String, String[]> getParameterMap() {
+            return Collections.unmodifiableMap(parameters);
+        }
+
+        @Override
+        public Enumeration<String> getParameterNames() {
+            return Collections.enumeration(parameters.keySet());
+        }
+
+        @Override
+        public String[] getParameterValues(String name) {
+            return parameters.get(name);
+        }
+
+        @Override
+        public String getHeader(String name) {
+            List<String> values = headers.get(name);
+            return values != null && !values.isEmpty() ? values.get(0) : null;
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            return Collections.enumeration(headers.getOrDefault(name, List.of()));
+        }
+
+        @Override
+        public Enumeration<String> getHeaderNames() {
+            return Collections.enumeration(headers.keySet());
+        }
+
+        @Override
+        public long getDateHeader(String name) {
+            return -1;
+        }
+
+        @Override
+        public int getIntHeader(String name) {
+            String value = getHeader(name);
+            return value != null ? Integer.parseInt(value) : -1;
+        }
+
+        @Override
+        public Cookie[] getCookies() {
+            Cookie[] cookies = origin.cookies();
+            return cookies != null ? Arrays.stream(cookies).map(cookie -> (Cookie) cookie.clone()).toArray(Cookie[]::new) : null;
+        }
+
+        @Override
+        public String getCharacterEncoding() {
+            return characterEncoding;
+        }
+
+        @Override
+        public void setCharacterEncoding(String encoding) {
+            this.characterEncoding = encoding;
+        }
+
+        @Override
+        public String getContentType() {
+            return null;
+        }
+
+        @Override
+        public int getContentLength() {
+            return -1;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return -1;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return true;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new IllegalStateException("Lecture non bloquante indisponible hors traitement asynchrone");
+                }
+
+                @Override
+                public int read() {
+                    return -1;
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new StringReader(""));
+        }
+
+        @Override
+        public Collection<Part> getParts() throws ServletException {
+            throw new ServletException("Une sous-requête groupée n'est pas multipart");
+        }
+
+        @Override
+        public Part getPart(String name) throws ServletException {
+            throw new ServletException("Une sous-requête groupée n'est pas multipart");
+        }
+
+        @Override
+        public String getProtocol() {
+            return origin.protocol();
+        }
+
+        @Override
+        public String getScheme() {
+            return origin.scheme();
+        }
+
+        @Override
+        public String getServerName() {
+            return origin.serverName();
+        }
+
+        @Override
+        public int getServerPort() {
+            return origin.serverPort();
+        }
+
+        @Override
+        public String getRemoteAddr() {
+            return origin.remoteAddr();
+        }
+
+        @Override
+        public String getRemoteHost() {
+            return origin.remoteHost();
+        }
+
+        @Override
+        public int getRemotePort() {
+            return origin.remotePort();
+        }
+
+        @Override
+        public String getLocalName() {
+            return origin.localName();
+        }
+
+        @Override
+        public String getLocalAddr() {
+            return origin.localAddr();
+        }
+
+        @Override
+        public int getLocalPort() {
+            return origin.localPort();
+        }
+
+        @Override
+        public boolean isSecure() {
+            return origin.secure();
+        }
+
+        @Override
+        public Locale getLocale() {
+            return origin.locales().isEmpty() ? Locale.getDefault() : origin.locales().get(0);
+        }
+
+        @Override
+        public Enumeration<Locale> getLocales() {
+            return Collections.enumeration(origin.locales().isEmpty() ? List.of(Locale.getDefault()) : origin.locales());
+        }
+
+        @Override
+        public Object getAttribute(String name) {
+            return attributes.get(name);
+        }
+
+        @Override
+        public Enumeration<String> getAttributeNames() {
+            return Collections.enumeration(new ArrayList<>(attributes.keySet()));
+        }
+
+        @Override
+        public void setAttribute(String name, Object value) {
+            if (value == null) {
+                attributes.remove(name);
+            } else {
+                attributes.put(name, value);
+            }
+        }
+
+        @Override
+        public void removeAttribute(String name) {
+            attributes.remove(name);
+        }
+
+        @Override
+        public ServletContext getServletContext() {
+            return origin.servletContext();
+        }
+
+        @Override
+        public RequestDispatcher getRequestDispatcher(String path) {
+            // Pas de forward ni d'include depuis une sous-requête
+            return null;
+        }
+
+        @Override
+        public String getRequestId() {
+            return requestId;
+        }
+
+        @Override
+        public String getProtocolRequestId() {
+            return "";
+        }
+
+        @Override
+        public ServletConnection getServletConnection() {
+            return new ServletConnection() {
+                @Override
+                public String getConnectionId() {
+                    return origin.connectionId();
+                }
+
+                @Override
+                public String getProtocol() {
+                    return origin.protocol();
+                }
+
+                @Override
+                public String getProtocolConnectionId() {
+                    return origin.protocolConnectionId();
+                }
+
+                @Override
+                public boolean isSecure() {
+                    return origin.secure();
+                }
+            };
+        }
+
+        @Override
+        public boolean isAsyncSupported() {
+            return false;
+        }
+
+        @Override
+        public boolean isAsyncStarted() {
+            return false;
+        }
+
+        @Override
+        public AsyncContext startAsync() {
+            throw new IllegalStateException("Traitement asynchrone indisponible dans une requête groupée");
+        }
+
+        @Override
+        public AsyncContext startAsync(ServletRequest request, ServletResponse response) {
+            throw new IllegalStateException("Traitement asynchrone indisponible dans une requête groupée");
+        }
+
+        @Override
+        public AsyncContext getAsyncContext() {
+            throw new IllegalStateException("Traitement asynchrone indisponible dans une requête groupée");
+        }
+
+        @Override
+        public String getAuthType() {
+            return null;
+        }
+
+        @Override
+        public String getRemoteUser() {
+            return null;
+        }
+
+        @Override
+        public boolean isUserInRole(String role) {
+            return false;
+        }
+
+        @Override
+        public Principal getUserPrincipal() {
+            return null;
+        }
+
+        @Override
+        public boolean authenticate(HttpServletResponse response) {
+            return false;
+        }
+
+        @Override
+        public void login(String username, String password) throws ServletException {
+            throw new ServletException("Authentification par conteneur indisponible dans une requête groupée");
+        }
+
+        @Override
+        public void logout() {
+            // Aucune authentification de conteneur à retirer
+        }
+
+        @Override
+        public HttpSession getSession(boolean create) {
+            if (create) {
+                throw new IllegalStateException("Pas de session HTTP dans une requête groupée (API sans état)");
+            }
+            return null;
+        }
+
+        @Override
+        public HttpSession getSession() {
+            return getSession(true);
+        }
+
+        @Override
+        public String changeSessionId() {
+            throw new IllegalStateException("Pas de session HTTP dans une requête groupée (API sans état)");
+        }
+
+        @Override
+        public String getRequestedSessionId() {
+            return null;
+        }
+
+        @Override
+        public boolean isRequestedSessionIdValid() {
+            return false;
+        }
+
+        @Override
+        public boolean isRequestedSessionIdFromCookie() {
+            return false;
+        }
+
+        @Override
+        public boolean isRequestedSessionIdFromURL() {
+            return false;
+        }
+
+        @Override
+        public <T extends HttpUpgradeHandler> T upgrade(Class<T> handlerClass) throws ServletException {
+            throw new ServletException("Changement de protocole impossible dans une requête groupée");
+        }
+    }
+
+    /**
+     * Réponse capturée en mémoire : statut, en-têtes et corps ne sont jamais transmis à la réponse du lot.
+     */
+    static final class CapturedResponse implements HttpServletResponse {
+
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        private final Map<String, List<String>> headers = new LinkedCaseInsensitiveMap<>();
+        private int status = HttpServletResponse.SC_OK;
+        private String contentType;
+        private String characterEncoding;
+        private ServletOutputStream outputStream;
+        private PrintWriter writer;
+        private boolean committed;
+
+        byte[] getBody() {
+            if (writer != null) {
+                writer.flush();
+            }
+            return body.toByteArray();
+        }
+
+        Charset charset() {
+            return characterEncoding != null ? Charset.forName(characterEncoding) : StandardCharsets.UTF_8;
+        }
+
+        @Override
+        public int getStatus() {
+            return status;
+        }
+
+        @Override
+        public void setStatus(int status) {
+            if (!committed) {
+                this.status = status;
+            }
+        }
+
+        @Override
+        public void sendError(int status) {
+            sendError(status, null);
+        }
+
+        @Override
+        public void sendError(int status, String message) {
+            if (committed) {
+                throw new IllegalStateException("Réponse déjà envoyée");
+            }
+            this.status = status;
+            body.reset();
+            if (message != null) {
+                body.writeBytes(message.getBytes(StandardCharsets.UTF_8));
+                contentType = MediaType.TEXT_PLAIN_VALUE;
+            }
+            committed = true;
+        }
+
+        @Override
+        public void sendRedirect(String location) {
+            setStatus(HttpServletResponse.SC_FOUND);
+            setHeader(HttpHeaders.LOCATION, location);
+            committed = true;
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            if (HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(name)) {
+                setContentType(value);
+            } else if (value != null) {
+                headers.put(name, new ArrayList<>(List.of(value)));
+            } else {
+                headers.remove(name);
+            }
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            if (HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(name)) {
+                setContentType(value);
+            } else if (value != null) {
+                headers.computeIfAbsent(name, key -> new ArrayList<>()).add(value);
+            }
+        }
+
+        @Override
+        public void setIntHeader(String name, int value) {
+            setHeader(name, String.valueOf(value));
+        }
+
+        @Override
+        public void addIntHeader(String name, int value) {
+            addHeader(name, String.valueOf(value));
+        }
+
+        @Override
+        public void setDateHeader(String name, long date) {
+            setHeader(name, String.valueOf(date));
+        }
+
+        @Override
+        public void addDateHeader(String name, long date) {
+            addHeader(name, String.valueOf(date));
+        }
+
+        @Override
+        public boolean containsHeader(String name) {
+            return headers.containsKey(name) || (HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(name) && contentType != null);
+        }
+
+        @Override
+        public String getHeader(String name) {
+            if (HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(name)) {
+                return getContentType();
+            }
+            List<String> values = headers.get(name);
+            return values != null && !values.isEmpty() ? values.get(0) : null;
+        }
+
+        @Override
+        public Collection<String> getHeaders(String name) {
+            return headers.getOrDefault(name, List.of());
+        }
+
+        @Override
+        public Collection<String> getHeaderNames() {
+            return new ArrayList<>(headers.keySet());
+        }
+
+        @Override
+        public void addCookie(Cookie cookie) {
+            // Les cookies des sous-requêtes ne sont pas transmis
+        }
+
+        @Override
+        public String encodeURL(String url) {
+            return url;
+        }
+
+        @Override
+        public String encodeRedirectURL(String url) {
+            return url;
+        }
+
+        @Override
+        public String getContentType() {
+            if (contentType == null) {
+                return null;
+            }
+            return characterEncoding != null && !contentType.contains("charset")
+                    ? contentType + ";charset=" + characterEncoding : contentType;
+        }
+
+        @Override
+        public void setContentType(String type) {
+            this.contentType = type;
+            if (type != null) {
+                MediaType mediaType = MediaType.parseMediaType(type);
+                if (mediaType.getCharset() != null) {
+                    characterEncoding = mediaType.getCharset().name();
+                }
+            }
+        }
+
+        @Override
+        public String getCharacterEncoding() {
+            return characterEncoding != null ? characterEncoding : StandardCharsets.ISO_8859_1.name();
+        }
+
+        @Override
+        public void setCharacterEncoding(String charset) {
+            this.characterEncoding = charset;
+        }
+
+        @Override
+        public void setContentLength(int length) {
+            // Le corps est capturé en entier : la longueur annoncée est ignorée
+        }
+
+        @Override
+        public void setContentLengthLong(long length) {
+            // Le corps est capturé en entier : la longueur annoncée est ignorée
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            if (outputStream == null) {
+                outputStream = new ServletOutputStream() {
+                    @Override
+                    public boolean isReady() {
+                        return true;
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener writeListener) {
+                        throw new IllegalStateException("Écriture non bloquante indisponible hors traitement asynchrone");
+                    }
+
+                    @Override
+                    public void write(int b) {
+                        body.write(b);
+                    }
+
+                    @Override
+                    public void write(byte[] bytes, int offset, int length) {
+                        body.write(bytes, offset, length);
+                    }
+                };
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() {
+            if (writer == null) {
+                writer = new PrintWriter(new OutputStreamWriter(body, charset()), true);
+            }
+            return writer;
+        }
+
+        @Override
+        public void flushBuffer() {
+            if (writer != null) {
+                writer.flush();
+            }
+            committed = true;
+        }
+
+        @Override
+        public boolean isCommitted() {
+            return committed;
+        }
+
+        @Override
+        public void reset() {
+            resetBuffer();
+            headers.clear();
+            status = HttpServletResponse.SC_OK;
+            contentType = null;
+            characterEncoding = null;
+        }
+
+        @Override
+        public void resetBuffer() {
+            if (committed) {
+                throw new IllegalStateException("Réponse déjà envoyée");
+            }
+            body.reset();
+        }
+
+        @Override
+        public void setBufferSize(int size) {
+            // Tampon en mémoire sans limite
+        }
+
+        @Override
+        public int getBufferSize() {
+            return Integer.MAX_VALUE;
+        }
+
+        @Override
+        public void setLocale(Locale locale) {
+            // Sans effet sur une réponse capturée
+        }
+
+        @Override
+        public Locale getLocale() {
+            return Locale.getDefault();
+        }
+
+        @Override
+        public void setTrailerFields(Supplier<Map<String, String>> supplier) {
+            // Sans effet sur une réponse capturée
+        }
+
+        @Override
+        public Supplier<Map<String, String>> getTrailerFields() {
+            return null;
+        }
+    }
+}
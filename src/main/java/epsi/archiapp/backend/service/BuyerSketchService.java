@@ -0,0 +1,249 @@
+package epsi.archiapp.backend.service;
+
+import epsi.archiapp.backend.dto.DistinctBuyersResponse;
+import epsi.archiapp.backend.event.ReservationEvent;
+import epsi.archiapp.backend.event.SpectacleChangedEvent;
+import epsi.archiapp.backend.model.BuyerSketch;
+import epsi.archiapp.backend.repository.BuyerSketchRepository;
+import epsi.archiapp.backend.repository.ReservationRepository;
+import epsi.archiapp.backend.sketch.HyperLogLog;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Nombre approximatif d'acheteurs distincts, global et par spectacle, par sketches HyperLogLog.
+ *
+ * Chaque réservation validée ajoute l'utilisateur au sketch global (précision 14, erreur type 0,8 %) et
+ * à celui du spectacle (précision 12, erreur type 1,6 %), sans verrou. Une annulation ne retire pas
+ * l'acheteur : on compte les personnes ayant réservé au moins une fois.
+ *
+ * Les sketches modifiés sont sauvegardés périodiquement en les fusionnant avec la version en base, lue
+ * sous verrou (SELECT ... FOR UPDATE) dans la transaction d'écriture : deux instances qui sauvegardent le
+ * même sketch se sérialisent et la seconde écrit l'union des deux (fusion par maximum des registres),
+ * jamais seulement sa propre version.
+ *
+ * Au démarrage, les sketches absents de la base (premier démarrage, réservations antérieures aux sketches,
+ * sketch illisible) sont reconstruits en parcourant les couples (spectacle, acheteur) distincts des réservations.
+ */
+@Service
+@Slf4j
+public class BuyerSketchService {
+
+    static final int GLOBAL_PRECISION = 14;
+    static final int SPECTACLE_PRECISION = 12;
+
+    private final BuyerSketchRepository buyerSketchRepository;
+    private final ReservationRepository reservationRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<Long, HyperLogLog> sketches = new ConcurrentHashMap<>();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+
+    @Value("${app.sketch.enabled:true}")
+    private boolean enabled;
+
+    public BuyerSketchService(BuyerSketchRepository buyerSketchRepository,
+                              ReservationRepository reservationRepository,
+                              PlatformTransactionManager transactionManager) {
+        this.buyerSketchRepository = buyerSketchRepository;
+        this.reservationRepository = reservationRepository;
+        // Transaction propre : les écouteurs AFTER_COMMIT s'exécutent dans une transaction déjà validée
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Charge les sketches sauvegardés au démarrage, puis reconstruit ceux qui manquent depuis les réservations.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        Set<Long> loaded = new HashSet<>();
+        for (BuyerSketch stored : buyerSketchRepository.findAll()) {
+            try {
+                sketch(stored.getSpectacleId()).merge(HyperLogLog.fromBytes(stored.getRegisters()));
+                loaded.add(stored.getSpectacleId());
+            } catch (IllegalArgumentException e) {
+                log.warn("Sketch d'acheteurs illisible pour le spectacle {} : reconstruit", stored.getSpectacleId());
+            }
+        }
+        log.info("Sketches d'acheteurs chargés - {} spectacles", loaded.size());
+        if (enabled) {
+            backfill(loaded);
+        }
+    }
+
+    /**
+     * Reconstruit les sketches des spectacles ayant des réservations mais pas de sketch chargé, et le sketch
+     * global s'il manque, en un parcours en flux des couples (spectacle, acheteur) distincts : seuls ceux des
+     * spectacles concernés sont lus, sauf si le sketch global est à reconstruire. Les sketches reconstruits
+     * sont sauvegardés au passage suivant de persist().
+     */
+    private void backfill(Set<Long> loaded) {
+        Set<Long> missing = new HashSet<>(reservationRepository.findSpectacleIdsWithReservations());
+        if (missing.isEmpty()) {
+            return;
+        }
+        boolean globalMissing = !loaded.contains(BuyerSketch.GLOBAL_ID);
+        missing.removeAll(loaded);
+        if (!globalMissing && missing.isEmpty()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        HyperLogLog global = sketch(BuyerSketch.GLOBAL_ID);
+        long[] rows = {0};
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<ReservationRepository.BuyerRow> buyers = globalMissing
+                    ? reservationRepository.streamDistinctBuyers()
+                    : reservationRepository.streamDistinctBuyers(missing)) {
+                buyers.forEach(buyer -> {
+                    long hash = HyperLogLog.hash64(buyer.getKeycloakUserId());
+                    if (globalMissing) {
+                        global.addHash(hash);
+                    }
+                    if (missing.contains(buyer.getSpectacleId())) {
+                        sketch(buyer.getSpectacleId()).addHash(hash);
+                    }
+                    rows[0]++;
+                });
+            }
+        });
+
+        if (globalMissing) {
+            dirty.add(BuyerSketch.GLOBAL_ID);
+        }
+        dirty.addAll(missing);
+        log.info("Sketches d'acheteurs reconstruits - {} spectacles{}, {} couples lus ({} ms)", missing.size(),
+                globalMissing ? " et le sketch global" : "", rows[0], (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Ajoute l'acheteur d'une réservation validée.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onReservationEvent(ReservationEvent event) {
+        if (!enabled || event.type() != ReservationEvent.Type.BOOKED || event.keycloakUserId() == null) {
+            return;
+        }
+        long hash = HyperLogLog.hash64(event.keycloakUserId());
+        sketch(BuyerSketch.GLOBAL_ID).addHash(hash);
+        sketch(event.spectacleId()).addHash(hash);
+        dirty.add(BuyerSketch.GLOBAL_ID);
+        dirty.add(event.spectacleId());
+    }
+
+    /**
+     * Oublie le sketch d'un spectacle supprimé (le sketch global le conserve).
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onSpectacleChanged(SpectacleChangedEvent event) {
+        if (event.type() == SpectacleChangedEvent.Type.DELETED) {
+            sketches.remove(event.spectacleId());
+            dirty.remove(event.spectacleId());
+            transactionTemplate.executeWithoutResult(status -> buyerSketchRepository.deleteById(event.spectacleId()));
+        }
+    }
+
+    /**
+     * Estimations courantes, globale et par spectacle (du plus grand nombre d'acheteurs au plus petit).
+     */
+    public DistinctBuyersResponse getDistinctBuyers() {
+        HyperLogLog global = sketch(BuyerSketch.GLOBAL_ID);
+        List<DistinctBuyersResponse.SpectacleBuyers> spectacles = new ArrayList<>(sketches.size());
+        sketches.forEach((spectacleId, sketch) -> {
+            if (spectacleId != BuyerSketch.GLOBAL_ID) {
+                spectacles.add(new DistinctBuyersResponse.SpectacleBuyers(spectacleId, sketch.estimate()));
+            }
+        });
+        spectacles.sort(Comparator.comparingLong(DistinctBuyersResponse.SpectacleBuyers::getBuyers).reversed());
+        return DistinctBuyersResponse.builder()
+                .totalBuyers(global.estimate())
+                .totalRelativeError(global.relativeStandardError())
+                .spectacleRelativeError(new HyperLogLog(SPECTACLE_PRECISION).relativeStandardError())
+                .spectacles(spectacles)
+                .build();
+    }
+
+    /**
+     * Sauvegarde les sketches modifiés depuis le dernier passage, fusionnés avec la version en base.
+     */
+    @Scheduled(fixedDelayString = "${app.sketch.persist-interval-ms:300000}")
+    public void persist() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(dirty);
+        dirty.removeAll(ids);
+        try {
+            Integer saved = transactionTemplate.execute(status -> mergeAndSave(ids));
+            log.debug("Sketches d'acheteurs sauvegardés - {}", saved);
+        } catch (RuntimeException e) {
+            dirty.addAll(ids);
+            log.error("Échec de la sauvegarde des sketches d'acheteurs, nouvelle tentative au prochain passage", e);
+        }
+    }
+
+    /**
+     * Lit les versions en base sous verrou, les fusionne dans les sketches locaux et écrit le résultat.
+     * Une première sauvegarde concurrente du même sketch échoue sur la clé primaire et sera reprise.
+     */
+    private int mergeAndSave(List<Long> ids) {
+        Map<Long, BuyerSketch> stored = new HashMap<>();
+        buyerSketchRepository.findAllByIdForUpdate(ids).forEach(row -> stored.put(row.getSpectacleId(), row));
+
+        LocalDateTime now = LocalDateTime.now();
+        List<BuyerSketch> toSave = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            HyperLogLog local = sketches.get(id);
+            if (local == null) {
+                continue;
+            }
+            BuyerSketch row = stored.get(id);
+            if (row != null) {
+                try {
+                    local.merge(HyperLogLog.fromBytes(row.getRegisters()));
+                } catch (IllegalArgumentException e) {
+                    log.warn("Sketch d'acheteurs illisible pour le spectacle {} : remplacé", id);
+                }
+            } else {
+                row = BuyerSketch.builder().spectacleId(id).build();
+            }
+            row.setRegisters(local.toBytes());
+            row.setUpdatedAt(now);
+            toSave.add(row);
+        }
+        buyerSketchRepository.saveAll(toSave);
+        return toSave.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        persist();
+    }
+
+    private HyperLogLog sketch(Long spectacleId) {
+        return sketches.computeIfAbsent(spectacleId, id -> new HyperLogLog(
+                id == BuyerSketch.GLOBAL_ID ? GLOBAL_PRECISION : SPECTACLE_PRECISION));
+    }
+}
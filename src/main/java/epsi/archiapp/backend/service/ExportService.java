@@ -0,0 +1,257 @@
+package epsi.archiapp.backend.service;
+
+import epsi.archiapp.backend.util.ExportUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Service d'export en flux des réservations et des ventes.
+ *
+ * Les lignes sont lues avec un curseur JDBC en avant seule (fetch size borné) et écrites
+ * directement dans la réponse : aucune entité n'est chargée dans le contexte de persistance
+ * et la mémoire consommée reste constante quel que soit le nombre de lignes exportées.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ExportService {
+
+    private static final String[] RESERVATION_COLUMNS = {
+            "id", "reservationDate", "userId", "spectacleId", "spectacleTitle", "quantity", "totalPrice"
+    };
+
+    private static final String[] SALES_COLUMNS = {
+            "spectacleId", "title", "ticketsSold", "revenue"
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.export.fetch-size:1000}")
+    private int fetchSize;
+
+    /**
+     * Formats d'export supportés.
+     */
+    public enum Format {
+        NDJSON(MediaType.parseMediaType("application/x-ndjson"), "ndjson"),
+        CSV(MediaType.parseMediaType("text/csv;charset=UTF-8"), "csv");
+
+        private final MediaType mediaType;
+        private final String extension;
+
+        Format(MediaType mediaType, String extension) {
+            this.mediaType = mediaType;
+            this.extension = extension;
+        }
+
+        public MediaType getMediaType() {
+            return mediaType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        /**
+         * Convertit le paramètre de requête en format d'export (insensible à la casse).
+         *
+         * @throws IllegalArgumentException si le format n'est pas supporté
+         */
+        public static Format from(String value) {
+            try {
+                return Format.valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException | NullPointerException e) {
+                throw new IllegalArgumentException("Format d'export non supporté : " + value + " (ndjson ou csv)");
+            }
+        }
+    }
+
+    /**
+     * Exporte les réservations, éventuellement filtrées par spectacle et par période de réservation.
+     *
+     * @param format      Format de sortie
+     * @param spectacleId Filtre optionnel sur le spectacle
+     * @param from        Borne inférieure optionnelle (incluse) sur la date de réservation
+     * @param to          Borne supérieure optionnelle (exclue) sur la date de réservation
+     * @param output      Flux de la réponse HTTP
+     */
+    public void exportReservations(Format format, Long spectacleId, LocalDateTime from, LocalDateTime to,
+                                   OutputStream output) {
+        StringBuilder sql = new StringBuilder(
+                "SELECT r.id, r.reservation_date, r.keycloak_user_id, r.spectacle_id, s.title, r.quantity, r.total_price " +
+                "FROM reservations r JOIN spectacles s ON s.id = r.spectacle_id WHERE 1 = 1");
+        List<Object> params = new ArrayList<>();
+        if (spectacleId != null) {
+            sql.append(" AND r.spectacle_id = ?");
+            params.add(spectacleId);
+        }
+        if (from != null) {
+            sql.append(" AND r.reservation_date >= ?");
+            params.add(from);
+        }
+        if (to != null) {
+            sql.append(" AND r.reservation_date < ?");
+            params.add(to);
+        }
+        sql.append(" ORDER BY r.id");
+
+        log.info("Export des réservations ({}) - spectacle: {}, du {} au {}", format, spectacleId, from, to);
+        stream(format, RESERVATION_COLUMNS, sql.toString(), params, output, rs -> new Object[]{
+                rs.getLong(1),
+                rs.getObject(2, LocalDateTime.class),
+                rs.getString(3),
+                rs.getLong(4),
+                rs.getString(5),
+                rs.getInt(6),
+                rs.getBigDecimal(7)
+        });
+    }
+
+    /**
+     * Exporte les ventes agrégées par spectacle.
+     *
+     * @param format Format de sortie
+     * @param output Flux de la réponse HTTP
+     */
+    public void exportSalesBySpectacle(Format format, OutputStream output) {
+        String sql = "SELECT s.id, s.title, SUM(r.quantity), SUM(r.total_price) " +
+                "FROM reservations r JOIN spectacles s ON s.id = r.spectacle_id " +
+                "GROUP BY s.id, s.title ORDER BY s.id";
+
+        log.info("Export des ventes par spectacle ({})", format);
+        stream(format, SALES_COLUMNS, sql, List.of(), output, rs -> new Object[]{
+                rs.getLong(1),
+                rs.getString(2),
+                rs.getLong(3),
+                rs.getBigDecimal(4)
+        });
+    }
+
+    /**
+     * Exécute la requête dans une transaction en lecture seule (nécessaire pour que le driver
+     * PostgreSQL utilise un curseur serveur) et écrit chaque ligne au fil de l'eau.
+     */
+    private void stream(Format format, String[] columns, String sql, List<Object> params,
+                        OutputStream output, RowExtractor extractor) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), 64 * 1024);
+        PreparedStatementCreator statementCreator = connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            for (int i = 0; i < params.size(); i++) {
+                statement.setObject(i + 1, params.get(i));
+            }
+            return statement;
+        };
+
+        long[] rows = {0};
+        transactionTemplate.executeWithoutResult(status -> {
+            try {
+                if (format == Format.CSV) {
+                    writeCsvHeader(writer, columns);
+                }
+                jdbcTemplate.query(statementCreator, rs -> {
+                    Object[] values = extractor.extract(rs);
+                    try {
+                        if (format == Format.CSV) {
+                            writeCsvRow(writer, values);
+                        } else {
+                            writeJsonRow(writer, columns, values);
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    rows[0]++;
+                });
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        log.info("Export terminé - {} lignes écrites", rows[0]);
+    }
+
+    private void writeCsvHeader(Writer writer, String[] columns) throws IOException {
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(columns[i]);
+        }
+        writer.write('\n');
+    }
+
+    private void writeCsvRow(Writer writer, Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            ExportUtils.writeCsvField(writer, format(values[i]));
+        }
+        writer.write('\n');
+    }
+
+    private void writeJsonRow(Writer writer, String[] columns, Object[] values) throws IOException {
+        writer.write('{');
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write('"');
+            writer.write(columns[i]);
+            writer.write("\":");
+            Object value = values[i];
+            if (value instanceof Number) {
+                writer.write(format(value));
+            } else {
+                ExportUtils.writeJsonString(writer, format(value));
+            }
+        }
+        writer.write("}\n");
+    }
+
+    private String format(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof BigDecimal decimal) {
+            return decimal.toPlainString();
+        }
+        if (value instanceof LocalDateTime dateTime) {
+            return DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(dateTime);
+        }
+        return value.toString();
+    }
+
+    @FunctionalInterface
+    private interface RowExtractor {
+        Object[] extract(ResultSet rs) throws java.sql.SQLException;
+    }
+}
@@ -0,0 +1,184 @@
+package epsi.archiapp.backend.service;
+
+import epsi.archiapp.backend.dto.SpectacleResponse;
+import epsi.archiapp.backend.exception.ResourceNotFoundException;
+import epsi.archiapp.backend.mapper.SpectacleMapper;
+import epsi.archiapp.backend.model.Spectacle;
+import epsi.archiapp.backend.search.TextNormalizer;
+import io.r2dbc.spi.Readable;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lecture non bloquante du catalogue via R2DBC (profil "reactive").
+ *
+ * Les lignes sont converties en entités puis en DTO par le même SpectacleMapper que la pile MVC, et le
+ * cache "spectacles" est partagé : un spectacle lu par l'une des piles profite à l'autre (même clé
+ * "spectacle-{id}"), et les invalidations faites par les écritures JPA s'appliquent aux deux. Les pages
+ * ont leur propre clé ("reactive-page-...") : leur tri (date puis id) n'est pas celui des pages MVC.
+ * Le fetch size borne le nombre de lignes demandées au serveur : la contre-pression du client HTTP
+ * se propage jusqu'à PostgreSQL.
+ */
+@Service
+@Profile("reactive")
+@Slf4j
+public class ReactiveSpectacleService {
+
+    private static final String COLUMNS = "id, title, description, date, price, available_tickets, image_url, " +
+            "version, created_at, updated_at, created_by, updated_by";
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final DatabaseClient databaseClient;
+    private final SpectacleMapper spectacleMapper;
+    private final CacheManager cacheManager;
+
+    @Value("${app.reactive.fetch-size:100}")
+    private int fetchSize;
+
+    public ReactiveSpectacleService(DatabaseClient reactiveDatabaseClient, SpectacleMapper spectacleMapper,
+                                    CacheManager cacheManager) {
+        this.databaseClient = reactiveDatabaseClient;
+        this.spectacleMapper = spectacleMapper;
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * Liste paginée des spectacles triés par date puis id. La page (100 lignes au plus) est mise en cache
+     * sous une clé propre à la pile réactive.
+     */
+    public Flux<SpectacleResponse> listAll(int page, int size) {
+        validatePage(page, size);
+        Cache cache = cacheManager.getCache("spectacles");
+        String key = "reactive-page-" + page + "-" + size;
+        if (cache != null) {
+            List<?> cached = cache.get(key, List.class);
+            if (cached != null) {
+                return Flux.fromIterable(cached).cast(SpectacleResponse.class);
+            }
+        }
+        Flux<SpectacleResponse> rows = query("SELECT " + COLUMNS + " FROM spectacles ORDER BY date ASC, id ASC " +
+                "LIMIT :limit OFFSET :offset")
+                .bind("limit", size)
+                .bind("offset", (long) page * size)
+                .map(this::toResponse)
+                .all();
+        if (cache == null) {
+            return rows;
+        }
+        return rows.collectList()
+                .doOnNext(content -> cache.put(key, content))
+                .flatMapIterable(content -> content);
+    }
+
+    /**
+     * Spectacles à venir, triés par date.
+     */
+    public Flux<SpectacleResponse> findUpcoming(int page, int size) {
+        validatePage(page, size);
+        return query("SELECT " + COLUMNS + " FROM spectacles WHERE date >= :now " +
+                "ORDER BY date ASC, id ASC LIMIT :limit OFFSET :offset")
+                .bind("now", LocalDateTime.now())
+                .bind("limit", size)
+                .bind("offset", (long) page * size)
+                .map(this::toResponse)
+                .all();
+    }
+
+    /**
+     * Recherche par mots-clés dans le titre et la description, insensible à la casse et aux accents, comme le
+     * repli LIKE de DatabaseSpectacleSearch : chaque terme normalisé (TextNormalizer) doit apparaître dans l'une
+     * des deux colonnes repliées. Les termes ne contiennent que des lettres et des chiffres : aucun joker LIKE
+     * (% ou _) ne vient de la saisie. Une saisie faite uniquement de mots vides ou de ponctuation ne renvoie rien.
+     */
+    public Flux<SpectacleResponse> search(String keyword, int page, int size) {
+        validatePage(page, size);
+        if (keyword == null || keyword.isBlank()) {
+            throw new IllegalArgumentException("Le mot-clé de recherche est obligatoire");
+        }
+        List<String> tokens = TextNormalizer.tokenize(keyword);
+        if (tokens.isEmpty()) {
+            return Flux.empty();
+        }
+        List<String> conditions = new ArrayList<>(tokens.size());
+        for (int i = 0; i < tokens.size(); i++) {
+            conditions.add("(" + TextNormalizer.foldSql("title") + " LIKE :term" + i + " OR " +
+                    TextNormalizer.foldSql("description") + " LIKE :term" + i + ")");
+        }
+        DatabaseClient.GenericExecuteSpec spec = query("SELECT " + COLUMNS + " FROM spectacles WHERE " +
+                String.join(" AND ", conditions) + " ORDER BY date ASC, id ASC LIMIT :limit OFFSET :offset");
+        for (int i = 0; i < tokens.size(); i++) {
+            spec = spec.bind("term" + i, "%" + tokens.get(i) + "%");
+        }
+        return spec
+                .bind("limit", size)
+                .bind("offset", (long) page * size)
+                .map(this::toResponse)
+                .all();
+    }
+
+    /**
+     * Récupère un spectacle par son ID, en lisant puis alimentant le cache partagé.
+     */
+    public Mono<SpectacleResponse> get(Long id) {
+        Cache cache = cacheManager.getCache("spectacles");
+        String key = "spectacle-" + id;
+        if (cache != null) {
+            SpectacleResponse cached = cache.get(key, SpectacleResponse.class);
+            if (cached != null) {
+                return Mono.just(cached);
+            }
+        }
+        return query("SELECT " + COLUMNS + " FROM spectacles WHERE id = :id")
+                .bind("id", id)
+                .map(this::toResponse)
+                .one()
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Spectacle", "id", id)))
+                .doOnNext(response -> {
+                    if (cache != null) {
+                        cache.put(key, response);
+                    }
+                });
+    }
+
+    private DatabaseClient.GenericExecuteSpec query(String sql) {
+        return databaseClient.sql(sql)
+                .filter((statement, next) -> next.execute(statement.fetchSize(fetchSize)));
+    }
+
+    private void validatePage(int page, int size) {
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Pagination invalide (page >= 0, taille entre 1 et " + MAX_PAGE_SIZE + ")");
+        }
+    }
+
+    private SpectacleResponse toResponse(Readable row) {
+        Spectacle spectacle = Spectacle.builder()
+                .id(row.get("id", Long.class))
+                .title(row.get("title", String.class))
+                .description(row.get("description", String.class))
+                .date(row.get("date", LocalDateTime.class))
+                .price(row.get("price", BigDecimal.class))
+                .availableTickets(row.get("available_tickets", Integer.class))
+                .imageUrl(row.get("image_url", String.class))
+                .version(row.get("version", Long.class))
+                .createdAt(row.get("created_at", LocalDateTime.class))
+                .updatedAt(row.get("updated_at", LocalDateTime.class))
+                .createdBy(row.get("created_by", String.class))
+                .updatedBy(row.get("updated_by", String.class))
+                .build();
+        return spectacleMapper.toResponse(spectacle);
+    }
+}
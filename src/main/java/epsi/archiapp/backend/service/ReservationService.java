@@ -2,65 +2,111 @@ package epsi.archiapp.backend.service;
 
 import epsi.archiapp.backend.dto.ReservationRequest;
 import epsi.archiapp.backend.dto.ReservationResponse;
-import epsi.archiapp.backend.dto.StatsResponse;
+import epsi.archiapp.backend.event.ReservationEvent;
 import epsi.archiapp.backend.exception.InsufficientTicketsException;
 import epsi.archiapp.backend.exception.ResourceNotFoundException;
 import epsi.archiapp.backend.exception.UnauthorizedAccessException;
 import epsi.archiapp.backend.mapper.ReservationMapper;
 import epsi.archiapp.backend.model.Reservation;
 import epsi.archiapp.backend.model.Spectacle;
+import epsi.archiapp.backend.monitoring.LockContentionTracker;
+import epsi.archiapp.backend.monitoring.ReservationLatencyTracker;
+import epsi.archiapp.backend.monitoring.ReservationLatencyTracker.Flow;
+import epsi.archiapp.backend.monitoring.ReservationLatencyTracker.Phase;
+import epsi.archiapp.backend.monitoring.ReservationMetrics;
+import epsi.archiapp.backend.monitoring.ReservationMetrics.Outcome;
+import epsi.archiapp.backend.monitoring.jfr.LockAcquiredEvent;
+import epsi.archiapp.backend.monitoring.jfr.ReservationAttemptEvent;
+import epsi.archiapp.backend.monitoring.jfr.ReservationCancelledEvent;
+import epsi.archiapp.backend.monitoring.jfr.ReservationCommittedEvent;
+import epsi.archiapp.backend.monitoring.jfr.ReservationRejectedEvent;
 import epsi.archiapp.backend.repository.ReservationRepository;
 import epsi.archiapp.backend.repository.SpectacleRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.core.Ordered;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Locale;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ReservationService {
 
+    private static final String[] EVICTED_CACHES = {"reservations", "spectacles"};
+
     private final ReservationRepository reservationRepository;
     private final SpectacleRepository spectacleRepository;
     private final ReservationMapper reservationMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CacheManager cacheManager;
+    private final ReservationLatencyTracker latencyTracker;
+    private final LockContentionTracker lockContentionTracker;
+    private final ReservationMetrics reservationMetrics;
 
     /**
      * Crée une nouvelle réservation.
-     * Invalide les caches : statistiques, réservations et spectacles
+     * Invalide les caches réservations et spectacles après le commit.
+     * Les statistiques de ventes sont mises à jour par SalesStatisticsService (ReservationEvent).
      */
     @Transactional
-    @CacheEvict(value = {"statistics", "reservations", "spectacles"}, allEntries = true)
     public ReservationResponse createReservation(String keycloakUserId, ReservationRequest request) {
         log.info("Création de réservation - Utilisateur: {}, Spectacle: {}, Quantité: {} - Invalidation des caches",
                  keycloakUserId, request.getSpectacleId(), request.getQuantity());
+        long start = System.nanoTime();
+        ReservationAttemptEvent.emit(request.getSpectacleId(), request.getQuantity());
 
         // Récupérer le spectacle avec verrouillage pessimiste pour éviter les race conditions (overbooking)
         // Le verrou empêche d'autres transactions de lire/modifier ce spectacle jusqu'à la fin de cette transaction
-        Spectacle spectacle = spectacleRepository.findByIdWithLock(request.getSpectacleId())
-                .orElseThrow(() -> new ResourceNotFoundException("Spectacle", "id", request.getSpectacleId()));
+        LockContentionTracker.Slot contention = lockContentionTracker.await(request.getSpectacleId());
+        LockAcquiredEvent lockEvent = new LockAcquiredEvent();
+        lockEvent.begin();
+        Optional<Spectacle> locked;
+        try {
+            locked = spectacleRepository.findByIdWithLock(request.getSpectacleId());
+        } finally {
+            lockContentionTracker.release(contention, System.nanoTime() - start);
+        }
+        if (locked.isEmpty()) {
+            reject(Outcome.NOT_FOUND, request, 0);
+            throw new ResourceNotFoundException("Spectacle", "id", request.getSpectacleId());
+        }
+        lockEvent.spectacleId = request.getSpectacleId();
+        lockEvent.commit();
+        Spectacle spectacle = locked.get();
+        long lockAcquired = System.nanoTime();
+        latencyTracker.record(Flow.CREATE, Phase.LOCK_WAIT, lockAcquired - start);
 
         // Vérifier la disponibilité
         if (spectacle.getAvailableTickets() < request.getQuantity()) {
             log.warn("Billets insuffisants - Disponibles: {}, Demandés: {}",
                      spectacle.getAvailableTickets(), request.getQuantity());
+            reject(Outcome.INSUFFICIENT, request, spectacle.getAvailableTickets());
             throw new InsufficientTicketsException(spectacle.getAvailableTickets(), request.getQuantity());
         }
 
         // Vérifier que le spectacle est dans le futur
         if (spectacle.getDate().isBefore(LocalDateTime.now())) {
+            reject(Outcome.PAST_SHOW, request, spectacle.getAvailableTickets());
             throw new IllegalStateException("Impossible de réserver un spectacle passé");
         }
 
+        long checked = System.nanoTime();
+        latencyTracker.record(Flow.CREATE, Phase.CHECK, checked - lockAcquired);
+
         // Calculer le prix total
         BigDecimal totalPrice = spectacle.getPrice().multiply(BigDecimal.valueOf(request.getQuantity()));
 
@@ -73,10 +119,14 @@ public class ReservationService {
 
         // Sauvegarder la réservation
         reservation = reservationRepository.save(reservation);
+        latencyTracker.record(Flow.CREATE, Phase.INSERT, System.nanoTime() - checked);
 
         log.info("Réservation créée avec succès - ID: {}, Montant: {}",
                  reservation.getId(), totalPrice);
 
+        publishEvent(ReservationEvent.Type.BOOKED, reservation, spectacle);
+        completeAfterCommit(Flow.CREATE, start, reservation);
+
         return reservationMapper.toResponse(reservation);
     }
 
@@ -116,15 +166,17 @@ public class ReservationService {
 
     /**
      * Annule une réservation existante.
-     * Invalide les caches : statistiques, réservations et spectacles
+     * Invalide les caches réservations et spectacles après le commit
      * (car le nombre de billets disponibles change)
      */
     @Transactional
-    @CacheEvict(value = {"statistics", "reservations", "spectacles"}, allEntries = true)
     public void cancelReservation(Long id, String keycloakUserId) {
         log.info("Annulation de la réservation {} par l'utilisateur: {} - Invalidation des caches", id, keycloakUserId);
+        long start = System.nanoTime();
         Reservation reservation = reservationRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Réservation", "id", id));
+        long loaded = System.nanoTime();
+        latencyTracker.record(Flow.CANCEL, Phase.LOAD, loaded - start);
 
         // Vérifier que la réservation appartient bien à l'utilisateur
         if (!reservation.getKeycloakUserId().equals(keycloakUserId)) {
@@ -138,6 +190,9 @@ public class ReservationService {
             throw new IllegalStateException("Impossible d'annuler une réservation pour un spectacle passé");
         }
 
+        long checked = System.nanoTime();
+        latencyTracker.record(Flow.CANCEL, Phase.CHECK, checked - loaded);
+
         // Remettre les billets disponibles
         Spectacle spectacle = reservation.getSpectacle();
         spectacle.setAvailableTickets(spectacle.getAvailableTickets() + reservation.getQuantity());
@@ -145,46 +200,100 @@ public class ReservationService {
 
         // Supprimer la réservation
         reservationRepository.delete(reservation);
+        latencyTracker.record(Flow.CANCEL, Phase.DELETE, System.nanoTime() - checked);
 
         log.info("Réservation annulée avec succès - ID: {}", id);
+
+        publishEvent(ReservationEvent.Type.CANCELLED, reservation, spectacle);
+        completeAfterCommit(Flow.CANCEL, start, reservation);
     }
 
     /**
-     * Récupère les statistiques de ventes.
-     * Résultat mis en cache car le calcul est coûteux (plusieurs requêtes SQL).
-     * Le cache est invalidé à chaque création/annulation de réservation.
-     * Cache valide pendant 5 minutes maximum.
+     * Invalide les caches réservations et spectacles une fois la transaction validée (jamais si elle est
+     * annulée), compte la réservation comme réussie, émet l'événement JFR de validation ou d'annulation
+     * et mesure au passage la durée du commit et de l'invalidation. La synchronisation passe avant les
+     * écouteurs AFTER_COMMIT pour que leur travail ne soit pas compté dans ces étapes.
+     * Hors transaction (tests unitaires), tout est fait immédiatement.
      */
-    @Cacheable(value = "statistics")
-    @Transactional(readOnly = true)
-    public StatsResponse getStatistics() {
-        log.debug("Calcul des statistiques de ventes (CACHE MISS)");
+    private void completeAfterCommit(Flow flow, long start, Reservation reservation) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evictCaches();
+            committed(flow, reservation, 0, System.nanoTime() - start);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private long commitStart;
+
+            @Override
+            public int getOrder() {
+                return Ordered.HIGHEST_PRECEDENCE;
+            }
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                commitStart = System.nanoTime();
+            }
+
+            @Override
+            public void afterCommit() {
+                long committed = System.nanoTime();
+                latencyTracker.record(flow, Phase.COMMIT, committed - commitStart);
+                evictCaches();
+                long evicted = System.nanoTime();
+                latencyTracker.record(flow, Phase.CACHE_EVICTION, evicted - committed);
+                latencyTracker.record(flow, Phase.TOTAL, evicted - start);
+                committed(flow, reservation, committed - commitStart, evicted - start);
+            }
+        });
+    }
 
-        BigDecimal totalRevenue = reservationRepository.getTotalSales();
-        if (totalRevenue == null) {
-            totalRevenue = BigDecimal.ZERO;
+    private void committed(Flow flow, Reservation reservation, long commitNanos, long totalNanos) {
+        long spectacleId = reservation.getSpectacle().getId();
+        if (flow == Flow.CREATE) {
+            reservationMetrics.increment(Outcome.SUCCESS);
+            ReservationCommittedEvent.emit(reservation.getId(), spectacleId, reservation.getQuantity(),
+                    commitNanos, totalNanos);
+        } else {
+            ReservationCancelledEvent.emit(reservation.getId(), spectacleId, reservation.getQuantity(),
+                    commitNanos, totalNanos);
         }
+    }
 
-        Long totalReservations = reservationRepository.count();
-
-        List<StatsResponse.SpectacleSales> salesBySpectacle =
-                reservationRepository.getSalesBySpectacle().stream()
-                        .map(sales -> StatsResponse.SpectacleSales.builder()
-                                .spectacleId(sales.getSpectacleId())
-                                .title(sales.getTitle())
-                                .ticketsSold(sales.getTicketsSold())
-                                .revenue(sales.getRevenue())
-                                .build())
-                        .collect(Collectors.toList());
-
-        log.debug("Statistiques calculées - Revenus: {}, Réservations: {}",
-                  totalRevenue, totalReservations);
-
-        return StatsResponse.builder()
-                .totalRevenue(totalRevenue)
-                .totalReservations(totalReservations)
-                .salesBySpectacle(salesBySpectacle)
-                .build();
+    /**
+     * Compte une réservation refusée et émet l'événement JFR correspondant.
+     */
+    private void reject(Outcome outcome, ReservationRequest request, int availableTickets) {
+        reservationMetrics.increment(outcome);
+        ReservationRejectedEvent.emit(request.getSpectacleId(), request.getQuantity(),
+                outcome.name().toLowerCase(Locale.ROOT), availableTickets);
+    }
+
+    private void evictCaches() {
+        for (String name : EVICTED_CACHES) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
     }
-}
 
+    /**
+     * Publie le changement de disponibilité. Les écouteurs temps réel ne le reçoivent qu'après
+     * le commit (@TransactionalEventListener), donc jamais pour une transaction annulée ; les agrégats
+     * de ventes (sales_summary) sont en revanche mis à jour dans la transaction courante (@EventListener).
+     * La version est celle qu'aura le spectacle une fois le flush effectué (+1, l'entité étant modifiée).
+     */
+    private void publishEvent(ReservationEvent.Type type, Reservation reservation, Spectacle spectacle) {
+        long version = spectacle.getVersion() != null ? spectacle.getVersion() + 1 : 0L;
+        eventPublisher.publishEvent(new ReservationEvent(
+                type,
+                reservation.getId(),
+                spectacle.getId(),
+                reservation.getKeycloakUserId(),
+                reservation.getQuantity(),
+                reservation.getTotalPrice(),
+                spectacle.getAvailableTickets(),
+                version,
+                LocalDateTime.now()));
+    }
+}
@@ -0,0 +1,365 @@
+package epsi.archiapp.backend.service;
+
+import epsi.archiapp.backend.dto.StatsReconciliationResponse;
+import epsi.archiapp.backend.dto.StatsResponse;
+import epsi.archiapp.backend.event.ReservationEvent;
+import epsi.archiapp.backend.event.SpectacleChangedEvent;
+import epsi.archiapp.backend.model.SalesSummary;
+import epsi.archiapp.backend.repository.ReservationRepository;
+import epsi.archiapp.backend.repository.SalesSummaryRepository;
+import epsi.archiapp.backend.repository.SpectacleRepository;
+import epsi.archiapp.backend.util.MoneyUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Statistiques de ventes maintenues au fil de l'eau, sans agrégation sur la table des réservations.
+ *
+ * Deux niveaux :
+ * - la table sales_summary, mise à jour par un UPDATE relatif dans la transaction même de la réservation
+ *   ou de l'annulation (écouteur synchrone de ReservationEvent) : elle ne peut pas diverger d'un commit ;
+ * - des compteurs LongAdder en mémoire, incrémentés après le commit, qui servent /api/admin/stats
+ *   en O(nombre de spectacles) sans requête.
+ *
+ * Les compteurs sont rechargés depuis sales_summary au démarrage. La réconciliation recalcule
+ * sales_summary depuis la table des réservations, corrige les écarts et recharge les compteurs des lignes
+ * qu'elle a verrouillées ; une génération par spectacle indique aux incréments après commit si leur
+ * réservation est déjà comptée dans ce rechargement.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SalesStatisticsService {
+
+    private final SalesSummaryRepository salesSummaryRepository;
+    private final ReservationRepository reservationRepository;
+    private final SpectacleRepository spectacleRepository;
+    private final SalesViewService salesViewService;
+
+    private final Map<Long, Counters> counters = new ConcurrentHashMap<>();
+    private final Map<Long, String> titles = new ConcurrentHashMap<>();
+    private final LongAdder totalRevenueCents = new LongAdder();
+    private final LongAdder totalReservations = new LongAdder();
+
+    /**
+     * Génération des compteurs de chaque spectacle, incrémentée quand la réconciliation les recharge.
+     * Les incréments après commit se font sous le verrou de lecture, le rechargement sous le verrou d'écriture.
+     */
+    private final Map<Long, Long> generations = new ConcurrentHashMap<>();
+    private final ReadWriteLock countersLock = new ReentrantReadWriteLock();
+
+    /**
+     * Compteurs d'un spectacle. Le chiffre d'affaires est tenu en centimes.
+     */
+    static final class Counters {
+        final LongAdder ticketsSold = new LongAdder();
+        final LongAdder revenueCents = new LongAdder();
+        final LongAdder reservations = new LongAdder();
+
+        void add(long tickets, long cents, long count) {
+            ticketsSold.add(tickets);
+            revenueCents.add(cents);
+            reservations.add(count);
+        }
+    }
+
+    /**
+     * Charge les titres et les agrégats au démarrage. Si la table sales_summary est vide alors que des
+     * réservations existent (premier démarrage après migration), elle est construite par réconciliation.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void load() {
+        reloadTitles();
+        if (salesSummaryRepository.count() == 0 && reservationRepository.count() > 0) {
+            log.info("Table sales_summary vide : initialisation depuis les réservations");
+            reconcile();
+            return;
+        }
+        loadCounters(salesSummaryRepository.findAll());
+        log.info("Statistiques de ventes chargées - {} spectacles", counters.size());
+    }
+
+    /**
+     * Met à jour sales_summary dans la transaction de la réservation ou de l'annulation (upsert relatif :
+     * la première vente d'un spectacle crée sa ligne). Un échec annule la réservation : la table reste
+     * cohérente avec les réservations validées.
+     *
+     * La génération des compteurs du spectacle est lue une fois la ligne écrite, donc verrouillée : une
+     * réconciliation qui la recharge ensuite attend le commit de cette transaction et la compte déjà.
+     * Hors transaction (tests unitaires), les compteurs sont mis à jour immédiatement.
+     */
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void applyToSummary(ReservationEvent event) {
+        int sign = event.type() == ReservationEvent.Type.BOOKED ? 1 : -1;
+        salesSummaryRepository.applyDelta(event.spectacleId(), (long) sign * event.quantity(),
+                event.totalPrice().multiply(BigDecimal.valueOf(sign)), sign);
+        long generation = generations.getOrDefault(event.spectacleId(), 0L);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            applyToCounters(event, generation);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                applyToCounters(event, generation);
+            }
+        });
+    }
+
+    /**
+     * Reporte la réservation ou l'annulation validée sur les compteurs en mémoire, sauf si la réconciliation
+     * les a rechargés depuis la ligne du spectacle après l'écriture de la transaction (génération changée) :
+     * la réservation y est déjà comptée.
+     *
+     * @param generation Génération des compteurs du spectacle lue dans la transaction, après l'écriture
+     */
+    void applyToCounters(ReservationEvent event, long generation) {
+        int sign = event.type() == ReservationEvent.Type.BOOKED ? 1 : -1;
+        long cents = MoneyUtils.toCents(event.totalPrice()) * sign;
+        countersLock.readLock().lock();
+        try {
+            if (generations.getOrDefault(event.spectacleId(), 0L) != generation) {
+                log.debug("Réservation {} déjà comptée par la réconciliation", event.reservationId());
+                return;
+            }
+            counters.computeIfAbsent(event.spectacleId(), id -> new Counters())
+                    .add((long) sign * event.quantity(), cents, sign);
+            totalRevenueCents.add(cents);
+            totalReservations.add(sign);
+        } finally {
+            countersLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Supprime les agrégats d'un spectacle supprimé (ses réservations le sont dans la même transaction).
+     */
+    @EventListener
+    public void removeFromSummary(SpectacleChangedEvent event) {
+        if (event.type() == SpectacleChangedEvent.Type.DELETED && salesSummaryRepository.existsById(event.spectacleId())) {
+            salesSummaryRepository.deleteById(event.spectacleId());
+        }
+    }
+
+    /**
+     * Tient à jour les titres et retire des compteurs les spectacles supprimés, après le commit.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onSpectacleChanged(SpectacleChangedEvent event) {
+        switch (event.type()) {
+            case CREATED, UPDATED -> titles.put(event.spectacleId(), event.title());
+            case DELETED -> {
+                titles.remove(event.spectacleId());
+                countersLock.writeLock().lock();
+                try {
+                    Counters removed = counters.remove(event.spectacleId());
+                    if (removed != null) {
+                        totalRevenueCents.add(-removed.revenueCents.sum());
+                        totalReservations.add(-removed.reservations.sum());
+                    }
+                } finally {
+                    countersLock.writeLock().unlock();
+                }
+            }
+            case BULK_IMPORTED -> reloadTitles();
+        }
+    }
+
+    /**
+     * Statistiques de ventes, calculées depuis les compteurs en mémoire (aucune requête SQL).
+     */
+    public StatsResponse getStatistics() {
+        List<StatsResponse.SpectacleSales> salesBySpectacle = new ArrayList<>(counters.size());
+        counters.forEach((spectacleId, spectacleCounters) -> {
+            if (spectacleCounters.reservations.sum() > 0) {
+                salesBySpectacle.add(StatsResponse.SpectacleSales.builder()
+                        .spectacleId(spectacleId)
+                        .title(titles.get(spectacleId))
+                        .ticketsSold(spectacleCounters.ticketsSold.sum())
+                        .revenue(MoneyUtils.fromCents(spectacleCounters.revenueCents.sum()))
+                        .build());
+            }
+        });
+        salesBySpectacle.sort(Comparator.comparing(StatsResponse.SpectacleSales::getRevenue).reversed());
+
+        return StatsResponse.builder()
+                .totalRevenue(MoneyUtils.fromCents(totalRevenueCents.sum()))
+                .totalReservations(totalReservations.sum())
+                .salesBySpectacle(salesBySpectacle)
+                .build();
+    }
+
+    /**
+     * Statistiques exactes relues depuis la table des réservations, en une seule lecture groupée (au lieu
+     * de SUM, COUNT puis GROUP BY successifs) : les totaux sont la somme des lignes par spectacle.
+     */
+    @Transactional(readOnly = true)
+    public StatsResponse getLiveStatistics() {
+        return toStatistics(reservationRepository.getSalesSummaryBySpectacle());
+    }
+
+    /**
+     * Statistiques lues depuis la vue matérialisée sur PostgreSQL (SalesViewService), à jour à son dernier
+     * rafraîchissement près ; sur une autre base, identiques à getLiveStatistics.
+     */
+    @Transactional(readOnly = true)
+    public StatsResponse getViewStatistics() {
+        return toStatistics(salesViewService.getSalesSummary());
+    }
+
+    private StatsResponse toStatistics(List<ReservationRepository.SalesSummaryRow> rows) {
+        long revenueCents = 0;
+        long reservations = 0;
+        List<StatsResponse.SpectacleSales> salesBySpectacle = new ArrayList<>();
+        for (ReservationRepository.SalesSummaryRow row : rows) {
+            revenueCents += MoneyUtils.toCents(row.getRevenue());
+            reservations += row.getReservationCount();
+            salesBySpectacle.add(StatsResponse.SpectacleSales.builder()
+                    .spectacleId(row.getSpectacleId())
+                    .title(row.getTitle())
+                    .ticketsSold(row.getTicketsSold())
+                    .revenue(row.getRevenue())
+                    .build());
+        }
+        salesBySpectacle.sort(Comparator.comparing(StatsResponse.SpectacleSales::getRevenue).reversed());
+        return StatsResponse.builder()
+                .totalRevenue(MoneyUtils.fromCents(revenueCents))
+                .totalReservations(reservations)
+                .salesBySpectacle(salesBySpectacle)
+                .build();
+    }
+
+    /**
+     * Recalcule les agrégats depuis la table des réservations, corrige sales_summary et recharge les compteurs.
+     *
+     * Les lignes existantes de sales_summary sont d'abord verrouillées : une réservation concurrente soit est
+     * validée avant le verrou, soit attend la fin de la réconciliation pour appliquer son delta. Les écarts sont
+     * ensuite lus en une seule requête (réservations moins agrégats, sur le même instantané) puis appliqués :
+     * - sur une ligne verrouillée, directement (supprimée si le spectacle n'a plus de réservation) ;
+     * - sur un spectacle sans ligne au moment du verrou, par l'upsert relatif des réservations, qui s'ajoute
+     *   à une première vente concurrente au lieu de heurter sa clé.
+     * Les compteurs des lignes verrouillées sont rechargés avant le commit, sous le verrou d'écriture et avec
+     * une nouvelle génération : une réservation validée avant le verrou n'y est pas comptée deux fois.
+     *
+     * Requête coûteuse (parcours complet des réservations) : à déclencher à la demande ou après un incident.
+     */
+    @Transactional
+    public StatsReconciliationResponse reconcile() {
+        long start = System.nanoTime();
+        Map<Long, SalesSummary> locked = new HashMap<>();
+        salesSummaryRepository.findAllForUpdate().forEach(summary -> locked.put(summary.getSpectacleId(), summary));
+        Set<Long> lockedIds = Set.copyOf(locked.keySet());
+
+        List<Long> corrected = new ArrayList<>();
+        List<SalesSummaryRepository.SalesDeltaRow> unlockedDeltas = new ArrayList<>();
+        for (SalesSummaryRepository.SalesDeltaRow delta : salesSummaryRepository.findDeltas()) {
+            corrected.add(delta.getSpectacleId());
+            SalesSummary summary = locked.get(delta.getSpectacleId());
+            if (summary == null) {
+                salesSummaryRepository.applyDelta(delta.getSpectacleId(), delta.getTicketsSold(), delta.getRevenue(),
+                        delta.getReservationCount());
+                unlockedDeltas.add(delta);
+            } else if (summary.getReservationCount() + delta.getReservationCount() == 0) {
+                locked.remove(summary.getSpectacleId());
+                salesSummaryRepository.delete(summary);
+            } else {
+                summary.setTicketsSold(summary.getTicketsSold() + delta.getTicketsSold());
+                summary.setRevenue(summary.getRevenue().add(delta.getRevenue()));
+                summary.setReservationCount(summary.getReservationCount() + delta.getReservationCount());
+            }
+        }
+
+        reloadCounters(lockedIds, locked.values(), unlockedDeltas);
+        int checked = lockedIds.size() + unlockedDeltas.size();
+        long durationMs = (System.nanoTime() - start) / 1_000_000;
+        if (corrected.isEmpty()) {
+            log.info("Réconciliation des statistiques - aucun écart sur {} spectacles ({} ms)", checked, durationMs);
+        } else {
+            log.warn("Réconciliation des statistiques - {} spectacles corrigés : {}", corrected.size(), corrected);
+        }
+        return StatsReconciliationResponse.builder()
+                .spectaclesChecked(checked)
+                .correctedSpectacleIds(corrected)
+                .durationMs(durationMs)
+                .build();
+    }
+
+    private void reloadTitles() {
+        Map<Long, String> loaded = new HashMap<>();
+        spectacleRepository.findAllTitles().forEach(title -> loaded.put(title.getId(), title.getTitle()));
+        titles.keySet().retainAll(loaded.keySet());
+        titles.putAll(loaded);
+    }
+
+    private void loadCounters(Iterable<SalesSummary> summaries) {
+        countersLock.writeLock().lock();
+        try {
+            counters.clear();
+            summaries.forEach(summary -> counters.put(summary.getSpectacleId(), toCounters(summary)));
+            recomputeTotals();
+        } finally {
+            countersLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remplace les compteurs des spectacles dont la ligne était verrouillée par ses valeurs corrigées (ou les
+     * retire si elle a été supprimée) en changeant leur génération, et ajoute leur écart aux autres spectacles.
+     */
+    private void reloadCounters(Set<Long> lockedIds, Collection<SalesSummary> summaries,
+                                List<SalesSummaryRepository.SalesDeltaRow> unlockedDeltas) {
+        countersLock.writeLock().lock();
+        try {
+            lockedIds.forEach(id -> {
+                counters.remove(id);
+                generations.merge(id, 1L, Long::sum);
+            });
+            summaries.forEach(summary -> counters.put(summary.getSpectacleId(), toCounters(summary)));
+            unlockedDeltas.forEach(delta -> counters.computeIfAbsent(delta.getSpectacleId(), id -> new Counters())
+                    .add(delta.getTicketsSold(), MoneyUtils.toCents(delta.getRevenue()), delta.getReservationCount()));
+            recomputeTotals();
+        } finally {
+            countersLock.writeLock().unlock();
+        }
+    }
+
+    private void recomputeTotals() {
+        totalRevenueCents.reset();
+        totalReservations.reset();
+        counters.values().forEach(spectacleCounters -> {
+            totalRevenueCents.add(spectacleCounters.revenueCents.sum());
+            totalReservations.add(spectacleCounters.reservations.sum());
+        });
+    }
+
+    private static Counters toCounters(SalesSummary summary) {
+        Counters spectacleCounters = new Counters();
+        spectacleCounters.add(summary.getTicketsSold(), MoneyUtils.toCents(summary.getRevenue()),
+                summary.getReservationCount());
+        return spectacleCounters;
+    }
+}
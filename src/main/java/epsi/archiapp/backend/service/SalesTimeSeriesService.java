@@ -0,0 +1,401 @@
+package epsi.archiapp.backend.service;
+
+import epsi.archiapp.backend.dto.SalesTimeSeriesResponse;
+import epsi.archiapp.backend.event.ReservationEvent;
+import epsi.archiapp.backend.model.SalesRollup;
+import epsi.archiapp.backend.repository.SalesRollupRepository;
+import epsi.archiapp.backend.util.MoneyUtils;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Séries temporelles des ventes nettes (réservations moins annulations), par minute, heure, jour et mois.
+ *
+ * Les réservations validées alimentent un anneau de tranches d'une minute en mémoire (une case par minute,
+ * réutilisée après app.timeseries.ring-minutes minutes), avec des compteurs par spectacle. Un job planifié
+ * consolide chaque minute terminée dans la table sales_rollups (tranches HOUR et DAY) par UPDATE relatif :
+ * plusieurs instances peuvent consolider leurs propres anneaux dans les mêmes lignes.
+ *
+ * Les requêtes ne lisent jamais la table des réservations : les minutes viennent de l'anneau, les heures
+ * et les jours de sales_rollups (complétés par les minutes pas encore consolidées), les mois des jours.
+ *
+ * Deux verrous séparent le chemin des réservations des entrées-sorties :
+ * - ringLock protège l'anneau : les enregistrements le prennent en lecture, la consolidation en écriture
+ *   le temps de lire les minutes terminées et d'avancer le point de consolidation, sans accès à la base.
+ *   Une vente ne peut donc pas être ajoutée à une minute déjà lue ;
+ * - storeLock protège sales_rollups et les tranches calculées mais pas encore écrites : la consolidation
+ *   le prend en écriture pendant sa transaction, les requêtes en lecture. Une requête ne voit donc jamais
+ *   une minute à la fois dans sales_rollups et dans l'anneau ou les tranches en attente.
+ * Une tranche dont l'écriture échoue reste en attente (et visible des requêtes) jusqu'au passage suivant.
+ */
+@Service
+@Slf4j
+public class SalesTimeSeriesService {
+
+    private static final int MAX_MINUTE_POINTS = 24 * 60;
+
+    private final SalesRollupRepository rollupRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int ringMinutes;
+    private final AtomicReferenceArray<MinuteBucket> ring;
+    private final ReadWriteLock ringLock = new ReentrantReadWriteLock();
+    private final ReadWriteLock storeLock = new ReentrantReadWriteLock();
+
+    /** Tranches lues dans l'anneau mais pas encore écrites dans sales_rollups, gardées par storeLock. */
+    private final Map<RollupKey, Totals> unwritten = new HashMap<>();
+
+    /**
+     * Dernière minute sortie de l'anneau (minutes depuis l'époque) : avancée sous ringLock et storeLock
+     * en écriture, ses ventes sont dans sales_rollups ou dans unwritten.
+     */
+    private volatile long lastRolledMinute;
+
+    /**
+     * Granularités de lecture. MINUTE n'est disponible que sur la fenêtre de l'anneau.
+     */
+    public enum Granularity {
+        MINUTE,
+        HOUR,
+        DAY,
+        MONTH;
+
+        /**
+         * Convertit le paramètre de requête en granularité (insensible à la casse).
+         *
+         * @throws IllegalArgumentException si la granularité n'est pas supportée
+         */
+        public static Granularity from(String value) {
+            try {
+                return Granularity.valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException | NullPointerException e) {
+                throw new IllegalArgumentException("Granularité non supportée : " + value + " (minute, hour, day ou month)");
+            }
+        }
+
+        LocalDateTime truncate(LocalDateTime time) {
+            return switch (this) {
+                case MINUTE -> time.truncatedTo(ChronoUnit.MINUTES);
+                case HOUR -> time.truncatedTo(ChronoUnit.HOURS);
+                case DAY -> time.truncatedTo(ChronoUnit.DAYS);
+                case MONTH -> time.truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1);
+            };
+        }
+    }
+
+    /**
+     * Ventes d'une minute, par spectacle.
+     */
+    private static final class MinuteBucket {
+        final long minute;
+        final Map<Long, Counters> bySpectacle = new ConcurrentHashMap<>();
+
+        MinuteBucket(long minute) {
+            this.minute = minute;
+        }
+    }
+
+    private static final class Counters {
+        final LongAdder tickets = new LongAdder();
+        final LongAdder revenueCents = new LongAdder();
+        final LongAdder reservations = new LongAdder();
+    }
+
+    private record RollupKey(SalesRollup.Granularity granularity, LocalDateTime bucketStart, Long spectacleId) {
+    }
+
+    private static final class Totals {
+        long tickets;
+        long revenueCents;
+        long reservations;
+
+        void add(long tickets, long revenueCents, long reservations) {
+            this.tickets += tickets;
+            this.revenueCents += revenueCents;
+            this.reservations += reservations;
+        }
+    }
+
+    public SalesTimeSeriesService(SalesRollupRepository rollupRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${app.timeseries.ring-minutes:1440}") int ringMinutes) {
+        if (ringMinutes < 60) {
+            throw new IllegalArgumentException("app.timeseries.ring-minutes doit valoir au moins 60");
+        }
+        this.rollupRepository = rollupRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ringMinutes = ringMinutes;
+        this.ring = new AtomicReferenceArray<>(ringMinutes);
+        this.lastRolledMinute = toMinute(LocalDateTime.now()) - 1;
+    }
+
+    /**
+     * Enregistre une réservation ou une annulation validée dans la minute où elle a eu lieu.
+     * Un événement arrivé après la consolidation de sa minute est compté dans la minute suivante.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onReservationEvent(ReservationEvent event) {
+        int sign = event.type() == ReservationEvent.Type.BOOKED ? 1 : -1;
+        ringLock.readLock().lock();
+        try {
+            long minute = Math.max(toMinute(event.occurredAt()), lastRolledMinute + 1);
+            MinuteBucket bucket = bucket(minute);
+            if (bucket == null) {
+                log.warn("Vente hors de la fenêtre de l'anneau ignorée - spectacle: {}, instant: {}",
+                        event.spectacleId(), event.occurredAt());
+                return;
+            }
+            Counters counters = bucket.bySpectacle.computeIfAbsent(event.spectacleId(), id -> new Counters());
+            counters.tickets.add((long) sign * event.quantity());
+            counters.revenueCents.add(sign * MoneyUtils.toCents(event.totalPrice()));
+            counters.reservations.add(sign);
+        } finally {
+            ringLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Consolide les minutes terminées dans sales_rollups.
+     */
+    @Scheduled(fixedDelayString = "${app.timeseries.rollup-interval-ms:60000}")
+    public void rollUpCompletedMinutes() {
+        rollUp(toMinute(LocalDateTime.now()) - 1);
+    }
+
+    /**
+     * Consolide aussi la minute en cours à l'arrêt, pour ne rien perdre de l'anneau.
+     */
+    @PreDestroy
+    public void shutdown() {
+        rollUp(toMinute(LocalDateTime.now()));
+    }
+
+    /**
+     * Consolide les minutes comprises entre la dernière consolidation et upToMinute (incluse).
+     * Les minutes sont lues sous ringLock, puis écrites hors de ce verrou : les réservations n'attendent
+     * jamais la base. En cas d'échec, les tranches restent en attente et seront reprises au passage suivant.
+     */
+    void rollUp(long upToMinute) {
+        storeLock.writeLock().lock();
+        try {
+            Map<RollupKey, Totals> deltas = detach(upToMinute);
+            deltas.forEach((key, totals) -> unwritten.computeIfAbsent(key, k -> new Totals())
+                    .add(totals.tickets, totals.revenueCents, totals.reservations));
+            if (unwritten.isEmpty()) {
+                return;
+            }
+            try {
+                writeRollups(unwritten);
+            } catch (DataIntegrityViolationException e) {
+                // Une autre instance a créé la même tranche entre-temps : la seconde tentative la met à jour
+                writeRollups(unwritten);
+            }
+            log.debug("Ventes consolidées jusqu'à {} - {} tranches", fromMinuteIndex(lastRolledMinute), unwritten.size());
+            unwritten.clear();
+        } catch (RuntimeException e) {
+            log.error("Échec de la consolidation des ventes, {} tranches en attente du prochain passage",
+                    unwritten.size(), e);
+        } finally {
+            storeLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Lit les minutes terminées de l'anneau et avance le point de consolidation, sous ringLock en écriture.
+     *
+     * @return Les totaux par tranche HOUR et DAY des minutes lues
+     */
+    private Map<RollupKey, Totals> detach(long upToMinute) {
+        Map<RollupKey, Totals> deltas = new HashMap<>();
+        ringLock.writeLock().lock();
+        try {
+            long fromMinute = Math.max(lastRolledMinute + 1, upToMinute - ringMinutes + 1);
+            for (long minute = fromMinute; minute <= upToMinute; minute++) {
+                MinuteBucket bucket = ring.get(slot(minute));
+                if (bucket == null || bucket.minute != minute) {
+                    continue;
+                }
+                LocalDateTime start = fromMinuteIndex(minute);
+                bucket.bySpectacle.forEach((spectacleId, counters) -> {
+                    long tickets = counters.tickets.sum();
+                    long cents = counters.revenueCents.sum();
+                    long reservations = counters.reservations.sum();
+                    deltas.computeIfAbsent(new RollupKey(SalesRollup.Granularity.HOUR,
+                            start.truncatedTo(ChronoUnit.HOURS), spectacleId), key -> new Totals())
+                            .add(tickets, cents, reservations);
+                    deltas.computeIfAbsent(new RollupKey(SalesRollup.Granularity.DAY,
+                            start.truncatedTo(ChronoUnit.DAYS), spectacleId), key -> new Totals())
+                            .add(tickets, cents, reservations);
+                });
+            }
+            lastRolledMinute = Math.max(lastRolledMinute, upToMinute);
+        } finally {
+            ringLock.writeLock().unlock();
+        }
+        return deltas;
+    }
+
+    private void writeRollups(Map<RollupKey, Totals> deltas) {
+        transactionTemplate.executeWithoutResult(status -> deltas.forEach((key, totals) -> {
+            BigDecimal revenue = MoneyUtils.fromCents(totals.revenueCents);
+            int updated = rollupRepository.addTo(key.granularity(), key.bucketStart(), key.spectacleId(),
+                    totals.tickets, revenue, totals.reservations);
+            if (updated == 0) {
+                rollupRepository.save(SalesRollup.builder()
+                        .granularity(key.granularity())
+                        .bucketStart(key.bucketStart())
+                        .spectacleId(key.spectacleId())
+                        .ticketsSold(totals.tickets)
+                        .revenue(revenue)
+                        .reservations(totals.reservations)
+                        .build());
+            }
+        }));
+    }
+
+    /**
+     * Série des ventes sur [from, to[, tous spectacles confondus ou pour un spectacle.
+     * Les tranches sont entières (la première commence au début de l'heure, du jour ou du mois de from)
+     * et seules celles ayant eu des ventes sont renvoyées.
+     *
+     * @param granularity Granularité des tranches
+     * @param from        Début de la période (inclus)
+     * @param to          Fin de la période (exclue)
+     * @param spectacleId Spectacle (null pour tous)
+     */
+    public SalesTimeSeriesResponse query(Granularity granularity, LocalDateTime from, LocalDateTime to,
+                                         Long spectacleId) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("La date de début doit précéder la date de fin");
+        }
+        if (granularity == Granularity.MINUTE && ChronoUnit.MINUTES.between(from, to) > MAX_MINUTE_POINTS) {
+            throw new IllegalArgumentException("La série par minute est limitée à " + MAX_MINUTE_POINTS + " minutes");
+        }
+
+        TreeMap<LocalDateTime, Totals> points;
+        storeLock.readLock().lock();
+        try {
+            points = collect(granularity, from, to, spectacleId);
+        } finally {
+            storeLock.readLock().unlock();
+        }
+
+        List<SalesTimeSeriesResponse.SalesPoint> series = new ArrayList<>(points.size());
+        points.forEach((start, totals) -> series.add(SalesTimeSeriesResponse.SalesPoint.builder()
+                .bucketStart(start)
+                .ticketsSold(totals.tickets)
+                .revenue(MoneyUtils.fromCents(totals.revenueCents))
+                .reservations(totals.reservations)
+                .build()));
+        return SalesTimeSeriesResponse.builder()
+                .granularity(granularity.name())
+                .spectacleId(spectacleId)
+                .points(series)
+                .build();
+    }
+
+    /**
+     * Totaux par tranche : sales_rollups et les tranches en attente jusqu'au point de consolidation,
+     * l'anneau au-delà. Appelé sous storeLock en lecture pour que ce point ne bouge pas entre les lectures.
+     */
+    private TreeMap<LocalDateTime, Totals> collect(Granularity granularity, LocalDateTime from, LocalDateTime to,
+                                                   Long spectacleId) {
+        TreeMap<LocalDateTime, Totals> points = new TreeMap<>();
+        long firstRingMinute = toMinute(granularity.truncate(from));
+        if (granularity != Granularity.MINUTE) {
+            SalesRollup.Granularity stored = granularity == Granularity.HOUR
+                    ? SalesRollup.Granularity.HOUR : SalesRollup.Granularity.DAY;
+            LocalDateTime storedFrom = granularity.truncate(from);
+            List<SalesRollupRepository.SalesPointRow> rows = spectacleId == null
+                    ? rollupRepository.findTotals(stored, storedFrom, to)
+                    : rollupRepository.findBySpectacle(stored, spectacleId, storedFrom, to);
+            for (SalesRollupRepository.SalesPointRow row : rows) {
+                points.computeIfAbsent(granularity.truncate(row.getBucketStart()), start -> new Totals())
+                        .add(row.getTicketsSold(), MoneyUtils.toCents(row.getRevenue()), row.getReservations());
+            }
+            // Tranches lues dans l'anneau dont l'écriture a échoué
+            unwritten.forEach((key, totals) -> {
+                if (key.granularity() == stored && !key.bucketStart().isBefore(storedFrom)
+                        && key.bucketStart().isBefore(to)
+                        && (spectacleId == null || spectacleId.equals(key.spectacleId()))) {
+                    points.computeIfAbsent(granularity.truncate(key.bucketStart()), start -> new Totals())
+                            .add(totals.tickets, totals.revenueCents, totals.reservations);
+                }
+            });
+            // Minutes pas encore consolidées
+            firstRingMinute = Math.max(firstRingMinute, lastRolledMinute + 1);
+        }
+
+        long lastRingMinute = toMinute(to.minusNanos(1));
+        for (long minute = Math.max(firstRingMinute, lastRingMinute - ringMinutes + 1); minute <= lastRingMinute; minute++) {
+            MinuteBucket bucket = ring.get(slot(minute));
+            if (bucket == null || bucket.minute != minute) {
+                continue;
+            }
+            LocalDateTime start = granularity.truncate(fromMinuteIndex(minute));
+            bucket.bySpectacle.forEach((id, counters) -> {
+                if (spectacleId == null || spectacleId.equals(id)) {
+                    points.computeIfAbsent(start, key -> new Totals())
+                            .add(counters.tickets.sum(), counters.revenueCents.sum(), counters.reservations.sum());
+                }
+            });
+        }
+        return points;
+    }
+
+    /**
+     * Case de l'anneau pour une minute, recyclée si elle contient une minute plus ancienne.
+     * Renvoie null si la minute demandée est déjà sortie de l'anneau.
+     */
+    private MinuteBucket bucket(long minute) {
+        int slot = slot(minute);
+        while (true) {
+            MinuteBucket current = ring.get(slot);
+            if (current != null && current.minute == minute) {
+                return current;
+            }
+            if (current != null && current.minute > minute) {
+                return null;
+            }
+            MinuteBucket fresh = new MinuteBucket(minute);
+            if (ring.compareAndSet(slot, current, fresh)) {
+                return fresh;
+            }
+        }
+    }
+
+    private int slot(long minute) {
+        return (int) Math.floorMod(minute, (long) ringMinutes);
+    }
+
+    private static long toMinute(LocalDateTime time) {
+        return Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    private static LocalDateTime fromMinuteIndex(long minute) {
+        return LocalDateTime.ofEpochSecond(minute * 60, 0, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,204 @@
+package epsi.archiapp.backend.service;
+
+import epsi.archiapp.backend.dto.SalesViewStatusResponse;
+import epsi.archiapp.backend.event.ReservationEvent;
+import epsi.archiapp.backend.repository.ReservationRepository;
+import epsi.archiapp.backend.util.DatabaseUtils;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ventes par spectacle servies depuis la vue matérialisée mv_sales_by_spectacle (PostgreSQL).
+ *
+ * Les lectures ne touchent plus les pages de la table des réservations : la vue est rafraîchie
+ * avec REFRESH MATERIALIZED VIEW CONCURRENTLY (les lectures continuent pendant le rafraîchissement,
+ * grâce à l'index unique sur spectacle_id), dès que app.sales-view.refresh-interval est écoulé ou
+ * que app.sales-view.refresh-after-writes réservations ou annulations ont été validées.
+ *
+ * Sur une autre base (H2 en test), aucune vue n'est créée et les lectures passent par la requête
+ * groupée de ReservationRepository.
+ */
+@Service
+@Slf4j
+public class SalesViewService {
+
+    static final String VIEW = "mv_sales_by_spectacle";
+
+    private static final String[] DDL = {
+            "CREATE MATERIALIZED VIEW IF NOT EXISTS " + VIEW + " AS " +
+            "SELECT r.spectacle_id, s.title, SUM(r.quantity) AS tickets_sold, SUM(r.total_price) AS revenue, " +
+            "COUNT(*) AS reservation_count " +
+            "FROM reservations r JOIN spectacles s ON s.id = r.spectacle_id " +
+            "GROUP BY r.spectacle_id, s.title WITH NO DATA",
+            "CREATE UNIQUE INDEX IF NOT EXISTS idx_" + VIEW + "_spectacle ON " + VIEW + " (spectacle_id)"
+    };
+
+    private final ReservationRepository reservationRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+    private final Duration refreshInterval;
+    private final long refreshAfterWrites;
+
+    private final AtomicLong pendingWrites = new AtomicLong();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private volatile boolean created;
+    private volatile boolean materialized;
+    private volatile LocalDateTime lastRefreshedAt;
+    private volatile long lastRefreshMs;
+
+    public SalesViewService(ReservationRepository reservationRepository,
+                            JdbcTemplate jdbcTemplate,
+                            DataSource dataSource,
+                            @Value("${app.sales-view.refresh-interval:60s}")
+                            Duration refreshInterval,
+                            @Value("${app.sales-view.refresh-after-writes:1000}")
+                            long refreshAfterWrites) {
+        this.reservationRepository = reservationRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSource = dataSource;
+        this.refreshInterval = refreshInterval;
+        this.refreshAfterWrites = refreshAfterWrites;
+    }
+
+    /**
+     * Ligne de la vue, exposée sous la même projection que la requête directe.
+     */
+    @Getter
+    @AllArgsConstructor
+    private static final class ViewRow implements ReservationRepository.SalesSummaryRow {
+        private final Long spectacleId;
+        private final String title;
+        private final Long ticketsSold;
+        private final BigDecimal revenue;
+        private final Long reservationCount;
+    }
+
+    /**
+     * Crée la vue et son index unique au démarrage (PostgreSQL uniquement), puis la remplit en un seul
+     * parcours des réservations : la vue est créée sans données (WITH NO DATA) et remplie par un premier
+     * REFRESH simple, CONCURRENTLY étant refusé sur une vue vide ; une vue déjà remplie, qui peut dater
+     * de l'arrêt précédent, est rafraîchie sans bloquer les lectures.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (!DatabaseUtils.isPostgres(dataSource)) {
+            log.debug("Vue matérialisée {} ignorée : la base n'est pas PostgreSQL", VIEW);
+            return;
+        }
+        for (String statement : DDL) {
+            jdbcTemplate.execute(statement);
+        }
+        created = true;
+        boolean populated = Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT relispopulated FROM pg_class WHERE relname = ?", Boolean.class, VIEW));
+        if (!populated) {
+            // Personne ne lit encore la vue : le verrou exclusif du REFRESH simple ne bloque aucune lecture
+            execute("REFRESH MATERIALIZED VIEW " + VIEW);
+        }
+        materialized = true;
+        if (populated) {
+            refresh();
+        }
+    }
+
+    /**
+     * Compte les écritures validées depuis le dernier rafraîchissement.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onReservationEvent(ReservationEvent event) {
+        if (created) {
+            pendingWrites.incrementAndGet();
+        }
+    }
+
+    /**
+     * Rafraîchit la vue si elle est trop ancienne ou si trop d'écritures se sont accumulées.
+     * Sans écriture depuis le dernier rafraîchissement, la vue est à jour quel que soit son âge.
+     */
+    @Scheduled(fixedDelayString = "${app.sales-view.check-interval-ms:5000}")
+    public void refreshIfStale() {
+        if (!materialized) {
+            return;
+        }
+        LocalDateTime refreshedAt = lastRefreshedAt;
+        long writes = pendingWrites.get();
+        boolean expired = refreshedAt == null
+                || (writes > 0 && !LocalDateTime.now().isBefore(refreshedAt.plus(refreshInterval)));
+        if (expired || writes >= refreshAfterWrites) {
+            refresh();
+        }
+    }
+
+    /**
+     * Rafraîchit la vue sans bloquer les lectures. Sans effet si un rafraîchissement est déjà en cours.
+     *
+     * @return false si la vue n'est pas disponible ou si un rafraîchissement était déjà en cours
+     */
+    public boolean refresh() {
+        if (!materialized || !refreshing.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            execute("REFRESH MATERIALIZED VIEW CONCURRENTLY " + VIEW);
+            return true;
+        } finally {
+            refreshing.set(false);
+        }
+    }
+
+    private void execute(String refresh) {
+        long writes = pendingWrites.get();
+        long start = System.nanoTime();
+        jdbcTemplate.execute(refresh);
+        lastRefreshMs = (System.nanoTime() - start) / 1_000_000;
+        lastRefreshedAt = LocalDateTime.now();
+        // Les écritures validées pendant le rafraîchissement restent à prendre en compte
+        pendingWrites.addAndGet(-writes);
+        log.debug("Vue {} rafraîchie en {} ms ({} écritures)", VIEW, lastRefreshMs, writes);
+    }
+
+    /**
+     * Ventes par spectacle : depuis la vue matérialisée sur PostgreSQL (âge donné par getStatus),
+     * sinon par la requête groupée sur les réservations.
+     */
+    public List<ReservationRepository.SalesSummaryRow> getSalesSummary() {
+        if (!materialized) {
+            return reservationRepository.getSalesSummaryBySpectacle();
+        }
+        return jdbcTemplate.query(
+                "SELECT spectacle_id, title, tickets_sold, revenue, reservation_count FROM " + VIEW,
+                (rs, rowNum) -> new ViewRow(rs.getLong(1), rs.getString(2), rs.getLong(3),
+                        rs.getBigDecimal(4), rs.getLong(5)));
+    }
+
+    /**
+     * État de la vue : date et âge du dernier rafraîchissement, écritures en attente.
+     */
+    public SalesViewStatusResponse getStatus() {
+        LocalDateTime refreshedAt = lastRefreshedAt;
+        return SalesViewStatusResponse.builder()
+                .materialized(materialized)
+                .lastRefreshedAt(refreshedAt)
+                .ageSeconds(refreshedAt == null ? null : Duration.between(refreshedAt, LocalDateTime.now()).toSeconds())
+                .pendingWrites(pendingWrites.get())
+                .lastRefreshMs(refreshedAt == null ? null : lastRefreshMs)
+                .build();
+    }
+}
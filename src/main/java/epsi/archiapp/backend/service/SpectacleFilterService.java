@@ -0,0 +1,248 @@
+package epsi.archiapp.backend.service;
+
+import epsi.archiapp.backend.dto.FacetBucket;
+import epsi.archiapp.backend.dto.PageResponse;
+import epsi.archiapp.backend.dto.SpectacleFilterResponse;
+import epsi.archiapp.backend.dto.SpectacleResponse;
+import epsi.archiapp.backend.event.ReservationEvent;
+import epsi.archiapp.backend.event.SpectacleChangedEvent;
+import epsi.archiapp.backend.mapper.SpectacleMapper;
+import epsi.archiapp.backend.repository.SpectacleRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Filtrage du catalogue à venir par période, fourchette de prix et disponibilité, avec facettes.
+ *
+ * Les comptes (total et facettes de prix et de date) sont calculés en une seule lecture de la table par
+ * une requête d'agrégats conditionnels, puis mis en cache par combinaison de filtres et par jour (cache "facets") :
+ * les tranches de date partent du début du jour courant, elles ne glissent donc pas pendant la durée de vie d'une entrée.
+ * La page de résultats est lue sans requête de comptage : le total provient des facettes.
+ * Le cache est vidé lorsqu'un spectacle est modifié ou qu'un spectacle devient complet ou redevient disponible.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SpectacleFilterService {
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    /** Bornes des tranches de prix : [0, 20[, [20, 50[, [50, 100[, [100, +inf[. */
+    private static final int[] PRICE_BOUNDS = {20, 50, 100};
+
+    /** Bornes des tranches de date, en jours à partir du début du jour courant : semaine, mois, plus tard. */
+    private static final int[] DATE_BOUNDS_DAYS = {7, 30};
+    private static final String[] DATE_KEYS = {"week", "month", "later"};
+
+    private static final LocalDateTime MAX_DATE = LocalDateTime.of(9999, 12, 31, 0, 0);
+    private static final BigDecimal MAX_PRICE = new BigDecimal("99999999.99");
+
+    private final SpectacleRepository spectacleRepository;
+    private final SpectacleMapper spectacleMapper;
+    private final JdbcTemplate jdbcTemplate;
+    private final CacheManager cacheManager;
+
+    /**
+     * Filtres d'une requête, tels que fournis par le client (null = pas de filtre). Sert de clé de cache.
+     */
+    record Criteria(LocalDateTime from, LocalDateTime to, BigDecimal minPrice, BigDecimal maxPrice,
+                    boolean availableOnly) {
+    }
+
+    /**
+     * Clé du cache "facets" : combinaison de filtres et jour de référence des tranches de date.
+     */
+    record FacetKey(Criteria criteria, LocalDate day) {
+    }
+
+    /**
+     * Comptes mis en cache pour une combinaison de filtres.
+     */
+    record FacetCounts(long total, List<FacetBucket> priceFacets, List<FacetBucket> dateFacets) {
+    }
+
+    /**
+     * Filtre les spectacles à venir.
+     *
+     * @param from          Date minimale (incluse), maintenant par défaut
+     * @param to            Date maximale (exclue)
+     * @param minPrice      Prix minimal (inclus)
+     * @param maxPrice      Prix maximal (inclus)
+     * @param availableOnly Ne garder que les spectacles ayant encore des billets
+     * @param page          Numéro de page (à partir de 0)
+     * @param size          Taille de page
+     */
+    @Transactional(readOnly = true)
+    public SpectacleFilterResponse filter(LocalDateTime from, LocalDateTime to, BigDecimal minPrice,
+                                          BigDecimal maxPrice, boolean availableOnly, int page, int size) {
+        if (page < 0) {
+            throw new IllegalArgumentException("Le numéro de page doit être positif");
+        }
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("La taille de page doit être comprise entre 1 et " + MAX_PAGE_SIZE);
+        }
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new IllegalArgumentException("La date de début doit précéder la date de fin");
+        }
+        if (minPrice != null && maxPrice != null && minPrice.compareTo(maxPrice) > 0) {
+            throw new IllegalArgumentException("Le prix minimal doit être inférieur au prix maximal");
+        }
+
+        Criteria criteria = new Criteria(from, to, normalize(minPrice), normalize(maxPrice), availableOnly);
+        LocalDateTime now = LocalDateTime.now();
+        FacetCounts counts = facets(criteria, now);
+
+        List<SpectacleResponse> content = List.of();
+        if (counts.total() > (long) page * size) {
+            LocalDateTime effectiveTo = to != null ? to : MAX_DATE;
+            BigDecimal effectiveMin = minPrice != null ? minPrice : BigDecimal.ZERO;
+            BigDecimal effectiveMax = maxPrice != null ? maxPrice : MAX_PRICE;
+            PageRequest pageRequest = PageRequest.of(page, size);
+            content = (availableOnly
+                    ? spectacleRepository.findFilteredAvailable(effectiveFrom(criteria, now), effectiveTo,
+                            effectiveMin, effectiveMax, pageRequest)
+                    : spectacleRepository.findFiltered(effectiveFrom(criteria, now), effectiveTo,
+                            effectiveMin, effectiveMax, pageRequest))
+                    .stream()
+                    .map(spectacleMapper::toResponse)
+                    .toList();
+        }
+
+        int totalPages = (int) ((counts.total() + size - 1) / size);
+        return SpectacleFilterResponse.builder()
+                .results(PageResponse.<SpectacleResponse>builder()
+                        .content(content)
+                        .page(page)
+                        .size(size)
+                        .totalElements(counts.total())
+                        .totalPages(totalPages)
+                        .last(page >= totalPages - 1)
+                        .build())
+                .priceFacets(counts.priceFacets())
+                .dateFacets(counts.dateFacets())
+                .build();
+    }
+
+    /**
+     * Vide les comptes après une création, modification, suppression ou un import de spectacles.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onSpectacleChanged(SpectacleChangedEvent event) {
+        clearFacets();
+    }
+
+    /**
+     * Vide les comptes lorsqu'une réservation rend un spectacle complet ou qu'une annulation le rend
+     * de nouveau disponible : seul le filtre de disponibilité dépend du nombre de billets.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onReservationEvent(ReservationEvent event) {
+        boolean soldOut = event.type() == ReservationEvent.Type.BOOKED && event.availableTickets() == 0;
+        boolean backInStock = event.type() == ReservationEvent.Type.CANCELLED
+                && event.availableTickets() == event.quantity();
+        if (soldOut || backInStock) {
+            clearFacets();
+        }
+    }
+
+    private FacetCounts facets(Criteria criteria, LocalDateTime now) {
+        Cache cache = cacheManager.getCache("facets");
+        if (cache == null) {
+            return computeFacets(criteria, now);
+        }
+        return cache.get(new FacetKey(criteria, now.toLocalDate()), () -> computeFacets(criteria, now));
+    }
+
+    /**
+     * Calcule le total et toutes les facettes en une seule requête d'agrégats conditionnels.
+     */
+    FacetCounts computeFacets(Criteria criteria, LocalDateTime now) {
+        LocalDateTime from = effectiveFrom(criteria, now);
+        LocalDateTime to = criteria.to() != null ? criteria.to() : MAX_DATE;
+        BigDecimal minPrice = criteria.minPrice() != null ? criteria.minPrice() : BigDecimal.ZERO;
+        BigDecimal maxPrice = criteria.maxPrice() != null ? criteria.maxPrice() : MAX_PRICE;
+        LocalDateTime startOfDay = now.toLocalDate().atStartOfDay();
+
+        StringBuilder sql = new StringBuilder("SELECT COUNT(CASE WHEN date >= ? AND date < ? AND price >= ? AND price <= ? THEN 1 END)");
+        List<Object> params = new ArrayList<>(List.of(from, to, minPrice, maxPrice));
+
+        for (int i = 0; i <= PRICE_BOUNDS.length; i++) {
+            sql.append(", COUNT(CASE WHEN date >= ? AND date < ?");
+            params.add(from);
+            params.add(to);
+            if (i > 0) {
+                sql.append(" AND price >= ").append(PRICE_BOUNDS[i - 1]);
+            }
+            if (i < PRICE_BOUNDS.length) {
+                sql.append(" AND price < ").append(PRICE_BOUNDS[i]);
+            }
+            sql.append(" THEN 1 END)");
+        }
+        for (int i = 0; i <= DATE_BOUNDS_DAYS.length; i++) {
+            sql.append(", COUNT(CASE WHEN price >= ? AND price <= ?");
+            params.add(minPrice);
+            params.add(maxPrice);
+            if (i < DATE_BOUNDS_DAYS.length) {
+                sql.append(" AND date < ?");
+                params.add(startOfDay.plusDays(DATE_BOUNDS_DAYS[i]));
+            }
+            if (i > 0) {
+                sql.append(" AND date >= ?");
+                params.add(startOfDay.plusDays(DATE_BOUNDS_DAYS[i - 1]));
+            }
+            sql.append(" THEN 1 END)");
+        }
+        sql.append(" FROM spectacles WHERE date >= ?");
+        params.add(now);
+        if (criteria.availableOnly()) {
+            sql.append(" AND available_tickets > 0");
+        }
+
+        return jdbcTemplate.queryForObject(sql.toString(), (rs, rowNum) -> {
+            int column = 1;
+            long total = rs.getLong(column++);
+            List<FacetBucket> priceFacets = new ArrayList<>(PRICE_BOUNDS.length + 1);
+            for (int i = 0; i <= PRICE_BOUNDS.length; i++) {
+                String key = i < PRICE_BOUNDS.length
+                        ? (i == 0 ? 0 : PRICE_BOUNDS[i - 1]) + "-" + PRICE_BOUNDS[i]
+                        : PRICE_BOUNDS[i - 1] + "+";
+                priceFacets.add(new FacetBucket(key, rs.getLong(column++)));
+            }
+            List<FacetBucket> dateFacets = new ArrayList<>(DATE_KEYS.length);
+            for (String key : DATE_KEYS) {
+                dateFacets.add(new FacetBucket(key, rs.getLong(column++)));
+            }
+            log.debug("Facettes calculées pour {} - {} résultats", criteria, total);
+            return new FacetCounts(total, List.copyOf(priceFacets), List.copyOf(dateFacets));
+        }, params.toArray());
+    }
+
+    private void clearFacets() {
+        Cache cache = cacheManager.getCache("facets");
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    private static LocalDateTime effectiveFrom(Criteria criteria, LocalDateTime now) {
+        return criteria.from() != null && criteria.from().isAfter(now) ? criteria.from() : now;
+    }
+
+    private static BigDecimal normalize(BigDecimal value) {
+        return value == null ? null : value.stripTrailingZeros();
+    }
+}
@@ -0,0 +1,321 @@
+package epsi.archiapp.backend.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import epsi.archiapp.backend.dto.ImportResultResponse;
+import epsi.archiapp.backend.dto.SpectacleRequest;
+import epsi.archiapp.backend.event.SpectacleChangedEvent;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Service d'import en masse des spectacles (tableau JSON ou fichier CSV).
+ *
+ * L'entrée est lue en flux, élément par élément : seul le lot en cours est conservé en mémoire.
+ * Les lots sont insérés avec un batch JDBC (JdbcTemplate.batchUpdate), ce qui contourne la
+ * désactivation du batching Hibernate imposée par la génération d'ID en IDENTITY.
+ *
+ * Tout l'import s'exécute dans une seule transaction : une erreur fatale en cours de lecture (JSON
+ * tronqué, flux interrompu) annule les lots déjà insérés, le bilan ne décrit donc jamais un import partiel.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SpectacleImportService {
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private static final String INSERT_SQL =
+            "INSERT INTO spectacles (title, description, date, price, available_tickets, image_url, " +
+            "version, created_at, updated_at, created_by, updated_by) " +
+            "VALUES (?, ?, ?, ?, ?, ?, 0, ?, ?, ?, ?)";
+
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final AuditorAware<String> auditorProvider;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.import.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * Importe un tableau JSON de spectacles. Un élément qui n'est pas un objet est rejeté comme invalide.
+     *
+     * @param input Le corps de la requête (tableau JSON de SpectacleRequest)
+     * @return Le bilan de l'import
+     */
+    @CacheEvict(value = "spectacles", allEntries = true)
+    public ImportResultResponse importJson(InputStream input) throws IOException {
+        return inTransaction(() -> readJson(input));
+    }
+
+    private ImportResultResponse readJson(InputStream input) throws IOException {
+        ImportContext context = new ImportContext();
+        try (JsonParser parser = objectMapper.getFactory().createParser(input)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Le corps de la requête doit être un tableau JSON de spectacles");
+            }
+            long line = 0;
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                line++;
+                if (token == null) {
+                    throw new IllegalArgumentException("Tableau JSON incomplet après l'élément " + (line - 1));
+                }
+                if (token != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    context.reject(line, "objet JSON attendu");
+                    continue;
+                }
+                SpectacleRequest request;
+                try {
+                    request = objectMapper.readValue(parser, SpectacleRequest.class);
+                } catch (JsonProcessingException e) {
+                    throw new IllegalArgumentException("JSON invalide à l'élément " + line + " : " + e.getOriginalMessage());
+                }
+                context.accept(line, request);
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("JSON invalide : " + e.getOriginalMessage());
+        }
+        return context.finish();
+    }
+
+    /**
+     * Importe un fichier CSV de spectacles. La première ligne doit contenir les en-têtes
+     * (title, description, date, price, availableTickets, imageUrl).
+     *
+     * @param input Le corps de la requête (CSV encodé en UTF-8)
+     * @return Le bilan de l'import
+     */
+    @CacheEvict(value = "spectacles", allEntries = true)
+    public ImportResultResponse importCsv(InputStream input) throws IOException {
+        return inTransaction(() -> readCsv(input));
+    }
+
+    private ImportResultResponse readCsv(InputStream input) throws IOException {
+        ImportContext context = new ImportContext();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String headerLine = reader.readLine();
+            if (headerLine == null) {
+                throw new IllegalArgumentException("Le fichier CSV est vide");
+            }
+            Map<String, Integer> headers = new HashMap<>();
+            List<String> headerFields = parseCsvLine(headerLine.replace("\uFEFF", ""));
+            for (int i = 0; i < headerFields.size(); i++) {
+                headers.put(headerFields.get(i).trim().toLowerCase(Locale.ROOT), i);
+            }
+            for (String required : List.of("title", "date", "price", "availabletickets")) {
+                if (!headers.containsKey(required)) {
+                    throw new IllegalArgumentException("Colonne CSV manquante : " + required);
+                }
+            }
+
+            String line;
+            long lineNumber = 1;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                SpectacleRequest request;
+                try {
+                    List<String> fields = parseCsvLine(line);
+                    request = SpectacleRequest.builder()
+                            .title(field(fields, headers, "title"))
+                            .description(field(fields, headers, "description"))
+                            .date(parseOrNull(field(fields, headers, "date"), LocalDateTime::parse))
+                            .price(parseOrNull(field(fields, headers, "price"), BigDecimal::new))
+                            .availableTickets(parseOrNull(field(fields, headers, "availabletickets"), Integer::valueOf))
+                            .imageUrl(field(fields, headers, "imageurl"))
+                            .build();
+                } catch (RuntimeException e) {
+                    context.reject(lineNumber, "valeur invalide (" + e.getMessage() + ")");
+                    continue;
+                }
+                context.accept(lineNumber, request);
+            }
+        }
+        return context.finish();
+    }
+
+    /**
+     * Exécute l'import dans une transaction unique, annulée si la lecture échoue.
+     */
+    private ImportResultResponse inTransaction(ImportTask task) throws IOException {
+        try {
+            return new TransactionTemplate(transactionManager).execute(status -> {
+                try {
+                    return task.run();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    @FunctionalInterface
+    private interface ImportTask {
+        ImportResultResponse run() throws IOException;
+    }
+
+    private String field(List<String> fields, Map<String, Integer> headers, String name) {
+        Integer index = headers.get(name);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index);
+        return value.isEmpty() ? null : value;
+    }
+
+    private <T> T parseOrNull(String value, Function<String, T> parser) {
+        return value == null ? null : parser.apply(value.trim());
+    }
+
+    /**
+     * Découpe une ligne CSV (RFC 4180, sans retour à la ligne dans les champs).
+     */
+    static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        current.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+
+    /**
+     * État d'un import en cours : lot courant, compteurs et erreurs.
+     */
+    private class ImportContext {
+        private final long startNanos = System.nanoTime();
+        private final String auditor = auditorProvider.getCurrentAuditor().orElse("system");
+        private final int effectiveBatchSize = batchSize > 0 ? batchSize : 500;
+        private final List<SpectacleRequest> batch = new ArrayList<>(effectiveBatchSize);
+        private final List<String> errors = new ArrayList<>();
+        private long imported;
+        private long rejected;
+
+        void accept(long line, SpectacleRequest request) {
+            Set<ConstraintViolation<SpectacleRequest>> violations = validator.validate(request);
+            if (!violations.isEmpty()) {
+                reject(line, violations.stream()
+                        .map(v -> v.getPropertyPath() + " : " + v.getMessage())
+                        .collect(Collectors.joining(", ")));
+                return;
+            }
+            batch.add(request);
+            if (batch.size() >= effectiveBatchSize) {
+                flush();
+            }
+        }
+
+        void reject(long line, String reason) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add("Ligne " + line + " : " + reason);
+            }
+        }
+
+        void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, request) -> {
+                ps.setString(1, request.getTitle());
+                if (request.getDescription() != null) {
+                    ps.setString(2, request.getDescription());
+                } else {
+                    ps.setNull(2, Types.VARCHAR);
+                }
+                ps.setTimestamp(3, Timestamp.valueOf(request.getDate()));
+                ps.setBigDecimal(4, request.getPrice());
+                ps.setInt(5, request.getAvailableTickets());
+                if (request.getImageUrl() != null) {
+                    ps.setString(6, request.getImageUrl());
+                } else {
+                    ps.setNull(6, Types.VARCHAR);
+                }
+                ps.setTimestamp(7, now);
+                ps.setTimestamp(8, now);
+                ps.setString(9, auditor);
+                ps.setString(10, auditor);
+            });
+            imported += batch.size();
+            batch.clear();
+        }
+
+        ImportResultResponse finish() {
+            flush();
+            if (imported > 0) {
+                eventPublisher.publishEvent(SpectacleChangedEvent.bulkImported());
+            }
+            long durationMs = Math.max(1, (System.nanoTime() - startNanos) / 1_000_000);
+            log.info("Import de spectacles terminé - {} importés, {} rejetés en {} ms", imported, rejected, durationMs);
+            return ImportResultResponse.builder()
+                    .imported(imported)
+                    .rejected(rejected)
+                    .errors(errors)
+                    .durationMs(durationMs)
+                    .rowsPerSecond(imported * 1000 / durationMs)
+                    .build();
+        }
+    }
+}
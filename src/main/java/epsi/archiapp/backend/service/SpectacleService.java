@@ -1,40 +1,85 @@
 package epsi.archiapp.backend.service;
 
+import epsi.archiapp.backend.dto.SpectacleChangesResponse;
 import epsi.archiapp.backend.dto.SpectacleRequest;
 import epsi.archiapp.backend.dto.SpectacleResponse;
+import epsi.archiapp.backend.dto.SpectacleSearchResponse;
+import epsi.archiapp.backend.dto.SpectacleSuggestion;
+import epsi.archiapp.backend.event.SpectacleChangedEvent;
 import epsi.archiapp.backend.exception.ResourceNotFoundException;
 import epsi.archiapp.backend.mapper.SpectacleMapper;
 import epsi.archiapp.backend.model.Spectacle;
+import epsi.archiapp.backend.model.SpectacleTombstone;
+import epsi.archiapp.backend.monitoring.jfr.SpectacleCacheMissEvent;
 import epsi.archiapp.backend.repository.ReservationRepository;
 import epsi.archiapp.backend.repository.SpectacleRepository;
+import epsi.archiapp.backend.repository.SpectacleTombstoneRepository;
+import epsi.archiapp.backend.search.SearchPage;
+import epsi.archiapp.backend.search.SpectacleSearchEngine;
+import epsi.archiapp.backend.search.SpectacleSuggestIndex;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
 @Transactional(readOnly = true)
 public class SpectacleService {
 
+    private static final int MAX_BATCH_IDS = 100;
+    private static final int MAX_CHANGES_LIMIT = 1000;
+    private static final int MAX_SEARCH_LIMIT = 100;
+    private static final int MAX_SUGGEST_LIMIT = 20;
+
     private final SpectacleRepository spectacleRepository;
     private final ReservationRepository reservationRepository;
     private final SpectacleMapper spectacleMapper;
+    private final CacheManager cacheManager;
+    private final SpectacleTombstoneRepository tombstoneRepository;
+    private final SpectacleSearchEngine searchEngine;
+    private final SpectacleSuggestIndex suggestIndex;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.sync.tombstone-retention-days:30}")
+    private int tombstoneRetentionDays;
 
     /**
      * Liste tous les spectacles avec pagination.
-     * Le résultat est mis en cache par page pour éviter les requêtes répétées.
+     * Le résultat est mis en cache par page, taille et tri pour éviter les requêtes répétées.
      */
-    @Cacheable(value = "spectacles", key = "'page-' + #pageable.pageNumber + '-' + #pageable.pageSize")
+    @Cacheable(value = "spectacles", key = "'page-' + #pageable.pageNumber + '-' + #pageable.pageSize + '-' + #pageable.sort")
     public Page<SpectacleResponse> listAll(Pageable pageable) {
         log.debug("Récupération de la liste des spectacles - page: {} (CACHE MISS)", pageable.getPageNumber());
-        return spectacleRepository.findAll(pageable)
+        SpectacleCacheMissEvent miss = new SpectacleCacheMissEvent();
+        miss.begin();
+        Page<SpectacleResponse> page = spectacleRepository.findAll(pageable)
                 .map(spectacleMapper::toResponse);
+        if (miss.shouldCommit()) {
+            miss.key = "page-" + pageable.getPageNumber() + "-" + pageable.getPageSize() + "-" + pageable.getSort();
+            miss.loaded = page.getNumberOfElements();
+            miss.commit();
+        }
+        return page;
     }
 
     /**
@@ -44,21 +89,201 @@ public class SpectacleService {
     @Cacheable(value = "spectacles", key = "'spectacle-' + #id")
     public SpectacleResponse get(Long id) {
         log.debug("Récupération du spectacle avec ID: {} (CACHE MISS)", id);
+        SpectacleCacheMissEvent miss = new SpectacleCacheMissEvent();
+        miss.begin();
         Spectacle spectacle = spectacleRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Spectacle", "id", id));
+        if (miss.shouldCommit()) {
+            miss.key = cacheKey(id);
+            miss.spectacleId = id;
+            miss.loaded = 1;
+            miss.commit();
+        }
         return spectacleMapper.toResponse(spectacle);
     }
 
+    /**
+     * Récupère plusieurs spectacles par leurs IDs, dans l'ordre de la requête.
+     * Les IDs sont d'abord recherchés en une seule lecture groupée dans le cache "spectacles"
+     * (mêmes clés que {@link #get(Long)}), puis les absents sont chargés en une seule requête IN
+     * et ajoutés au cache. Les IDs inconnus sont ignorés.
+     */
+    public List<SpectacleResponse> getByIds(List<Long> ids) {
+        LinkedHashSet<Long> distinctIds = new LinkedHashSet<>(ids);
+        if (distinctIds.size() > MAX_BATCH_IDS) {
+            throw new IllegalArgumentException("Impossible de récupérer plus de " + MAX_BATCH_IDS + " spectacles à la fois");
+        }
+
+        Map<Long, SpectacleResponse> found = new HashMap<>();
+        Cache cache = cacheManager.getCache("spectacles");
+        if (cache instanceof CaffeineCache caffeineCache) {
+            List<String> keys = distinctIds.stream().map(this::cacheKey).toList();
+            caffeineCache.getNativeCache().getAllPresent(keys).values().forEach(value -> {
+                if (value instanceof SpectacleResponse response) {
+                    found.put(response.getId(), response);
+                }
+            });
+        } else if (cache != null) {
+            for (Long id : distinctIds) {
+                SpectacleResponse response = cache.get(cacheKey(id), SpectacleResponse.class);
+                if (response != null) {
+                    found.put(id, response);
+                }
+            }
+        }
+
+        List<Long> misses = distinctIds.stream().filter(id -> !found.containsKey(id)).toList();
+        log.debug("Récupération groupée de {} spectacles - {} en cache, {} à charger", distinctIds.size(),
+                found.size(), misses.size());
+        if (!misses.isEmpty()) {
+            SpectacleCacheMissEvent miss = new SpectacleCacheMissEvent();
+            miss.begin();
+            int loaded = 0;
+            for (Spectacle spectacle : spectacleRepository.findAllById(misses)) {
+                SpectacleResponse response = spectacleMapper.toResponse(spectacle);
+                found.put(spectacle.getId(), response);
+                if (cache != null) {
+                    cache.put(cacheKey(spectacle.getId()), response);
+                }
+                loaded++;
+            }
+            if (miss.shouldCommit()) {
+                miss.key = "ids-" + misses.size();
+                miss.spectacleId = misses.size() == 1 ? misses.get(0) : 0;
+                miss.loaded = loaded;
+                miss.commit();
+            }
+        }
+
+        List<SpectacleResponse> result = new ArrayList<>(found.size());
+        for (Long id : distinctIds) {
+            SpectacleResponse response = found.get(id);
+            if (response != null) {
+                result.add(response);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Recherche plein texte dans le titre et la description, insensible aux accents et à la casse.
+     * Le classement est fait par le moteur configuré (app.search.mode) ; les spectacles sont ensuite
+     * lus via le cache (voir {@link #getByIds(List)}).
+     *
+     * @param query  Texte recherché
+     * @param cursor Curseur de la page précédente (null pour la première page)
+     * @param limit  Nombre maximal de résultats
+     */
+    public SpectacleSearchResponse search(String query, String cursor, int limit) {
+        if (limit < 1 || limit > MAX_SEARCH_LIMIT) {
+            throw new IllegalArgumentException("La limite doit être comprise entre 1 et " + MAX_SEARCH_LIMIT);
+        }
+        SearchPage page = searchEngine.search(query, cursor, limit);
+        log.debug("Recherche '{}' - {} résultats", query, page.ids().size());
+        return SpectacleSearchResponse.builder()
+                .content(page.ids().isEmpty() ? List.of() : getByIds(page.ids()))
+                .nextCursor(page.nextCursor())
+                .build();
+    }
+
+    /**
+     * Suggestions d'autocomplétion sur les titres, servies par l'index en mémoire
+     * (ni requête SQL ni entrée de cache par préfixe).
+     *
+     * @param prefix Début de saisie
+     * @param limit  Nombre maximal de suggestions
+     * @return Les spectacles à venir correspondants, du plus proche au plus lointain
+     */
+    public List<SpectacleSuggestion> suggest(String prefix, int limit) {
+        if (limit < 1 || limit > MAX_SUGGEST_LIMIT) {
+            throw new IllegalArgumentException("La limite doit être comprise entre 1 et " + MAX_SUGGEST_LIMIT);
+        }
+        return suggestIndex.suggest(prefix, limit);
+    }
+
+    private String cacheKey(Long id) {
+        return "spectacle-" + id;
+    }
+
+    /**
+     * Récupère les spectacles modifiés et supprimés depuis un instant donné (synchronisation incrémentale).
+     *
+     * Les modifications sont paginées par clé sur (updatedAt, id) : tant que hasMore vaut true, le client
+     * rappelle avec nextSince / nextAfterId. Les suppressions proviennent des tombstones et suivent le même
+     * curseur : chaque page renvoie celles survenues jusqu'à son nextSince, la dernière page toutes les
+     * suivantes. Si since est antérieur à la rétention des tombstones, le client doit recharger tout le
+     * catalogue (fullResyncRequired).
+     *
+     * @param since   Instant de la dernière synchronisation du client
+     * @param afterId ID du dernier spectacle reçu pour cet instant (0 par défaut)
+     * @param limit   Nombre maximal de spectacles modifiés renvoyés
+     */
+    public SpectacleChangesResponse getChangesSince(LocalDateTime since, Long afterId, int limit) {
+        if (limit < 1 || limit > MAX_CHANGES_LIMIT) {
+            throw new IllegalArgumentException("La limite doit être comprise entre 1 et " + MAX_CHANGES_LIMIT);
+        }
+        boolean fullResyncRequired = since.isBefore(LocalDateTime.now().minusDays(tombstoneRetentionDays));
+        long cursorId = afterId != null ? afterId : 0L;
+
+        List<Spectacle> page = spectacleRepository.findChangedSince(since, cursorId, PageRequest.of(0, limit + 1));
+        boolean hasMore = page.size() > limit;
+        List<Spectacle> changed = hasMore ? page.subList(0, limit) : page;
+
+        LocalDateTime nextSince = since;
+        long nextAfterId = cursorId;
+        if (!changed.isEmpty()) {
+            Spectacle last = changed.get(changed.size() - 1);
+            nextSince = last.getUpdatedAt();
+            nextAfterId = last.getId();
+        }
+
+        // Les suppressions suivent le même curseur : chaque page renvoie celles de sa fenêtre (since, nextSince],
+        // la dernière page renvoie toutes les suppressions restantes
+        List<SpectacleTombstone> tombstones = hasMore
+                ? tombstoneRepository.findDeletedBetween(since, nextSince)
+                : tombstoneRepository.findDeletedSince(since);
+        List<Long> deletedIds = tombstones.stream().map(SpectacleTombstone::getSpectacleId).toList();
+        if (!hasMore && !tombstones.isEmpty()) {
+            LocalDateTime lastDeletion = tombstones.get(tombstones.size() - 1).getDeletedAt();
+            if (lastDeletion.isAfter(nextSince)) {
+                nextSince = lastDeletion;
+                nextAfterId = 0L;
+            }
+        }
+
+        log.debug("Synchronisation depuis {} - {} modifiés, {} supprimés, suite: {}", since, changed.size(),
+                deletedIds.size(), hasMore);
+        return SpectacleChangesResponse.builder()
+                .changed(changed.stream().map(spectacleMapper::toResponse).toList())
+                .deletedIds(deletedIds)
+                .nextSince(nextSince)
+                .nextAfterId(nextAfterId)
+                .hasMore(hasMore)
+                .fullResyncRequired(fullResyncRequired)
+                .build();
+    }
+
+    /**
+     * Purge quotidienne des tombstones plus anciens que la durée de rétention.
+     */
+    @Scheduled(cron = "${app.sync.tombstone-purge-cron:0 0 3 * * *}")
+    @Transactional
+    public void purgeTombstones() {
+        int purged = tombstoneRepository.deleteOlderThan(LocalDateTime.now().minusDays(tombstoneRetentionDays));
+        log.info("Purge des tombstones de spectacles - {} supprimés", purged);
+    }
+
     /**
      * Crée un nouveau spectacle.
      * Invalide tout le cache des spectacles car la liste a changé.
      */
     @Transactional
-    @CacheEvict(value = {"statistics", "reservations", "spectacles"}, allEntries = true)
+    @CacheEvict(value = {"reservations", "spectacles"}, allEntries = true)
     public SpectacleResponse create(SpectacleRequest request) {
         log.info("Création d'un nouveau spectacle: {} - Invalidation du cache", request.getTitle());
         Spectacle spectacle = spectacleMapper.toEntity(request);
         Spectacle saved = spectacleRepository.save(spectacle);
+        eventPublisher.publishEvent(SpectacleChangedEvent.of(SpectacleChangedEvent.Type.CREATED, saved));
         log.info("Spectacle créé avec succès - ID: {}", saved.getId());
         return spectacleMapper.toResponse(saved);
     }
@@ -68,7 +293,7 @@ public class SpectacleService {
      * Invalide tout le cache des spectacles car les données ont changé.
      */
     @Transactional
-    @CacheEvict(value = {"statistics", "reservations", "spectacles"}, allEntries = true)
+    @CacheEvict(value = {"reservations", "spectacles"}, allEntries = true)
     public SpectacleResponse update(Long id, SpectacleRequest request) {
         log.info("Mise à jour du spectacle avec ID: {} - Invalidation du cache", id);
         Spectacle spectacle = spectacleRepository.findById(id)
@@ -76,6 +301,7 @@ public class SpectacleService {
 
         spectacleMapper.updateEntityFromRequest(request, spectacle);
         Spectacle updated = spectacleRepository.save(spectacle);
+        eventPublisher.publishEvent(SpectacleChangedEvent.of(SpectacleChangedEvent.Type.UPDATED, updated));
         log.info("Spectacle mis à jour avec succès - ID: {}", updated.getId());
         return spectacleMapper.toResponse(updated);
     }
@@ -85,7 +311,7 @@ public class SpectacleService {
      * Invalide tout le cache des spectacles car la liste a changé.
      */
     @Transactional
-    @CacheEvict(value = {"statistics", "reservations", "spectacles"}, allEntries = true)
+    @CacheEvict(value = {"reservations", "spectacles"}, allEntries = true)
     public void delete(Long id) {
         log.info("Suppression du spectacle avec ID: {} - Invalidation du cache", id);
         if (!spectacleRepository.existsById(id)) {
@@ -96,6 +322,8 @@ public class SpectacleService {
         log.info("Réservations associées au spectacle ID: {} supprimées", id);
 
         spectacleRepository.deleteById(id);
+        tombstoneRepository.save(new SpectacleTombstone(id, LocalDateTime.now()));
+        eventPublisher.publishEvent(SpectacleChangedEvent.deleted(id));
         log.info("Spectacle supprimé avec succès - ID: {}", id);
     }
 }
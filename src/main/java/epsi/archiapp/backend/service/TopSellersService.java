@@ -0,0 +1,197 @@
+package epsi.archiapp.backend.service;
+
+import epsi.archiapp.backend.dto.TopSellersResponse;
+import epsi.archiapp.backend.event.ReservationEvent;
+import epsi.archiapp.backend.event.SpectacleChangedEvent;
+import epsi.archiapp.backend.model.SalesSummary;
+import epsi.archiapp.backend.repository.SalesSummaryRepository;
+import epsi.archiapp.backend.sketch.SpaceSaving;
+import epsi.archiapp.backend.util.MoneyUtils;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Meilleures ventes (billets ou chiffre d'affaires), depuis toujours ou sur une fenêtre récente.
+ *
+ * Chaque métrique est suivie par un résumé Space-Saving de capacité fixe : la mise à jour et la lecture
+ * coûtent O(capacité), quelle que soit la taille du catalogue. La fenêtre récente est un anneau de
+ * résumés par tranche de app.topk.slot-minutes, fusionnés à la lecture. Le résumé global est amorcé
+ * depuis sales_summary à la création du bean, avant l'ouverture du serveur web : aucune réservation ne
+ * peut être reportée sur un résumé ensuite remplacé. Un spectacle supprimé est retiré des résumés, sans
+ * réamorçage.
+ */
+@Service
+@Slf4j
+public class TopSellersService {
+
+    private static final int MAX_LIMIT = 50;
+
+    private final SalesSummaryRepository salesSummaryRepository;
+    private final int capacity;
+    private final int slotMinutes;
+    private final int slots;
+
+    private volatile SpaceSaving overallTickets;
+    private volatile SpaceSaving overallRevenue;
+    private final AtomicReferenceArray<Slot> ring;
+
+    /**
+     * Métrique de classement.
+     */
+    public enum Metric {
+        TICKETS,
+        REVENUE;
+
+        /**
+         * @throws IllegalArgumentException si la métrique n'est pas supportée
+         */
+        public static Metric from(String value) {
+            try {
+                return Metric.valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException | NullPointerException e) {
+                throw new IllegalArgumentException("Critère de classement non supporté : " + value + " (tickets ou revenue)");
+            }
+        }
+    }
+
+    /**
+     * Résumés d'une tranche de la fenêtre glissante.
+     */
+    private record Slot(long index, SpaceSaving tickets, SpaceSaving revenue) {
+    }
+
+    public TopSellersService(SalesSummaryRepository salesSummaryRepository,
+                             @Value("${app.topk.capacity:100}") int capacity,
+                             @Value("${app.topk.slot-minutes:5}") int slotMinutes,
+                             @Value("${app.topk.slots:288}") int slots) {
+        this.salesSummaryRepository = salesSummaryRepository;
+        this.capacity = capacity;
+        this.slotMinutes = slotMinutes;
+        this.slots = slots;
+        this.overallTickets = new SpaceSaving(capacity);
+        this.overallRevenue = new SpaceSaving(capacity);
+        this.ring = new AtomicReferenceArray<>(slots);
+    }
+
+    /**
+     * Amorce le classement global avec les ventes cumulées de chaque spectacle.
+     */
+    @PostConstruct
+    void seed() {
+        SpaceSaving tickets = new SpaceSaving(capacity);
+        SpaceSaving revenue = new SpaceSaving(capacity);
+        for (SalesSummary summary : salesSummaryRepository.findAll()) {
+            tickets.add(summary.getSpectacleId(), summary.getTicketsSold());
+            revenue.add(summary.getSpectacleId(), MoneyUtils.toCents(summary.getRevenue()));
+        }
+        overallTickets = tickets;
+        overallRevenue = revenue;
+        log.info("Classement des meilleures ventes amorcé");
+    }
+
+    /**
+     * Reporte une réservation (ou une annulation, en retrait) validée.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onReservationEvent(ReservationEvent event) {
+        int sign = event.type() == ReservationEvent.Type.BOOKED ? 1 : -1;
+        long tickets = (long) sign * event.quantity();
+        long cents = sign * MoneyUtils.toCents(event.totalPrice());
+        overallTickets.add(event.spectacleId(), tickets);
+        overallRevenue.add(event.spectacleId(), cents);
+        Slot slot = slot(currentSlotIndex());
+        slot.tickets().add(event.spectacleId(), tickets);
+        slot.revenue().add(event.spectacleId(), cents);
+    }
+
+    /**
+     * Retire un spectacle supprimé du classement global et des tranches de la fenêtre.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onSpectacleChanged(SpectacleChangedEvent event) {
+        if (event.type() != SpectacleChangedEvent.Type.DELETED) {
+            return;
+        }
+        overallTickets.remove(event.spectacleId());
+        overallRevenue.remove(event.spectacleId());
+        for (int i = 0; i < ring.length(); i++) {
+            Slot slot = ring.get(i);
+            if (slot != null) {
+                slot.tickets().remove(event.spectacleId());
+                slot.revenue().remove(event.spectacleId());
+            }
+        }
+    }
+
+    /**
+     * Meilleures ventes.
+     *
+     * @param metric        Critère de classement
+     * @param windowMinutes Fenêtre récente en minutes (null pour le classement depuis toujours)
+     * @param limit         Nombre de spectacles
+     */
+    public TopSellersResponse getTopSellers(Metric metric, Integer windowMinutes, int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("La limite doit être comprise entre 1 et " + MAX_LIMIT);
+        }
+        List<SpaceSaving.Item> items;
+        if (windowMinutes == null) {
+            items = (metric == Metric.TICKETS ? overallTickets : overallRevenue).top(limit);
+        } else {
+            int maxWindow = slots * slotMinutes;
+            if (windowMinutes < 1 || windowMinutes > maxWindow) {
+                throw new IllegalArgumentException("La fenêtre doit être comprise entre 1 et " + maxWindow + " minutes");
+            }
+            long current = currentSlotIndex();
+            int count = (windowMinutes + slotMinutes - 1) / slotMinutes;
+            List<SpaceSaving> summaries = new ArrayList<>(count);
+            for (long index = current - count + 1; index <= current; index++) {
+                Slot slot = ring.get(position(index));
+                if (slot != null && slot.index() == index) {
+                    summaries.add(metric == Metric.TICKETS ? slot.tickets() : slot.revenue());
+                }
+            }
+            items = SpaceSaving.mergeTop(summaries, limit);
+        }
+        return TopSellersResponse.builder()
+                .by(metric.name().toLowerCase(Locale.ROOT))
+                .windowMinutes(windowMinutes)
+                .items(items.stream()
+                        .filter(item -> item.count() > 0)
+                        .map(item -> new TopSellersResponse.TopSeller(item.key(), item.count(), item.error()))
+                        .toList())
+                .build();
+    }
+
+    private Slot slot(long index) {
+        int position = position(index);
+        while (true) {
+            Slot current = ring.get(position);
+            if (current != null && current.index() >= index) {
+                return current;
+            }
+            Slot fresh = new Slot(index, new SpaceSaving(capacity), new SpaceSaving(capacity));
+            if (ring.compareAndSet(position, current, fresh)) {
+                return fresh;
+            }
+        }
+    }
+
+    private long currentSlotIndex() {
+        return Instant.now().getEpochSecond() / 60 / slotMinutes;
+    }
+
+    private int position(long index) {
+        return (int) Math.floorMod(index, (long) slots);
+    }
+}
@@ -0,0 +1,174 @@
+package epsi.archiapp.backend.sketch;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Estimateur HyperLogLog du nombre d'éléments distincts (Flajolet et al., 2007).
+ *
+ * 2^p registres d'un octet : la précision p fixe la mémoire (2^p octets) et l'erreur relative type
+ * 1,04 / sqrt(2^p), soit environ 1,6 % pour p = 12 (4 Ko) et 0,8 % pour p = 14 (16 Ko). Le hachage
+ * sur 64 bits rend inutile la correction des grandes cardinalités ; les petites (moins de 2,5 x 2^p)
+ * sont estimées par comptage linéaire des registres vides, quasi exact.
+ *
+ * Les ajouts sont sans verrou (compare-and-set par registre) et sans allocation ; deux sketches de même
+ * précision se fusionnent par maximum registre à registre, ce qui permet d'agréger plusieurs instances.
+ */
+public final class HyperLogLog {
+
+    public static final int MIN_PRECISION = 4;
+    public static final int MAX_PRECISION = 18;
+
+    private static final VarHandle REGISTER = MethodHandles.arrayElementVarHandle(byte[].class);
+
+    private final int precision;
+    private final byte[] registers;
+
+    public HyperLogLog(int precision) {
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("Précision HyperLogLog hors bornes : " + precision);
+        }
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    private HyperLogLog(int precision, byte[] registers) {
+        this.precision = precision;
+        this.registers = registers;
+    }
+
+    /**
+     * Ajoute un élément (une chaîne, typiquement un identifiant d'utilisateur).
+     */
+    public void add(String value) {
+        addHash(hash64(value));
+    }
+
+    /**
+     * Ajoute un élément déjà haché sur 64 bits.
+     */
+    public void addHash(long hash) {
+        int index = (int) (hash >>> (64 - precision));
+        // Bit sentinelle : le rang est borné par 64 - p + 1 même si les bits restants sont nuls
+        long remaining = (hash << precision) | (1L << (precision - 1));
+        byte rank = (byte) (Long.numberOfLeadingZeros(remaining) + 1);
+        byte current;
+        do {
+            current = (byte) REGISTER.getVolatile(registers, index);
+            if (current >= rank) {
+                return;
+            }
+        } while (!REGISTER.compareAndSet(registers, index, current, rank));
+    }
+
+    /**
+     * Estime le nombre d'éléments distincts ajoutés.
+     */
+    public long estimate() {
+        int m = registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for (int i = 0; i < m; i++) {
+            byte register = (byte) REGISTER.getVolatile(registers, i);
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double estimate = alpha(m) * m * m / sum;
+        if (estimate <= 2.5 * m && zeros > 0) {
+            estimate = m * Math.log((double) m / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    /**
+     * Fusionne un autre sketch dans celui-ci (union des ensembles).
+     *
+     * @throws IllegalArgumentException si les précisions diffèrent
+     */
+    public void merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("Impossible de fusionner des sketches de précisions "
+                    + precision + " et " + other.precision);
+        }
+        for (int i = 0; i < registers.length; i++) {
+            byte rank = (byte) REGISTER.getVolatile(other.registers, i);
+            byte current;
+            do {
+                current = (byte) REGISTER.getVolatile(registers, i);
+                if (current >= rank) {
+                    break;
+                }
+            } while (!REGISTER.compareAndSet(registers, i, current, rank));
+        }
+    }
+
+    /**
+     * Erreur relative type de l'estimation : 1,04 / sqrt(2^p).
+     */
+    public double relativeStandardError() {
+        return 1.04 / Math.sqrt(registers.length);
+    }
+
+    public int getPrecision() {
+        return precision;
+    }
+
+    /**
+     * Sérialise le sketch : un octet de précision suivi des registres.
+     */
+    public byte[] toBytes() {
+        byte[] bytes = new byte[registers.length + 1];
+        bytes[0] = (byte) precision;
+        for (int i = 0; i < registers.length; i++) {
+            bytes[i + 1] = (byte) REGISTER.getVolatile(registers, i);
+        }
+        return bytes;
+    }
+
+    /**
+     * Reconstruit un sketch sérialisé par {@link #toBytes()}.
+     *
+     * @throws IllegalArgumentException si le contenu est invalide
+     */
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        if (bytes == null || bytes.length < 1) {
+            throw new IllegalArgumentException("Sketch HyperLogLog vide");
+        }
+        int precision = bytes[0];
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION || bytes.length != (1 << precision) + 1) {
+            throw new IllegalArgumentException("Sketch HyperLogLog invalide");
+        }
+        return new HyperLogLog(precision, Arrays.copyOfRange(bytes, 1, bytes.length));
+    }
+
+    /**
+     * Hachage 64 bits : FNV-1a sur les octets UTF-8, suivi du mélange final de MurmurHash3 (fmix64)
+     * pour répartir uniformément les bits de poids fort, qui choisissent le registre.
+     */
+    public static long hash64(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private static double alpha(int m) {
+        return switch (m) {
+            case 16 -> 0.673;
+            case 32 -> 0.697;
+            case 64 -> 0.709;
+            default -> 0.7213 / (1 + 1.079 / m);
+        };
+    }
+}
@@ -0,0 +1,152 @@
+package epsi.archiapp.backend.sketch;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Résumé Space-Saving des éléments les plus lourds d'un flux pondéré (Metwally et al., 2005).
+ *
+ * Au plus {@code capacity} compteurs sont suivis. Un élément non suivi arrivant sur un résumé plein
+ * remplace celui de plus petit compte et hérite de ce compte, mémorisé comme erreur maximale : le compte
+ * d'un élément surestime sa valeur réelle d'au plus {@code error}, et tout élément de poids supérieur
+ * à total / capacity est garanti d'être suivi. Le coût d'une mise à jour ne dépend que de la capacité,
+ * jamais du nombre d'éléments distincts du flux.
+ *
+ * Les retraits (annulations) ne sont appliqués qu'aux éléments suivis, sans descendre sous zéro.
+ */
+public final class SpaceSaving {
+
+    private final int capacity;
+    private final Map<Long, Counter> counters;
+
+    /**
+     * Compte estimé d'un élément et surestimation maximale.
+     */
+    public record Item(long key, long count, long error) {
+    }
+
+    private static final class Counter {
+        long count;
+        long error;
+
+        Counter(long count, long error) {
+            this.count = count;
+            this.error = error;
+        }
+    }
+
+    public SpaceSaving(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("La capacité doit être positive");
+        }
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 2);
+    }
+
+    /**
+     * Ajoute (weight > 0) ou retire (weight < 0) un poids à un élément.
+     */
+    public synchronized void add(long key, long weight) {
+        Counter counter = counters.get(key);
+        if (counter != null) {
+            counter.count = Math.max(0, counter.count + weight);
+            return;
+        }
+        if (weight <= 0) {
+            return;
+        }
+        if (counters.size() < capacity) {
+            counters.put(key, new Counter(weight, 0));
+            return;
+        }
+        long minKey = 0;
+        Counter min = null;
+        for (Map.Entry<Long, Counter> entry : counters.entrySet()) {
+            if (min == null || entry.getValue().count < min.count) {
+                minKey = entry.getKey();
+                min = entry.getValue();
+            }
+        }
+        counters.remove(minKey);
+        counters.put(key, new Counter(min.count + weight, min.count));
+    }
+
+    /**
+     * Retire un élément (par exemple un spectacle supprimé) et son compteur.
+     */
+    public synchronized void remove(long key) {
+        counters.remove(key);
+    }
+
+    /**
+     * Les {@code limit} éléments de plus grand compte, par compte décroissant.
+     */
+    public List<Item> top(int limit) {
+        return top(items(), limit);
+    }
+
+    /**
+     * Copie des compteurs suivis.
+     */
+    public synchronized List<Item> items() {
+        List<Item> items = new ArrayList<>(counters.size());
+        counters.forEach((key, counter) -> items.add(new Item(key, counter.count, counter.error)));
+        return items;
+    }
+
+    /**
+     * Plus petit compte suivi si le résumé est plein (borne de surestimation des éléments absents), 0 sinon.
+     */
+    public synchronized long floor() {
+        if (counters.size() < capacity) {
+            return 0;
+        }
+        return counters.values().stream().mapToLong(counter -> counter.count).min().orElse(0);
+    }
+
+    /**
+     * Fusionne plusieurs résumés (par exemple les tranches d'une fenêtre glissante). Le compte fusionné est
+     * la somme des comptes observés ; l'erreur additionne les erreurs des résumés où l'élément est suivi et
+     * le plancher des résumés pleins où il est absent (il a pu y valoir jusqu'à ce plancher sans être suivi).
+     * La valeur réelle est donc comprise entre count - error et count + error.
+     *
+     * @param summaries Résumés à fusionner
+     * @param limit     Nombre d'éléments à renvoyer
+     */
+    public static List<Item> mergeTop(List<SpaceSaving> summaries, int limit) {
+        Map<Long, long[]> merged = new HashMap<>();
+        long floorSum = 0;
+        List<List<Item>> snapshots = new ArrayList<>(summaries.size());
+        List<Long> floors = new ArrayList<>(summaries.size());
+        for (SpaceSaving summary : summaries) {
+            snapshots.add(summary.items());
+            long floor = summary.floor();
+            floors.add(floor);
+            floorSum += floor;
+        }
+        for (int i = 0; i < snapshots.size(); i++) {
+            for (Item item : snapshots.get(i)) {
+                long[] totals = merged.computeIfAbsent(item.key(), key -> new long[3]);
+                totals[0] += item.count();
+                totals[1] += item.error();
+                totals[2] += floors.get(i);
+            }
+        }
+        List<Item> items = new ArrayList<>(merged.size());
+        for (Map.Entry<Long, long[]> entry : merged.entrySet()) {
+            long[] totals = entry.getValue();
+            // Résumés où l'élément est absent : il peut y valoir jusqu'au plancher
+            long missingFloors = floorSum - totals[2];
+            items.add(new Item(entry.getKey(), totals[0], totals[1] + missingFloors));
+        }
+        return top(items, limit);
+    }
+
+    private static List<Item> top(List<Item> items, int limit) {
+        items.sort(Comparator.comparingLong(Item::count).reversed().thenComparingLong(Item::key));
+        return items.size() > limit ? new ArrayList<>(items.subList(0, limit)) : items;
+    }
+}
@@ -0,0 +1,30 @@
+package epsi.archiapp.backend.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Utilitaire de détection de la base de données, pour les initialisations propres à PostgreSQL
+ * (index partiels, recherche plein texte, vue matérialisée).
+ */
+@Slf4j
+public class DatabaseUtils {
+
+    /**
+     * Indique si la source de données pointe vers PostgreSQL.
+     *
+     * @param dataSource La source de données
+     * @return false pour toute autre base, ou si la connexion échoue
+     */
+    public static boolean isPostgres(DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection()) {
+            return "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName());
+        } catch (SQLException e) {
+            log.error("Impossible de déterminer le type de base de données", e);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package epsi.archiapp.backend.util;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Utilitaire d'échappement pour les exports en flux (NDJSON et CSV).
+ * Les valeurs sont écrites directement dans le Writer, sans chaîne intermédiaire.
+ */
+public class ExportUtils {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    /**
+     * Écrit une chaîne JSON entre guillemets en échappant les caractères spéciaux.
+     *
+     * @param out   Le flux de sortie
+     * @param value La valeur à écrire (null produit le littéral null)
+     */
+    public static void writeJsonString(Writer out, String value) throws IOException {
+        if (value == null) {
+            out.write("null");
+            return;
+        }
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> out.write("\\\"");
+                case '\\' -> out.write("\\\\");
+                case '\n' -> out.write("\\n");
+                case '\r' -> out.write("\\r");
+                case '\t' -> out.write("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.write("\\u00");
+                        out.write(HEX[c >> 4]);
+                        out.write(HEX[c & 0xF]);
+                    } else {
+                        out.write(c);
+                    }
+                }
+            }
+        }
+        out.write('"');
+    }
+
+    /**
+     * Écrit un champ CSV (RFC 4180) : le champ est entouré de guillemets
+     * uniquement s'il contient un séparateur, un guillemet ou un retour à la ligne.
+     *
+     * @param out   Le flux de sortie
+     * @param value La valeur à écrire (null produit un champ vide)
+     */
+    public static void writeCsvField(Writer out, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean needsQuotes = false;
+        for (int i = 0; i < value.length() && !needsQuotes; i++) {
+            char c = value.charAt(i);
+            needsQuotes = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!needsQuotes) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                out.write('"');
+            }
+            out.write(c);
+        }
+        out.write('"');
+    }
+}
@@ -0,0 +1,29 @@
+package epsi.archiapp.backend.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Utilitaire de conversion des montants en centimes, pour les compteurs et agrégats tenus en entiers
+ * (statistiques, séries temporelles, meilleures ventes, format binaire compact).
+ */
+public class MoneyUtils {
+
+    /**
+     * Convertit un montant en centimes, arrondi au centime le plus proche.
+     *
+     * @param amount Le montant (null vaut 0)
+     * @return Le montant en centimes
+     * @throws ArithmeticException si le montant dépasse la capacité d'un long
+     */
+    public static long toCents(BigDecimal amount) {
+        return amount == null ? 0 : amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Convertit des centimes en montant à deux décimales.
+     */
+    public static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+}
@@ -0,0 +1,23 @@
+-- Recherche plein texte en base (app.search.mode=database), PostgreSQL uniquement.
+--
+-- L'ajout de la colonne generee reecrit toute la table spectacles sous verrou exclusif : a appliquer
+-- hors demarrage de l'application, dans une fenetre de maintenance, avant d'activer le mode database.
+--   psql -d archiapp -f src/main/resources/db/manual/spectacle_search_vector.sql
+--
+-- Tant que ce script n'a pas ete applique, la recherche en base se replie sur LIKE.
+
+CREATE EXTENSION IF NOT EXISTS unaccent;
+
+DO $$ BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_ts_config WHERE cfgname = 'fr_unaccent') THEN
+        CREATE TEXT SEARCH CONFIGURATION fr_unaccent (COPY = french);
+        ALTER TEXT SEARCH CONFIGURATION fr_unaccent
+            ALTER MAPPING FOR hword, hword_part, word WITH unaccent, french_stem;
+    END IF;
+END $$;
+
+ALTER TABLE spectacles ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('fr_unaccent'::regconfig, coalesce(title, '')), 'A') ||
+    setweight(to_tsvector('fr_unaccent'::regconfig, coalesce(description, '')), 'B')) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_spectacle_search_vector ON spectacles USING GIN (search_vector);
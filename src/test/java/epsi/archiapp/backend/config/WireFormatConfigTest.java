@@ -0,0 +1,69 @@
+package epsi.archiapp.backend.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import epsi.archiapp.backend.dto.FlightRecordingResponse;
+import epsi.archiapp.backend.dto.SpectacleResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Tests du format binaire compact (CBOR)")
+class WireFormatConfigTest {
+
+    private final ZoneId zone = ZoneId.of("Europe/Paris");
+
+    private final ObjectMapper cborMapper = WireFormatConfig.compactCborMapper(zone);
+
+    @Test
+    @DisplayName("Doit relire un spectacle écrit en centimes et secondes epoch")
+    void testSpectacleRoundTrip() throws Exception {
+        // Given
+        LocalDateTime date = LocalDateTime.of(2026, 12, 31, 20, 30);
+        SpectacleResponse spectacle = SpectacleResponse.builder()
+                .id(1L)
+                .title("Hamlet")
+                .date(date)
+                .price(new BigDecimal("25.50"))
+                .availableTickets(100)
+                .build();
+
+        // When
+        byte[] body = cborMapper.writeValueAsBytes(spectacle);
+        JsonNode node = cborMapper.readTree(body);
+        SpectacleResponse read = cborMapper.readValue(body, SpectacleResponse.class);
+
+        // Then
+        assertThat(node.get("price").asLong()).isEqualTo(2550L);
+        assertThat(node.get("date").asLong()).isEqualTo(date.atZone(zone).toEpochSecond());
+        assertThat(read.getDate()).isEqualTo(date);
+        assertThat(read.getPrice()).isEqualByComparingTo("25.50");
+    }
+
+    @Test
+    @DisplayName("Doit sérialiser et relire les autres types java.time (Instant)")
+    void testInstantRoundTrip() throws Exception {
+        // Given
+        Instant startTime = Instant.parse("2026-10-19T08:15:30Z");
+        FlightRecordingResponse recording = FlightRecordingResponse.builder()
+                .id(3L)
+                .name("archiapp")
+                .state("RUNNING")
+                .startTime(startTime)
+                .build();
+
+        // When
+        byte[] body = cborMapper.writeValueAsBytes(recording);
+        FlightRecordingResponse read = cborMapper.readValue(body, FlightRecordingResponse.class);
+
+        // Then
+        assertThat(cborMapper.readTree(body).get("startTime").asText()).isEqualTo("2026-10-19T08:15:30Z");
+        assertThat(read.getStartTime()).isEqualTo(startTime);
+    }
+}
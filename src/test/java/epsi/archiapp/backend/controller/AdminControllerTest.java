@@ -0,0 +1,170 @@
+package epsi.archiapp.backend.controller;
+
+import epsi.archiapp.backend.config.TestSecurityConfig;
+import epsi.archiapp.backend.monitoring.LockContentionTracker;
+import epsi.archiapp.backend.monitoring.ReservationLatencyTracker;
+import epsi.archiapp.backend.monitoring.jfr.FlightRecordingService;
+import epsi.archiapp.backend.service.BuyerSketchService;
+import epsi.archiapp.backend.service.CacheManagementService;
+import epsi.archiapp.backend.service.ExportService;
+import epsi.archiapp.backend.service.SalesStatisticsService;
+import epsi.archiapp.backend.service.SalesTimeSeriesService;
+import epsi.archiapp.backend.service.SalesViewService;
+import epsi.archiapp.backend.service.TopSellersService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = AdminController.class,
+    excludeAutoConfiguration = org.springframework.boot.autoconfigure.security.oauth2.resource.servlet.OAuth2ResourceServerAutoConfiguration.class)
+@Import(TestSecurityConfig.class)
+@DisplayName("Tests du contrôleur Administration")
+class AdminControllerTest {
+
+    private static final String RESERVATIONS_NDJSON = "{\"id\":1,\"spectacleTitle\":\"Roméo et Juliette\"}\n";
+    private static final String RESERVATIONS_CSV = "id,spectacleTitle\n1,Roméo et Juliette\n";
+    private static final String SALES_CSV = "spectacleId,title,ticketsSold,revenue\n1,Roméo et Juliette,3,75.00\n";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private SalesStatisticsService salesStatisticsService;
+
+    @MockitoBean
+    private SalesTimeSeriesService salesTimeSeriesService;
+
+    @MockitoBean
+    private BuyerSketchService buyerSketchService;
+
+    @MockitoBean
+    private TopSellersService topSellersService;
+
+    @MockitoBean
+    private SalesViewService salesViewService;
+
+    @MockitoBean
+    private ReservationLatencyTracker latencyTracker;
+
+    @MockitoBean
+    private LockContentionTracker lockContentionTracker;
+
+    @MockitoBean
+    private CacheManagementService cacheManagementService;
+
+    @MockitoBean
+    private ExportService exportService;
+
+    @MockitoBean
+    private FlightRecordingService flightRecordingService;
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("GET /api/admin/export/reservations - Doit exporter en NDJSON par défaut")
+    void testExportReservationsNdjson() throws Exception {
+        // Given
+        doAnswer(invocation -> write(invocation.getArgument(4), RESERVATIONS_NDJSON))
+                .when(exportService).exportReservations(eq(ExportService.Format.NDJSON), isNull(), isNull(), isNull(), any());
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/admin/export/reservations"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "application/x-ndjson"))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"reservations.ndjson\""))
+                .andExpect(content().bytes(RESERVATIONS_NDJSON.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("GET /api/admin/export/reservations?format=csv - Doit exporter en CSV avec les filtres")
+    void testExportReservationsCsv() throws Exception {
+        // Given
+        LocalDateTime from = LocalDateTime.of(2026, 1, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2026, 2, 1, 0, 0);
+        doAnswer(invocation -> write(invocation.getArgument(4), RESERVATIONS_CSV))
+                .when(exportService).exportReservations(eq(ExportService.Format.CSV), eq(1L), eq(from), eq(to), any());
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/admin/export/reservations")
+                        .param("format", "CSV")
+                        .param("spectacleId", "1")
+                        .param("from", "2026-01-01T00:00:00")
+                        .param("to", "2026-02-01T00:00:00"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "text/csv;charset=UTF-8"))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"reservations.csv\""))
+                .andExpect(content().bytes(RESERVATIONS_CSV.getBytes(StandardCharsets.UTF_8)));
+        verify(exportService).exportReservations(eq(ExportService.Format.CSV), eq(1L), eq(from), eq(to), any());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("GET /api/admin/export/sales - Doit exporter les ventes en CSV et en NDJSON")
+    void testExportSales() throws Exception {
+        // Given
+        doAnswer(invocation -> write(invocation.getArgument(1), SALES_CSV))
+                .when(exportService).exportSalesBySpectacle(eq(ExportService.Format.CSV), any());
+        doAnswer(invocation -> write(invocation.getArgument(1), "{\"spectacleId\":1}\n"))
+                .when(exportService).exportSalesBySpectacle(eq(ExportService.Format.NDJSON), any());
+
+        // When & Then
+        MvcResult csv = mockMvc.perform(get("/api/admin/export/sales").param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(csv))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "text/csv;charset=UTF-8"))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"ventes.csv\""))
+                .andExpect(content().bytes(SALES_CSV.getBytes(StandardCharsets.UTF_8)));
+
+        MvcResult ndjson = mockMvc.perform(get("/api/admin/export/sales").param("format", "ndjson"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "application/x-ndjson"))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"ventes.ndjson\""))
+                .andExpect(content().string("{\"spectacleId\":1}\n"));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("GET /api/admin/export/reservations?format=xml - Doit retourner 400 pour un format inconnu")
+    void testExportUnknownFormat() throws Exception {
+        mockMvc.perform(get("/api/admin/export/reservations").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(exportService);
+    }
+
+    private static Object write(OutputStream output, String content) throws Exception {
+        output.write(content.getBytes(StandardCharsets.UTF_8));
+        return null;
+    }
+}
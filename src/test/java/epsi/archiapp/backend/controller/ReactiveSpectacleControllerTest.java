@@ -0,0 +1,108 @@
+package epsi.archiapp.backend.controller;
+
+import epsi.archiapp.backend.config.TestSecurityConfig;
+import epsi.archiapp.backend.dto.SpectacleResponse;
+import epsi.archiapp.backend.exception.ResourceNotFoundException;
+import epsi.archiapp.backend.service.ReactiveSpectacleService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = ReactiveSpectacleController.class,
+    excludeAutoConfiguration = org.springframework.boot.autoconfigure.security.oauth2.resource.servlet.OAuth2ResourceServerAutoConfiguration.class)
+@Import(TestSecurityConfig.class)
+@ActiveProfiles("reactive")
+@DisplayName("Tests du contrôleur du catalogue réactif")
+class ReactiveSpectacleControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ReactiveSpectacleService reactiveSpectacleService;
+
+    private SpectacleResponse spectacleResponse;
+
+    @BeforeEach
+    void setUp() {
+        spectacleResponse = SpectacleResponse.builder()
+                .id(1L)
+                .title("Le Malade Imaginaire")
+                .date(LocalDateTime.now().plusDays(30))
+                .price(new BigDecimal("25.00"))
+                .availableTickets(100)
+                .build();
+    }
+
+    @Test
+    @DisplayName("GET /api/reactive/spectacles - Doit retourner un tableau JSON")
+    void testListJson() throws Exception {
+        // Given
+        when(reactiveSpectacleService.listAll(0, 20)).thenReturn(Flux.just(spectacleResponse));
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/reactive/spectacles").accept(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].title").value("Le Malade Imaginaire"));
+    }
+
+    @Test
+    @DisplayName("GET /api/reactive/spectacles - Doit écrire un spectacle par ligne en NDJSON")
+    void testListNdjson() throws Exception {
+        // Given
+        SpectacleResponse other = SpectacleResponse.builder().id(2L).title("Hamlet").build();
+        when(reactiveSpectacleService.listAll(0, 20)).thenReturn(Flux.just(spectacleResponse, other));
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/reactive/spectacles")
+                        .accept(MediaType.parseMediaType("application/x-ndjson")))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        result.getAsyncResult();
+
+        // Then
+        String body = result.getResponse().getContentAsString();
+        assertThat(body.lines()).hasSize(2);
+        assertThat(body).contains("\"title\":\"Hamlet\"");
+    }
+
+    @Test
+    @DisplayName("GET /api/reactive/spectacles/{id} - Doit retourner 404 si le spectacle n'existe pas")
+    void testGetNotFound() throws Exception {
+        // Given
+        when(reactiveSpectacleService.get(999L))
+                .thenReturn(Mono.error(new ResourceNotFoundException("Spectacle", "id", 999L)));
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/reactive/spectacles/999"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isNotFound());
+    }
+}
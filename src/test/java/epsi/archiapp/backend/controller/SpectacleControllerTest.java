@@ -1,9 +1,14 @@
 package epsi.archiapp.backend.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 import epsi.archiapp.backend.config.TestSecurityConfig;
 import epsi.archiapp.backend.dto.SpectacleRequest;
 import epsi.archiapp.backend.dto.SpectacleResponse;
+import epsi.archiapp.backend.service.AvailabilityHub;
+import epsi.archiapp.backend.service.SpectacleFilterService;
+import epsi.archiapp.backend.service.SpectacleImportService;
 import epsi.archiapp.backend.service.SpectacleService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -21,8 +26,10 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -45,6 +52,15 @@ class SpectacleControllerTest {
     @MockitoBean
     private SpectacleService spectacleService;
 
+    @MockitoBean
+    private SpectacleImportService spectacleImportService;
+
+    @MockitoBean
+    private AvailabilityHub availabilityHub;
+
+    @MockitoBean
+    private SpectacleFilterService spectacleFilterService;
+
     private SpectacleResponse spectacleResponse;
     private SpectacleRequest spectacleRequest;
 
@@ -84,7 +100,9 @@ class SpectacleControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.content").isArray())
                 .andExpect(jsonPath("$.content[0].title").value("Le Malade Imaginaire"))
-                .andExpect(jsonPath("$.totalElements").value(1));
+                .andExpect(jsonPath("$.totalElements").value(1))
+                .andExpect(jsonPath("$.number").value(0))
+                .andExpect(jsonPath("$.pageable").exists());
 
         verify(spectacleService).listAll(any());
     }
@@ -105,6 +123,44 @@ class SpectacleControllerTest {
         verify(spectacleService).get(1L);
     }
 
+    @Test
+    @DisplayName("GET /api/spectacles/{id} - Doit retourner le format binaire compact si demandé")
+    void testGetSpectacleCbor() throws Exception {
+        // Given
+        when(spectacleService.get(1L)).thenReturn(spectacleResponse);
+
+        // When
+        byte[] body = mockMvc.perform(get("/api/spectacles/1").accept("application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Then
+        JsonNode node = new CBORMapper().readTree(body);
+        assertThat(node.get("title").asText()).isEqualTo("Le Malade Imaginaire");
+        assertThat(node.get("price").isIntegralNumber()).isTrue();
+        assertThat(node.get("price").asLong()).isEqualTo(2500L);
+        assertThat(node.get("date").asLong())
+                .isEqualTo(spectacleResponse.getDate().atZone(ZoneId.of("Europe/Paris")).toEpochSecond());
+    }
+
+    @Test
+    @DisplayName("GET /api/spectacles?ids= - Doit retourner plusieurs spectacles dans l'ordre demandé")
+    void testGetSpectaclesByIds() throws Exception {
+        // Given
+        SpectacleResponse other = SpectacleResponse.builder().id(2L).title("Hamlet").build();
+        when(spectacleService.getByIds(List.of(2L, 1L))).thenReturn(List.of(other, spectacleResponse));
+
+        // When & Then
+        mockMvc.perform(get("/api/spectacles").param("ids", "2,1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(2))
+                .andExpect(jsonPath("$[1].id").value(1));
+
+        verify(spectacleService).getByIds(List.of(2L, 1L));
+        verify(spectacleService, never()).listAll(any());
+    }
+
     @Test
     @WithMockUser(roles = "ADMIN")
     @DisplayName("POST /api/spectacles - Doit créer un nouveau spectacle (ADMIN)")
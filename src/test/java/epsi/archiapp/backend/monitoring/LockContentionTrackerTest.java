@@ -0,0 +1,63 @@
+package epsi.archiapp.backend.monitoring;
+
+import epsi.archiapp.backend.dto.LockContentionResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Tests du suivi de contention des verrous")
+class LockContentionTrackerTest {
+
+    @Test
+    @DisplayName("Doit classer les spectacles par temps d'attente cumulé et suivre les attentes en cours")
+    void testTopByTotalWait() {
+        LockContentionTracker tracker = new LockContentionTracker(64);
+
+        tracker.release(tracker.await(1L), 2_000_000L);
+        tracker.release(tracker.await(1L), 6_000_000L);
+        tracker.release(tracker.await(2L), 10_000_000L);
+        LockContentionTracker.Slot pending = tracker.await(1L);
+
+        LockContentionResponse response = tracker.top(10);
+
+        assertThat(response.getTrackedSpectacles()).isEqualTo(2);
+        assertThat(response.getCurrentWaiters()).isEqualTo(1);
+        assertThat(response.getItems()).extracting(LockContentionResponse.SpectacleContention::getSpectacleId)
+                .containsExactly(2L, 1L);
+        LockContentionResponse.SpectacleContention first = response.getItems().get(1);
+        assertThat(first.getAcquisitions()).isEqualTo(2L);
+        assertThat(first.getCurrentWaiters()).isEqualTo(1);
+        assertThat(first.getMeanWaitMicros()).isEqualTo(4_000L);
+        assertThat(first.getMaxWaitMicros()).isEqualTo(6_000L);
+
+        tracker.release(pending, 1_000L);
+        assertThat(tracker.top(1).getItems()).hasSize(1);
+        assertThat(tracker.top(10).getCurrentWaiters()).isZero();
+    }
+
+    @Test
+    @DisplayName("Doit rester borné en réattribuant les cases des spectacles les moins disputés")
+    void testBoundedTable() {
+        LockContentionTracker tracker = new LockContentionTracker(8);
+        tracker.release(tracker.await(1L), 50_000_000L);
+
+        for (long id = 2; id <= 1000; id++) {
+            tracker.release(tracker.await(id), 1_000L);
+        }
+
+        LockContentionResponse response = tracker.top(50);
+        assertThat(response.getTrackedSpectacles()).isLessThanOrEqualTo(8);
+        assertThat(response.getItems().get(0).getSpectacleId()).isEqualTo(1L);
+        assertThat(response.getCurrentWaiters()).isZero();
+    }
+
+    @Test
+    @DisplayName("Doit rejeter une limite hors bornes")
+    void testInvalidLimit() {
+        LockContentionTracker tracker = new LockContentionTracker(8);
+
+        assertThatThrownBy(() -> tracker.top(0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> tracker.top(51)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
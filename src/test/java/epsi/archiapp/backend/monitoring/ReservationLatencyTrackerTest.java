@@ -0,0 +1,58 @@
+package epsi.archiapp.backend.monitoring;
+
+import epsi.archiapp.backend.dto.LatencyReportResponse;
+import epsi.archiapp.backend.monitoring.ReservationLatencyTracker.Flow;
+import epsi.archiapp.backend.monitoring.ReservationLatencyTracker.Phase;
+import epsi.archiapp.backend.monitoring.ReservationLatencyTracker.Scope;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Tests des histogrammes de latence des réservations")
+class ReservationLatencyTrackerTest {
+
+    private final ReservationLatencyTracker tracker = new ReservationLatencyTracker();
+
+    @Test
+    @DisplayName("Doit calculer les percentiles de l'intervalle clos et les cumuler")
+    void testIntervalAndTotal() {
+        for (int i = 1; i <= 1000; i++) {
+            tracker.record(Flow.CREATE, Phase.LOCK_WAIT, i * 1_000L);
+        }
+        assertThat(tracker.report(Scope.INTERVAL).getPhases()).isEmpty();
+
+        tracker.rollInterval();
+        LatencyReportResponse.PhaseLatency lockWait = tracker.report(Scope.INTERVAL).getPhases().get(0);
+        assertThat(lockWait.getFlow()).isEqualTo("CREATE");
+        assertThat(lockWait.getPhase()).isEqualTo("LOCK_WAIT");
+        assertThat(lockWait.getCount()).isEqualTo(1000L);
+        assertThat(lockWait.getP50()).isBetween(499L, 501L);
+        assertThat(lockWait.getP99()).isBetween(989L, 991L);
+        assertThat(lockWait.getMax()).isBetween(999L, 1001L);
+
+        tracker.record(Flow.CANCEL, Phase.COMMIT, 2_000_000L);
+        tracker.rollInterval();
+
+        assertThat(tracker.report(Scope.INTERVAL).getPhases())
+                .extracting(LatencyReportResponse.PhaseLatency::getPhase).containsExactly("COMMIT");
+        assertThat(tracker.report(Scope.TOTAL).getPhases())
+                .extracting(LatencyReportResponse.PhaseLatency::getCount).containsExactly(1000L, 1L);
+    }
+
+    @Test
+    @DisplayName("Doit plafonner les valeurs hors plage au lieu d'échouer")
+    void testClampsOutOfRangeValues() {
+        tracker.record(Flow.CREATE, Phase.TOTAL, Long.MAX_VALUE);
+        tracker.record(Flow.CREATE, Phase.TOTAL, -5L);
+        tracker.rollInterval();
+
+        assertThat(tracker.report(Scope.TOTAL).getPhases().get(0).getCount()).isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("Doit rejeter une portée inconnue")
+    void testUnknownScope() {
+        assertThatThrownBy(() -> Scope.from("weekly")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
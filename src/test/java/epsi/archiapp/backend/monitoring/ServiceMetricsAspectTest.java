@@ -0,0 +1,82 @@
+package epsi.archiapp.backend.monitoring;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Tests du chronométrage des services")
+class ServiceMetricsAspectTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ServiceMetricsAspect aspect;
+    private SampleService service;
+
+    @Service
+    static class SampleService {
+        public String find(Long id) {
+            return "spectacle-" + id;
+        }
+
+        public void fail() {
+            throw new IllegalStateException("échec");
+        }
+
+        public Mono<String> stream() {
+            return Mono.just("flux");
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        AspectJProxyFactory factory = new AspectJProxyFactory(new SampleService());
+        factory.setProxyTargetClass(true);
+        aspect = new ServiceMetricsAspect(meterRegistry);
+        factory.addAspect(aspect);
+        service = factory.getProxy();
+    }
+
+    @Test
+    @DisplayName("Doit chronométrer les appels par classe et méthode, sans les arguments")
+    void testTimesSuccessfulCalls() {
+        service.find(1L);
+        service.find(2L);
+
+        Timer timer = meterRegistry.get(ServiceMetricsAspect.METRIC)
+                .tags("class", "SampleService", "method", "find", "exception", "none")
+                .timer();
+        assertThat(timer.count()).isEqualTo(2L);
+        assertThat(meterRegistry.getMeters()).hasSize(1);
+        @SuppressWarnings("unchecked")
+        Map<Object, Timer> timers = (Map<Object, Timer>) ReflectionTestUtils.getField(aspect, "timers");
+        assertThat(timers).hasSize(1).containsValue(timer);
+    }
+
+    @Test
+    @DisplayName("Doit étiqueter les appels en échec par le nom de l'exception")
+    void testTagsExceptions() {
+        assertThatThrownBy(() -> service.fail()).isInstanceOf(IllegalStateException.class);
+
+        assertThat(meterRegistry.get(ServiceMetricsAspect.METRIC)
+                .tags("method", "fail", "exception", "IllegalStateException")
+                .timer().count()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("Ne doit pas chronométrer les méthodes réactives")
+    void testSkipsReactiveMethods() {
+        assertThat(service.stream().block()).isEqualTo("flux");
+
+        assertThat(meterRegistry.find(ServiceMetricsAspect.METRIC).timers()).isEmpty();
+    }
+}
@@ -0,0 +1,67 @@
+package epsi.archiapp.backend.monitoring.jfr;
+
+import epsi.archiapp.backend.dto.FlightRecordingResponse;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Tests de l'enregistrement JFR et des événements métier")
+class FlightRecordingServiceTest {
+
+    private final FlightRecordingService service = new FlightRecordingService();
+
+    @AfterEach
+    void tearDown() {
+        service.close();
+    }
+
+    @Test
+    @DisplayName("Doit enregistrer les événements métier et les exporter au format .jfr")
+    void testRecordAndDump() throws Exception {
+        FlightRecordingResponse started = service.start("default", 10);
+        assertThat(started.getState()).isEqualTo("RUNNING");
+        assertThat(started.getSettings()).isEqualTo("default");
+
+        ReservationAttemptEvent.emit(7L, 2);
+        ReservationRejectedEvent.emit(7L, 2, "insufficient", 1);
+        ReservationCommittedEvent.emit(42L, 7L, 2, 1_000L, 5_000L);
+
+        Path file = service.dump();
+        try {
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                    .filter(event -> event.getEventType().getName().startsWith("epsi.archiapp."))
+                    .toList();
+            assertThat(events).extracting(event -> event.getEventType().getName())
+                    .contains("epsi.archiapp.ReservationAttempt", "epsi.archiapp.ReservationRejected",
+                            "epsi.archiapp.ReservationCommitted");
+            RecordedEvent committed = events.stream()
+                    .filter(event -> event.getEventType().getName().equals("epsi.archiapp.ReservationCommitted"))
+                    .findFirst().orElseThrow();
+            assertThat(committed.getLong("reservationId")).isEqualTo(42L);
+            assertThat(committed.getDuration("totalTime").toNanos()).isEqualTo(5_000L);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+
+        assertThat(service.stop().getState()).isEqualTo("STOPPED");
+    }
+
+    @Test
+    @DisplayName("Doit refuser un second enregistrement et les paramètres invalides")
+    void testRejectsInvalidRequests() {
+        assertThatThrownBy(service::dump).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> service.start("verbose", 10)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.start("default", 0)).isInstanceOf(IllegalArgumentException.class);
+
+        service.start("default", 10);
+        assertThatThrownBy(() -> service.start("profile", 10)).isInstanceOf(IllegalStateException.class);
+    }
+}
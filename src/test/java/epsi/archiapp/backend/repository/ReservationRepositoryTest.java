@@ -14,6 +14,7 @@ import org.springframework.data.domain.PageRequest;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -100,10 +101,11 @@ class ReservationRepositoryTest {
     @DisplayName("Doit calculer le total des ventes")
     void testGetTotalSales() {
         // When
-        BigDecimal totalSales = reservationRepository.getTotalSales();
+        BigDecimal totalSales = reservationRepository.getSalesSummaryBySpectacle().stream()
+                .map(ReservationRepository.SalesSummaryRow::getRevenue)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
 
         // Then
-        assertThat(totalSales).isNotNull();
         assertThat(totalSales).isEqualByComparingTo(new BigDecimal("140.00")); // 50 + 90
     }
 
@@ -111,17 +113,18 @@ class ReservationRepositoryTest {
     @DisplayName("Doit récupérer les ventes par spectacle")
     void testGetSalesBySpectacle() {
         // When
-        List<ReservationRepository.SalesBySpectacle> sales = reservationRepository.getSalesBySpectacle();
+        List<ReservationRepository.SalesSummaryRow> sales = reservationRepository.getSalesSummaryBySpectacle();
 
         // Then
         assertThat(sales).isNotEmpty();
         assertThat(sales).hasSize(2);
 
-        ReservationRepository.SalesBySpectacle sale1 = sales.get(0);
+        ReservationRepository.SalesSummaryRow sale1 = sales.get(0);
         assertThat(sale1.getSpectacleId()).isNotNull();
         assertThat(sale1.getTitle()).isNotNull();
         assertThat(sale1.getTicketsSold()).isGreaterThan(0);
         assertThat(sale1.getRevenue()).isGreaterThan(BigDecimal.ZERO);
+        assertThat(sale1.getReservationCount()).isEqualTo(1L);
     }
 
     @Test
@@ -167,10 +170,10 @@ class ReservationRepositoryTest {
         entityManager.flush();
 
         // When
-        BigDecimal totalSales = reservationRepository.getTotalSales();
+        List<ReservationRepository.SalesSummaryRow> sales = reservationRepository.getSalesSummaryBySpectacle();
 
         // Then
-        assertThat(totalSales).isNull(); // Peut être null si aucune réservation
+        assertThat(sales).isEmpty(); // Aucune ligne si aucune réservation
     }
 
     @Test
@@ -187,5 +190,34 @@ class ReservationRepositoryTest {
             assertThat(r.getSpectacle().getTitle()).isNotNull();
         });
     }
-}
 
+    @Test
+    @DisplayName("Doit lire en flux les couples (spectacle, acheteur) distincts, éventuellement filtrés")
+    void testStreamDistinctBuyers() {
+        // Given
+        entityManager.persistAndFlush(Reservation.builder()
+                .keycloakUserId("user-123")
+                .spectacle(spectacle1)
+                .quantity(1)
+                .totalPrice(new BigDecimal("25.00"))
+                .build());
+
+        // When
+        List<Long> spectacleIds = reservationRepository.findSpectacleIdsWithReservations();
+        List<String> allBuyers;
+        List<String> filtered;
+        try (Stream<ReservationRepository.BuyerRow> rows = reservationRepository.streamDistinctBuyers()) {
+            allBuyers = rows.map(row -> row.getSpectacleId() + ":" + row.getKeycloakUserId()).toList();
+        }
+        try (Stream<ReservationRepository.BuyerRow> rows =
+                     reservationRepository.streamDistinctBuyers(List.of(spectacle2.getId()))) {
+            filtered = rows.map(row -> row.getSpectacleId() + ":" + row.getKeycloakUserId()).toList();
+        }
+
+        // Then
+        assertThat(spectacleIds).containsExactlyInAnyOrder(spectacle1.getId(), spectacle2.getId());
+        assertThat(allBuyers).containsExactlyInAnyOrder(
+                spectacle1.getId() + ":user-123", spectacle2.getId() + ":user-123");
+        assertThat(filtered).containsExactly(spectacle2.getId() + ":user-123");
+    }
+}
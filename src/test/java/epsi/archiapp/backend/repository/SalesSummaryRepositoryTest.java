@@ -0,0 +1,95 @@
+package epsi.archiapp.backend.repository;
+
+import epsi.archiapp.backend.config.JpaAuditingConfig;
+import epsi.archiapp.backend.model.Reservation;
+import epsi.archiapp.backend.model.SalesSummary;
+import epsi.archiapp.backend.model.Spectacle;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(JpaAuditingConfig.class)
+@DisplayName("Tests du repository SalesSummary")
+class SalesSummaryRepositoryTest {
+
+    @Autowired
+    private SalesSummaryRepository salesSummaryRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Spectacle hamlet;
+    private Spectacle phedre;
+
+    @BeforeEach
+    void setUp() {
+        hamlet = persist("Hamlet");
+        phedre = persist("Phèdre");
+    }
+
+    @Test
+    @DisplayName("Doit créer la ligne à la première vente puis appliquer les deltas suivants")
+    void testApplyDeltaUpsert() {
+        salesSummaryRepository.applyDelta(hamlet.getId(), 2L, new BigDecimal("50.00"), 1L);
+        salesSummaryRepository.applyDelta(hamlet.getId(), 3L, new BigDecimal("75.00"), 1L);
+        salesSummaryRepository.applyDelta(hamlet.getId(), -2L, new BigDecimal("-50.00"), -1L);
+        entityManager.clear();
+
+        SalesSummary summary = salesSummaryRepository.findById(hamlet.getId()).orElseThrow();
+        assertThat(summary.getTicketsSold()).isEqualTo(3L);
+        assertThat(summary.getRevenue()).isEqualByComparingTo("75.00");
+        assertThat(summary.getReservationCount()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("Doit renvoyer l'écart entre les réservations et les agrégats des seuls spectacles divergents")
+    void testFindDeltas() {
+        reserve(hamlet, 2, "50.00");
+        reserve(hamlet, 1, "25.00");
+        reserve(phedre, 3, "90.00");
+        salesSummaryRepository.applyDelta(hamlet.getId(), 2L, new BigDecimal("50.00"), 1L);
+        salesSummaryRepository.applyDelta(phedre.getId(), 3L, new BigDecimal("90.00"), 1L);
+        salesSummaryRepository.applyDelta(999L, 1L, new BigDecimal("10.00"), 1L);
+
+        List<SalesSummaryRepository.SalesDeltaRow> deltas = salesSummaryRepository.findDeltas();
+
+        assertThat(deltas).extracting(SalesSummaryRepository.SalesDeltaRow::getSpectacleId,
+                        SalesSummaryRepository.SalesDeltaRow::getTicketsSold,
+                        SalesSummaryRepository.SalesDeltaRow::getReservationCount)
+                .containsExactlyInAnyOrder(tuple(hamlet.getId(), 1L, 1L), tuple(999L, -1L, -1L));
+        assertThat(deltas).filteredOn(row -> row.getSpectacleId().equals(hamlet.getId()))
+                .singleElement()
+                .satisfies(row -> assertThat(row.getRevenue()).isEqualByComparingTo("25.00"));
+    }
+
+    private Spectacle persist(String title) {
+        return entityManager.persist(Spectacle.builder()
+                .title(title)
+                .date(LocalDateTime.now().plusDays(30))
+                .price(new BigDecimal("25.00"))
+                .availableTickets(100)
+                .build());
+    }
+
+    private void reserve(Spectacle spectacle, int quantity, String totalPrice) {
+        entityManager.persistAndFlush(Reservation.builder()
+                .spectacle(spectacle)
+                .keycloakUserId("user-1")
+                .quantity(quantity)
+                .totalPrice(new BigDecimal(totalPrice))
+                .build());
+    }
+}
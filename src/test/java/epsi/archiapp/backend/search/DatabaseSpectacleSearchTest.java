@@ -0,0 +1,86 @@
+package epsi.archiapp.backend.search;
+
+import epsi.archiapp.backend.config.JpaAuditingConfig;
+import epsi.archiapp.backend.model.Spectacle;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest
+@Import(JpaAuditingConfig.class)
+@DisplayName("Tests de la recherche en base des spectacles")
+class DatabaseSpectacleSearchTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private DatabaseSpectacleSearch search;
+
+    private Long romeo;
+    private Long oedipe;
+    private Long hamlet;
+
+    @BeforeEach
+    void setUp() {
+        // Base H2 : la recherche se replie sur LIKE
+        PostgresSearchSchemaInitializer schemaInitializer = mock(PostgresSearchSchemaInitializer.class);
+        search = new DatabaseSpectacleSearch(jdbcTemplate, schemaInitializer);
+        romeo = persist("Roméo et Juliette", "Tragédie de Shakespeare");
+        oedipe = persist("Œdipe roi", "Tragédie de Sophocle");
+        hamlet = persist("Hamlet", "Mise en scène de Roméo Castellucci");
+        entityManager.flush();
+    }
+
+    @Test
+    @DisplayName("Doit construire une requête tsquery avec le dernier terme en préfixe")
+    void testToTsQuery() {
+        assertThat(DatabaseSpectacleSearch.toTsQuery(TextNormalizer.tokenize("Roméo et Juli")))
+                .isEqualTo("romeo & juli:*");
+    }
+
+    @Test
+    @DisplayName("Doit ignorer accents et mots vides dans la recherche LIKE")
+    void testLikeFallbackFoldsAccentsAndStopWords() {
+        assertThat(search.search("romeo et juliette", null, 10).ids()).containsExactly(romeo);
+        assertThat(search.search("ROMÉO", null, 10).ids()).containsExactly(romeo, hamlet);
+        assertThat(search.search("oedipe", null, 10).ids()).containsExactly(oedipe);
+        assertThat(search.search("tragedie sophocle", null, 10).ids()).containsExactly(oedipe);
+        assertThat(search.search("juliette sophocle", null, 10).ids()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Doit paginer la recherche LIKE par id")
+    void testLikeFallbackPaging() {
+        SearchPage first = search.search("tragedie", null, 1);
+        assertThat(first.ids()).containsExactly(romeo);
+        assertThat(first.nextCursor()).isEqualTo("0.0:" + romeo);
+
+        SearchPage second = search.search("tragedie", first.nextCursor(), 1);
+        assertThat(second.ids()).containsExactly(oedipe);
+        assertThat(second.nextCursor()).isNull();
+    }
+
+    private Long persist(String title, String description) {
+        return entityManager.persist(Spectacle.builder()
+                .title(title)
+                .description(description)
+                .date(LocalDateTime.now().plusDays(30))
+                .price(new BigDecimal("25.00"))
+                .availableTickets(100)
+                .build()).getId();
+    }
+}
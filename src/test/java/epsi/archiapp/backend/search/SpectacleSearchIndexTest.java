@@ -0,0 +1,122 @@
+package epsi.archiapp.backend.search;
+
+import epsi.archiapp.backend.event.SpectacleChangedEvent;
+import epsi.archiapp.backend.model.Spectacle;
+import epsi.archiapp.backend.repository.SpectacleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests de l'index de recherche des spectacles")
+class SpectacleSearchIndexTest {
+
+    @Mock
+    private SpectacleRepository spectacleRepository;
+
+    private SpectacleSearchIndex index;
+
+    private final LocalDateTime date = LocalDateTime.now().plusDays(30);
+
+    @BeforeEach
+    void setUp() {
+        index = new SpectacleSearchIndex(spectacleRepository);
+        when(spectacleRepository.findAll()).thenReturn(List.of(
+                spectacle(1L, "Roméo et Juliette", "Tragédie de Shakespeare"),
+                spectacle(2L, "Le Malade imaginaire", "Comédie de Molière"),
+                spectacle(3L, "Hamlet", "Tragédie danoise, mise en scène contemporaine de Roméo Castellucci")));
+        index.rebuild();
+    }
+
+    @Test
+    @DisplayName("Doit normaliser les accents, la casse et retirer les mots vides")
+    void testTokenize() {
+        assertThat(TextNormalizer.tokenize("Roméo ET Juliette, l'Œdipe")).containsExactly("romeo", "juliette", "oedipe");
+    }
+
+    @Test
+    @DisplayName("Doit trouver un titre accentué avec une requête sans accent, titre avant description")
+    void testSearchAccentFolding() {
+        assertThat(index.search("romeo", 10)).containsExactly(1L, 3L);
+    }
+
+    @Test
+    @DisplayName("Doit exiger tous les termes et compléter le dernier comme préfixe")
+    void testSearchAllTermsAndPrefix() {
+        assertThat(index.search("tragedie shakesp", 10)).containsExactly(1L);
+        assertThat(index.search("moli", 10)).containsExactly(2L);
+        assertThat(index.search("inconnu", 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Doit tenir compte des créations, modifications et suppressions")
+    void testIncrementalUpdates() {
+        index.onSpectacleChanged(new SpectacleChangedEvent(SpectacleChangedEvent.Type.CREATED, 4L,
+                "Phèdre", "Tragédie de Racine", date));
+        assertThat(index.search("phedre", 10)).containsExactly(4L);
+
+        index.onSpectacleChanged(new SpectacleChangedEvent(SpectacleChangedEvent.Type.UPDATED, 1L,
+                "Cyrano de Bergerac", "Comédie héroïque", date));
+        assertThat(index.search("juliette", 10)).isEmpty();
+        assertThat(index.search("cyrano", 10)).containsExactly(1L);
+
+        index.onSpectacleChanged(SpectacleChangedEvent.deleted(4L));
+        assertThat(index.search("phedre", 10)).isEmpty();
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Doit rejouer les modifications reçues pendant une reconstruction")
+    void testRebuildReplaysConcurrentChanges() {
+        // Given : l'instantané lu en base précède une création et une suppression
+        List<Spectacle> snapshot = List.of(
+                spectacle(1L, "Roméo et Juliette", "Tragédie de Shakespeare"),
+                spectacle(2L, "Le Malade imaginaire", "Comédie de Molière"));
+        when(spectacleRepository.findAll()).thenAnswer(invocation -> {
+            index.onSpectacleChanged(new SpectacleChangedEvent(SpectacleChangedEvent.Type.CREATED, 4L,
+                    "Phèdre", "Tragédie de Racine", date));
+            index.onSpectacleChanged(SpectacleChangedEvent.deleted(2L));
+            return snapshot;
+        });
+
+        // When
+        index.onSpectacleChanged(SpectacleChangedEvent.bulkImported());
+
+        // Then
+        assertThat(index.search("phedre", 10)).containsExactly(4L);
+        assertThat(index.search("moliere", 10)).isEmpty();
+        assertThat(index.size()).isEqualTo(2);
+
+        // Les modifications suivantes ne sont plus mémorisées
+        index.remove(4L);
+        assertThat(index.search("phedre", 10)).isEmpty();
+    }
+
+    private Spectacle spectacle(Long id, String title, String description) {
+        return Spectacle.builder().id(id).title(title).description(description).date(date).build();
+    }
+
+    @Test
+    @DisplayName("Doit paginer les résultats avec un curseur")
+    void testSearchWithCursor() {
+        SearchPage first = index.search("tragedie", null, 1);
+        assertThat(first.ids()).hasSize(1);
+        assertThat(first.nextCursor()).isEqualTo("1");
+
+        SearchPage second = index.search("tragedie", first.nextCursor(), 1);
+        assertThat(second.ids()).hasSize(1).doesNotContainAnyElementsOf(first.ids());
+        assertThat(second.nextCursor()).isNull();
+
+        assertThatThrownBy(() -> index.search("tragedie", "abc", 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
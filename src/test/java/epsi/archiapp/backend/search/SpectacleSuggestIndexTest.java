@@ -0,0 +1,111 @@
+package epsi.archiapp.backend.search;
+
+import epsi.archiapp.backend.dto.SpectacleSuggestion;
+import epsi.archiapp.backend.event.SpectacleChangedEvent;
+import epsi.archiapp.backend.model.Spectacle;
+import epsi.archiapp.backend.repository.SpectacleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests de l'index d'autocomplétion des spectacles")
+class SpectacleSuggestIndexTest {
+
+    @Mock
+    private SpectacleRepository spectacleRepository;
+
+    private SpectacleSuggestIndex index;
+
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @BeforeEach
+    void setUp() {
+        index = new SpectacleSuggestIndex(spectacleRepository);
+        when(spectacleRepository.findAll()).thenReturn(List.of(
+                spectacle(1L, "Roméo et Juliette", now.plusDays(20)),
+                spectacle(2L, "Le Roi Lear", now.plusDays(5)),
+                spectacle(3L, "Le Roi Lion", now.plusDays(10)),
+                spectacle(4L, "Rodrigue", now.minusDays(1))));
+        index.rebuild();
+    }
+
+    @Test
+    @DisplayName("Doit suggérer les spectacles à venir triés par date, sans les spectacles passés")
+    void testSuggestOrderedByDate() {
+        assertThat(ids(index.suggest("Ro", 10))).containsExactly(2L, 3L, 1L);
+        assertThat(ids(index.suggest("ro", 2))).containsExactly(2L, 3L);
+    }
+
+    @Test
+    @DisplayName("Doit trouver un mot au milieu du titre et ignorer accents et casse")
+    void testSuggestMiddleWordAndAccents() {
+        assertThat(ids(index.suggest("JULI", 10))).containsExactly(1L);
+        assertThat(ids(index.suggest("roméo j", 10))).containsExactly(1L);
+        assertThat(ids(index.suggest("roi li", 10))).containsExactly(3L);
+        assertThat(ids(index.suggest("le", 10))).containsExactly(2L);
+        assertThat(index.suggest("  ", 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Doit tenir compte des créations, modifications et suppressions")
+    void testIncrementalUpdates() {
+        index.onSpectacleChanged(new SpectacleChangedEvent(SpectacleChangedEvent.Type.CREATED, 5L,
+                "Phèdre", null, now.plusDays(1)));
+        assertThat(ids(index.suggest("phe", 10))).containsExactly(5L);
+
+        index.onSpectacleChanged(new SpectacleChangedEvent(SpectacleChangedEvent.Type.UPDATED, 1L,
+                "Cyrano de Bergerac", null, now.plusDays(20)));
+        assertThat(index.suggest("juliette", 10)).isEmpty();
+        assertThat(ids(index.suggest("berg", 10))).containsExactly(1L);
+
+        index.onSpectacleChanged(SpectacleChangedEvent.deleted(5L));
+        assertThat(index.suggest("phe", 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Doit s'arrêter aux K premiers spectacles à venir de la plage")
+    void testSuggestStopsAfterLimit() {
+        // "roi lear" et "roi lion" précèdent "romeo juliette" dans l'ordre des clés
+        assertThat(ids(index.suggest("ro", 1))).containsExactly(2L);
+        assertThat(ids(index.suggest("ro", 3))).containsExactly(2L, 3L, 1L);
+        assertThat(index.suggest("ro", 0)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Doit retirer les spectacles passés de l'index")
+    void testPurgePast() {
+        index.onSpectacleChanged(new SpectacleChangedEvent(SpectacleChangedEvent.Type.UPDATED, 1L,
+                "Roméo et Juliette", null, now.minusDays(2)));
+
+        index.purgePast();
+
+        assertThat(index.suggest("juli", 10)).isEmpty();
+        assertThat(ids(index.suggest("roi", 10))).containsExactly(2L, 3L);
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Doit conserver un mot vide en fin de saisie")
+    void testNormalizePrefix() {
+        assertThat(SpectacleSuggestIndex.normalizePrefix("Le Roi le")).isEqualTo("roi le");
+        assertThat(SpectacleSuggestIndex.normalizePrefix("Le Roi ")).isEqualTo("roi");
+    }
+
+    private List<Long> ids(List<SpectacleSuggestion> suggestions) {
+        return suggestions.stream().map(SpectacleSuggestion::getId).toList();
+    }
+
+    private Spectacle spectacle(Long id, String title, LocalDateTime date) {
+        return Spectacle.builder().id(id).title(title).date(date).build();
+    }
+}
@@ -0,0 +1,186 @@
+package epsi.archiapp.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import epsi.archiapp.backend.dto.AvailabilityUpdate;
+import epsi.archiapp.backend.dto.SpectacleResponse;
+import epsi.archiapp.backend.event.ReservationEvent;
+import epsi.archiapp.backend.exception.ServiceOverloadedException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Tests du hub de disponibilité temps réel")
+class AvailabilityHubTest {
+
+    private AvailabilityHub hub;
+
+    @BeforeEach
+    void setUp() {
+        hub = new AvailabilityHub(new ObjectMapper().registerModule(new JavaTimeModule()));
+        ReflectionTestUtils.setField(hub, "maxSubscribers", 2);
+        ReflectionTestUtils.setField(hub, "streamTimeout", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(hub, "maxPollers", 10);
+        ReflectionTestUtils.setField(hub, "pollTimeout", Duration.ofSeconds(30));
+    }
+
+    @AfterEach
+    void tearDown() {
+        hub.shutdown();
+    }
+
+    @Test
+    @DisplayName("Doit ne conserver que la dernière version en attente par spectacle")
+    void testCoalescing() {
+        // When
+        hub.onReservationEvent(event(1L, 98, 2L));
+        hub.onReservationEvent(event(1L, 95, 4L));
+        hub.onReservationEvent(event(1L, 97, 3L));
+
+        // Then
+        assertThat(hub.pendingUpdate(1L).getVersion()).isEqualTo(4L);
+        assertThat(hub.pendingUpdate(1L).getAvailableTickets()).isEqualTo(95);
+
+        hub.flush();
+        assertThat(hub.pendingUpdate(1L)).isNull();
+    }
+
+    @Test
+    @DisplayName("Doit refuser les abonnés au-delà de la limite configurée")
+    void testSubscriberLimit() {
+        // Given
+        SpectacleResponse spectacle = SpectacleResponse.builder().id(1L).availableTickets(10).version(1L).build();
+        hub.subscribe(spectacle);
+        hub.subscribe(spectacle);
+
+        // When & Then
+        assertThatThrownBy(() -> hub.subscribe(spectacle))
+                .isInstanceOf(ServiceOverloadedException.class);
+        assertThat(hub.getSubscriberCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Doit répondre immédiatement si la version courante est plus récente")
+    void testPollReturnsImmediately() {
+        // Given
+        SpectacleResponse spectacle = SpectacleResponse.builder().id(1L).availableTickets(10).version(5L).build();
+
+        // When
+        DeferredResult<ResponseEntity<AvailabilityUpdate>> result = hub.poll(1L, 3L, () -> spectacle);
+
+        // Then
+        assertThat(result.hasResult()).isTrue();
+        assertThat(hub.getWaiterCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Doit parquer la requête jusqu'au prochain changement")
+    void testPollWaitsForChange() {
+        // Given
+        SpectacleResponse spectacle = SpectacleResponse.builder().id(1L).availableTickets(10).version(5L).build();
+        DeferredResult<ResponseEntity<AvailabilityUpdate>> result = hub.poll(1L, 5L, () -> spectacle);
+        assertThat(result.hasResult()).isFalse();
+        assertThat(hub.getWaiterCount()).isEqualTo(1);
+
+        // When
+        hub.onReservationEvent(event(1L, 8, 6L));
+        hub.flush();
+
+        // Then
+        assertThat(result.hasResult()).isTrue();
+        @SuppressWarnings("unchecked")
+        ResponseEntity<AvailabilityUpdate> response = (ResponseEntity<AvailabilityUpdate>) result.getResult();
+        assertThat(response.getBody().getAvailableTickets()).isEqualTo(8);
+        assertThat(response.getBody().getVersion()).isEqualTo(6L);
+    }
+
+    @Test
+    @DisplayName("Doit envoyer l'état initial en premier puis seulement la dernière version à un client lent")
+    void testSlowSubscriberReceivesLatestOnly() throws Exception {
+        // Given : un client dont les envois bloquent après l'état initial
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter emitter = new RecordingEmitter(release);
+        AvailabilityHub slowHub = new AvailabilityHub(new ObjectMapper().registerModule(new JavaTimeModule())) {
+            @Override
+            SseEmitter newEmitter(long timeoutMillis) {
+                return emitter;
+            }
+        };
+        ReflectionTestUtils.setField(slowHub, "maxSubscribers", 2);
+        ReflectionTestUtils.setField(slowHub, "streamTimeout", Duration.ofMinutes(1));
+        slowHub.subscribe(SpectacleResponse.builder().id(1L).availableTickets(100).version(1L).build());
+
+        try {
+            // When : 50 versions diffusées pendant que le premier envoi est bloqué
+            for (long version = 2; version <= 51; version++) {
+                slowHub.onReservationEvent(event(1L, (int) (101 - version), version));
+                slowHub.flush();
+            }
+            release.countDown();
+
+            // Then : état initial, l'envoi en cours, puis directement la dernière version
+            long deadline = System.currentTimeMillis() + 5000;
+            while (!emitter.ids.contains("51") && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertThat(emitter.ids.get(0)).isEqualTo("1");
+            assertThat(emitter.ids).hasSizeLessThanOrEqualTo(3).endsWith("51");
+        } finally {
+            release.countDown();
+            slowHub.shutdown();
+        }
+    }
+
+    /**
+     * Émetteur qui enregistre l'identifiant des événements envoyés et bloque après le premier envoi.
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final List<String> ids = new CopyOnWriteArrayList<>();
+        private final CountDownLatch release;
+
+        private RecordingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (!ids.isEmpty()) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                }
+            }
+            String event = builder.build().stream()
+                    .map(part -> part.getData().toString())
+                    .collect(Collectors.joining());
+            Matcher id = Pattern.compile("id:(\\d+)").matcher(event);
+            ids.add(id.find() ? id.group(1) : event);
+        }
+    }
+
+    private ReservationEvent event(Long spectacleId, int availableTickets, long version) {
+        return new ReservationEvent(ReservationEvent.Type.BOOKED, 1L, spectacleId, "user-123", 1,
+                new BigDecimal("25.00"), availableTickets, version, LocalDateTime.now());
+    }
+}
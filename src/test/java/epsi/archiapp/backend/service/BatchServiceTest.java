@@ -0,0 +1,280 @@
+package epsi.archiapp.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import epsi.archiapp.backend.dto.BatchRequest;
+import epsi.archiapp.backend.dto.BatchResponse;
+import jakarta.servlet.Filter;
+import jakarta.servlet.GenericServlet;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.MappingMatch;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerExecutionChain;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Tests du service de requêtes groupées")
+class BatchServiceTest {
+
+    private BatchService batchService;
+
+    private MockHttpServletRequest origin;
+
+    @BeforeEach
+    void setUp() {
+        // Chaîne de sécurité simulée : refuse les appels sans jeton, comme le ferait le resource server
+        Filter securityFilterChain = (request, response, chain) -> {
+            if (((HttpServletRequest) request).getHeader(HttpHeaders.AUTHORIZATION) == null) {
+                ((HttpServletResponse) response).sendError(HttpServletResponse.SC_UNAUTHORIZED);
+                return;
+            }
+            chain.doFilter(request, response);
+        };
+        // Seul /api/spectacles/1/availability/stream est résolu, vers un contrôleur SSE
+        RequestMappingHandlerMapping handlerMapping = mock(RequestMappingHandlerMapping.class);
+        try {
+            when(handlerMapping.getHandler(any())).thenAnswer(invocation -> {
+                HttpServletRequest request = invocation.getArgument(0);
+                return request.getRequestURI().endsWith("/availability/stream")
+                        ? new HandlerExecutionChain(new HandlerMethod(new StubController(), "stream"))
+                        : null;
+            });
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        batchService = new BatchService(new ObjectMapper(), securityFilterChain, new StubServlet(), handlerMapping);
+        ReflectionTestUtils.setField(batchService, "maxRequests", 4);
+        ReflectionTestUtils.setField(batchService, "maxConcurrency", 2);
+        ReflectionTestUtils.setField(batchService, "timeout", Duration.ofSeconds(1));
+
+        origin = new MockHttpServletRequest("POST", "/api/batch");
+        origin.addHeader(HttpHeaders.AUTHORIZATION, "Bearer token");
+        origin.setContentType("application/json");
+    }
+
+    @Test
+    @DisplayName("Doit exécuter un lot mixte dans le processus et conserver l'ordre des réponses")
+    void testMixedBatch() {
+        // Given
+        BatchRequest request = BatchRequest.builder()
+                .requests(List.of(
+                        BatchRequest.SubRequest.builder().id("spectacle").path("/api/spectacles/1?fields=title").build(),
+                        BatchRequest.SubRequest.builder().id("absent").path("/api/spectacles/999").build(),
+                        BatchRequest.SubRequest.builder().id("texte").path("/api/health").build(),
+                        BatchRequest.SubRequest.builder().id("ecriture").method("DELETE").path("/api/spectacles/1").build()))
+                .build();
+
+        // When
+        BatchResponse response = batchService.execute(request, origin);
+
+        // Then
+        assertThat(response.getResponses()).extracting(BatchResponse.SubResponse::getId)
+                .containsExactly("spectacle", "absent", "texte", "ecriture");
+        assertThat(response.getResponses()).extracting(BatchResponse.SubResponse::getStatus)
+                .containsExactly(200, 404, 200, 405);
+        BatchResponse.SubResponse spectacle = response.getResponses().get(0);
+        assertThat(spectacle.getBody().get("id").asLong()).isEqualTo(1L);
+        assertThat(spectacle.getBody().get("fields").asText()).isEqualTo("title");
+        assertThat(spectacle.getBody().get("accept").asText()).isEqualTo("application/json");
+        assertThat(response.getResponses().get(2).getBody().asText()).isEqualTo("UP");
+        assertThat(response.getConcurrency()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Doit transmettre le refus de la chaîne de sécurité pour un appel sans jeton")
+    void testSecurityChainApplies() {
+        // Given
+        MockHttpServletRequest anonymous = new MockHttpServletRequest("POST", "/api/batch");
+        BatchRequest request = BatchRequest.builder()
+                .requests(List.of(BatchRequest.SubRequest.builder().id("a").path("/api/reservations/my").build()))
+                .build();
+
+        // When
+        BatchResponse response = batchService.execute(request, anonymous);
+
+        // Then
+        assertThat(response.getResponses()).extracting(BatchResponse.SubResponse::getStatus).containsExactly(401);
+    }
+
+    @Test
+    @DisplayName("Doit refuser les méthodes autres que GET et les chemins hors API sans les exécuter")
+    void testRejectsUnsafeSubRequests() {
+        // Given
+        BatchRequest request = BatchRequest.builder()
+                .requests(List.of(
+                        BatchRequest.SubRequest.builder().id("a").method("DELETE").path("/api/spectacles/1").build(),
+                        BatchRequest.SubRequest.builder().id("b").path("/actuator/env").build(),
+                        BatchRequest.SubRequest.builder().id("c").path("/api/batch").build(),
+                        BatchRequest.SubRequest.builder().id("d").path("/api/%2e%2e/actuator/env").build()))
+                .build();
+
+        // When
+        BatchResponse response = batchService.execute(request, origin);
+
+        // Then
+        assertThat(response.getResponses()).extracting(BatchResponse.SubResponse::getId)
+                .containsExactly("a", "b", "c", "d");
+        assertThat(response.getResponses()).extracting(BatchResponse.SubResponse::getStatus)
+                .containsExactly(405, 400, 400, 400);
+    }
+
+    @Test
+    @DisplayName("Doit vérifier le chemin décodé et normalisé")
+    void testIsAllowedPath() {
+        assertThat(BatchService.isAllowedPath("/api/spectacles/1")).isTrue();
+        assertThat(BatchService.isAllowedPath("/api/spectacles/../admin/stats")).isFalse();
+        assertThat(BatchService.isAllowedPath("/api/%2e%2e/actuator/env")).isFalse();
+        assertThat(BatchService.isAllowedPath("/api/%2E%2E%2Factuator")).isFalse();
+        assertThat(BatchService.isAllowedPath("/api/./batch")).isFalse();
+        assertThat(BatchService.isAllowedPath("/api/%62atch")).isFalse();
+        assertThat(BatchService.isAllowedPath("/api/spectacles/%252e%252e")).isFalse();
+        assertThat(BatchService.isAllowedPath("/api//batch")).isFalse();
+        assertThat(BatchService.isAllowedPath("/api/spectacles;jsessionid=1")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Doit refuser un lot trop volumineux")
+    void testRejectsTooManySubRequests() {
+        // Given
+        BatchRequest.SubRequest subRequest = BatchRequest.SubRequest.builder().id("x").path("/api/health").build();
+        BatchRequest request = BatchRequest.builder()
+                .requests(List.of(subRequest, subRequest, subRequest, subRequest, subRequest))
+                .build();
+
+        // When & Then
+        assertThatThrownBy(() -> batchService.execute(request, origin))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Doit refuser en 400 les endpoints asynchrones sans les exécuter")
+    void testRejectsAsyncTargets() {
+        // Given
+        BatchRequest request = BatchRequest.builder()
+                .requests(List.of(
+                        BatchRequest.SubRequest.builder().id("flux").path("/api/spectacles/1/availability/stream").build(),
+                        BatchRequest.SubRequest.builder().id("texte").path("/api/health").build()))
+                .build();
+
+        // When
+        BatchResponse response = batchService.execute(request, origin);
+
+        // Then
+        assertThat(response.getResponses()).extracting(BatchResponse.SubResponse::getStatus)
+                .containsExactly(400, 200);
+        assertThat(response.getResponses().get(0).getBody().asText()).contains("asynchrone");
+    }
+
+    @Test
+    @DisplayName("Doit reconnaître les types de retour asynchrones, y compris dans une ResponseEntity")
+    void testIsAsyncReturnType() throws NoSuchMethodException {
+        assertThat(BatchService.isAsyncReturnType(returnType("stream"))).isTrue();
+        assertThat(BatchService.isAsyncReturnType(returnType("export"))).isTrue();
+        assertThat(BatchService.isAsyncReturnType(returnType("poll"))).isTrue();
+        assertThat(BatchService.isAsyncReturnType(returnType("flux"))).isTrue();
+        assertThat(BatchService.isAsyncReturnType(returnType("json"))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Doit construire la sous-requête à partir d'une copie, sans référence à la requête du lot")
+    void testSubRequestIsDetachedFromOrigin() {
+        // Given
+        origin.setServerName("api.example.org");
+        origin.setCookies(new Cookie("theme", "sombre"));
+        BatchService.Origin snapshot = BatchService.Origin.of(origin);
+        BatchService.SubRequest subRequest = BatchService.SubRequest.of(snapshot, "lot-0", "/api/spectacles?page=2",
+                "application/json");
+
+        // When : Tomcat recycle la requête du lot
+        origin.removeHeader(HttpHeaders.AUTHORIZATION);
+        origin.setServerName("recycled");
+        origin.getCookies()[0].setValue("recycled");
+
+        // Then
+        assertThat(subRequest.getHeader(HttpHeaders.AUTHORIZATION)).isEqualTo("Bearer token");
+        assertThat(subRequest.getHeader(HttpHeaders.CONTENT_TYPE)).isNull();
+        assertThat(subRequest.getServerName()).isEqualTo("api.example.org");
+        assertThat(subRequest.getCookies()[0].getValue()).isEqualTo("sombre");
+        assertThat(subRequest.getParameter("page")).isEqualTo("2");
+        assertThat(subRequest.getHttpServletMapping().getMappingMatch()).isEqualTo(MappingMatch.DEFAULT);
+        assertThat(subRequest.getSession(false)).isNull();
+        assertThatThrownBy(subRequest::startAsync).isInstanceOf(IllegalStateException.class);
+    }
+
+    private static MethodParameter returnType(String name) throws NoSuchMethodException {
+        return new MethodParameter(StubController.class.getMethod(name), -1);
+    }
+
+    /**
+     * Contrôleur simulé : un type de retour par famille d'endpoint.
+     */
+    static final class StubController {
+
+        public SseEmitter stream() {
+            return new SseEmitter();
+        }
+
+        public ResponseEntity<StreamingResponseBody> export() {
+            return ResponseEntity.ok(output -> { });
+        }
+
+        public DeferredResult<String> poll() {
+            return new DeferredResult<>();
+        }
+
+        public Flux<String> flux() {
+            return Flux.empty();
+        }
+
+        public ResponseEntity<String> json() {
+            return ResponseEntity.ok("{}");
+        }
+    }
+
+    /**
+     * Servlet simulant le DispatcherServlet : /api/spectacles/1 en JSON, /api/health en texte, 404 sinon.
+     */
+    private static final class StubServlet extends GenericServlet {
+
+        @Override
+        public void service(ServletRequest req, ServletResponse res) throws IOException {
+            HttpServletRequest request = (HttpServletRequest) req;
+            HttpServletResponse response = (HttpServletResponse) res;
+            assertThat(request.getMethod()).isEqualTo("GET");
+            switch (request.getRequestURI()) {
+                case "/api/spectacles/1" -> {
+                    response.setContentType("application/json");
+                    response.getWriter().write("{\"id\":1,\"fields\":\"" + request.getParameter("fields")
+                            + "\",\"accept\":\"" + request.getHeader(HttpHeaders.ACCEPT) + "\"}");
+                }
+                case "/api/health" -> {
+                    response.setContentType("text/plain");
+                    response.getOutputStream().write("UP".getBytes());
+                }
+                default -> response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            }
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package epsi.archiapp.backend.service;
+
+import epsi.archiapp.backend.dto.DistinctBuyersResponse;
+import epsi.archiapp.backend.event.ReservationEvent;
+import epsi.archiapp.backend.event.SpectacleChangedEvent;
+import epsi.archiapp.backend.model.BuyerSketch;
+import epsi.archiapp.backend.repository.BuyerSketchRepository;
+import epsi.archiapp.backend.repository.ReservationRepository;
+import epsi.archiapp.backend.sketch.HyperLogLog;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests du service de comptage des acheteurs distincts")
+class BuyerSketchServiceTest {
+
+    @Mock
+    private BuyerSketchRepository buyerSketchRepository;
+
+    @Mock
+    private ReservationRepository reservationRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private BuyerSketchService buyerSketchService;
+
+    @BeforeEach
+    void setUp() {
+        buyerSketchService = new BuyerSketchService(buyerSketchRepository, reservationRepository, transactionManager);
+        ReflectionTestUtils.setField(buyerSketchService, "enabled", true);
+    }
+
+    @Test
+    @DisplayName("Doit compter chaque acheteur une seule fois, globalement et par spectacle")
+    void testDistinctBuyers() {
+        for (int i = 0; i < 300; i++) {
+            buyerSketchService.onReservationEvent(booked(1L, "user-" + i));
+            buyerSketchService.onReservationEvent(booked(1L, "user-" + i));
+        }
+        for (int i = 200; i < 400; i++) {
+            buyerSketchService.onReservationEvent(booked(2L, "user-" + i));
+        }
+        buyerSketchService.onReservationEvent(new ReservationEvent(ReservationEvent.Type.CANCELLED, 1L, 1L,
+                "user-999", 1, BigDecimal.TEN, 10, 1L, LocalDateTime.now()));
+
+        DistinctBuyersResponse response = buyerSketchService.getDistinctBuyers();
+
+        assertThat((double) response.getTotalBuyers()).isCloseTo(400, withinPercentage(3));
+        assertThat(response.getSpectacles()).extracting(DistinctBuyersResponse.SpectacleBuyers::getSpectacleId)
+                .containsExactly(1L, 2L);
+        assertThat((double) response.getSpectacles().get(0).getBuyers()).isCloseTo(300, withinPercentage(5));
+    }
+
+    @Test
+    @DisplayName("Doit fusionner les sketches modifiés avec ceux d'autres instances lors de la sauvegarde")
+    void testPersistMergesStoredSketch() {
+        HyperLogLog otherNode = new HyperLogLog(BuyerSketchService.SPECTACLE_PRECISION);
+        for (int i = 0; i < 100; i++) {
+            otherNode.add("other-" + i);
+        }
+        when(buyerSketchRepository.findAllByIdForUpdate(any())).thenReturn(List.of(BuyerSketch.builder()
+                .spectacleId(1L).registers(otherNode.toBytes()).updatedAt(LocalDateTime.now()).build()));
+        for (int i = 0; i < 100; i++) {
+            buyerSketchService.onReservationEvent(booked(1L, "user-" + i));
+        }
+
+        buyerSketchService.persist();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<BuyerSketch>> captor = ArgumentCaptor.forClass(List.class);
+        verify(buyerSketchRepository).saveAll(captor.capture());
+        BuyerSketch saved = captor.getValue().stream()
+                .filter(sketch -> sketch.getSpectacleId() == 1L).findFirst().orElseThrow();
+        assertThat((double) HyperLogLog.fromBytes(saved.getRegisters()).estimate()).isCloseTo(200, withinPercentage(5));
+
+        buyerSketchService.persist();
+        verifyNoMoreInteractions(buyerSketchRepository);
+    }
+
+    @Test
+    @DisplayName("Doit supprimer le sketch d'un spectacle supprimé dans une nouvelle transaction")
+    void testSpectacleDeletedInNewTransaction() {
+        buyerSketchService.onReservationEvent(booked(1L, "user-1"));
+
+        buyerSketchService.onSpectacleChanged(SpectacleChangedEvent.deleted(1L));
+
+        verify(transactionManager).getTransaction(argThat(definition ->
+                definition.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRES_NEW));
+        verify(buyerSketchRepository).deleteById(1L);
+        verify(transactionManager).commit(any());
+        assertThat(buyerSketchService.getDistinctBuyers().getSpectacles()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Doit reconstruire depuis les réservations les sketches absents de la base, dont le global")
+    void testLoadBackfillsMissingSketches() {
+        HyperLogLog stored = new HyperLogLog(BuyerSketchService.SPECTACLE_PRECISION);
+        stored.add("user-0");
+        when(buyerSketchRepository.findAll()).thenReturn(List.of(BuyerSketch.builder()
+                .spectacleId(1L).registers(stored.toBytes()).updatedAt(LocalDateTime.now()).build()));
+        when(reservationRepository.findSpectacleIdsWithReservations()).thenReturn(List.of(1L, 2L));
+        when(reservationRepository.streamDistinctBuyers()).thenReturn(Stream.concat(
+                Stream.of(buyer(1L, "user-0")),
+                IntStream.range(0, 200).mapToObj(i -> buyer(2L, "user-" + i))));
+
+        buyerSketchService.load();
+
+        DistinctBuyersResponse response = buyerSketchService.getDistinctBuyers();
+        assertThat((double) response.getTotalBuyers()).isCloseTo(200, withinPercentage(5));
+        assertThat(response.getSpectacles())
+                .extracting(DistinctBuyersResponse.SpectacleBuyers::getSpectacleId,
+                        DistinctBuyersResponse.SpectacleBuyers::getBuyers)
+                .contains(tuple(1L, 1L));
+        assertThat((double) response.getSpectacles().get(0).getBuyers()).isCloseTo(200, withinPercentage(5));
+        verify(transactionManager).commit(any());
+
+        when(buyerSketchRepository.findAllByIdForUpdate(any())).thenReturn(List.of());
+        buyerSketchService.persist();
+        verify(buyerSketchRepository).findAllByIdForUpdate(argThat(ids ->
+                Set.copyOf(ids).equals(Set.of(BuyerSketch.GLOBAL_ID, 2L))));
+    }
+
+    @Test
+    @DisplayName("Ne doit lire que les réservations des spectacles sans sketch lorsque le global est chargé")
+    void testLoadBackfillsOnlyMissingSpectacles() {
+        when(buyerSketchRepository.findAll()).thenReturn(List.of(
+                BuyerSketch.builder().spectacleId(BuyerSketch.GLOBAL_ID)
+                        .registers(new HyperLogLog(BuyerSketchService.GLOBAL_PRECISION).toBytes()).build(),
+                BuyerSketch.builder().spectacleId(1L)
+                        .registers(new HyperLogLog(BuyerSketchService.SPECTACLE_PRECISION).toBytes()).build()));
+        when(reservationRepository.findSpectacleIdsWithReservations()).thenReturn(List.of(1L, 2L));
+        when(reservationRepository.streamDistinctBuyers(Set.of(2L))).thenReturn(Stream.of(buyer(2L, "user-1")));
+
+        buyerSketchService.load();
+
+        verify(reservationRepository, never()).streamDistinctBuyers();
+        assertThat(buyerSketchService.getDistinctBuyers().getSpectacles())
+                .extracting(DistinctBuyersResponse.SpectacleBuyers::getSpectacleId,
+                        DistinctBuyersResponse.SpectacleBuyers::getBuyers)
+                .contains(tuple(2L, 1L));
+    }
+
+    @Test
+    @DisplayName("Ne doit pas parcourir les réservations lorsque tous les sketches sont chargés")
+    void testLoadWithoutBackfill() {
+        when(buyerSketchRepository.findAll()).thenReturn(List.of(
+                BuyerSketch.builder().spectacleId(BuyerSketch.GLOBAL_ID)
+                        .registers(new HyperLogLog(BuyerSketchService.GLOBAL_PRECISION).toBytes()).build(),
+                BuyerSketch.builder().spectacleId(1L)
+                        .registers(new HyperLogLog(BuyerSketchService.SPECTACLE_PRECISION).toBytes()).build()));
+        when(reservationRepository.findSpectacleIdsWithReservations()).thenReturn(List.of(1L));
+
+        buyerSketchService.load();
+
+        verify(reservationRepository, never()).streamDistinctBuyers();
+        verify(reservationRepository, never()).streamDistinctBuyers(any());
+        verifyNoInteractions(transactionManager);
+    }
+
+    private ReservationRepository.BuyerRow buyer(Long spectacleId, String userId) {
+        return new ReservationRepository.BuyerRow() {
+            @Override
+            public Long getSpectacleId() {
+                return spectacleId;
+            }
+
+            @Override
+            public String getKeycloakUserId() {
+                return userId;
+            }
+        };
+    }
+
+    private ReservationEvent booked(Long spectacleId, String userId) {
+        return new ReservationEvent(ReservationEvent.Type.BOOKED, 1L, spectacleId, userId, 1, BigDecimal.TEN,
+                10, 1L, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,162 @@
+package epsi.archiapp.backend.service;
+
+import epsi.archiapp.backend.config.JpaAuditingConfig;
+import epsi.archiapp.backend.model.Reservation;
+import epsi.archiapp.backend.model.Spectacle;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DataJpaTest
+@Import(JpaAuditingConfig.class)
+@DisplayName("Tests du service d'export")
+class ExportServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private ExportService exportService;
+
+    private Long romeo;
+    private Long hamlet;
+    private Long first;
+    private Long second;
+    private Long third;
+
+    @BeforeEach
+    void setUp() {
+        exportService = new ExportService(jdbcTemplate, transactionManager);
+        ReflectionTestUtils.setField(exportService, "fetchSize", 2);
+
+        Spectacle romeoSpectacle = persist("Roméo et Juliette");
+        Spectacle hamletSpectacle = persist("Hamlet, \"le prince\"");
+        romeo = romeoSpectacle.getId();
+        hamlet = hamletSpectacle.getId();
+        first = reserve(romeoSpectacle, "user-1", 2, "50.00", LocalDateTime.of(2026, 1, 10, 20, 0));
+        second = reserve(romeoSpectacle, "user-2", 1, "25.00", LocalDateTime.of(2026, 2, 10, 20, 0));
+        third = reserve(hamletSpectacle, "user-1", 3, "90.00", LocalDateTime.of(2026, 3, 10, 20, 0, 30));
+    }
+
+    @Test
+    @DisplayName("Doit exporter les réservations en NDJSON, une ligne par réservation")
+    void testExportReservationsNdjson() {
+        String export = exportReservations(ExportService.Format.NDJSON, null, null, null);
+
+        assertThat(export.split("\n")).containsExactly(
+                "{\"id\":" + first + ",\"reservationDate\":\"2026-01-10T20:00:00\",\"userId\":\"user-1\","
+                        + "\"spectacleId\":" + romeo + ",\"spectacleTitle\":\"Roméo et Juliette\",\"quantity\":2,\"totalPrice\":50.00}",
+                "{\"id\":" + second + ",\"reservationDate\":\"2026-02-10T20:00:00\",\"userId\":\"user-2\","
+                        + "\"spectacleId\":" + romeo + ",\"spectacleTitle\":\"Roméo et Juliette\",\"quantity\":1,\"totalPrice\":25.00}",
+                "{\"id\":" + third + ",\"reservationDate\":\"2026-03-10T20:00:30\",\"userId\":\"user-1\","
+                        + "\"spectacleId\":" + hamlet + ",\"spectacleTitle\":\"Hamlet, \\\"le prince\\\"\",\"quantity\":3,\"totalPrice\":90.00}");
+        assertThat(export).endsWith("\n");
+    }
+
+    @Test
+    @DisplayName("Doit exporter les réservations en CSV avec en-tête et champs échappés")
+    void testExportReservationsCsv() {
+        String export = exportReservations(ExportService.Format.CSV, null, null, null);
+
+        assertThat(export.split("\n")).containsExactly(
+                "id,reservationDate,userId,spectacleId,spectacleTitle,quantity,totalPrice",
+                first + ",2026-01-10T20:00:00,user-1," + romeo + ",Roméo et Juliette,2,50.00",
+                second + ",2026-02-10T20:00:00,user-2," + romeo + ",Roméo et Juliette,1,25.00",
+                third + ",2026-03-10T20:00:30,user-1," + hamlet + ",\"Hamlet, \"\"le prince\"\"\",3,90.00");
+    }
+
+    @Test
+    @DisplayName("Doit filtrer les réservations par spectacle et par période [from, to[")
+    void testExportReservationsFilters() {
+        String[] byShow = exportReservations(ExportService.Format.CSV, hamlet, null, null).split("\n");
+        assertThat(byShow).hasSize(2);
+        assertThat(byShow[1]).startsWith(third + ",");
+
+        String period = exportReservations(ExportService.Format.NDJSON, null,
+                LocalDateTime.of(2026, 1, 10, 20, 0), LocalDateTime.of(2026, 3, 10, 20, 0, 30));
+        assertThat(period.split("\n")).hasSize(2);
+        assertThat(period).contains("\"id\":" + first + ",").contains("\"id\":" + second + ",")
+                .doesNotContain("\"id\":" + third + ",");
+    }
+
+    @Test
+    @DisplayName("Doit exporter les ventes agrégées par spectacle dans les deux formats")
+    void testExportSalesBySpectacle() {
+        assertThat(exportSales(ExportService.Format.CSV).split("\n")).containsExactly(
+                "spectacleId,title,ticketsSold,revenue",
+                romeo + ",Roméo et Juliette,3,75.00",
+                hamlet + ",\"Hamlet, \"\"le prince\"\"\",3,90.00");
+
+        assertThat(exportSales(ExportService.Format.NDJSON).split("\n")).containsExactly(
+                "{\"spectacleId\":" + romeo + ",\"title\":\"Roméo et Juliette\",\"ticketsSold\":3,\"revenue\":75.00}",
+                "{\"spectacleId\":" + hamlet + ",\"title\":\"Hamlet, \\\"le prince\\\"\",\"ticketsSold\":3,\"revenue\":90.00}");
+    }
+
+    @Test
+    @DisplayName("Doit n'écrire que l'en-tête CSV lorsqu'aucune ligne ne correspond")
+    void testExportEmpty() {
+        assertThat(exportReservations(ExportService.Format.CSV, -1L, null, null))
+                .isEqualTo("id,reservationDate,userId,spectacleId,spectacleTitle,quantity,totalPrice\n");
+        assertThat(exportReservations(ExportService.Format.NDJSON, -1L, null, null)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Doit rejeter un format inconnu")
+    void testUnknownFormat() {
+        assertThat(ExportService.Format.from(" CSV ")).isEqualTo(ExportService.Format.CSV);
+        assertThatThrownBy(() -> ExportService.Format.from("xml")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private String exportReservations(ExportService.Format format, Long spectacleId,
+                                      LocalDateTime from, LocalDateTime to) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        exportService.exportReservations(format, spectacleId, from, to, output);
+        return output.toString(StandardCharsets.UTF_8);
+    }
+
+    private String exportSales(ExportService.Format format) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        exportService.exportSalesBySpectacle(format, output);
+        return output.toString(StandardCharsets.UTF_8);
+    }
+
+    private Spectacle persist(String title) {
+        return entityManager.persist(Spectacle.builder()
+                .title(title)
+                .date(LocalDateTime.now().plusDays(30))
+                .price(new BigDecimal("25.00"))
+                .availableTickets(100)
+                .build());
+    }
+
+    private Long reserve(Spectacle spectacle, String userId, int quantity, String totalPrice, LocalDateTime date) {
+        Long id = entityManager.persistAndFlush(Reservation.builder()
+                .spectacle(spectacle)
+                .keycloakUserId(userId)
+                .quantity(quantity)
+                .totalPrice(new BigDecimal(totalPrice))
+                .build()).getId();
+        // La date de réservation est renseignée par l'audit : on la fixe pour les filtres
+        jdbcTemplate.update("UPDATE reservations SET reservation_date = ? WHERE id = ?", date, id);
+        return id;
+    }
+}
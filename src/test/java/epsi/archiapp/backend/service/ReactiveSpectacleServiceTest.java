@@ -0,0 +1,112 @@
+package epsi.archiapp.backend.service;
+
+import epsi.archiapp.backend.dto.SpectacleResponse;
+import epsi.archiapp.backend.mapper.SpectacleMapper;
+import epsi.archiapp.backend.search.TextNormalizer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.RowsFetchSpec;
+import org.springframework.r2dbc.core.StatementFilterFunction;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests du service réactif des spectacles")
+class ReactiveSpectacleServiceTest {
+
+    @Mock
+    private DatabaseClient databaseClient;
+
+    @Mock
+    private SpectacleMapper spectacleMapper;
+
+    private Cache cache;
+
+    private ReactiveSpectacleService reactiveSpectacleService;
+
+    @BeforeEach
+    void setUp() {
+        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager("spectacles");
+        cache = cacheManager.getCache("spectacles");
+        reactiveSpectacleService = new ReactiveSpectacleService(databaseClient, spectacleMapper, cacheManager);
+    }
+
+    @Test
+    @DisplayName("Doit servir une page depuis sa propre clé de cache, sans réutiliser la page MVC")
+    void testListAllUsesReactiveCacheKey() {
+        // Given : la page MVC (autre tri) et la page réactive sont en cache
+        SpectacleResponse mvc = SpectacleResponse.builder().id(2L).title("Phèdre").build();
+        SpectacleResponse reactive = SpectacleResponse.builder().id(1L).title("Hamlet").build();
+        cache.put("page-0-20", new PageImpl<>(List.of(mvc)));
+        cache.put("reactive-page-0-20", List.of(reactive));
+
+        // When
+        List<SpectacleResponse> page = reactiveSpectacleService.listAll(0, 20).collectList().block();
+
+        // Then
+        assertThat(page).containsExactly(reactive);
+        verifyNoInteractions(databaseClient);
+    }
+
+    @Test
+    @DisplayName("Doit chercher chaque terme normalisé sur les colonnes repliées, sans joker venu de la saisie")
+    void testSearchUsesFoldedTerms() {
+        // Given
+        DatabaseClient.GenericExecuteSpec spec = mock(DatabaseClient.GenericExecuteSpec.class);
+        @SuppressWarnings("unchecked")
+        RowsFetchSpec<SpectacleResponse> rows = mock(RowsFetchSpec.class);
+        when(databaseClient.sql(anyString())).thenReturn(spec);
+        when(spec.filter(any(StatementFilterFunction.class))).thenReturn(spec);
+        when(spec.bind(anyString(), any())).thenReturn(spec);
+        doReturn(rows).when(spec).map(any(Function.class));
+        when(rows.all()).thenReturn(Flux.empty());
+
+        // When
+        reactiveSpectacleService.search("Roméo & JULIETTE 100%_", 0, 20).collectList().block();
+
+        // Then
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(databaseClient).sql(sql.capture());
+        assertThat(sql.getValue())
+                .contains(TextNormalizer.foldSql("title") + " LIKE :term0 OR " + TextNormalizer.foldSql("description"))
+                .contains(":term2")
+                .doesNotContain(":term3");
+        verify(spec).bind("term0", "%romeo%");
+        verify(spec).bind("term1", "%juliette%");
+        verify(spec).bind("term2", "%100%");
+    }
+
+    @Test
+    @DisplayName("Ne doit pas interroger la base pour une saisie sans terme significatif")
+    void testSearchWithoutTerms() {
+        assertThat(reactiveSpectacleService.search("% _ et", 0, 20).collectList().block()).isEmpty();
+        assertThatThrownBy(() -> reactiveSpectacleService.search(" ", 0, 20))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(databaseClient);
+    }
+
+    @Test
+    @DisplayName("Doit refuser une pagination invalide")
+    void testListAllInvalidPage() {
+        assertThatThrownBy(() -> reactiveSpectacleService.listAll(0, 101))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> reactiveSpectacleService.listAll(-1, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
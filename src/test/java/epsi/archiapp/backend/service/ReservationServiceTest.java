@@ -2,12 +2,18 @@ package epsi.archiapp.backend.service;
 
 import epsi.archiapp.backend.dto.ReservationRequest;
 import epsi.archiapp.backend.dto.ReservationResponse;
+import epsi.archiapp.backend.event.ReservationEvent;
 import epsi.archiapp.backend.exception.InsufficientTicketsException;
 import epsi.archiapp.backend.exception.ResourceNotFoundException;
 import epsi.archiapp.backend.exception.UnauthorizedAccessException;
 import epsi.archiapp.backend.mapper.ReservationMapper;
 import epsi.archiapp.backend.model.Reservation;
 import epsi.archiapp.backend.model.Spectacle;
+import epsi.archiapp.backend.monitoring.LockContentionTracker;
+import epsi.archiapp.backend.monitoring.ReservationLatencyTracker;
+import epsi.archiapp.backend.monitoring.ReservationLatencyTracker.Flow;
+import epsi.archiapp.backend.monitoring.ReservationLatencyTracker.Phase;
+import epsi.archiapp.backend.monitoring.ReservationMetrics;
 import epsi.archiapp.backend.repository.ReservationRepository;
 import epsi.archiapp.backend.repository.SpectacleRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -17,6 +23,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -45,6 +53,21 @@ class ReservationServiceTest {
     @Mock
     private ReservationMapper reservationMapper;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private ReservationLatencyTracker latencyTracker;
+
+    @Mock
+    private LockContentionTracker lockContentionTracker;
+
+    @Mock
+    private ReservationMetrics reservationMetrics;
+
     @InjectMocks
     private ReservationService reservationService;
 
@@ -106,6 +129,11 @@ class ReservationServiceTest {
         verify(spectacleRepository).findByIdWithLock(1L);
         verify(reservationRepository).save(reservation);
         verify(spectacleRepository).save(spectacle);
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof ReservationEvent e
+                && e.type() == ReservationEvent.Type.BOOKED
+                && e.availableTickets() == 98
+                && e.version() == 2L));
+        verify(reservationMetrics).increment(ReservationMetrics.Outcome.SUCCESS);
     }
 
     @Test
@@ -120,6 +148,7 @@ class ReservationServiceTest {
                 .isInstanceOf(InsufficientTicketsException.class);
         verify(spectacleRepository).findByIdWithLock(1L);
         verify(reservationRepository, never()).save(any());
+        verify(reservationMetrics).increment(ReservationMetrics.Outcome.INSUFFICIENT);
     }
 
     @Test
@@ -135,6 +164,7 @@ class ReservationServiceTest {
                 .hasMessageContaining("Spectacle");
         verify(spectacleRepository).findByIdWithLock(999L);
         verify(reservationRepository, never()).save(any());
+        verify(reservationMetrics).increment(ReservationMetrics.Outcome.NOT_FOUND);
     }
 
     @Test
@@ -150,6 +180,7 @@ class ReservationServiceTest {
                 .hasMessageContaining("passé");
         verify(spectacleRepository).findByIdWithLock(1L);
         verify(reservationRepository, never()).save(any());
+        verify(reservationMetrics).increment(ReservationMetrics.Outcome.PAST_SHOW);
     }
 
     @Test
@@ -217,6 +248,11 @@ class ReservationServiceTest {
         verify(reservationRepository).findById(1L);
         verify(reservationRepository).delete(reservation);
         verify(spectacleRepository).save(spectacle);
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof ReservationEvent e
+                && e.type() == ReservationEvent.Type.CANCELLED));
+        verify(latencyTracker).record(eq(Flow.CANCEL), eq(Phase.LOAD), anyLong());
+        verify(latencyTracker).record(eq(Flow.CANCEL), eq(Phase.DELETE), anyLong());
+        verify(latencyTracker, never()).record(eq(Flow.CANCEL), eq(Phase.LOCK_WAIT), anyLong());
     }
 
     @Test
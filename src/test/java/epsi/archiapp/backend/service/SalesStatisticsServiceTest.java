@@ -0,0 +1,206 @@
+package epsi.archiapp.backend.service;
+
+import epsi.archiapp.backend.dto.StatsReconciliationResponse;
+import epsi.archiapp.backend.dto.StatsResponse;
+import epsi.archiapp.backend.event.ReservationEvent;
+import epsi.archiapp.backend.event.SpectacleChangedEvent;
+import epsi.archiapp.backend.model.SalesSummary;
+import epsi.archiapp.backend.repository.ReservationRepository;
+import epsi.archiapp.backend.repository.SalesSummaryRepository;
+import epsi.archiapp.backend.repository.SpectacleRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests du service de statistiques de ventes")
+class SalesStatisticsServiceTest {
+
+    @Mock
+    private SalesSummaryRepository salesSummaryRepository;
+
+    @Mock
+    private ReservationRepository reservationRepository;
+
+    @Mock
+    private SpectacleRepository spectacleRepository;
+
+    @Mock
+    private SalesViewService salesViewService;
+
+    @InjectMocks
+    private SalesStatisticsService salesStatisticsService;
+
+    @Test
+    @DisplayName("Doit tenir les totaux et le classement par chiffre d'affaires après les réservations et annulations")
+    void testCountersAfterCommit() {
+        salesStatisticsService.onSpectacleChanged(created(1L, "Hamlet"));
+        salesStatisticsService.onSpectacleChanged(created(2L, "Phèdre"));
+
+        salesStatisticsService.applyToCounters(event(ReservationEvent.Type.BOOKED, 1L, 2, "50.00"), 0L);
+        salesStatisticsService.applyToCounters(event(ReservationEvent.Type.BOOKED, 2L, 3, "90.00"), 0L);
+        salesStatisticsService.applyToCounters(event(ReservationEvent.Type.BOOKED, 1L, 1, "25.00"), 0L);
+        salesStatisticsService.applyToCounters(event(ReservationEvent.Type.CANCELLED, 1L, 2, "50.00"), 0L);
+
+        StatsResponse stats = salesStatisticsService.getStatistics();
+
+        assertThat(stats.getTotalRevenue()).isEqualByComparingTo("115.00");
+        assertThat(stats.getTotalReservations()).isEqualTo(2L);
+        assertThat(stats.getSalesBySpectacle())
+                .extracting(StatsResponse.SpectacleSales::getTitle, StatsResponse.SpectacleSales::getTicketsSold)
+                .containsExactly(tuple("Phèdre", 3L), tuple("Hamlet", 1L));
+        verifyNoInteractions(reservationRepository, salesSummaryRepository);
+    }
+
+    @Test
+    @DisplayName("Doit appliquer chaque vente et annulation par un upsert relatif, sans insertion séparée")
+    void testApplyToSummary() {
+        salesStatisticsService.applyToSummary(event(ReservationEvent.Type.BOOKED, 1L, 2, "50.00"));
+        salesStatisticsService.applyToSummary(event(ReservationEvent.Type.CANCELLED, 1L, 2, "50.00"));
+
+        verify(salesSummaryRepository).applyDelta(1L, 2L, new BigDecimal("50.00"), 1L);
+        verify(salesSummaryRepository).applyDelta(1L, -2L, new BigDecimal("-50.00"), -1L);
+        verify(salesSummaryRepository, never()).save(any());
+        assertThat(salesStatisticsService.getStatistics().getTotalReservations()).isZero();
+    }
+
+    @Test
+    @DisplayName("Doit corriger les lignes verrouillées et passer par l'upsert pour un spectacle sans ligne")
+    void testReconcile() {
+        SalesSummary drifted = SalesSummary.builder()
+                .spectacleId(1L).ticketsSold(3L).revenue(new BigDecimal("75.00")).reservationCount(1L).build();
+        SalesSummary orphan = SalesSummary.builder()
+                .spectacleId(9L).ticketsSold(1L).revenue(new BigDecimal("10.00")).reservationCount(1L).build();
+        when(salesSummaryRepository.findAllForUpdate()).thenReturn(List.of(drifted, orphan));
+        List<SalesSummaryRepository.SalesDeltaRow> deltas = List.of(
+                delta(1L, 1L, "25.00", 1L), delta(9L, -1L, "-10.00", -1L), delta(5L, 2L, "40.00", 1L));
+        when(salesSummaryRepository.findDeltas()).thenReturn(deltas);
+
+        StatsReconciliationResponse response = salesStatisticsService.reconcile();
+
+        assertThat(response.getCorrectedSpectacleIds()).containsExactly(1L, 9L, 5L);
+        assertThat(response.getSpectaclesChecked()).isEqualTo(3);
+        assertThat(drifted.getTicketsSold()).isEqualTo(4L);
+        assertThat(drifted.getRevenue()).isEqualByComparingTo("100.00");
+        verify(salesSummaryRepository).delete(orphan);
+        verify(salesSummaryRepository).applyDelta(5L, 2L, new BigDecimal("40.00"), 1L);
+        verify(reservationRepository, never()).getSalesSummaryBySpectacle();
+        StatsResponse stats = salesStatisticsService.getStatistics();
+        assertThat(stats.getTotalRevenue()).isEqualByComparingTo("140.00");
+        assertThat(stats.getTotalReservations()).isEqualTo(3L);
+    }
+
+    @Test
+    @DisplayName("Ne doit pas compter deux fois une réservation validée avant le rechargement de la réconciliation")
+    void testReconcileWithPendingIncrement() {
+        // Réservation écrite et validée avant le verrou, dont l'incrément après commit n'a pas encore eu lieu
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            salesStatisticsService.applyToSummary(event(ReservationEvent.Type.BOOKED, 1L, 2, "50.00"));
+            List<TransactionSynchronization> pending = TransactionSynchronizationManager.getSynchronizations();
+
+            SalesSummary row = SalesSummary.builder()
+                    .spectacleId(1L).ticketsSold(2L).revenue(new BigDecimal("50.00")).reservationCount(1L).build();
+            when(salesSummaryRepository.findAllForUpdate()).thenReturn(List.of(row));
+            when(salesSummaryRepository.findDeltas()).thenReturn(List.of());
+            salesStatisticsService.reconcile();
+
+            pending.forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Réservation suivante, écrite après la réconciliation : comptée normalement
+        salesStatisticsService.applyToSummary(event(ReservationEvent.Type.BOOKED, 1L, 1, "25.00"));
+
+        StatsResponse stats = salesStatisticsService.getStatistics();
+        assertThat(stats.getTotalRevenue()).isEqualByComparingTo("75.00");
+        assertThat(stats.getTotalReservations()).isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("Doit calculer les statistiques exactes depuis une seule lecture groupée des réservations")
+    void testLiveStatistics() {
+        ReservationRepository.SalesSummaryRow hamlet = row(1L, "Hamlet", 4L, "100.00", 2L);
+        ReservationRepository.SalesSummaryRow phedre = row(2L, "Phèdre", 3L, "150.00", 3L);
+        when(reservationRepository.getSalesSummaryBySpectacle()).thenReturn(List.of(hamlet, phedre));
+
+        StatsResponse stats = salesStatisticsService.getLiveStatistics();
+
+        assertThat(stats.getTotalRevenue()).isEqualByComparingTo("250.00");
+        assertThat(stats.getTotalReservations()).isEqualTo(5L);
+        assertThat(stats.getSalesBySpectacle()).extracting(StatsResponse.SpectacleSales::getTitle)
+                .containsExactly("Phèdre", "Hamlet");
+        verify(reservationRepository, never()).count();
+        verifyNoInteractions(salesViewService);
+    }
+
+    @Test
+    @DisplayName("Doit servir les statistiques de la vue matérialisée sur demande explicite")
+    void testViewStatistics() {
+        ReservationRepository.SalesSummaryRow hamlet = row(1L, "Hamlet", 4L, "100.00", 2L);
+        when(salesViewService.getSalesSummary()).thenReturn(List.of(hamlet));
+
+        StatsResponse stats = salesStatisticsService.getViewStatistics();
+
+        assertThat(stats.getTotalRevenue()).isEqualByComparingTo("100.00");
+        assertThat(stats.getSalesBySpectacle()).extracting(StatsResponse.SpectacleSales::getSpectacleId)
+                .containsExactly(1L);
+        verify(reservationRepository, never()).getSalesSummaryBySpectacle();
+    }
+
+    @Test
+    @DisplayName("Doit retirer un spectacle supprimé des compteurs")
+    void testSpectacleDeleted() {
+        salesStatisticsService.applyToCounters(event(ReservationEvent.Type.BOOKED, 1L, 2, "50.00"), 0L);
+
+        salesStatisticsService.onSpectacleChanged(SpectacleChangedEvent.deleted(1L));
+
+        StatsResponse stats = salesStatisticsService.getStatistics();
+        assertThat(stats.getTotalRevenue()).isEqualByComparingTo("0");
+        assertThat(stats.getSalesBySpectacle()).isEmpty();
+    }
+
+    private SalesSummaryRepository.SalesDeltaRow delta(Long id, Long tickets, String revenue, Long reservations) {
+        SalesSummaryRepository.SalesDeltaRow delta = mock(SalesSummaryRepository.SalesDeltaRow.class);
+        lenient().when(delta.getSpectacleId()).thenReturn(id);
+        lenient().when(delta.getTicketsSold()).thenReturn(tickets);
+        lenient().when(delta.getRevenue()).thenReturn(new BigDecimal(revenue));
+        lenient().when(delta.getReservationCount()).thenReturn(reservations);
+        return delta;
+    }
+
+    private ReservationRepository.SalesSummaryRow row(Long id, String title, Long tickets, String revenue,
+                                                      Long reservations) {
+        ReservationRepository.SalesSummaryRow row = mock(ReservationRepository.SalesSummaryRow.class);
+        when(row.getSpectacleId()).thenReturn(id);
+        when(row.getTitle()).thenReturn(title);
+        when(row.getTicketsSold()).thenReturn(tickets);
+        when(row.getRevenue()).thenReturn(new BigDecimal(revenue));
+        when(row.getReservationCount()).thenReturn(reservations);
+        return row;
+    }
+
+    private SpectacleChangedEvent created(Long id, String title) {
+        return new SpectacleChangedEvent(SpectacleChangedEvent.Type.CREATED, id, title, null,
+                LocalDateTime.now().plusDays(10));
+    }
+
+    private ReservationEvent event(ReservationEvent.Type type, Long spectacleId, int quantity, String totalPrice) {
+        return new ReservationEvent(type, 1L, spectacleId, "user-123", quantity, new BigDecimal(totalPrice),
+                10, 1L, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,211 @@
+package epsi.archiapp.backend.service;
+
+import epsi.archiapp.backend.dto.SalesTimeSeriesResponse;
+import epsi.archiapp.backend.event.ReservationEvent;
+import epsi.archiapp.backend.model.SalesRollup;
+import epsi.archiapp.backend.repository.SalesRollupRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests des séries temporelles de ventes")
+class SalesTimeSeriesServiceTest {
+
+    @Mock
+    private SalesRollupRepository rollupRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SalesTimeSeriesService service;
+
+    private LocalDateTime base;
+
+    @BeforeEach
+    void setUp() {
+        service = new SalesTimeSeriesService(rollupRepository, transactionManager, 120);
+        base = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES).plusMinutes(1);
+    }
+
+    @Test
+    @DisplayName("Doit servir la série par minute depuis l'anneau, annulations déduites")
+    void testMinuteSeries() {
+        service.onReservationEvent(event(ReservationEvent.Type.BOOKED, 1L, 2, "50.00", base.plusSeconds(5)));
+        service.onReservationEvent(event(ReservationEvent.Type.BOOKED, 2L, 1, "30.00", base.plusSeconds(40)));
+        service.onReservationEvent(event(ReservationEvent.Type.BOOKED, 1L, 3, "75.00", base.plusMinutes(1)));
+        service.onReservationEvent(event(ReservationEvent.Type.CANCELLED, 1L, 2, "50.00", base.plusMinutes(1)));
+
+        SalesTimeSeriesResponse all = service.query(SalesTimeSeriesService.Granularity.MINUTE,
+                base, base.plusMinutes(5), null);
+        assertThat(all.getPoints()).extracting(SalesTimeSeriesResponse.SalesPoint::getTicketsSold)
+                .containsExactly(3L, 1L);
+        assertThat(all.getPoints().get(0).getRevenue()).isEqualByComparingTo("80.00");
+
+        SalesTimeSeriesResponse one = service.query(SalesTimeSeriesService.Granularity.MINUTE,
+                base, base.plusMinutes(5), 2L);
+        assertThat(one.getPoints()).hasSize(1);
+        verifyNoInteractions(rollupRepository);
+    }
+
+    @Test
+    @DisplayName("Doit consolider les minutes en tranches horaires et journalières sans double comptage")
+    void testRollUp() {
+        service.onReservationEvent(event(ReservationEvent.Type.BOOKED, 1L, 2, "50.00", base));
+        when(rollupRepository.addTo(any(), any(), eq(1L), anyLong(), any(), anyLong())).thenReturn(0);
+
+        service.rollUp(base.toEpochSecond(ZoneOffset.UTC) / 60);
+
+        ArgumentCaptor<SalesRollup> captor = ArgumentCaptor.forClass(SalesRollup.class);
+        verify(rollupRepository, times(2)).save(captor.capture());
+        assertThat(captor.getAllValues()).extracting(SalesRollup::getGranularity)
+                .containsExactlyInAnyOrder(SalesRollup.Granularity.HOUR, SalesRollup.Granularity.DAY);
+        assertThat(captor.getAllValues()).allSatisfy(rollup -> {
+            assertThat(rollup.getTicketsSold()).isEqualTo(2L);
+            assertThat(rollup.getRevenue()).isEqualByComparingTo("50.00");
+        });
+
+        // La tranche horaire vient désormais de la table ; la minute consolidée n'est plus relue dans l'anneau
+        SalesRollupRepository.SalesPointRow row = mock(SalesRollupRepository.SalesPointRow.class);
+        when(row.getBucketStart()).thenReturn(base.truncatedTo(ChronoUnit.HOURS));
+        when(row.getTicketsSold()).thenReturn(2L);
+        when(row.getRevenue()).thenReturn(new BigDecimal("50.00"));
+        when(row.getReservations()).thenReturn(1L);
+        when(rollupRepository.findTotals(eq(SalesRollup.Granularity.HOUR), any(), any())).thenReturn(List.of(row));
+
+        SalesTimeSeriesResponse hourly = service.query(SalesTimeSeriesService.Granularity.HOUR,
+                base.minusHours(1), base.plusHours(1), null);
+        assertThat(hourly.getPoints()).extracting(SalesTimeSeriesResponse.SalesPoint::getTicketsSold)
+                .containsExactly(2L);
+    }
+
+    @Test
+    @DisplayName("Ne doit perdre aucune vente enregistrée pendant une consolidation")
+    void testRollUpConcurrentWithEvents() throws Exception {
+        when(rollupRepository.addTo(any(), any(), anyLong(), anyLong(), any(), anyLong())).thenReturn(0);
+        long baseMinute = base.toEpochSecond(ZoneOffset.UTC) / 60;
+        int threads = 4;
+        int eventsPerThread = 500;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> writers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            writers.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < eventsPerThread; i++) {
+                    service.onReservationEvent(event(ReservationEvent.Type.BOOKED, 1L, 1, "10.00", base));
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        service.rollUp(baseMinute);
+        for (Future<?> writer : writers) {
+            writer.get(10, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        // Les ventes arrivées après la consolidation de leur minute sont reportées sur la suivante
+        service.rollUp(baseMinute + 1);
+
+        ArgumentCaptor<SalesRollup> captor = ArgumentCaptor.forClass(SalesRollup.class);
+        verify(rollupRepository, atLeastOnce()).save(captor.capture());
+        long hourlyTickets = captor.getAllValues().stream()
+                .filter(rollup -> rollup.getGranularity() == SalesRollup.Granularity.HOUR)
+                .mapToLong(SalesRollup::getTicketsSold)
+                .sum();
+        assertThat(hourlyTickets).isEqualTo((long) threads * eventsPerThread);
+    }
+
+    @Test
+    @DisplayName("Ne doit pas bloquer les réservations pendant l'écriture des tranches")
+    void testRollUpDoesNotBlockEvents() throws Exception {
+        service.onReservationEvent(event(ReservationEvent.Type.BOOKED, 1L, 2, "50.00", base));
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(rollupRepository.addTo(any(), any(), anyLong(), anyLong(), any(), anyLong())).thenAnswer(invocation -> {
+            writing.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return 1;
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> rollUp = executor.submit(() -> service.rollUp(base.toEpochSecond(ZoneOffset.UTC) / 60));
+            assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+
+            Future<?> booking = executor.submit(() ->
+                    service.onReservationEvent(event(ReservationEvent.Type.BOOKED, 1L, 1, "25.00", base.plusMinutes(1))));
+            booking.get(1, TimeUnit.SECONDS);
+
+            release.countDown();
+            rollUp.get(5, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Doit garder visibles et reprendre les tranches dont l'écriture a échoué")
+    void testRollUpFailureKeepsDeltas() {
+        service.onReservationEvent(event(ReservationEvent.Type.BOOKED, 1L, 2, "50.00", base));
+        long baseMinute = base.toEpochSecond(ZoneOffset.UTC) / 60;
+        when(rollupRepository.addTo(any(), any(), eq(1L), anyLong(), any(), anyLong()))
+                .thenThrow(new QueryTimeoutException("base indisponible"))
+                .thenReturn(0);
+
+        service.rollUp(baseMinute);
+
+        verify(rollupRepository, never()).save(any());
+        SalesTimeSeriesResponse hourly = service.query(SalesTimeSeriesService.Granularity.HOUR,
+                base.minusHours(1), base.plusHours(1), null);
+        assertThat(hourly.getPoints()).extracting(SalesTimeSeriesResponse.SalesPoint::getTicketsSold)
+                .containsExactly(2L);
+
+        service.rollUp(baseMinute + 1);
+
+        ArgumentCaptor<SalesRollup> captor = ArgumentCaptor.forClass(SalesRollup.class);
+        verify(rollupRepository, times(2)).save(captor.capture());
+        assertThat(captor.getAllValues()).extracting(SalesRollup::getTicketsSold).containsOnly(2L);
+    }
+
+    @Test
+    @DisplayName("Doit refuser une granularité inconnue ou une période inversée")
+    void testInvalidQuery() {
+        assertThatThrownBy(() -> SalesTimeSeriesService.Granularity.from("week"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.query(SalesTimeSeriesService.Granularity.DAY, base, base.minusDays(1), null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private ReservationEvent event(ReservationEvent.Type type, Long spectacleId, int quantity, String totalPrice,
+                                   LocalDateTime occurredAt) {
+        return new ReservationEvent(type, 1L, spectacleId, "user-123", quantity, new BigDecimal(totalPrice),
+                10, 1L, occurredAt);
+    }
+}
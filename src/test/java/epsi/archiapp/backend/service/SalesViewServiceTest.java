@@ -0,0 +1,118 @@
+package epsi.archiapp.backend.service;
+
+import epsi.archiapp.backend.event.ReservationEvent;
+import epsi.archiapp.backend.repository.ReservationRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests de la vue matérialisée des ventes")
+class SalesViewServiceTest {
+
+    @Mock
+    private ReservationRepository reservationRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private DatabaseMetaData metaData;
+
+    @Test
+    @DisplayName("Doit lire les ventes par la requête directe hors PostgreSQL")
+    void testFallbackWithoutPostgres() throws SQLException {
+        SalesViewService service = service("H2", 10);
+        ReservationRepository.SalesSummaryRow row = mock(ReservationRepository.SalesSummaryRow.class);
+        when(reservationRepository.getSalesSummaryBySpectacle()).thenReturn(List.of(row));
+
+        service.initialize();
+
+        assertThat(service.getSalesSummary()).containsExactly(row);
+        assertThat(service.refresh()).isFalse();
+        assertThat(service.getStatus().isMaterialized()).isFalse();
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Doit rafraîchir la vue après N écritures validées")
+    void testRefreshAfterWrites() throws SQLException {
+        SalesViewService service = service("PostgreSQL", 3);
+        populated(true);
+        service.initialize();
+        verify(jdbcTemplate, times(1)).execute(startsWith("REFRESH MATERIALIZED VIEW CONCURRENTLY"));
+
+        service.onReservationEvent(event());
+        service.onReservationEvent(event());
+        service.refreshIfStale();
+        assertThat(service.getStatus().getPendingWrites()).isEqualTo(2L);
+
+        service.onReservationEvent(event());
+        service.refreshIfStale();
+
+        verify(jdbcTemplate, times(2)).execute(startsWith("REFRESH MATERIALIZED VIEW CONCURRENTLY"));
+        assertThat(service.getStatus().getPendingWrites()).isZero();
+        assertThat(service.getStatus().getAgeSeconds()).isNotNull();
+        verify(reservationRepository, never()).getSalesSummaryBySpectacle();
+    }
+
+    @Test
+    @DisplayName("Doit créer la vue sans données et la remplir une seule fois au premier démarrage")
+    void testInitializeFillsNewViewOnce() throws SQLException {
+        SalesViewService service = service("PostgreSQL", 3);
+        populated(false);
+
+        service.initialize();
+
+        verify(jdbcTemplate).execute(argThat((String sql) ->
+                sql.startsWith("CREATE MATERIALIZED VIEW") && sql.endsWith("WITH NO DATA")));
+        verify(jdbcTemplate).execute("REFRESH MATERIALIZED VIEW " + SalesViewService.VIEW);
+        verify(jdbcTemplate, never()).execute(startsWith("REFRESH MATERIALIZED VIEW CONCURRENTLY"));
+        assertThat(service.getStatus().isMaterialized()).isTrue();
+        assertThat(service.getStatus().getLastRefreshedAt()).isNotNull();
+
+        service.refreshIfStale();
+        verify(jdbcTemplate, never()).execute(startsWith("REFRESH MATERIALIZED VIEW CONCURRENTLY"));
+    }
+
+    private void populated(boolean populated) {
+        when(jdbcTemplate.queryForObject(startsWith("SELECT relispopulated"), eq(Boolean.class),
+                eq(SalesViewService.VIEW))).thenReturn(populated);
+    }
+
+    private SalesViewService service(String productName, long refreshAfterWrites) throws SQLException {
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.getMetaData()).thenReturn(metaData);
+        when(metaData.getDatabaseProductName()).thenReturn(productName);
+        return new SalesViewService(reservationRepository, jdbcTemplate, dataSource,
+                Duration.ofHours(1), refreshAfterWrites);
+    }
+
+    private ReservationEvent event() {
+        return new ReservationEvent(ReservationEvent.Type.BOOKED, 1L, 1L, "user-1", 1,
+                new BigDecimal("25.00"), 10, 1L, LocalDateTime.now());
+    }
+}
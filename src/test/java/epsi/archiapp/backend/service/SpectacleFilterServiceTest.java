@@ -0,0 +1,124 @@
+package epsi.archiapp.backend.service;
+
+import epsi.archiapp.backend.config.CacheConfig;
+import epsi.archiapp.backend.config.JpaAuditingConfig;
+import epsi.archiapp.backend.dto.FacetBucket;
+import epsi.archiapp.backend.dto.SpectacleFilterResponse;
+import epsi.archiapp.backend.dto.SpectacleResponse;
+import epsi.archiapp.backend.event.SpectacleChangedEvent;
+import epsi.archiapp.backend.mapper.SpectacleMapper;
+import epsi.archiapp.backend.model.Spectacle;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DataJpaTest
+@Import({SpectacleFilterService.class, SpectacleMapper.class, CacheConfig.class, JpaAuditingConfig.class})
+@DisplayName("Tests du service de filtrage des spectacles")
+class SpectacleFilterServiceTest {
+
+    @Autowired
+    private SpectacleFilterService spectacleFilterService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache("facets").clear();
+        persist("Concert du week-end", now.plusDays(2), "15.00", 10);
+        persist("Opéra complet", now.plusDays(3), "80.00", 0);
+        persist("Théâtre du mois", now.plusDays(12), "25.00", 50);
+        persist("Ballet d'hiver", now.plusDays(90), "120.00", 5);
+        persist("Spectacle passé", now.minusDays(1), "10.00", 100);
+        entityManager.flush();
+    }
+
+    @Test
+    @DisplayName("Doit combiner les filtres de date, de prix et de disponibilité")
+    void testFilterCombined() {
+        SpectacleFilterResponse response = spectacleFilterService.filter(
+                null, now.plusDays(7), null, new BigDecimal("30"), true, 0, 20);
+
+        assertThat(response.getResults().getContent()).extracting(SpectacleResponse::getTitle)
+                .containsExactly("Concert du week-end");
+        assertThat(response.getResults().getTotalElements()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Doit calculer les facettes sans appliquer le filtre de leur propre dimension")
+    void testFacets() {
+        SpectacleFilterResponse response = spectacleFilterService.filter(
+                null, now.plusDays(7), null, new BigDecimal("30"), false, 0, 20);
+
+        assertThat(response.getResults().getTotalElements()).isEqualTo(1);
+        // Facettes de prix : filtre de date appliqué (2 spectacles cette semaine), pas celui de prix
+        assertThat(response.getPriceFacets()).extracting(FacetBucket::getKey, FacetBucket::getCount)
+                .containsExactly(tuple("0-20", 1L), tuple("20-50", 0L), tuple("50-100", 1L), tuple("100+", 0L));
+        // Facettes de date : filtre de prix appliqué (<= 30), pas celui de date
+        assertThat(response.getDateFacets()).extracting(FacetBucket::getKey, FacetBucket::getCount)
+                .containsExactly(tuple("week", 1L), tuple("month", 1L), tuple("later", 0L));
+    }
+
+    @Test
+    @DisplayName("Doit paginer les résultats triés par date")
+    void testFilterPagination() {
+        SpectacleFilterResponse response = spectacleFilterService.filter(null, null, null, null, false, 1, 2);
+
+        assertThat(response.getResults().getContent()).extracting(SpectacleResponse::getTitle)
+                .containsExactly("Théâtre du mois", "Ballet d'hiver");
+        assertThat(response.getResults().getTotalElements()).isEqualTo(4);
+        assertThat(response.getResults().getTotalPages()).isEqualTo(2);
+        assertThat(response.getResults().isLast()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Doit mettre en cache les comptes jusqu'à la modification d'un spectacle")
+    void testFacetsCachedUntilChange() {
+        assertThat(spectacleFilterService.filter(null, null, null, null, false, 0, 20)
+                .getResults().getTotalElements()).isEqualTo(4);
+
+        persist("Nouveau spectacle", now.plusDays(40), "35.00", 20);
+        entityManager.flush();
+        assertThat(spectacleFilterService.filter(null, null, null, null, false, 0, 20)
+                .getResults().getTotalElements()).isEqualTo(4);
+
+        spectacleFilterService.onSpectacleChanged(SpectacleChangedEvent.bulkImported());
+        assertThat(spectacleFilterService.filter(null, null, null, null, false, 0, 20)
+                .getResults().getTotalElements()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Doit refuser des bornes incohérentes")
+    void testFilterInvalidBounds() {
+        assertThatThrownBy(() -> spectacleFilterService.filter(null, null, new BigDecimal("50"),
+                new BigDecimal("20"), false, 0, 20))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> spectacleFilterService.filter(null, null, null, null, false, 0, 101))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void persist(String title, LocalDateTime date, String price, int availableTickets) {
+        entityManager.persist(Spectacle.builder()
+                .title(title)
+                .date(date)
+                .price(new BigDecimal(price))
+                .availableTickets(availableTickets)
+                .build());
+    }
+}
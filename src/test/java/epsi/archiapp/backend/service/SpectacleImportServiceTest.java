@@ -0,0 +1,166 @@
+package epsi.archiapp.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import epsi.archiapp.backend.dto.ImportResultResponse;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests du service d'import de spectacles")
+class SpectacleImportServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private AuditorAware<String> auditorProvider;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private SpectacleImportService importService;
+
+    private final String futureDate = LocalDateTime.now().plusDays(30)
+            .format(DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss"));
+
+    @BeforeEach
+    void setUp() {
+        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        importService = new SpectacleImportService(objectMapper, validator, jdbcTemplate, transactionManager, auditorProvider,
+                eventPublisher);
+        ReflectionTestUtils.setField(importService, "batchSize", 2);
+        lenient().when(auditorProvider.getCurrentAuditor()).thenReturn(Optional.of("admin"));
+    }
+
+    @Test
+    @DisplayName("Doit importer un CSV par lots et rejeter les lignes invalides")
+    void testImportCsv() throws Exception {
+        // Given
+        String csv = "title,description,date,price,availableTickets,imageUrl\n" +
+                "Hamlet,\"Tragédie, en cinq actes\"," + futureDate + ",25.00,100,\n" +
+                "Le Cid,Corneille," + futureDate + ",19.90,80,\n" +
+                "Art,Reza," + futureDate + ",29.00,85,\n" +
+                "Ab,Titre trop court," + futureDate + ",10.00,10,\n" +
+                "Carmen,Bizet,pas-une-date,38.50,120,\n";
+
+        // When
+        ImportResultResponse result = importService.importCsv(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        // Then
+        assertThat(result.getImported()).isEqualTo(3);
+        assertThat(result.getRejected()).isEqualTo(2);
+        assertThat(result.getErrors()).hasSize(2);
+        assertThat(result.getErrors().get(0)).startsWith("Ligne 5");
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), any(Collection.class), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+    }
+
+    @Test
+    @DisplayName("Doit importer un tableau JSON de spectacles")
+    void testImportJson() throws Exception {
+        // Given
+        String json = "[" +
+                "{\"title\":\"Hamlet\",\"date\":\"" + futureDate + "\",\"price\":25.00,\"availableTickets\":100}," +
+                "{\"title\":\"Giselle\",\"date\":\"" + futureDate + "\",\"price\":40.00,\"availableTickets\":-1}" +
+                "]";
+
+        // When
+        ImportResultResponse result = importService.importJson(
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+
+        // Then
+        assertThat(result.getImported()).isEqualTo(1);
+        assertThat(result.getRejected()).isEqualTo(1);
+        verify(jdbcTemplate).batchUpdate(anyString(), any(Collection.class), eq(1),
+                any(ParameterizedPreparedStatementSetter.class));
+    }
+
+    @Test
+    @DisplayName("Doit refuser un corps JSON qui n'est pas un tableau")
+    void testImportJsonNotAnArray() {
+        // Given
+        String json = "{\"title\":\"Hamlet\"}";
+
+        // When & Then
+        assertThatThrownBy(() -> importService.importJson(
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8))))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Doit rejeter les éléments du tableau qui ne sont pas des objets")
+    void testImportJsonRejectsNonObjects() throws Exception {
+        // Given
+        String json = "[" +
+                "{\"title\":\"Hamlet\",\"date\":\"" + futureDate + "\",\"price\":25.00,\"availableTickets\":100}," +
+                "42,[1,2],\"Giselle\"," +
+                "{\"title\":\"Le Cid\",\"date\":\"" + futureDate + "\",\"price\":19.90,\"availableTickets\":80}" +
+                "]";
+
+        // When
+        ImportResultResponse result = importService.importJson(
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+
+        // Then
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(result.getRejected()).isEqualTo(3);
+        assertThat(result.getErrors()).first().asString().startsWith("Ligne 2 : objet JSON attendu");
+    }
+
+    @Test
+    @DisplayName("Doit annuler tout l'import si le JSON est tronqué après des lots déjà insérés")
+    void testImportJsonTruncatedRollsBack() {
+        // Given : deux lots complets puis un corps tronqué
+        String spectacle = "{\"title\":\"Hamlet\",\"date\":\"" + futureDate + "\",\"price\":25.00,\"availableTickets\":100}";
+        String json = "[" + spectacle + "," + spectacle + "," + spectacle + "," + spectacle + ",{\"title\":";
+        TransactionStatus status = mock(TransactionStatus.class);
+        when(transactionManager.getTransaction(any())).thenReturn(status);
+
+        // When & Then
+        assertThatThrownBy(() -> importService.importJson(
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8))))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), any(Collection.class), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+        verify(transactionManager).rollback(status);
+        verify(transactionManager, never()).commit(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Doit découper une ligne CSV avec champs entre guillemets")
+    void testParseCsvLine() {
+        assertThat(SpectacleImportService.parseCsvLine("a,\"b, c\",\"d \"\"e\"\"\",,f"))
+                .containsExactly("a", "b, c", "d \"e\"", "", "f");
+    }
+}
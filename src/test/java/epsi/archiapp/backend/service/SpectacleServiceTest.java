@@ -1,12 +1,18 @@
 package epsi.archiapp.backend.service;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
+import epsi.archiapp.backend.dto.SpectacleChangesResponse;
 import epsi.archiapp.backend.dto.SpectacleRequest;
 import epsi.archiapp.backend.dto.SpectacleResponse;
 import epsi.archiapp.backend.exception.ResourceNotFoundException;
 import epsi.archiapp.backend.mapper.SpectacleMapper;
 import epsi.archiapp.backend.model.Spectacle;
+import epsi.archiapp.backend.model.SpectacleTombstone;
 import epsi.archiapp.backend.repository.ReservationRepository;
 import epsi.archiapp.backend.repository.SpectacleRepository;
+import epsi.archiapp.backend.repository.SpectacleTombstoneRepository;
+import epsi.archiapp.backend.search.SpectacleSearchEngine;
+import epsi.archiapp.backend.search.SpectacleSuggestIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -14,15 +20,20 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -41,6 +52,21 @@ class SpectacleServiceTest {
     @Mock
     private SpectacleMapper spectacleMapper;
 
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private SpectacleTombstoneRepository tombstoneRepository;
+
+    @Mock
+    private SpectacleSearchEngine searchEngine;
+
+    @Mock
+    private SpectacleSuggestIndex suggestIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private SpectacleService spectacleService;
 
@@ -200,6 +226,7 @@ class SpectacleServiceTest {
         verify(spectacleRepository).existsById(1L);
         verify(reservationRepository).deleteBySpectacleId(1L);
         verify(spectacleRepository).deleteById(1L);
+        verify(tombstoneRepository).save(argThat(t -> t.getSpectacleId().equals(1L) && t.getDeletedAt() != null));
     }
 
     @Test
@@ -215,5 +242,132 @@ class SpectacleServiceTest {
         verify(spectacleRepository).existsById(999L);
         verify(spectacleRepository, never()).deleteById(any());
     }
-}
 
+    @Test
+    @DisplayName("Doit récupérer plusieurs spectacles dans l'ordre demandé en une seule requête")
+    void testGetByIds() {
+        // Given
+        Spectacle spectacle2 = Spectacle.builder().id(2L).title("Hamlet").build();
+        SpectacleResponse response2 = SpectacleResponse.builder().id(2L).title("Hamlet").build();
+        when(cacheManager.getCache("spectacles")).thenReturn(null);
+        when(spectacleRepository.findAllById(List.of(2L, 1L, 999L))).thenReturn(List.of(spectacle, spectacle2));
+        when(spectacleMapper.toResponse(spectacle)).thenReturn(spectacleResponse);
+        when(spectacleMapper.toResponse(spectacle2)).thenReturn(response2);
+
+        // When
+        List<SpectacleResponse> result = spectacleService.getByIds(List.of(2L, 1L, 2L, 999L));
+
+        // Then
+        assertThat(result).extracting(SpectacleResponse::getId).containsExactly(2L, 1L);
+        verify(spectacleRepository).findAllById(List.of(2L, 1L, 999L));
+    }
+
+    @Test
+    @DisplayName("Doit ne charger que les spectacles absents du cache")
+    void testGetByIdsWithCache() {
+        // Given
+        CaffeineCache cache = new CaffeineCache("spectacles", Caffeine.newBuilder().build());
+        cache.put("spectacle-1", spectacleResponse);
+        Spectacle spectacle2 = Spectacle.builder().id(2L).title("Hamlet").build();
+        SpectacleResponse response2 = SpectacleResponse.builder().id(2L).title("Hamlet").build();
+        when(cacheManager.getCache("spectacles")).thenReturn(cache);
+        when(spectacleRepository.findAllById(List.of(2L))).thenReturn(List.of(spectacle2));
+        when(spectacleMapper.toResponse(spectacle2)).thenReturn(response2);
+
+        // When
+        List<SpectacleResponse> result = spectacleService.getByIds(List.of(1L, 2L));
+
+        // Then
+        assertThat(result).extracting(SpectacleResponse::getId).containsExactly(1L, 2L);
+        assertThat(cache.get("spectacle-2", SpectacleResponse.class)).isEqualTo(response2);
+        verify(spectacleRepository).findAllById(List.of(2L));
+        verify(spectacleMapper, never()).toResponse(spectacle);
+    }
+
+    @Test
+    @DisplayName("Doit renvoyer les spectacles modifiés et supprimés depuis un instant")
+    void testGetChangesSince() {
+        // Given
+        ReflectionTestUtils.setField(spectacleService, "tombstoneRetentionDays", 30);
+        LocalDateTime since = LocalDateTime.now().minusHours(1);
+        LocalDateTime deletedAt = LocalDateTime.now().minusMinutes(5);
+        spectacle.setUpdatedAt(LocalDateTime.now().minusMinutes(10));
+        when(spectacleRepository.findChangedSince(eq(since), eq(0L), any(Pageable.class))).thenReturn(List.of(spectacle));
+        when(spectacleMapper.toResponse(spectacle)).thenReturn(spectacleResponse);
+        when(tombstoneRepository.findDeletedSince(since)).thenReturn(List.of(new SpectacleTombstone(7L, deletedAt)));
+
+        // When
+        SpectacleChangesResponse result = spectacleService.getChangesSince(since, 0L, 10);
+
+        // Then
+        assertThat(result.getChanged()).containsExactly(spectacleResponse);
+        assertThat(result.getDeletedIds()).containsExactly(7L);
+        assertThat(result.getHasMore()).isFalse();
+        assertThat(result.getFullResyncRequired()).isFalse();
+        assertThat(result.getNextSince()).isEqualTo(deletedAt);
+    }
+
+    @Test
+    @DisplayName("Doit paginer les modifications sur le couple (updatedAt, id)")
+    void testGetChangesSinceHasMore() {
+        // Given
+        ReflectionTestUtils.setField(spectacleService, "tombstoneRetentionDays", 30);
+        LocalDateTime since = LocalDateTime.now().minusHours(1);
+        LocalDateTime updatedAt = LocalDateTime.now().minusMinutes(10);
+        spectacle.setUpdatedAt(updatedAt);
+        Spectacle spectacle2 = Spectacle.builder().id(2L).title("Hamlet").updatedAt(updatedAt).build();
+        when(spectacleRepository.findChangedSince(eq(since), eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(spectacle, spectacle2));
+        when(spectacleMapper.toResponse(spectacle)).thenReturn(spectacleResponse);
+
+        // When
+        SpectacleChangesResponse result = spectacleService.getChangesSince(since, 0L, 1);
+
+        // Then
+        assertThat(result.getChanged()).hasSize(1);
+        assertThat(result.getHasMore()).isTrue();
+        assertThat(result.getNextSince()).isEqualTo(updatedAt);
+        assertThat(result.getNextAfterId()).isEqualTo(1L);
+        assertThat(result.getDeletedIds()).isEmpty();
+        verify(tombstoneRepository).findDeletedBetween(since, updatedAt);
+        verify(tombstoneRepository, never()).findDeletedSince(any());
+    }
+
+    @Test
+    @DisplayName("Doit renvoyer une suppression antérieure au curseur déplacé pendant la pagination")
+    void testGetChangesSinceDeletionWhilePaging() {
+        // Given : deux pages, un spectacle supprimé entre les deux modifications de la première page
+        ReflectionTestUtils.setField(spectacleService, "tombstoneRetentionDays", 30);
+        LocalDateTime since = LocalDateTime.now().minusHours(1);
+        LocalDateTime firstUpdate = since.plusMinutes(10);
+        LocalDateTime deletedAt = since.plusMinutes(20);
+        LocalDateTime secondUpdate = since.plusMinutes(30);
+        spectacle.setUpdatedAt(firstUpdate);
+        Spectacle spectacle2 = Spectacle.builder().id(2L).title("Hamlet").updatedAt(secondUpdate).build();
+        Spectacle spectacle3 = Spectacle.builder().id(3L).title("Phèdre").updatedAt(secondUpdate.plusMinutes(5)).build();
+        List<SpectacleTombstone> tombstones = List.of(new SpectacleTombstone(7L, deletedAt));
+        when(spectacleRepository.findChangedSince(eq(since), eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(spectacle, spectacle2, spectacle3));
+        when(spectacleRepository.findChangedSince(eq(secondUpdate), eq(2L), any(Pageable.class)))
+                .thenReturn(List.of(spectacle3));
+        when(tombstoneRepository.findDeletedBetween(any(), any())).thenAnswer(invocation -> tombstones.stream()
+                .filter(t -> t.getDeletedAt().isAfter(invocation.getArgument(0))
+                        && !t.getDeletedAt().isAfter(invocation.getArgument(1)))
+                .toList());
+        when(tombstoneRepository.findDeletedSince(any())).thenAnswer(invocation -> tombstones.stream()
+                .filter(t -> t.getDeletedAt().isAfter(invocation.getArgument(0)))
+                .toList());
+
+        // When
+        SpectacleChangesResponse first = spectacleService.getChangesSince(since, 0L, 2);
+        SpectacleChangesResponse second = spectacleService.getChangesSince(first.getNextSince(),
+                first.getNextAfterId(), 2);
+
+        // Then
+        assertThat(first.getHasMore()).isTrue();
+        assertThat(first.getNextSince()).isEqualTo(secondUpdate);
+        assertThat(second.getHasMore()).isFalse();
+        assertThat(Stream.concat(first.getDeletedIds().stream(), second.getDeletedIds().stream()))
+                .containsExactly(7L);
+    }
+}
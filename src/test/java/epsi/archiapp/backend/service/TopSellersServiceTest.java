@@ -0,0 +1,86 @@
+package epsi.archiapp.backend.service;
+
+import epsi.archiapp.backend.dto.TopSellersResponse;
+import epsi.archiapp.backend.event.ReservationEvent;
+import epsi.archiapp.backend.event.SpectacleChangedEvent;
+import epsi.archiapp.backend.model.SalesSummary;
+import epsi.archiapp.backend.repository.SalesSummaryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests du service des meilleures ventes")
+class TopSellersServiceTest {
+
+    @Mock
+    private SalesSummaryRepository salesSummaryRepository;
+
+    private TopSellersService topSellersService;
+
+    @BeforeEach
+    void setUp() {
+        topSellersService = new TopSellersService(salesSummaryRepository, 10, 5, 12);
+    }
+
+    @Test
+    @DisplayName("Doit classer depuis toujours à partir des ventes cumulées et des nouvelles réservations")
+    void testOverallTopSellers() {
+        when(salesSummaryRepository.findAll()).thenReturn(List.of(
+                SalesSummary.builder().spectacleId(1L).ticketsSold(10).revenue(new BigDecimal("250.00")).reservationCount(5).build(),
+                SalesSummary.builder().spectacleId(2L).ticketsSold(8).revenue(new BigDecimal("400.00")).reservationCount(4).build()));
+        topSellersService.seed();
+        topSellersService.onReservationEvent(event(ReservationEvent.Type.BOOKED, 2L, 4, "200.00"));
+
+        TopSellersResponse byTickets = topSellersService.getTopSellers(TopSellersService.Metric.TICKETS, null, 10);
+        assertThat(byTickets.getItems()).extracting(TopSellersResponse.TopSeller::getSpectacleId,
+                TopSellersResponse.TopSeller::getValue).containsExactly(tuple(2L, 12L), tuple(1L, 10L));
+
+        TopSellersResponse byRevenue = topSellersService.getTopSellers(TopSellersService.Metric.REVENUE, null, 1);
+        assertThat(byRevenue.getItems()).extracting(TopSellersResponse.TopSeller::getValue).containsExactly(60000L);
+    }
+
+    @Test
+    @DisplayName("Doit classer sur une fenêtre récente sans les ventes cumulées")
+    void testWindowTopSellers() {
+        topSellersService.onReservationEvent(event(ReservationEvent.Type.BOOKED, 3L, 2, "40.00"));
+        topSellersService.onReservationEvent(event(ReservationEvent.Type.BOOKED, 4L, 5, "100.00"));
+        topSellersService.onReservationEvent(event(ReservationEvent.Type.CANCELLED, 4L, 5, "100.00"));
+
+        TopSellersResponse response = topSellersService.getTopSellers(TopSellersService.Metric.TICKETS, 15, 10);
+
+        assertThat(response.getItems()).extracting(TopSellersResponse.TopSeller::getSpectacleId).containsExactly(3L);
+        assertThatThrownBy(() -> topSellersService.getTopSellers(TopSellersService.Metric.TICKETS, 61, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Doit retirer un spectacle supprimé sans réamorcer depuis la base")
+    void testSpectacleDeleted() {
+        topSellersService.onReservationEvent(event(ReservationEvent.Type.BOOKED, 3L, 2, "40.00"));
+        topSellersService.onReservationEvent(event(ReservationEvent.Type.BOOKED, 4L, 5, "100.00"));
+
+        topSellersService.onSpectacleChanged(SpectacleChangedEvent.deleted(4L));
+
+        assertThat(topSellersService.getTopSellers(TopSellersService.Metric.TICKETS, null, 10).getItems())
+                .extracting(TopSellersResponse.TopSeller::getSpectacleId).containsExactly(3L);
+        assertThat(topSellersService.getTopSellers(TopSellersService.Metric.REVENUE, 15, 10).getItems())
+                .extracting(TopSellersResponse.TopSeller::getSpectacleId).containsExactly(3L);
+        verifyNoInteractions(salesSummaryRepository);
+    }
+
+    private ReservationEvent event(ReservationEvent.Type type, Long spectacleId, int quantity, String totalPrice) {
+        return new ReservationEvent(type, 1L, spectacleId, "user-123", quantity, new BigDecimal(totalPrice),
+                10, 1L, LocalDateTime.now());
+    }
+}
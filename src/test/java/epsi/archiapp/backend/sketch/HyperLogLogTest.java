@@ -0,0 +1,73 @@
+package epsi.archiapp.backend.sketch;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Tests de l'estimateur HyperLogLog")
+class HyperLogLogTest {
+
+    @Test
+    @DisplayName("Doit rester dans trois erreurs types du compte exact, de 10 à 200 000 éléments")
+    void testEstimateAgainstExactCount() {
+        for (int precision : new int[]{12, 14}) {
+            for (int cardinality : new int[]{10, 1_000, 10_000, 200_000}) {
+                HyperLogLog sketch = new HyperLogLog(precision);
+                Set<String> exact = new HashSet<>();
+                for (int i = 0; i < cardinality; i++) {
+                    String userId = "user-" + i;
+                    sketch.add(userId);
+                    sketch.add(userId);
+                    exact.add(userId);
+                }
+                double error = Math.abs(sketch.estimate() - exact.size()) / (double) exact.size();
+                assertThat(error)
+                        .as("p=%d, n=%d", precision, cardinality)
+                        .isLessThanOrEqualTo(3 * sketch.relativeStandardError());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Doit estimer l'union lors d'une fusion")
+    void testMerge() {
+        HyperLogLog first = new HyperLogLog(14);
+        HyperLogLog second = new HyperLogLog(14);
+        for (int i = 0; i < 30_000; i++) {
+            first.add("user-" + i);
+            second.add("user-" + (i + 20_000));
+        }
+
+        first.merge(second);
+
+        assertThat((double) first.estimate()).isCloseTo(50_000, withinPercentage(3));
+        assertThatThrownBy(() -> first.merge(new HyperLogLog(12)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Doit se sérialiser et se relire à l'identique")
+    void testSerialization() {
+        HyperLogLog sketch = new HyperLogLog(12);
+        for (int i = 0; i < 5_000; i++) {
+            sketch.add("user-" + i);
+        }
+
+        HyperLogLog copy = HyperLogLog.fromBytes(sketch.toBytes());
+
+        assertThat(copy.getPrecision()).isEqualTo(12);
+        assertThat(copy.estimate()).isEqualTo(sketch.estimate());
+        assertThatThrownBy(() -> HyperLogLog.fromBytes(new byte[]{12, 0}))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Doit compter zéro élément pour un sketch vide")
+    void testEmpty() {
+        assertThat(new HyperLogLog(14).estimate()).isZero();
+    }
+}
@@ -0,0 +1,96 @@
+package epsi.archiapp.backend.sketch;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Tests du résumé Space-Saving")
+class SpaceSavingTest {
+
+    @Test
+    @DisplayName("Doit retrouver les éléments lourds d'un flux biaisé, comptes encadrés par l'erreur")
+    void testHeavyHitters() {
+        SpaceSaving summary = new SpaceSaving(20);
+        Map<Long, Long> exact = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 50_000; i++) {
+            // 3 spectacles très demandés noyés dans un catalogue de 5 000
+            long key = random.nextInt(10) < 6 ? random.nextInt(3) : 3 + random.nextInt(5_000);
+            long weight = 1 + random.nextInt(4);
+            summary.add(key, weight);
+            exact.merge(key, weight, Long::sum);
+        }
+
+        List<SpaceSaving.Item> top = summary.top(3);
+
+        assertThat(top).extracting(SpaceSaving.Item::key).containsExactlyInAnyOrder(0L, 1L, 2L);
+        for (SpaceSaving.Item item : top) {
+            long actual = exact.get(item.key());
+            assertThat(item.count()).isGreaterThanOrEqualTo(actual);
+            assertThat(item.count() - item.error()).isLessThanOrEqualTo(actual);
+        }
+    }
+
+    @Test
+    @DisplayName("Doit appliquer les retraits aux seuls éléments suivis, sans descendre sous zéro")
+    void testRemovals() {
+        SpaceSaving summary = new SpaceSaving(2);
+        summary.add(1L, 5);
+        summary.add(1L, -8);
+        summary.add(2L, -3);
+
+        assertThat(summary.items()).extracting(SpaceSaving.Item::key, SpaceSaving.Item::count)
+                .containsExactly(tuple(1L, 0L));
+    }
+
+    @Test
+    @DisplayName("Doit fusionner les tranches d'une fenêtre")
+    void testMergeTop() {
+        SpaceSaving first = new SpaceSaving(10);
+        SpaceSaving second = new SpaceSaving(10);
+        first.add(1L, 10);
+        first.add(2L, 4);
+        second.add(2L, 9);
+        second.add(3L, 1);
+
+        List<SpaceSaving.Item> top = SpaceSaving.mergeTop(List.of(first, second), 2);
+
+        assertThat(top).extracting(SpaceSaving.Item::key, SpaceSaving.Item::count, SpaceSaving.Item::error)
+                .containsExactly(tuple(2L, 13L, 0L), tuple(1L, 10L, 0L));
+    }
+
+    @Test
+    @DisplayName("Doit compter les valeurs observées et reporter le plancher des résumés pleins en erreur")
+    void testMergeTopFloorInError() {
+        SpaceSaving full = new SpaceSaving(2);
+        full.add(1L, 10);
+        full.add(2L, 6);
+        SpaceSaving other = new SpaceSaving(10);
+        other.add(3L, 8);
+
+        List<SpaceSaving.Item> top = SpaceSaving.mergeTop(List.of(full, other), 3);
+
+        // 3 est absent du résumé plein : il a pu y valoir jusqu'à son plancher (6)
+        assertThat(top).extracting(SpaceSaving.Item::key, SpaceSaving.Item::count, SpaceSaving.Item::error)
+                .containsExactly(tuple(1L, 10L, 0L), tuple(3L, 8L, 6L), tuple(2L, 6L, 0L));
+    }
+
+    @Test
+    @DisplayName("Doit retirer un élément suivi")
+    void testRemove() {
+        SpaceSaving summary = new SpaceSaving(2);
+        summary.add(1L, 5);
+        summary.add(2L, 3);
+
+        summary.remove(1L);
+
+        assertThat(summary.items()).extracting(SpaceSaving.Item::key).containsExactly(2L);
+        assertThat(summary.floor()).isZero();
+    }
+}
@@ -0,0 +1,52 @@
+package epsi.archiapp.backend.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Tests de l'utilitaire de détection de la base")
+class DatabaseUtilsTest {
+
+    @Test
+    @DisplayName("Doit reconnaître PostgreSQL et refermer la connexion")
+    void testIsPostgres() throws SQLException {
+        // Given
+        Connection connection = connection("PostgreSQL");
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+
+        // When & Then
+        assertThat(DatabaseUtils.isPostgres(dataSource)).isTrue();
+        verify(connection).close();
+    }
+
+    @Test
+    @DisplayName("Doit répondre false pour une autre base ou une connexion en échec")
+    void testIsNotPostgres() throws SQLException {
+        // Given
+        DataSource h2 = mock(DataSource.class);
+        Connection connection = connection("H2");
+        when(h2.getConnection()).thenReturn(connection);
+        DataSource unavailable = mock(DataSource.class);
+        when(unavailable.getConnection()).thenThrow(new SQLException("connexion refusée"));
+
+        // When & Then
+        assertThat(DatabaseUtils.isPostgres(h2)).isFalse();
+        assertThat(DatabaseUtils.isPostgres(unavailable)).isFalse();
+    }
+
+    private Connection connection(String productName) throws SQLException {
+        DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+        when(metaData.getDatabaseProductName()).thenReturn(productName);
+        Connection connection = mock(Connection.class);
+        when(connection.getMetaData()).thenReturn(metaData);
+        return connection;
+    }
+}
@@ -0,0 +1,65 @@
+package epsi.archiapp.backend.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Tests de l'utilitaire d'export")
+class ExportUtilsTest {
+
+    @Test
+    @DisplayName("Doit échapper les caractères spéciaux JSON")
+    void testWriteJsonString() throws IOException {
+        // Given
+        StringWriter out = new StringWriter();
+
+        // When
+        ExportUtils.writeJsonString(out, "Roméo \"et\" Juliette\n\\\u0001");
+
+        // Then
+        assertThat(out.toString()).isEqualTo("\"Roméo \\\"et\\\" Juliette\\n\\\\\\u0001\"");
+    }
+
+    @Test
+    @DisplayName("Doit écrire le littéral null pour une chaîne JSON nulle")
+    void testWriteJsonStringNull() throws IOException {
+        // Given
+        StringWriter out = new StringWriter();
+
+        // When
+        ExportUtils.writeJsonString(out, null);
+
+        // Then
+        assertThat(out.toString()).isEqualTo("null");
+    }
+
+    @Test
+    @DisplayName("Ne doit pas entourer de guillemets un champ CSV simple")
+    void testWriteCsvFieldPlain() throws IOException {
+        // Given
+        StringWriter out = new StringWriter();
+
+        // When
+        ExportUtils.writeCsvField(out, "Hamlet");
+
+        // Then
+        assertThat(out.toString()).isEqualTo("Hamlet");
+    }
+
+    @Test
+    @DisplayName("Doit entourer de guillemets et doubler les guillemets d'un champ CSV")
+    void testWriteCsvFieldQuoted() throws IOException {
+        // Given
+        StringWriter out = new StringWriter();
+
+        // When
+        ExportUtils.writeCsvField(out, "Gad Elmaleh, \"D'ailleurs\"");
+
+        // Then
+        assertThat(out.toString()).isEqualTo("\"Gad Elmaleh, \"\"D'ailleurs\"\"\"");
+    }
+}
@@ -0,0 +1,28 @@
+package epsi.archiapp.backend.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Tests de l'utilitaire de conversion des montants")
+class MoneyUtilsTest {
+
+    @Test
+    @DisplayName("Doit convertir un montant en centimes, arrondi au centime")
+    void testToCents() {
+        assertThat(MoneyUtils.toCents(new BigDecimal("25.50"))).isEqualTo(2550L);
+        assertThat(MoneyUtils.toCents(new BigDecimal("19.995"))).isEqualTo(2000L);
+        assertThat(MoneyUtils.toCents(new BigDecimal("-3.2"))).isEqualTo(-320L);
+        assertThat(MoneyUtils.toCents(null)).isZero();
+    }
+
+    @Test
+    @DisplayName("Doit reconvertir des centimes en montant à deux décimales")
+    void testFromCents() {
+        assertThat(MoneyUtils.fromCents(2550L)).isEqualTo(new BigDecimal("25.50"));
+        assertThat(MoneyUtils.fromCents(0L)).isEqualTo(new BigDecimal("0.00"));
+    }
+}